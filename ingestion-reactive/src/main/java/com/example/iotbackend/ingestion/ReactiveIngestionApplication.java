@@ -0,0 +1,29 @@
+package com.example.iotbackend.ingestion;
+
+import com.example.iotbackend.repository.JdbcDeviceStatusStore;
+import com.example.iotbackend.service.impl.AlertRuleEngine;
+import com.example.iotbackend.service.impl.DevicePresenceTracker;
+import com.example.iotbackend.service.impl.DeviceStateLog;
+import com.example.iotbackend.service.impl.JwtServiceImpl;
+import com.example.iotbackend.service.impl.TelemetryDeduplicator;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.Import;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Ingestion-only application on WebFlux/Netty. It serves the telemetry and heartbeat endpoints
+ * of the main application and shares its model, JWT handling, alert engine, presence tracking (with
+ * the status history log) and deduplication of retried readings.
+ */
+@SpringBootApplication
+@EnableScheduling
+@Import({JwtServiceImpl.class, AlertRuleEngine.class, DevicePresenceTracker.class, DeviceStateLog.class,
+        JdbcDeviceStatusStore.class, TelemetryDeduplicator.class})
+public class ReactiveIngestionApplication {
+
+    public static void main(String[] args) {
+        SpringApplication.run(ReactiveIngestionApplication.class, args);
+    }
+
+}
@@ -0,0 +1,25 @@
+package com.example.iotbackend.ingestion.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * JdbcSchedulerConfig provides the scheduler on which blocking JDBC calls run,
+ * so that they never block a Netty event loop.
+ */
+@Configuration
+public class JdbcSchedulerConfig {
+
+    /**
+     * A bounded scheduler sized to the connection pool. When its queue is full, further
+     * tasks are rejected instead of piling up behind a stalled database.
+     */
+    @Bean(destroyMethod = "dispose")
+    public Scheduler jdbcScheduler(@Value("${ingestion.jdbc.threads:8}") int threads,
+                                   @Value("${ingestion.jdbc.queued-tasks:10000}") int queuedTasks) {
+        return Schedulers.newBoundedElastic(threads, queuedTasks, "jdbc");
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.iotbackend.ingestion.controller;
+
+import com.example.iotbackend.dto.request.TelemetryRequest;
+import com.example.iotbackend.dto.response.TelemetryResponse;
+import com.example.iotbackend.ingestion.security.JwtWebFilter;
+import com.example.iotbackend.ingestion.service.ReactiveIngestionService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+/**
+ * IngestionController exposes the device-facing endpoints of the main application on WebFlux,
+ * with the same paths and payloads.
+ */
+@RestController
+@RequestMapping("/devices/{deviceId}")
+@RequiredArgsConstructor
+public class IngestionController {
+
+    private final ReactiveIngestionService ingestionService;
+
+    /**
+     * Endpoint to upload a batch of readings for a device.
+     *
+     * @param deviceId         The ID of the reporting device.
+     * @param telemetryRequest The batch of readings.
+     * @param email            The email of the authenticated account; must own the device.
+     * @return A Mono emitting the number of accepted readings and triggered alerts.
+     */
+    @PostMapping("/telemetry")
+    public Mono<ResponseEntity<TelemetryResponse>> ingest(@PathVariable Long deviceId,
+                                                          @Valid @RequestBody TelemetryRequest telemetryRequest,
+                                                          @RequestAttribute(JwtWebFilter.EMAIL_ATTRIBUTE) String email) {
+        return ingestionService.ingest(email, deviceId, telemetryRequest).map(ResponseEntity::ok);
+    }
+
+    /**
+     * Endpoint for a device to report that it is alive.
+     *
+     * @param deviceId The ID of the reporting device.
+     * @param email    The email of the authenticated account; must own the device.
+     * @return A Mono emitting a response with status 204 No Content.
+     */
+    @PostMapping("/heartbeat")
+    public Mono<ResponseEntity<Void>> heartbeat(@PathVariable Long deviceId,
+                                                @RequestAttribute(JwtWebFilter.EMAIL_ATTRIBUTE) String email) {
+        return ingestionService.heartbeat(email, deviceId).thenReturn(ResponseEntity.noContent().build());
+    }
+}
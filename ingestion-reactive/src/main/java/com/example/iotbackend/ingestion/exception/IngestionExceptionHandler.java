@@ -0,0 +1,61 @@
+package com.example.iotbackend.ingestion.exception;
+
+import com.example.iotbackend.dto.response.ErrorResponse;
+import com.example.iotbackend.exception.ResourceNotFoundException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.bind.support.WebExchangeBindException;
+import org.springframework.web.server.ServerWebExchange;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * IngestionExceptionHandler formats errors of the ingestion endpoints like the main application does.
+ */
+@RestControllerAdvice
+public class IngestionExceptionHandler {
+
+    /**
+     * Handles ResourceNotFoundException and returns a 404 Not Found response.
+     */
+    @ExceptionHandler(ResourceNotFoundException.class)
+    public ResponseEntity<ErrorResponse> handleResourceNotFoundException(ResourceNotFoundException ex, ServerWebExchange exchange) {
+        return error(HttpStatus.NOT_FOUND, ex.getMessage(), exchange);
+    }
+
+    /**
+     * Handles validation errors and returns a 400 Bad Request response.
+     */
+    @ExceptionHandler(WebExchangeBindException.class)
+    public ResponseEntity<ErrorResponse> handleValidationException(WebExchangeBindException ex, ServerWebExchange exchange) {
+        StringBuilder errors = new StringBuilder();
+        ex.getBindingResult().getAllErrors().forEach(error -> errors.append(error.getDefaultMessage()).append("; "));
+        return error(HttpStatus.BAD_REQUEST, errors.toString(), exchange);
+    }
+
+    /**
+     * Handles a full write queue or JDBC scheduler and returns a 503 Service Unavailable response,
+     * so that devices back off and retry.
+     */
+    @ExceptionHandler({IngestionOverloadedException.class, RejectedExecutionException.class})
+    public ResponseEntity<ErrorResponse> handleOverload(RuntimeException ex, ServerWebExchange exchange) {
+        ResponseEntity<ErrorResponse> response = error(HttpStatus.SERVICE_UNAVAILABLE, "Ingestion is overloaded. Please retry later.", exchange);
+        return ResponseEntity.status(response.getStatusCode())
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(response.getBody());
+    }
+
+    private static ResponseEntity<ErrorResponse> error(HttpStatus status, String message, ServerWebExchange exchange) {
+        ErrorResponse error = new ErrorResponse(
+                status.value(),
+                message,
+                LocalDateTime.now(),
+                exchange.getRequest().getPath().value()
+        );
+        return new ResponseEntity<>(error, status);
+    }
+}
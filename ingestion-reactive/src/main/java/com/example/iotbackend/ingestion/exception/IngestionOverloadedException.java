@@ -0,0 +1,10 @@
+package com.example.iotbackend.ingestion.exception;
+
+/**
+ * Thrown when the ingestion write queue is full and a batch cannot be accepted.
+ */
+public class IngestionOverloadedException extends RuntimeException {
+    public IngestionOverloadedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.iotbackend.ingestion.repository;
+
+import com.example.iotbackend.model.AlertRule;
+import com.example.iotbackend.model.RuleOperator;
+import com.example.iotbackend.service.impl.AlertRuleEngine;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * JdbcAlertRuleLoader keeps the shared AlertRuleEngine loaded with the enabled rules.
+ * Rules are managed through the main application, so they are reloaded on a fixed delay.
+ */
+@Component
+@RequiredArgsConstructor
+public class JdbcAlertRuleLoader {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AlertRuleEngine alertRuleEngine;
+
+    /**
+     * Reloads all enabled rules into the rule engine.
+     * Runs once the application is ready and then on a fixed delay.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${alerts.rules.reload-ms:60000}", fixedDelayString = "${alerts.rules.reload-ms:60000}")
+    public void reloadRules() {
+        alertRuleEngine.load(jdbcTemplate.query(
+                "select id, account_id, device_type, metric, operator, threshold, consecutive_readings "
+                        + "from alert_rules where enabled = true",
+                (rs, rowNum) -> {
+                    AlertRule rule = new AlertRule();
+                    rule.setId(rs.getLong("id"));
+                    rule.setAccountId(rs.getLong("account_id"));
+                    rule.setDeviceType(rs.getString("device_type"));
+                    rule.setMetric(rs.getString("metric"));
+                    rule.setOperator(RuleOperator.valueOf(rs.getString("operator")));
+                    rule.setThreshold(rs.getDouble("threshold"));
+                    rule.setConsecutiveReadings(rs.getInt("consecutive_readings"));
+                    rule.setEnabled(true);
+                    return rule;
+                }));
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.iotbackend.ingestion.repository;
+
+import com.example.iotbackend.model.Device;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * JdbcDeviceStore reads devices with plain JDBC; presence status is written by the shared JdbcDeviceStatusStore.
+ * All methods block and must be called from the JDBC scheduler or a scheduled task.
+ */
+@Repository
+@RequiredArgsConstructor
+public class JdbcDeviceStore {
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * Finds a device owned by the account with the given email, in a single query.
+     *
+     * @param deviceId The ID of the device.
+     * @param email    The email of the owning account.
+     * @return An Optional containing the device, or empty if it does not exist or belongs to another account.
+     */
+    public Optional<Device> findOwnedDevice(Long deviceId, String email) {
+        List<Device> devices = jdbcTemplate.query(
+                "select d.id, d.account_id, d.name, d.type, d.status from devices d "
+                        + "join accounts a on a.id = d.account_id where d.id = :id and a.email = :email",
+                new MapSqlParameterSource("id", deviceId).addValue("email", email),
+                (rs, rowNum) -> {
+                    Device device = new Device();
+                    device.setId(rs.getLong("id"));
+                    device.setAccountId(rs.getLong("account_id"));
+                    device.setName(rs.getString("name"));
+                    device.setType(rs.getString("type"));
+                    device.setStatus(rs.getString("status"));
+                    return device;
+                });
+        return devices.stream().findFirst();
+    }
+}
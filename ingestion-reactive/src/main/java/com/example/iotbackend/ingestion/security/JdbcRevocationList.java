@@ -0,0 +1,97 @@
+package com.example.iotbackend.ingestion.security;
+
+import com.example.iotbackend.util.BloomFilter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+/**
+ * JdbcRevocationList answers whether a JWT has been revoked, using the {@code revoked_tokens} table
+ * maintained by the main application.
+ * <p>
+ * As in the servlet application, a Bloom filter rebuilt on a fixed delay answers almost every check in
+ * memory; only a possible match is confirmed against the table, on the JDBC scheduler. Revocations are
+ * polled for every {@code jwt.revocation.poll-ms}, so tokens revoked through the main application are
+ * rejected here within a few seconds.
+ */
+@Slf4j
+@Component
+public class JdbcRevocationList {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Scheduler jdbcScheduler;
+    private final long expectedRevocations;
+    private final double falsePositiveRate;
+    private final long pollLookbackMs;
+    private volatile BloomFilter filter;
+
+    public JdbcRevocationList(
+            JdbcTemplate jdbcTemplate,
+            @Qualifier("jdbcScheduler") Scheduler jdbcScheduler,
+            @Value("${jwt.revocation.expected-revocations:10000}") long expectedRevocations,
+            @Value("${jwt.revocation.false-positive-rate:0.001}") double falsePositiveRate,
+            @Value("${jwt.revocation.poll-lookback-ms:60000}") long pollLookbackMs
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.jdbcScheduler = jdbcScheduler;
+        this.expectedRevocations = expectedRevocations;
+        this.falsePositiveRate = falsePositiveRate;
+        this.pollLookbackMs = pollLookbackMs;
+        this.filter = new BloomFilter(expectedRevocations, falsePositiveRate);
+    }
+
+    /**
+     * Checks whether the token with the given ID has been revoked.
+     *
+     * @param jti The token ID ({@code jti} claim).
+     * @return A Mono emitting true if the token has been revoked.
+     */
+    public Mono<Boolean> isRevoked(String jti) {
+        if (jti == null || !filter.mightContain(jti)) {
+            return Mono.just(false);
+        }
+        return Mono.fromCallable(() -> Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                        "select count(*) > 0 from revoked_tokens where jti = ?", Boolean.class, jti)))
+                .subscribeOn(jdbcScheduler);
+    }
+
+    /**
+     * Adds the revocations of the last {@code jwt.revocation.poll-lookback-ms} to the Bloom filter, looking
+     * back further than the poll interval so that late commits and clock skew do not hide a row.
+     */
+    @Scheduled(initialDelayString = "${jwt.revocation.poll-ms:2000}", fixedDelayString = "${jwt.revocation.poll-ms:2000}")
+    public void poll() {
+        LocalDateTime since = LocalDateTime.now().minus(pollLookbackMs, ChronoUnit.MILLIS);
+        List<String> recent = jdbcTemplate.queryForList(
+                "select jti from revoked_tokens where revoked_at >= ?", String.class, Timestamp.valueOf(since));
+        BloomFilter current = filter;
+        recent.forEach(current::put);
+    }
+
+    /**
+     * Rebuilds the Bloom filter from the revocations that have not expired.
+     * Runs once the application is ready and then on a fixed delay.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${jwt.revocation.rebuild-ms:600000}", fixedDelayString = "${jwt.revocation.rebuild-ms:600000}")
+    public void rebuild() {
+        List<String> active = jdbcTemplate.queryForList(
+                "select jti from revoked_tokens where expires_at > ?", String.class, Timestamp.valueOf(LocalDateTime.now()));
+        BloomFilter next = new BloomFilter(expectedRevocations, falsePositiveRate);
+        active.forEach(next::put);
+        filter = next;
+        log.debug("Rebuilt token revocation filter with {} entries", active.size());
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.iotbackend.ingestion.security;
+
+import com.example.iotbackend.dto.response.ErrorResponse;
+import com.example.iotbackend.service.JwtService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.Claims;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+/**
+ * JwtWebFilter authenticates ingestion requests with the same JWTs as the main application.
+ * The token is verified with the shared JwtService and checked against the revocation list;
+ * the account email is then made available to handlers as an exchange attribute.
+ */
+@Component
+@RequiredArgsConstructor
+public class JwtWebFilter implements WebFilter {
+
+    public static final String EMAIL_ATTRIBUTE = "com.example.iotbackend.ingestion.email";
+
+    private final JwtService jwtService;
+    private final JdbcRevocationList revocationList;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        String authHeader = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            return reject(exchange, "Full authentication is required to access this resource");
+        }
+
+        Claims claims;
+        try {
+            // Signature and expiry checks are CPU-only and safe on the event loop
+            claims = jwtService.parseToken(authHeader.substring(7));
+        } catch (BadCredentialsException e) {
+            return reject(exchange, e.getMessage());
+        }
+
+        return revocationList.isRevoked(claims.getId()).flatMap(revoked -> {
+            if (revoked) {
+                return reject(exchange, "JWT token has been revoked");
+            }
+            exchange.getAttributes().put(EMAIL_ATTRIBUTE, claims.getSubject());
+            return chain.filter(exchange);
+        });
+    }
+
+    private Mono<Void> reject(ServerWebExchange exchange, String message) {
+        ErrorResponse errorResponse = new ErrorResponse(
+                HttpStatus.UNAUTHORIZED.value(),
+                message,
+                LocalDateTime.now(),
+                exchange.getRequest().getPath().value()
+        );
+
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(HttpStatus.UNAUTHORIZED);
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        try {
+            DataBuffer body = response.bufferFactory().wrap(objectMapper.writeValueAsBytes(errorResponse));
+            return response.writeWith(Mono.just(body));
+        } catch (JsonProcessingException e) {
+            return response.setComplete();
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.iotbackend.ingestion.service;
+
+import com.example.iotbackend.dto.request.TelemetryReading;
+import com.example.iotbackend.dto.request.TelemetryRequest;
+import com.example.iotbackend.dto.response.TelemetryResponse;
+import com.example.iotbackend.exception.ResourceNotFoundException;
+import com.example.iotbackend.ingestion.repository.JdbcDeviceStore;
+import com.example.iotbackend.model.Alert;
+import com.example.iotbackend.model.Device;
+import com.example.iotbackend.model.Telemetry;
+import com.example.iotbackend.service.impl.AlertRuleEngine;
+import com.example.iotbackend.service.impl.DevicePresenceTracker;
+import com.example.iotbackend.service.impl.TelemetryDeduplicator;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ReactiveIngestionService mirrors the telemetry and heartbeat handling of the main application
+ * without blocking the event loop: the device lookup runs on the JDBC scheduler, rule evaluation and
+ * presence tracking happen in memory, retried readings are dropped by the TelemetryDeduplicator,
+ * and inserts go through the TelemetryBatchWriter.
+ */
+@Service
+public class ReactiveIngestionService {
+
+    private final JdbcDeviceStore deviceStore;
+    private final AlertRuleEngine alertRuleEngine;
+    private final DevicePresenceTracker devicePresenceTracker;
+    private final TelemetryDeduplicator telemetryDeduplicator;
+    private final TelemetryBatchWriter batchWriter;
+    private final Scheduler jdbcScheduler;
+
+    public ReactiveIngestionService(JdbcDeviceStore deviceStore,
+                                    AlertRuleEngine alertRuleEngine,
+                                    DevicePresenceTracker devicePresenceTracker,
+                                    TelemetryDeduplicator telemetryDeduplicator,
+                                    TelemetryBatchWriter batchWriter,
+                                    @Qualifier("jdbcScheduler") Scheduler jdbcScheduler) {
+        this.deviceStore = deviceStore;
+        this.alertRuleEngine = alertRuleEngine;
+        this.devicePresenceTracker = devicePresenceTracker;
+        this.telemetryDeduplicator = telemetryDeduplicator;
+        this.batchWriter = batchWriter;
+        this.jdbcScheduler = jdbcScheduler;
+    }
+
+    /**
+     * Stores a batch of readings for a device owned by the given account and evaluates the alert rules.
+     *
+     * @param email    The email of the authenticated account.
+     * @param deviceId The ID of the reporting device.
+     * @param request  The batch of readings.
+     * @return A Mono emitting a summary of the accepted readings, triggered alerts and dropped duplicates.
+     */
+    public Mono<TelemetryResponse> ingest(String email, Long deviceId, TelemetryRequest request) {
+        return findOwnedDevice(email, deviceId).flatMap(device -> {
+            // Any upload counts as a sign of life
+            devicePresenceTracker.touch(deviceId);
+
+            // Drop retried readings before they reach the rule engine or storage
+            TelemetryDeduplicator.Admission admission = telemetryDeduplicator.admit(deviceId, request.getReadings());
+
+            LocalDateTime now = LocalDateTime.now();
+            List<Telemetry> readings = new ArrayList<>(admission.fresh().size());
+            for (TelemetryReading reading : admission.fresh()) {
+                LocalDateTime recordedAt = reading.getTimestamp() != null ? reading.getTimestamp() : now;
+                readings.add(new Telemetry(null, deviceId, reading.getMetric(), reading.getValue(), recordedAt));
+            }
+            if (readings.isEmpty()) {
+                return Mono.just(new TelemetryResponse("Telemetry accepted", 0, 0, admission.rejected()));
+            }
+
+            List<Alert> alerts = alertRuleEngine.evaluate(device, readings);
+            return batchWriter.write(readings, alerts)
+                    .doOnError(e -> admission.rollback())  // Not stored, so the device's retry must be accepted
+                    .thenReturn(new TelemetryResponse("Telemetry accepted", readings.size(), alerts.size(), admission.rejected()));
+        });
+    }
+
+    /**
+     * Records a heartbeat from a device owned by the given account.
+     *
+     * @param email    The email of the authenticated account.
+     * @param deviceId The ID of the device.
+     * @return A Mono that completes once the heartbeat has been recorded.
+     */
+    public Mono<Void> heartbeat(String email, Long deviceId) {
+        return findOwnedDevice(email, deviceId)
+                .doOnNext(device -> devicePresenceTracker.touch(deviceId))
+                .then();
+    }
+
+    private Mono<Device> findOwnedDevice(String email, Long deviceId) {
+        return Mono.fromCallable(() -> deviceStore.findOwnedDevice(deviceId, email)
+                        .orElseThrow(() -> new ResourceNotFoundException("Device not found with ID: " + deviceId)))
+                .subscribeOn(jdbcScheduler);
+    }
+}
@@ -0,0 +1,170 @@
+package com.example.iotbackend.ingestion.service;
+
+import com.example.iotbackend.ingestion.exception.IngestionOverloadedException;
+import com.example.iotbackend.model.Alert;
+import com.example.iotbackend.model.Telemetry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * TelemetryBatchWriter bridges reactive requests to blocking JDBC.
+ * <p>
+ * Requests enqueue their readings and alerts and receive a Mono that completes once the data is
+ * committed. A fixed number of writer threads drain the queue, coalescing the writes of many requests
+ * into one batch insert per table and transaction. The queue is bounded: when the database falls
+ * behind, new requests fail fast with {@link IngestionOverloadedException} instead of queuing forever.
+ */
+@Slf4j
+@Component
+public class TelemetryBatchWriter {
+
+    private static final String INSERT_TELEMETRY =
+            "insert into telemetry (device_id, metric, metric_value, recorded_at) values (?, ?, ?, ?)";
+    private static final String INSERT_ALERT =
+            "insert into alerts (rule_id, device_id, metric, metric_value, triggered_at) values (?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final BlockingQueue<PendingWrite> queue;
+    private final int writerThreads;
+    private final int maxBatchRows;
+    private final long lingerMs;
+    private ExecutorService writers;
+    private volatile boolean running;
+
+    public TelemetryBatchWriter(
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            @Value("${ingestion.writer.threads:2}") int writerThreads,
+            @Value("${ingestion.writer.queue-capacity:10000}") int queueCapacity,
+            @Value("${ingestion.writer.max-batch-rows:2000}") int maxBatchRows,
+            @Value("${ingestion.writer.linger-ms:5}") long lingerMs
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.writerThreads = writerThreads;
+        this.maxBatchRows = maxBatchRows;
+        this.lingerMs = lingerMs;
+    }
+
+    /**
+     * Starts the writer threads.
+     */
+    @PostConstruct
+    public void start() {
+        running = true;
+        writers = Executors.newFixedThreadPool(writerThreads, runnable -> {
+            Thread thread = new Thread(runnable, "telemetry-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (int i = 0; i < writerThreads; i++) {
+            writers.execute(this::drainLoop);
+        }
+    }
+
+    /**
+     * Stops the writer threads after the queued writes have been flushed.
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        writers.shutdown();
+        if (!writers.awaitTermination(30, TimeUnit.SECONDS)) {
+            log.warn("Telemetry writers did not finish within 30 seconds; {} writes dropped", queue.size());
+            writers.shutdownNow();
+        }
+    }
+
+    /**
+     * Queues readings and alerts for writing.
+     *
+     * @param readings The readings to insert.
+     * @param alerts   The alerts to insert.
+     * @return A Mono that completes when the data has been committed.
+     */
+    public Mono<Void> write(List<Telemetry> readings, List<Alert> alerts) {
+        return Mono.create(sink -> {
+            if (!running || !queue.offer(new PendingWrite(readings, alerts, sink))) {
+                sink.error(new IngestionOverloadedException("Ingestion is overloaded. Please retry later."));
+            }
+        });
+    }
+
+    private void drainLoop() {
+        List<PendingWrite> batch = new ArrayList<>();
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingWrite first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                int rows = first.readings.size();
+
+                // Linger briefly so concurrent requests share the batch
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(lingerMs);
+                while (rows < maxBatchRows) {
+                    PendingWrite next = queue.poll(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                    rows += next.readings.size();
+                }
+                flush(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void flush(List<PendingWrite> batch) {
+        List<Object[]> telemetryRows = new ArrayList<>();
+        List<Object[]> alertRows = new ArrayList<>();
+        for (PendingWrite write : batch) {
+            for (Telemetry t : write.readings) {
+                telemetryRows.add(new Object[]{t.getDeviceId(), t.getMetric(), t.getValue(), Timestamp.valueOf(t.getRecordedAt())});
+            }
+            for (Alert a : write.alerts) {
+                alertRows.add(new Object[]{a.getRuleId(), a.getDeviceId(), a.getMetric(), a.getValue(), Timestamp.valueOf(a.getTriggeredAt())});
+            }
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.batchUpdate(INSERT_TELEMETRY, telemetryRows);
+                if (!alertRows.isEmpty()) {
+                    jdbcTemplate.batchUpdate(INSERT_ALERT, alertRows);
+                }
+            });
+            batch.forEach(write -> write.sink.success());
+        } catch (RuntimeException e) {
+            log.warn("Failed to write {} telemetry rows: {}", telemetryRows.size(), e.getMessage());
+            batch.forEach(write -> write.sink.error(e));
+        }
+    }
+
+    private record PendingWrite(List<Telemetry> readings, List<Alert> alerts, MonoSink<Void> sink) {
+    }
+}
@@ -1,8 +1,8 @@
 package com.example.iotbackend.config;
 
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.EnableAsync;
-import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.context.annotation.Bean;
 
 import java.util.concurrent.Executor;
@@ -12,22 +12,18 @@ import java.util.concurrent.Executor;
  */
 @Configuration
 @EnableAsync
+@EnableConfigurationProperties(ExecutorProperties.class)
 public class AsyncConfig {
 
     /**
-     * Defines a thread pool executor for handling asynchronous tasks.
+     * Defines a thread pool executor for handling asynchronous tasks such as sending emails,
+     * sized by the {@code executors.profiles.task} profile.
      *
+     * @param executors The factory for instrumented executors.
      * @return the configured Executor.
      */
     @Bean(name = "taskExecutor")
-    public Executor taskExecutor() {
-        // Create and configure the ThreadPoolTaskExecutor
-        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
-        executor.setCorePoolSize(2); // Minimum number of threads
-        executor.setMaxPoolSize(5);  // Maximum number of threads
-        executor.setQueueCapacity(500); // Queue capacity for pending tasks
-        executor.setThreadNamePrefix("AsyncThread-"); // Prefix for thread names
-        executor.initialize();
-        return executor;
+    public Executor taskExecutor(InstrumentedExecutors executors) {
+        return executors.create("task");
     }
 }
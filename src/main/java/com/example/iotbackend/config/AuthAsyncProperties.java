@@ -0,0 +1,30 @@
+package com.example.iotbackend.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * AuthAsyncProperties configures the time limits of the expensive authentication flows (password hashing,
+ * account lookups, OTP creation) that run on the auth executor off the servlet container threads.
+ * Each flow has a time limit for waiting in the queue and one for the whole request; the pool itself
+ * is sized by the {@code executors.profiles.auth} profile.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "auth.async")
+public class AuthAsyncProperties {
+
+    /** A request still queued after this long is answered with 503 without being processed. */
+    private Duration queueTimeout = Duration.ofSeconds(2);
+
+    private Duration loginTimeout = Duration.ofSeconds(5);
+
+    private Duration registerTimeout = Duration.ofSeconds(5);
+
+    private Duration forgotPasswordTimeout = Duration.ofSeconds(10);
+
+    private Duration resetPasswordTimeout = Duration.ofSeconds(5);
+}
@@ -0,0 +1,27 @@
+package com.example.iotbackend.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Configures the executor on which the authentication endpoints run their work.
+ */
+@Configuration
+@EnableConfigurationProperties(AuthAsyncProperties.class)
+public class AuthExecutorConfig {
+
+    /**
+     * Defines the bounded executor for authentication flows, sized by the {@code executors.profiles.auth}
+     * profile. Tasks may outlive the request that submitted them, so they are given everything they need
+     * from the request up front instead of reading it on the worker thread.
+     *
+     * @param executors The factory for instrumented executors.
+     * @return the configured executor.
+     */
+    @Bean(name = "authExecutor")
+    public ThreadPoolTaskExecutor authExecutor(InstrumentedExecutors executors) {
+        return executors.create("auth");
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.iotbackend.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * BruteForceProperties configures the failed-login and failed-OTP tracking of the BruteForceGuard.
+ * Each tier is a sliding window with its own failure limits; longer windows with higher limits
+ * make lockouts progressively longer for persistent attackers.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "brute-force")
+public class BruteForceProperties {
+
+    /** Whether failures are tracked and lockouts enforced. */
+    private boolean enabled = true;
+
+    /** Count-min sketch rows; the chance of exceeding the error bound is e^-depth. */
+    private int sketchDepth = 4;
+
+    /** Count-min sketch counters per row; the error bound is e/width of all failures in the window. */
+    private int sketchWidth = 8192;
+
+    /** Number of sub-windows each window slides by. */
+    private int sketchSlots = 10;
+
+    /** Limits for a client address are the account limits multiplied by this factor (shared NATs). */
+    private int sourceMultiplier = 4;
+
+    private List<Tier> tiers = new ArrayList<>(List.of(
+            new Tier(Duration.ofMinutes(5), 5, 3),
+            new Tier(Duration.ofHours(1), 20, 10),
+            new Tier(Duration.ofHours(24), 50, 20)
+    ));
+
+    /**
+     * A sliding window and the number of failures allowed within it.
+     */
+    @Getter
+    @Setter
+    public static class Tier {
+        private Duration window;
+        private int loginLimit;
+        private int otpLimit;
+
+        public Tier() {
+        }
+
+        public Tier(Duration window, int loginLimit, int otpLimit) {
+            this.window = window;
+            this.loginLimit = loginLimit;
+            this.otpLimit = otpLimit;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.iotbackend.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * ExecutorProperties holds the named thread pool profiles built by {@link InstrumentedExecutors}.
+ * Each background subsystem gets its own profile, so that it is sized, bounded and observed in isolation.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "executors")
+public class ExecutorProperties {
+
+    /** How often adaptive pools re-evaluate their size. */
+    private Duration adaptInterval = Duration.ofSeconds(5);
+
+    /** Profiles by executor name; a name without a profile gets the defaults. */
+    private Map<String, Profile> profiles = new LinkedHashMap<>();
+
+    /**
+     * What happens to a task submitted while the pool and its queue are full.
+     */
+    public enum RejectionPolicy {
+        /** Throw a RejectedExecutionException to the submitter. */
+        ABORT,
+        /** Run the task on the submitting thread, slowing the submitter down. */
+        CALLER_RUNS,
+        /** Wait up to {@code blockTimeout} for queue space, then throw. */
+        BLOCK,
+        /** Drop the task. */
+        DISCARD
+    }
+
+    /**
+     * Sizing and overload behavior of one executor.
+     */
+    @Getter
+    @Setter
+    public static class Profile {
+
+        /** Threads kept running; the starting point when adaptive sizing is enabled. */
+        private int corePoolSize = Runtime.getRuntime().availableProcessors();
+
+        /** Upper bound for the pool; defaults to the core size. */
+        private Integer maxPoolSize;
+
+        /** Tasks waiting for a thread; 0 hands tasks directly to threads. */
+        private int queueCapacity = 100;
+
+        /** Idle threads above the core size are stopped after this long. */
+        private Duration keepAlive = Duration.ofSeconds(60);
+
+        private RejectionPolicy rejectionPolicy = RejectionPolicy.ABORT;
+
+        /** Longest wait for queue space with the BLOCK policy. */
+        private Duration blockTimeout = Duration.ofSeconds(1);
+
+        private Adaptive adaptive = new Adaptive();
+
+        public int resolvedMaxPoolSize() {
+            return maxPoolSize == null ? corePoolSize : Math.max(maxPoolSize, corePoolSize);
+        }
+    }
+
+    /**
+     * Adaptive sizing: the core size is moved between the configured core and max sizes so that
+     * the average queue wait stays near the target.
+     */
+    @Getter
+    @Setter
+    public static class Adaptive {
+
+        private boolean enabled = false;
+
+        /** Average time a task may wait in the queue before the pool grows. */
+        private Duration targetQueueWait = Duration.ofMillis(50);
+    }
+}
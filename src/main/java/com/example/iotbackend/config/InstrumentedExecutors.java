@@ -0,0 +1,192 @@
+package com.example.iotbackend.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * InstrumentedExecutors builds the application's thread pools from the named profiles in {@link ExecutorProperties}.
+ * <p>
+ * Every pool publishes, tagged with its name:
+ * <ul>
+ *     <li>{@code executor.queue.wait}: time from submission until a thread picks the task up (histogram)</li>
+ *     <li>{@code executor.execution}: time spent running the task (histogram)</li>
+ *     <li>{@code executor.rejected}: tasks turned away by the rejection policy</li>
+ *     <li>{@code executor.pool.size}, {@code executor.pool.core}, {@code executor.active}, {@code executor.queued}</li>
+ * </ul>
+ * Pools with adaptive sizing enabled are resized periodically from the queue wait observed since the last check.
+ */
+@Slf4j
+@Component
+public class InstrumentedExecutors {
+
+    private final ExecutorProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final List<Pool> adaptivePools = new CopyOnWriteArrayList<>();
+
+    public InstrumentedExecutors(ExecutorProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Creates an executor for the named profile.
+     *
+     * @param name The profile and metric name.
+     * @return the configured, not yet initialized executor.
+     */
+    public ThreadPoolTaskExecutor create(String name) {
+        return create(name, null);
+    }
+
+    /**
+     * Creates an executor for the named profile, applying an additional decorator to every task.
+     *
+     * @param name      The profile and metric name.
+     * @param decorator A decorator invoked on the submitting thread, or null.
+     * @return the configured, not yet initialized executor.
+     */
+    public ThreadPoolTaskExecutor create(String name, TaskDecorator decorator) {
+        ExecutorProperties.Profile profile = properties.getProfiles()
+                .getOrDefault(name, new ExecutorProperties.Profile());
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(profile.getCorePoolSize());
+        executor.setMaxPoolSize(profile.resolvedMaxPoolSize());
+        executor.setQueueCapacity(profile.getQueueCapacity());
+        executor.setKeepAliveSeconds((int) profile.getKeepAlive().toSeconds());
+        executor.setThreadNamePrefix(name + "-");
+
+        Timer queueWait = Timer.builder("executor.queue.wait")
+                .description("Time tasks waited for a thread")
+                .tag("name", name)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        Timer execution = Timer.builder("executor.execution")
+                .description("Time tasks spent running")
+                .tag("name", name)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        Counter rejected = Counter.builder("executor.rejected")
+                .description("Tasks turned away because the pool and queue were full")
+                .tag("name", name)
+                .tag("policy", profile.getRejectionPolicy().name().toLowerCase(Locale.ROOT))
+                .register(meterRegistry);
+
+        Pool pool = new Pool(name, executor, profile);
+        executor.setTaskDecorator(task -> {
+            long submittedAt = System.nanoTime();
+            Runnable inner = decorator == null ? task : decorator.decorate(task);
+            return () -> {
+                long startedAt = System.nanoTime();
+                queueWait.record(startedAt - submittedAt, TimeUnit.NANOSECONDS);
+                pool.waitNanos.add(startedAt - submittedAt);
+                pool.started.increment();
+                try {
+                    inner.run();
+                } finally {
+                    execution.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+                }
+            };
+        });
+        executor.setRejectedExecutionHandler(rejectionHandler(profile, rejected));
+
+        Gauge.builder("executor.pool.size", executor, ThreadPoolTaskExecutor::getPoolSize)
+                .tag("name", name).register(meterRegistry);
+        Gauge.builder("executor.pool.core", executor, ThreadPoolTaskExecutor::getCorePoolSize)
+                .tag("name", name).register(meterRegistry);
+        Gauge.builder("executor.active", executor, ThreadPoolTaskExecutor::getActiveCount)
+                .tag("name", name).register(meterRegistry);
+        Gauge.builder("executor.queued", executor, ThreadPoolTaskExecutor::getQueueSize)
+                .tag("name", name).register(meterRegistry);
+
+        if (profile.getAdaptive().isEnabled()) {
+            adaptivePools.add(pool);
+        }
+        return executor;
+    }
+
+    /**
+     * Grows the core size of an adaptive pool by one thread while tasks wait longer than the target on
+     * average, and shrinks it by one while the queue wait is well below the target and threads are idle.
+     */
+    @Scheduled(fixedDelayString = "${executors.adapt-interval:5s}")
+    public void adapt() {
+        for (Pool pool : adaptivePools) {
+            long started = pool.started.sumThenReset();
+            long waitNanos = pool.waitNanos.sumThenReset();
+            ThreadPoolTaskExecutor executor = pool.executor;
+            int core = executor.getCorePoolSize();
+            long targetNanos = pool.profile.getAdaptive().getTargetQueueWait().toNanos();
+            long averageWait = started == 0 ? 0 : waitNanos / started;
+
+            if (averageWait > targetNanos && core < pool.profile.resolvedMaxPoolSize()) {
+                executor.setCorePoolSize(core + 1);
+                log.debug("Executor {} grown to {} threads (average queue wait {} us)", pool.name, core + 1, averageWait / 1000);
+            } else if (averageWait < targetNanos / 4 && core > pool.profile.getCorePoolSize()
+                    && executor.getActiveCount() < core / 2) {
+                executor.setCorePoolSize(core - 1);
+                log.debug("Executor {} shrunk to {} threads", pool.name, core - 1);
+            }
+        }
+    }
+
+    private static RejectedExecutionHandler rejectionHandler(ExecutorProperties.Profile profile, Counter rejected) {
+        return switch (profile.getRejectionPolicy()) {
+            case ABORT -> (task, executor) -> {
+                rejected.increment();
+                throw new RejectedExecutionException("Executor queue is full");
+            };
+            case CALLER_RUNS -> (task, executor) -> {
+                rejected.increment();
+                if (!executor.isShutdown()) {
+                    task.run();
+                }
+            };
+            case DISCARD -> (task, executor) -> rejected.increment();
+            case BLOCK -> (task, executor) -> {
+                long timeoutMs = profile.getBlockTimeout().toMillis();
+                try {
+                    if (!executor.isShutdown() && executor.getQueue().offer(task, timeoutMs, TimeUnit.MILLISECONDS)) {
+                        return;
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                rejected.increment();
+                throw new RejectedExecutionException("Executor queue stayed full for " + timeoutMs + " ms");
+            };
+        };
+    }
+
+    /**
+     * A created executor with the queue-wait totals of the current adaptation interval.
+     */
+    private static final class Pool {
+        final String name;
+        final ThreadPoolTaskExecutor executor;
+        final ExecutorProperties.Profile profile;
+        final LongAdder started = new LongAdder();
+        final LongAdder waitNanos = new LongAdder();
+
+        Pool(String name, ThreadPoolTaskExecutor executor, ExecutorProperties.Profile profile) {
+            this.name = name;
+            this.executor = executor;
+            this.profile = profile;
+        }
+    }
+}
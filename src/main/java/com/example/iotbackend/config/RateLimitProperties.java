@@ -0,0 +1,64 @@
+package com.example.iotbackend.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * RateLimitProperties holds the per-endpoint throttling policies applied by the RateLimitFilter.
+ * Each policy limits one request path per client key with a token bucket.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "rate-limit")
+public class RateLimitProperties {
+
+    /** Whether throttling is applied at all. */
+    private boolean enabled = true;
+
+    /** Use the first X-Forwarded-For entry as the client IP (only behind a trusted proxy). */
+    private boolean trustForwardedFor = false;
+
+    /** Maximum number of buckets kept per policy; new clients beyond it share one overflow bucket. */
+    private int maxEntries = 100_000;
+
+    /** Buckets not used for this long are evicted. */
+    private Duration idleTimeout = Duration.ofMinutes(10);
+
+    /** Maximum request body size read when a policy is keyed by email. */
+    private int maxBodyBytes = 16 * 1024;
+
+    private List<Policy> policies = new ArrayList<>();
+
+    /**
+     * Which part of the request identifies the client for a policy.
+     */
+    public enum KeyType {
+        IP,
+        EMAIL
+    }
+
+    /**
+     * A token bucket policy for one request path and client key.
+     */
+    @Getter
+    @Setter
+    public static class Policy {
+
+        /** The exact request path the policy applies to, e.g. /auth/login. */
+        private String path;
+
+        /** The client key the bucket is kept for. */
+        private KeyType key = KeyType.IP;
+
+        /** Burst size: the number of requests allowed back to back. */
+        private int capacity = 10;
+
+        /** Time needed to regain one request. */
+        private Duration refillPeriod = Duration.ofSeconds(6);
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.iotbackend.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Configuration class to enable scheduled background tasks.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
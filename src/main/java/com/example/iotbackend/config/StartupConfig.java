@@ -0,0 +1,31 @@
+package com.example.iotbackend.config;
+
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.MethodIntrospector;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * Configuration for the production startup profile.
+ * <p>
+ * When {@code spring.main.lazy-initialization} is enabled, beans are only created on first use.
+ * Beans with {@code @Scheduled} methods are only scheduled once they exist, so they are kept eager;
+ * everything else (controllers, services behind them) is created on the first request that needs it.
+ */
+@Configuration
+public class StartupConfig {
+
+    /**
+     * Keeps beans that declare scheduled tasks out of lazy initialization.
+     *
+     * @return the exclude filter.
+     */
+    @Bean
+    public static LazyInitializationExcludeFilter scheduledBeansExcludeFilter() {
+        return (beanName, beanDefinition, beanType) -> !MethodIntrospector.selectMethods(beanType,
+                (MethodIntrospector.MetadataLookup<Scheduled>) method ->
+                        AnnotatedElementUtils.findMergedAnnotation(method, Scheduled.class)).isEmpty();
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.iotbackend.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.aot.AotDetector;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+
+/**
+ * StartupTimeReporter records how long the JVM took to create the singleton beans and to become ready.
+ * <p>
+ * The timings are logged and, when {@code startup.report-file} is set, appended as CSV lines
+ * ({@code timestamp,phase,uptimeMs,aot,cds,profiles}) so that successive builds can be compared.
+ */
+@Slf4j
+@Lazy(false)
+@Component
+public class StartupTimeReporter implements SmartInitializingSingleton {
+
+    private final Environment environment;
+    private final String reportFile;
+
+    public StartupTimeReporter(Environment environment, @Value("${startup.report-file:}") String reportFile) {
+        this.environment = environment;
+        this.reportFile = reportFile;
+    }
+
+    /**
+     * Records the time until all eager singletons are created. This is the last phase reached by
+     * training and benchmark runs started with {@code spring.context.exit=onRefresh}, which halt the
+     * JVM before the context refresh completes.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        record("initialized");
+    }
+
+    /**
+     * Records the time until the application is ready to serve traffic.
+     *
+     * @param event the application ready event.
+     */
+    @EventListener
+    public void onReady(ApplicationReadyEvent event) {
+        record("ready");
+    }
+
+    private void record(String phase) {
+        long uptimeMs = ManagementFactory.getRuntimeMXBean().getUptime();
+        boolean aot = AotDetector.useGeneratedArtifacts();
+        boolean cds = ManagementFactory.getRuntimeMXBean().getInputArguments().stream()
+                .anyMatch(arg -> arg.startsWith("-XX:SharedArchiveFile"));
+        String profiles = String.join("+", environment.getActiveProfiles());
+
+        log.info("Startup phase '{}' reached after {} ms (aot={}, cds={}, profiles={})", phase, uptimeMs, aot, cds, profiles);
+
+        if (reportFile.isBlank()) {
+            return;
+        }
+        String line = Instant.now() + "," + phase + "," + uptimeMs + "," + aot + "," + cds + "," + profiles + System.lineSeparator();
+        try {
+            Files.writeString(Path.of(reportFile), line, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            log.warn("Could not write startup report to {}: {}", reportFile, e.getMessage());
+        }
+    }
+}
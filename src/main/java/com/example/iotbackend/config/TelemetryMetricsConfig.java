@@ -0,0 +1,37 @@
+package com.example.iotbackend.config;
+
+import com.example.iotbackend.service.impl.TelemetryDeduplicator;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Publishes the metrics of telemetry components that are shared with the reactive ingestion module,
+ * which runs without Micrometer and so cannot have them register their own meters.
+ */
+@Configuration
+public class TelemetryMetricsConfig {
+
+    /**
+     * Publishes {@code telemetry.dedup.dropped} (tagged with the reason) and {@code telemetry.dedup.devices}.
+     *
+     * @param deduplicator The telemetry deduplicator.
+     * @return the binder registering the meters.
+     */
+    @Bean
+    public MeterBinder telemetryDedupMetrics(TelemetryDeduplicator deduplicator) {
+        return registry -> {
+            FunctionCounter.builder("telemetry.dedup.dropped", deduplicator, TelemetryDeduplicator::duplicates)
+                    .description("Readings dropped because the device had uploaded them before")
+                    .tag("reason", "duplicate").register(registry);
+            FunctionCounter.builder("telemetry.dedup.dropped", deduplicator, TelemetryDeduplicator::stale)
+                    .description("Readings dropped because the device had uploaded them before")
+                    .tag("reason", "stale").register(registry);
+            Gauge.builder("telemetry.dedup.devices", deduplicator, TelemetryDeduplicator::devices)
+                    .description("Devices with a sequence window in memory")
+                    .register(registry);
+        };
+    }
+}
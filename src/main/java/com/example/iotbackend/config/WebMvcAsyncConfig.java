@@ -0,0 +1,42 @@
+package com.example.iotbackend.config;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Configures the executor on which Spring MVC runs asynchronous responses such as streamed exports.
+ * The pool is bounded so that concurrent exports cannot exhaust threads or database connections.
+ */
+@Configuration
+public class WebMvcAsyncConfig implements WebMvcConfigurer {
+
+    private final ThreadPoolTaskExecutor mvcAsyncExecutor;
+
+    public WebMvcAsyncConfig(@Qualifier("mvcAsyncExecutor") ThreadPoolTaskExecutor mvcAsyncExecutor) {
+        this.mvcAsyncExecutor = mvcAsyncExecutor;
+    }
+
+    /**
+     * Defines the bounded executor for asynchronous request processing, sized by the
+     * {@code executors.profiles.mvc-async} profile.
+     *
+     * @param executors The factory for instrumented executors.
+     * @return the configured executor.
+     */
+    @Bean(name = "mvcAsyncExecutor")
+    public static ThreadPoolTaskExecutor mvcAsyncExecutor(InstrumentedExecutors executors) {
+        return executors.create("mvc-async");
+    }
+
+    /**
+     * Uses the dedicated executor for asynchronous request processing.
+     */
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(mvcAsyncExecutor);
+    }
+}
@@ -2,8 +2,15 @@ package com.example.iotbackend.controller;
 
 import com.example.iotbackend.dto.response.AccountResponse;
 import com.example.iotbackend.service.AccountService;
+import com.example.iotbackend.util.EntityTags;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
 
 /**
  * AccountController is responsible for handling requests related to user accounts.
@@ -17,12 +24,31 @@ public class AccountController {
 
     /**
      * Endpoint to fetch account details by account ID.
+     * Supports conditional requests: the ETag and Last-Modified validators are derived from the
+     * account's update time, and a matching If-None-Match or If-Modified-Since is answered with
+     * 304 Not Modified after a version lookup, without loading the account.
      *
-     * @param id - The ID of the account to be fetched.
-     * @return AccountResponse - A response containing account details for the requested ID.
+     * @param id      - The ID of the account to be fetched.
+     * @param request - The current request, used to evaluate conditional headers.
+     * @return ResponseEntity - The account details for the requested ID, or 304 if unchanged.
      */
     @GetMapping("/{id}")
-    public AccountResponse getAccountById(@PathVariable Long id) {
-        return accountService.getAccountResponseById(id);
+    public ResponseEntity<AccountResponse> getAccountById(@PathVariable Long id, WebRequest request) {
+        Optional<LocalDateTime> version = accountService.getAccountVersion(id);
+        if (version.isEmpty()) {
+            return ResponseEntity.ok(accountService.getAccountResponseById(id));
+        }
+
+        String eTag = EntityTags.of(id, version.get());
+        long lastModified = EntityTags.lastModified(version.get());
+        if (request.checkNotModified(eTag, lastModified)) {
+            return null;  // 304 Not Modified has already been prepared
+        }
+
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .eTag(eTag)
+                .lastModified(lastModified)
+                .body(accountService.getAccountResponseById(id));
     }
 }
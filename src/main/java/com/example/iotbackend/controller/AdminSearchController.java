@@ -0,0 +1,50 @@
+package com.example.iotbackend.controller;
+
+import com.example.iotbackend.dto.request.DeviceSearchRequest;
+import com.example.iotbackend.dto.request.SearchRequest;
+import com.example.iotbackend.dto.response.AccountResponse;
+import com.example.iotbackend.dto.response.DeviceResponse;
+import com.example.iotbackend.dto.response.SearchPageResponse;
+import com.example.iotbackend.service.SearchService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * AdminSearchController provides the type-ahead searches of the admin tooling.
+ */
+@RestController
+@RequestMapping("/admin/search")
+@RequiredArgsConstructor
+public class AdminSearchController {
+
+    private final SearchService searchService;
+
+    /**
+     * Endpoint to search accounts by the start of their email, or of any word in their email or full name.
+     *
+     * @param searchRequest The text typed so far and the page.
+     * @return ResponseEntity containing the page of matching accounts.
+     */
+    @PreAuthorize("@permissions.has(authentication, 'ACCOUNT_SEARCH')")
+    @GetMapping("/accounts")
+    public ResponseEntity<SearchPageResponse<AccountResponse>> searchAccounts(@Valid SearchRequest searchRequest) {
+        return ResponseEntity.ok(searchService.searchAccounts(searchRequest));
+    }
+
+    /**
+     * Endpoint to search the devices of an account by the start of any word in their name.
+     *
+     * @param searchRequest The account, the text typed so far and the page.
+     * @return ResponseEntity containing the page of matching devices.
+     */
+    @PreAuthorize("@permissions.has(authentication, 'DEVICE_SEARCH')")
+    @GetMapping("/devices")
+    public ResponseEntity<SearchPageResponse<DeviceResponse>> searchDevices(@Valid DeviceSearchRequest searchRequest) {
+        return ResponseEntity.ok(searchService.searchDevices(searchRequest));
+    }
+}
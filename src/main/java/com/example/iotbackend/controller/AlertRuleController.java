@@ -0,0 +1,71 @@
+package com.example.iotbackend.controller;
+
+import com.example.iotbackend.dto.request.AlertRuleRequest;
+import com.example.iotbackend.dto.response.AlertRuleResponse;
+import com.example.iotbackend.service.AccountService;
+import com.example.iotbackend.service.AlertRuleService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * AlertRuleController is responsible for managing the alert rules of the authenticated account.
+ */
+@RestController
+@RequestMapping("/alert-rules")
+@RequiredArgsConstructor
+public class AlertRuleController {
+
+    private final AlertRuleService alertRuleService;
+    private final AccountService accountService;
+
+    /**
+     * Endpoint to list the alert rules of the authenticated account.
+     *
+     * @param authentication The authenticated caller.
+     * @return A list of the account's alert rules.
+     */
+    @GetMapping
+    public List<AlertRuleResponse> getRules(Authentication authentication) {
+        return alertRuleService.getRulesForAccount(currentAccountId(authentication));
+    }
+
+    /**
+     * Endpoint to create an alert rule for the authenticated account.
+     *
+     * @param alertRuleRequest The rule definition.
+     * @param authentication   The authenticated caller.
+     * @return ResponseEntity containing the created rule with status 201 Created.
+     */
+    @PreAuthorize("@permissions.has(authentication, 'ALERT_RULE_MANAGE')")
+    @PostMapping
+    public ResponseEntity<AlertRuleResponse> createRule(@Valid @RequestBody AlertRuleRequest alertRuleRequest,
+                                                        Authentication authentication) {
+        AlertRuleResponse response = alertRuleService.createRule(currentAccountId(authentication), alertRuleRequest);
+        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    }
+
+    /**
+     * Endpoint to delete an alert rule of the authenticated account.
+     *
+     * @param id             The ID of the rule to delete.
+     * @param authentication The authenticated caller.
+     * @return ResponseEntity with status 204 No Content.
+     */
+    @PreAuthorize("@permissions.has(authentication, 'ALERT_RULE_MANAGE')")
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> deleteRule(@PathVariable Long id, Authentication authentication) {
+        alertRuleService.deleteRule(currentAccountId(authentication), id);
+        return ResponseEntity.noContent().build();
+    }
+
+    private Long currentAccountId(Authentication authentication) {
+        return accountService.getAccountIdByEmail(authentication.getName());
+    }
+}
@@ -2,38 +2,76 @@ package com.example.iotbackend.controller;
 
 import com.example.iotbackend.dto.request.*;
 import com.example.iotbackend.dto.response.*;
+import com.example.iotbackend.config.AuthAsyncProperties;
 import com.example.iotbackend.exception.BadRequestException;
+import com.example.iotbackend.exception.ServiceUnavailableException;
 import com.example.iotbackend.service.AccountService;
-import lombok.RequiredArgsConstructor;
+import com.example.iotbackend.util.RequestUtils;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.AuthenticationException;
 import org.springframework.web.bind.annotation.*;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
 /**
  * AuthenticationController is responsible for handling authentication-related requests.
  * This includes user login, user registration, and password reset processes.
  * The controller communicates with the AccountService to authenticate users and register new accounts.
+ * <p>
+ * Login, registration, forgot-password and reset-password hash passwords and make several database calls.
+ * They run on the bounded {@code authExecutor} and return a CompletableFuture, so the container thread is
+ * released immediately and stays available for cheap requests during bursts of authentication traffic.
+ * The client address is resolved on the container thread and passed along, because the request may be
+ * recycled while its work is still running.
  */
 @RestController
 @RequestMapping("/auth")
-@RequiredArgsConstructor
 public class AuthenticationController {
 
     private final AccountService accountService;
+    private final Executor authExecutor;
+    private final AuthAsyncProperties asyncProperties;
+    private final boolean trustForwardedFor;
+
+    public AuthenticationController(AccountService accountService,
+                                    @Qualifier("authExecutor") Executor authExecutor,
+                                    AuthAsyncProperties asyncProperties,
+                                    @Value("${rate-limit.trust-forwarded-for:false}") boolean trustForwardedFor) {
+        this.accountService = accountService;
+        this.authExecutor = authExecutor;
+        this.asyncProperties = asyncProperties;
+        this.trustForwardedFor = trustForwardedFor;
+    }
 
     /**
      * Endpoint for user login.
      *
      * @param loginRequest - The request containing the user's login credentials (email and password).
+     * @param request      - The HTTP request, used to resolve the client address.
      * @return ResponseEntity - A response containing the login status and an authentication token if successful.
      */
     @PostMapping("/login")
-    public ResponseEntity<?> login(@Valid @RequestBody LoginRequest loginRequest) {
-        String token = accountService.authenticate(loginRequest);  // Attempt to authenticate the user and generate a token
-        return ResponseEntity.ok(new LoginResponse("Login successful", token));
+    public CompletableFuture<ResponseEntity<?>> login(@Valid @RequestBody LoginRequest loginRequest, HttpServletRequest request) {
+        String clientAddress = RequestUtils.clientIp(request, trustForwardedFor);
+        return submit(asyncProperties.getLoginTimeout(), () -> {
+            String token = accountService.authenticate(loginRequest, clientAddress);  // Attempt to authenticate the user and generate a token
+            return ResponseEntity.ok(new LoginResponse("Login successful", token));
+        });
     }
 
     /**
@@ -43,9 +81,11 @@ public class AuthenticationController {
      * @return ResponseEntity - A response containing the registration status and a success message if successful.
      */
     @PostMapping("/register")
-    public ResponseEntity<?> register(@Valid @RequestBody RegisterRequest registerRequest) {
-        RegisterResponse response = accountService.register(registerRequest);  // Attempt to register a new user
-        return ResponseEntity.status(HttpStatus.CREATED).body(response);  // Respond with 201 Created if registration is successful
+    public CompletableFuture<ResponseEntity<?>> register(@Valid @RequestBody RegisterRequest registerRequest) {
+        return submit(asyncProperties.getRegisterTimeout(), () -> {
+            RegisterResponse response = accountService.register(registerRequest);  // Attempt to register a new user
+            return ResponseEntity.status(HttpStatus.CREATED).body(response);  // Respond with 201 Created if registration is successful
+        });
     }
 
     /**
@@ -53,23 +93,29 @@ public class AuthenticationController {
      * It generates an OTP and sends it to the user's email.
      *
      * @param forgotPasswordRequest The request containing the user's email.
+     * @param request               The HTTP request, used to resolve the client address.
      * @return ResponseEntity containing a success message if the OTP is sent successfully.
      */
     @PostMapping("/forgot-password")
-    public ResponseEntity<?> forgotPassword(@Valid @RequestBody ForgotPasswordRequest forgotPasswordRequest) {
-        ForgotPasswordResponse response = accountService.initiateForgotPassword(forgotPasswordRequest);
-        return ResponseEntity.ok(response);
+    public CompletableFuture<ResponseEntity<?>> forgotPassword(@Valid @RequestBody ForgotPasswordRequest forgotPasswordRequest,
+                                                               HttpServletRequest request) {
+        String clientAddress = RequestUtils.clientIp(request, trustForwardedFor);
+        return submit(asyncProperties.getForgotPasswordTimeout(), () -> {
+            ForgotPasswordResponse response = accountService.initiateForgotPassword(forgotPasswordRequest, clientAddress);
+            return ResponseEntity.ok(response);
+        });
     }
 
     /**
      * Endpoint to verify the OTP sent to the user's email.
      *
      * @param verifyOtpRequest The request containing the user's email and OTP.
+     * @param request          The HTTP request, used to resolve the client address.
      * @return ResponseEntity containing a success message if the OTP is verified successfully.
      */
     @PostMapping("/verify-otp")
-    public ResponseEntity<?> verifyOtp(@Valid @RequestBody VerifyOtpRequest verifyOtpRequest) {
-        VerifyOtpResponse response = accountService.verifyOtp(verifyOtpRequest);
+    public ResponseEntity<?> verifyOtp(@Valid @RequestBody VerifyOtpRequest verifyOtpRequest, HttpServletRequest request) {
+        VerifyOtpResponse response = accountService.verifyOtp(verifyOtpRequest, RequestUtils.clientIp(request, trustForwardedFor));
         return ResponseEntity.ok(response);
     }
 
@@ -77,11 +123,86 @@ public class AuthenticationController {
      * Endpoint to reset the user's password after successful OTP verification.
      *
      * @param resetPasswordRequest The request containing the user's email  , OTP, and new password.
+     * @param request              The HTTP request, used to resolve the client address.
      * @return ResponseEntity containing a success message if the password is reset successfully.
      */
     @PostMapping("/reset-password")
-    public ResponseEntity<?> resetPassword(@Valid @RequestBody ResetPasswordRequest resetPasswordRequest) {
-        ResetPasswordResponse response = accountService.resetPassword(resetPasswordRequest);
+    public CompletableFuture<ResponseEntity<?>> resetPassword(@Valid @RequestBody ResetPasswordRequest resetPasswordRequest,
+                                                              HttpServletRequest request) {
+        String clientAddress = RequestUtils.clientIp(request, trustForwardedFor);
+        return submit(asyncProperties.getResetPasswordTimeout(), () -> {
+            ResetPasswordResponse response = accountService.resetPassword(resetPasswordRequest, clientAddress);
+            return ResponseEntity.ok(response);
+        });
+    }
+
+    /**
+     * Endpoint to log out. The bearer token of the request is revoked until it expires; other instances
+     * reject it once they have polled for new revocations ({@code jwt.revocation.poll-ms}, 2 seconds by default).
+     *
+     * @param authorization The Authorization header carrying the bearer token.
+     * @return ResponseEntity containing a success message if the token is revoked.
+     */
+    @PostMapping("/logout")
+    public ResponseEntity<?> logout(@RequestHeader(HttpHeaders.AUTHORIZATION) String authorization) {
+        TokenRevocationResponse response = accountService.logout(authorization.substring(7));  // Strip "Bearer "
         return ResponseEntity.ok(response);
     }
+
+    /**
+     * Endpoint to revoke another token of the authenticated account, e.g. one issued to a lost device.
+     * As with logout, other instances reject the token after their next revocation poll.
+     *
+     * @param revokeTokenRequest The request containing the token to revoke.
+     * @param authentication     The authenticated account.
+     * @return ResponseEntity containing a success message if the token is revoked.
+     */
+    @PostMapping("/revoke")
+    public ResponseEntity<?> revoke(@Valid @RequestBody RevokeTokenRequest revokeTokenRequest, Authentication authentication) {
+        TokenRevocationResponse response = accountService.revokeToken(authentication.getName(), revokeTokenRequest);
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Runs the work on the authentication executor.
+     * Work that waited in the queue for longer than the queue timeout is dropped without running, and a
+     * request that does not complete within its timeout is answered with 503 (the work itself finishes).
+     *
+     * @param timeout The time limit of the whole request.
+     * @param work    The work producing the response.
+     * @return A future completed with the response.
+     * @throws ServiceUnavailableException if the executor queue is full.
+     */
+    private CompletableFuture<ResponseEntity<?>> submit(Duration timeout, Supplier<ResponseEntity<?>> work) {
+        long submittedAt = System.nanoTime();
+        long queueTimeoutNanos = asyncProperties.getQueueTimeout().toNanos();
+        CompletableFuture<ResponseEntity<?>> future;
+        try {
+            future = CompletableFuture.supplyAsync(() -> {
+                if (System.nanoTime() - submittedAt > queueTimeoutNanos) {
+                    throw busy();
+                }
+                return work.get();
+            }, authExecutor);
+        } catch (RejectedExecutionException e) {
+            throw busy();
+        }
+
+        return future
+                .orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS)
+                .handle((response, ex) -> {
+                    if (ex == null) {
+                        return response;
+                    }
+                    Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+                    if (cause instanceof TimeoutException) {
+                        throw busy();
+                    }
+                    throw cause instanceof RuntimeException runtime ? runtime : new CompletionException(cause);
+                });
+    }
+
+    private static ServiceUnavailableException busy() {
+        return new ServiceUnavailableException("The server is busy, please try again.", 1);
+    }
 }
@@ -0,0 +1,213 @@
+package com.example.iotbackend.controller;
+
+import com.example.iotbackend.dto.request.DeviceAreaQueryRequest;
+import com.example.iotbackend.dto.request.DeviceLocationRequest;
+import com.example.iotbackend.dto.request.DeviceNearestQueryRequest;
+import com.example.iotbackend.dto.request.DeviceStateQueryRequest;
+import com.example.iotbackend.dto.response.DeviceAreaResponse;
+import com.example.iotbackend.dto.response.DeviceCredentialResponse;
+import com.example.iotbackend.dto.response.DeviceLocationResponse;
+import com.example.iotbackend.dto.response.DeviceResponse;
+import com.example.iotbackend.dto.response.DeviceStateResponse;
+import com.example.iotbackend.repository.projection.VersionStamp;
+import com.example.iotbackend.security.DeviceAuthentication;
+import com.example.iotbackend.service.AccountService;
+import com.example.iotbackend.service.DeviceCredentialService;
+import com.example.iotbackend.service.DeviceService;
+import com.example.iotbackend.service.DeviceStateService;
+import com.example.iotbackend.util.EntityTags;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * DeviceController is responsible for handling requests related to devices.
+ * Read endpoints support conditional requests based on the devices' update times.
+ */
+@RestController
+@RequestMapping("/devices")
+@RequiredArgsConstructor
+public class DeviceController {
+
+    private final DeviceService deviceService;
+    private final AccountService accountService;
+    private final DeviceCredentialService deviceCredentialService;
+    private final DeviceStateService deviceStateService;
+
+    /**
+     * Endpoint to list the devices of the authenticated account.
+     * The ETag covers the number of devices and their latest modification time.
+     *
+     * @param authentication The authenticated caller.
+     * @param request        The current request, used to evaluate conditional headers.
+     * @return ResponseEntity containing the account's devices, or 304 if unchanged.
+     */
+    @GetMapping
+    public ResponseEntity<List<DeviceResponse>> getDevices(Authentication authentication, WebRequest request) {
+        Long accountId = currentAccountId(authentication);
+
+        VersionStamp stamp = deviceService.getDeviceListVersion(accountId);
+        String eTag = EntityTags.of(accountId, stamp.count(), stamp.lastModified());
+        long lastModified = EntityTags.lastModified(stamp.lastModified());
+        if (request.checkNotModified(eTag, lastModified)) {
+            return null;  // 304 Not Modified has already been prepared
+        }
+
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .eTag(eTag)
+                .lastModified(lastModified)
+                .body(deviceService.getDevicesForAccount(accountId));
+    }
+
+    /**
+     * Endpoint to list the located devices of the authenticated account inside a bounding box, for map views.
+     *
+     * @param query          The bounding box and the maximum number of devices.
+     * @param authentication The authenticated caller.
+     * @return ResponseEntity containing the devices found and whether the box holds more.
+     */
+    @GetMapping("/area")
+    public ResponseEntity<DeviceAreaResponse> getDevicesInArea(@Valid DeviceAreaQueryRequest query, Authentication authentication) {
+        return ResponseEntity.ok(deviceService.findDevicesInArea(currentAccountId(authentication),
+                query.getSouth(), query.getWest(), query.getNorth(), query.getEast(), query.getLimit()));
+    }
+
+    /**
+     * Endpoint to list the located devices of the authenticated account closest to a location.
+     *
+     * @param query          The location and the number of devices.
+     * @param authentication The authenticated caller.
+     * @return ResponseEntity containing the devices with their distances in meters, closest first.
+     */
+    @GetMapping("/nearest")
+    public ResponseEntity<List<DeviceLocationResponse>> getNearestDevices(@Valid DeviceNearestQueryRequest query,
+                                                                          Authentication authentication) {
+        return ResponseEntity.ok(deviceService.findNearestDevices(currentAccountId(authentication),
+                query.getLatitude(), query.getLongitude(), query.getCount()));
+    }
+
+    /**
+     * Endpoint to fetch a device of the authenticated account.
+     *
+     * @param deviceId       The ID of the device.
+     * @param authentication The authenticated caller; must own the device.
+     * @param request        The current request, used to evaluate conditional headers.
+     * @return ResponseEntity containing the device details, or 304 if unchanged.
+     */
+    @GetMapping("/{deviceId}")
+    public ResponseEntity<DeviceResponse> getDevice(@PathVariable Long deviceId,
+                                                    Authentication authentication,
+                                                    WebRequest request) {
+        Long accountId = currentAccountId(authentication);
+
+        Optional<LocalDateTime> version = deviceService.getDeviceVersion(accountId, deviceId);
+        if (version.isEmpty()) {
+            return ResponseEntity.ok(deviceService.getDeviceResponse(accountId, deviceId));
+        }
+
+        String eTag = EntityTags.of(deviceId, version.get());
+        long lastModified = EntityTags.lastModified(version.get());
+        if (request.checkNotModified(eTag, lastModified)) {
+            return null;  // 304 Not Modified has already been prepared
+        }
+
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .eTag(eTag)
+                .lastModified(lastModified)
+                .body(deviceService.getDeviceResponse(accountId, deviceId));
+    }
+
+    /**
+     * Endpoint to read the status a device of the authenticated account had at a point in time.
+     *
+     * @param deviceId       The ID of the device.
+     * @param query          The point in time.
+     * @param authentication The authenticated caller; must own the device.
+     * @return ResponseEntity containing the status in effect at that time and since when.
+     */
+    @GetMapping("/{deviceId}/status")
+    public ResponseEntity<DeviceStateResponse> getStatusAt(@PathVariable Long deviceId,
+                                                           @Valid DeviceStateQueryRequest query,
+                                                           Authentication authentication) {
+        return ResponseEntity.ok(deviceStateService.getStatusAt(currentAccountId(authentication), deviceId, query.getAt()));
+    }
+
+    /**
+     * Endpoint for a device to report that it is alive.
+     *
+     * @param deviceId       The ID of the reporting device.
+     * @param authentication The authenticated caller; the owning account or the device itself.
+     * @return ResponseEntity with status 204 No Content.
+     */
+    @PostMapping("/{deviceId}/heartbeat")
+    public ResponseEntity<Void> heartbeat(@PathVariable Long deviceId, Authentication authentication) {
+        if (authentication instanceof DeviceAuthentication device) {
+            device.accountIdFor(deviceId);  // A device may only report for itself
+            deviceService.heartbeat(deviceId);
+        } else {
+            deviceService.heartbeat(currentAccountId(authentication), deviceId);
+        }
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Endpoint to set the location of a device.
+     *
+     * @param deviceId       The ID of the device.
+     * @param request        The new location.
+     * @param authentication The authenticated caller; the owning account or the device itself.
+     * @return ResponseEntity with status 204 No Content.
+     */
+    @PutMapping("/{deviceId}/location")
+    public ResponseEntity<Void> updateLocation(@PathVariable Long deviceId,
+                                               @Valid @RequestBody DeviceLocationRequest request,
+                                               Authentication authentication) {
+        Long accountId = authentication instanceof DeviceAuthentication device
+                ? device.accountIdFor(deviceId)  // A device may only report for itself
+                : currentAccountId(authentication);
+        deviceService.updateLocation(accountId, deviceId, request.getLatitude(), request.getLongitude());
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Endpoint to issue an API key for a device, replacing its previous key.
+     * The secret is only returned by this call.
+     *
+     * @param deviceId       The ID of the device.
+     * @param authentication The authenticated caller; must own the device.
+     * @return ResponseEntity containing the key ID and secret, with status 201 Created.
+     */
+    @PostMapping("/{deviceId}/credentials")
+    public ResponseEntity<DeviceCredentialResponse> issueCredentials(@PathVariable Long deviceId, Authentication authentication) {
+        DeviceCredentialResponse response = deviceCredentialService.issueKey(currentAccountId(authentication), deviceId);
+        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    }
+
+    /**
+     * Endpoint to revoke the API key of a device.
+     *
+     * @param deviceId       The ID of the device.
+     * @param authentication The authenticated caller; must own the device.
+     * @return ResponseEntity with status 204 No Content.
+     */
+    @DeleteMapping("/{deviceId}/credentials")
+    public ResponseEntity<Void> revokeCredentials(@PathVariable Long deviceId, Authentication authentication) {
+        deviceCredentialService.revokeKey(currentAccountId(authentication), deviceId);
+        return ResponseEntity.noContent().build();
+    }
+
+    private Long currentAccountId(Authentication authentication) {
+        return accountService.getAccountIdByEmail(authentication.getName());
+    }
+}
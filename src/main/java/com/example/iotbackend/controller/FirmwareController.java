@@ -0,0 +1,140 @@
+package com.example.iotbackend.controller;
+
+import com.example.iotbackend.dto.request.FirmwareRolloutRequest;
+import com.example.iotbackend.dto.request.FirmwareUploadRequest;
+import com.example.iotbackend.dto.response.FirmwareReleaseResponse;
+import com.example.iotbackend.model.FirmwareRelease;
+import com.example.iotbackend.security.DeviceAuthentication;
+import com.example.iotbackend.service.AccountService;
+import com.example.iotbackend.service.FirmwareService;
+import com.example.iotbackend.util.RangedFileTransfer;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * FirmwareController is responsible for publishing firmware releases of the authenticated account
+ * and for delivering them to its devices.
+ */
+@RestController
+@RequiredArgsConstructor
+public class FirmwareController {
+
+    private final FirmwareService firmwareService;
+    private final AccountService accountService;
+
+    /**
+     * Endpoint to list the firmware releases of the authenticated account.
+     *
+     * @param authentication The authenticated caller.
+     * @return A list of the account's releases, newest first.
+     */
+    @GetMapping("/firmware")
+    public List<FirmwareReleaseResponse> getReleases(Authentication authentication) {
+        return firmwareService.getReleasesForAccount(currentAccountId(authentication));
+    }
+
+    /**
+     * Endpoint to publish a firmware image, sent as the raw request body, for a device type.
+     *
+     * @param uploadRequest  The device type, version and initial rollout share.
+     * @param request        The current request, whose body is the image.
+     * @param authentication The authenticated caller.
+     * @return ResponseEntity containing the created release with status 201 Created.
+     */
+    @PreAuthorize("@permissions.has(authentication, 'FIRMWARE_PUBLISH')")
+    @PostMapping(value = "/firmware", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<FirmwareReleaseResponse> publish(@Valid FirmwareUploadRequest uploadRequest,
+                                                           HttpServletRequest request,
+                                                           Authentication authentication) throws IOException {
+        FirmwareReleaseResponse response = firmwareService.publish(currentAccountId(authentication), uploadRequest, request.getInputStream());
+        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    }
+
+    /**
+     * Endpoint to change the share of devices a release is offered to.
+     *
+     * @param releaseId      The ID of the release.
+     * @param rolloutRequest The new rollout share.
+     * @param authentication The authenticated caller; must own the release.
+     * @return ResponseEntity containing the updated release.
+     */
+    @PreAuthorize("@permissions.has(authentication, 'FIRMWARE_PUBLISH')")
+    @PutMapping("/firmware/{releaseId}/rollout")
+    public ResponseEntity<FirmwareReleaseResponse> updateRollout(@PathVariable Long releaseId,
+                                                                 @Valid @RequestBody FirmwareRolloutRequest rolloutRequest,
+                                                                 Authentication authentication) {
+        return ResponseEntity.ok(firmwareService.updateRollout(currentAccountId(authentication), releaseId, rolloutRequest.getRolloutPercent()));
+    }
+
+    /**
+     * Endpoint for a device to check whether it should install another firmware release.
+     *
+     * @param deviceId       The ID of the device.
+     * @param currentVersion The version the device runs.
+     * @param authentication The authenticated caller; the owning account or the device itself.
+     * @return ResponseEntity containing the release to install, or 204 No Content if the device is up to date.
+     */
+    @GetMapping("/devices/{deviceId}/firmware")
+    public ResponseEntity<FirmwareReleaseResponse> checkForUpdate(@PathVariable Long deviceId,
+                                                                  @RequestParam(required = false) String currentVersion,
+                                                                  Authentication authentication) {
+        return firmwareService.findUpdate(accountIdFor(deviceId, authentication), deviceId, currentVersion)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.noContent().build());
+    }
+
+    /**
+     * Endpoint for a device to download the image of a release. The file is sent by the connector
+     * without passing through the heap; interrupted downloads are resumed with a {@code Range} request,
+     * and the ETag is the image's SHA-256.
+     *
+     * @param deviceId       The ID of the device.
+     * @param releaseId      The ID of the release; must target the device's type.
+     * @param authentication The authenticated caller; the owning account or the device itself.
+     * @param request        The current request.
+     * @param response       The response the image is written to.
+     */
+    @GetMapping("/devices/{deviceId}/firmware/{releaseId}")
+    public void download(@PathVariable Long deviceId,
+                         @PathVariable Long releaseId,
+                         Authentication authentication,
+                         HttpServletRequest request,
+                         HttpServletResponse response) throws IOException {
+        FirmwareRelease release = firmwareService.getReleaseForDevice(accountIdFor(deviceId, authentication), deviceId, releaseId);
+
+        response.setContentType(MediaType.APPLICATION_OCTET_STREAM_VALUE);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename(release.getDeviceType() + "-" + release.getVersion() + ".bin")
+                .build().toString());
+        // A release never changes its image
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.maxAge(Duration.ofDays(30)).cachePrivate().immutable().getHeaderValue());
+        response.setHeader("X-Firmware-SHA256", release.getSha256());
+        RangedFileTransfer.send(request, response, firmwareService.imagePath(release), "\"" + release.getSha256() + "\"");
+    }
+
+    private Long accountIdFor(Long deviceId, Authentication authentication) {
+        // Signed device requests already carry the owning account
+        return authentication instanceof DeviceAuthentication device
+                ? device.accountIdFor(deviceId)
+                : currentAccountId(authentication);
+    }
+
+    private Long currentAccountId(Authentication authentication) {
+        return accountService.getAccountIdByEmail(authentication.getName());
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.iotbackend.controller;
+
+import com.example.iotbackend.dto.request.TelemetryExportRequest;
+import com.example.iotbackend.dto.request.TelemetryQueryRequest;
+import com.example.iotbackend.dto.request.TelemetryRequest;
+import com.example.iotbackend.dto.response.TelemetryResponse;
+import com.example.iotbackend.dto.response.TelemetrySeriesResponse;
+import com.example.iotbackend.security.DeviceAuthentication;
+import com.example.iotbackend.service.AccountService;
+import com.example.iotbackend.service.TelemetryExportService;
+import com.example.iotbackend.service.TelemetryService;
+import com.example.iotbackend.util.RequestUtils;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * TelemetryController is responsible for receiving telemetry uploaded by devices
+ * and for querying and exporting it to the owning account.
+ */
+@RestController
+@RequestMapping("/devices/{deviceId}/telemetry")
+@RequiredArgsConstructor
+public class TelemetryController {
+
+    private final TelemetryService telemetryService;
+    private final TelemetryExportService telemetryExportService;
+    private final AccountService accountService;
+
+    /**
+     * Endpoint to upload a batch of readings for a device.
+     *
+     * @param deviceId         The ID of the reporting device.
+     * @param telemetryRequest The batch of readings.
+     * @param authentication   The authenticated caller; the owning account or the device itself.
+     * @return ResponseEntity containing the number of accepted readings and triggered alerts.
+     */
+    @PostMapping
+    public ResponseEntity<TelemetryResponse> ingest(@PathVariable Long deviceId,
+                                                    @Valid @RequestBody TelemetryRequest telemetryRequest,
+                                                    Authentication authentication) {
+        // Signed device requests already carry the owning account
+        Long accountId = authentication instanceof DeviceAuthentication device
+                ? device.accountIdFor(deviceId)
+                : accountService.getAccountIdByEmail(authentication.getName());
+        return ResponseEntity.ok(telemetryService.ingest(accountId, deviceId, telemetryRequest));
+    }
+
+    /**
+     * Endpoint to read one metric of a device over a time range.
+     *
+     * @param deviceId       The ID of the device.
+     * @param queryRequest   The metric and time range.
+     * @param authentication The authenticated caller; must own the device.
+     * @return ResponseEntity containing the readings, ordered by time.
+     */
+    @GetMapping
+    public ResponseEntity<TelemetrySeriesResponse> query(@PathVariable Long deviceId,
+                                                         @Valid TelemetryQueryRequest queryRequest,
+                                                         Authentication authentication) {
+        Long accountId = accountService.getAccountIdByEmail(authentication.getName());
+        return ResponseEntity.ok(telemetryService.query(accountId, deviceId, queryRequest));
+    }
+
+    /**
+     * Endpoint to export the stored readings of a device as CSV or NDJSON.
+     * The rows are streamed in ID order as they are read, gzip-compressed chunk by chunk when the client
+     * accepts it; an interrupted export is resumed by passing the last received ID as {@code afterId}.
+     *
+     * @param deviceId       The ID of the device.
+     * @param exportRequest  The export format, time range, metric and resume position.
+     * @param acceptEncoding The Accept-Encoding header of the request.
+     * @param authentication The authenticated caller; must own the device.
+     * @return ResponseEntity streaming the export.
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(@PathVariable Long deviceId,
+                                                        @Valid TelemetryExportRequest exportRequest,
+                                                        @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+                                                        Authentication authentication) {
+        Long accountId = accountService.getAccountIdByEmail(authentication.getName());
+        // Check ownership before the response is committed, so errors still get a proper status
+        telemetryExportService.requireExportable(accountId, deviceId);
+
+        boolean csv = exportRequest.getFormat() == TelemetryExportRequest.Format.CSV;
+        boolean gzip = RequestUtils.acceptsEncoding(acceptEncoding, "gzip");
+
+        StreamingResponseBody body = out -> {
+            if (gzip) {
+                // Sync flush makes every flushed page a complete, decodable chunk
+                try (GZIPOutputStream compressed = new GZIPOutputStream(out, 64 * 1024, true)) {
+                    telemetryExportService.export(deviceId, exportRequest, compressed);
+                }
+            } else {
+                telemetryExportService.export(deviceId, exportRequest, out);
+            }
+        };
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(csv ? new MediaType("text", "csv", StandardCharsets.UTF_8) : MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("device-" + deviceId + "-telemetry." + (csv ? "csv" : "ndjson"))
+                        .build().toString())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.iotbackend.dto.request;
+
+import com.example.iotbackend.model.RuleOperator;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * AlertRuleRequest represents the data required to create an alert rule,
+ * e.g. "temperature GT 80 for 3 consecutive readings" on devices of a given type.
+ */
+@Getter
+@Setter
+public class AlertRuleRequest {
+
+    @NotBlank(message = "Device type must not be blank")
+    private String deviceType;
+
+    @NotBlank(message = "Metric must not be blank")
+    private String metric;
+
+    @NotNull(message = "Operator must not be null")
+    private RuleOperator operator;
+
+    @NotNull(message = "Threshold must not be null")
+    private Double threshold;
+
+    @Min(value = 1, message = "Consecutive readings must be at least 1")
+    private Integer consecutiveReadings = 1;
+}
@@ -0,0 +1,42 @@
+package com.example.iotbackend.dto.request;
+
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * DeviceAreaQueryRequest holds the bounding box of a map view, in degrees.
+ * A west edge greater than the east edge describes a box crossing the antimeridian.
+ */
+@Getter
+@Setter
+public class DeviceAreaQueryRequest {
+
+    @NotNull(message = "South must not be null")
+    @DecimalMin(value = "-90", message = "South must be between -90 and 90")
+    @DecimalMax(value = "90", message = "South must be between -90 and 90")
+    private Double south;
+
+    @NotNull(message = "West must not be null")
+    @DecimalMin(value = "-180", message = "West must be between -180 and 180")
+    @DecimalMax(value = "180", message = "West must be between -180 and 180")
+    private Double west;
+
+    @NotNull(message = "North must not be null")
+    @DecimalMin(value = "-90", message = "North must be between -90 and 90")
+    @DecimalMax(value = "90", message = "North must be between -90 and 90")
+    private Double north;
+
+    @NotNull(message = "East must not be null")
+    @DecimalMin(value = "-180", message = "East must be between -180 and 180")
+    @DecimalMax(value = "180", message = "East must be between -180 and 180")
+    private Double east;
+
+    @Min(value = 1, message = "Limit must be at least 1")
+    @Max(value = 10000, message = "Limit must be at most 10000")
+    private int limit = 1000;
+}
@@ -0,0 +1,31 @@
+package com.example.iotbackend.dto.request;
+
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * DeviceNearestQueryRequest asks for the devices closest to a location, in degrees.
+ */
+@Getter
+@Setter
+public class DeviceNearestQueryRequest {
+
+    @NotNull(message = "Latitude must not be null")
+    @DecimalMin(value = "-90", message = "Latitude must be between -90 and 90")
+    @DecimalMax(value = "90", message = "Latitude must be between -90 and 90")
+    private Double latitude;
+
+    @NotNull(message = "Longitude must not be null")
+    @DecimalMin(value = "-180", message = "Longitude must be between -180 and 180")
+    @DecimalMax(value = "180", message = "Longitude must be between -180 and 180")
+    private Double longitude;
+
+    @Min(value = 1, message = "Count must be at least 1")
+    @Max(value = 100, message = "Count must be at most 100")
+    private int count = 10;
+}
@@ -0,0 +1,16 @@
+package com.example.iotbackend.dto.request;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * DeviceSearchRequest is a type-ahead search over the device names of one account.
+ */
+@Getter
+@Setter
+public class DeviceSearchRequest extends SearchRequest {
+
+    @NotNull(message = "Account ID must not be null")
+    private Long accountId;
+}
@@ -0,0 +1,20 @@
+package com.example.iotbackend.dto.request;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDateTime;
+
+/**
+ * DeviceStateQueryRequest holds the query parameters for reading the status a device had at a point in time.
+ */
+@Getter
+@Setter
+public class DeviceStateQueryRequest {
+
+    @NotNull(message = "Time must not be null")
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime at;
+}
@@ -0,0 +1,20 @@
+package com.example.iotbackend.dto.request;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * FirmwareRolloutRequest changes the share of devices a firmware release is offered to.
+ */
+@Getter
+@Setter
+public class FirmwareRolloutRequest {
+
+    @NotNull(message = "Rollout percent must not be null")
+    @Min(value = 0, message = "Rollout percent must be between 0 and 100")
+    @Max(value = 100, message = "Rollout percent must be between 0 and 100")
+    private Integer rolloutPercent;
+}
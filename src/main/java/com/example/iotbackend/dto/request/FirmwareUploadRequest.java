@@ -0,0 +1,27 @@
+package com.example.iotbackend.dto.request;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * FirmwareUploadRequest holds the query parameters of a firmware upload; the image itself is the request body.
+ */
+@Getter
+@Setter
+public class FirmwareUploadRequest {
+
+    @NotBlank(message = "Device type must not be blank")
+    private String deviceType;
+
+    @NotBlank(message = "Version must not be blank")
+    @Size(max = 64, message = "Version must be at most 64 characters")
+    private String version;
+
+    @Min(value = 0, message = "Rollout percent must be between 0 and 100")
+    @Max(value = 100, message = "Rollout percent must be between 0 and 100")
+    private Integer rolloutPercent = 100;  // Share of the device type's devices offered the release
+}
@@ -1,5 +1,8 @@
 package com.example.iotbackend.dto.request;
 
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -10,6 +13,12 @@ import lombok.Setter;
 @Getter
 @Setter
 public class LoginRequest {
+
+    @NotBlank(message = "Email must not be blank")
+    @Email(message = "Invalid email format")
+    @Size(max = 255, message = "Email must be at most 255 characters")
     private String email;
+
+    @NotBlank(message = "Password must not be blank")
     private String password;
 }
@@ -0,0 +1,16 @@
+package com.example.iotbackend.dto.request;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * RevokeTokenRequest carries a JWT that should no longer be accepted, e.g. one issued to a lost device.
+ */
+@Getter
+@Setter
+public class RevokeTokenRequest {
+
+    @NotBlank(message = "Token must not be blank")
+    private String token;
+}
@@ -0,0 +1,28 @@
+package com.example.iotbackend.dto.request;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * SearchRequest holds the query parameters of a type-ahead search: the text typed so far and the page.
+ */
+@Getter
+@Setter
+public class SearchRequest {
+
+    @NotBlank(message = "Query must not be blank")
+    @Size(max = 100, message = "Query must be at most 100 characters")
+    private String q;
+
+    @Min(value = 0, message = "Page must not be negative")
+    @Max(value = 50, message = "Page must be at most 50")
+    private Integer page = 0;
+
+    @Min(value = 1, message = "Size must be between 1 and 100")
+    @Max(value = 100, message = "Size must be between 1 and 100")
+    private Integer size = 20;
+}
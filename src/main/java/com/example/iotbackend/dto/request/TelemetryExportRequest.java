@@ -0,0 +1,40 @@
+package com.example.iotbackend.dto.request;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDateTime;
+
+/**
+ * TelemetryExportRequest holds the query parameters of a telemetry export.
+ * Rows are exported in ID order; to resume an interrupted export, pass the last ID received as {@code afterId}.
+ */
+@Getter
+@Setter
+public class TelemetryExportRequest {
+
+    /**
+     * Supported export formats.
+     */
+    public enum Format {
+        CSV,
+        NDJSON
+    }
+
+    @NotNull(message = "Format must not be null")
+    private Format format = Format.CSV;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime from;  // Inclusive lower bound of recordedAt
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime to;    // Exclusive upper bound of recordedAt
+
+    private String metric;
+
+    @Min(value = 0, message = "afterId must not be negative")
+    private long afterId = 0;
+}
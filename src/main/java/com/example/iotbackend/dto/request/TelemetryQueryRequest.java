@@ -0,0 +1,26 @@
+package com.example.iotbackend.dto.request;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDateTime;
+
+/**
+ * TelemetryQueryRequest holds the query parameters for reading one metric of a device over a time range.
+ * Without bounds, the last hour is returned.
+ */
+@Getter
+@Setter
+public class TelemetryQueryRequest {
+
+    @NotBlank(message = "Metric must not be blank")
+    private String metric;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime from;  // Inclusive lower bound of recordedAt
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime to;    // Exclusive upper bound of recordedAt
+}
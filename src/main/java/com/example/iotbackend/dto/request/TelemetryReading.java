@@ -0,0 +1,56 @@
+package com.example.iotbackend.dto.request;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * TelemetryReading represents a single metric value reported by a device.
+ * The timestamp is optional; the server time is used when it is omitted. The sequence number is optional
+ * as well; when the device numbers its readings, a reading uploaded twice is stored once. A device that
+ * can lose its counter also sends an epoch, e.g. a boot counter, raised whenever the count restarts.
+ * <p>
+ * Uploads are acknowledged before they reach the database, so everything the database would refuse
+ * is rejected here: over-long metrics, non-finite values and timestamps outside the column's range.
+ */
+@Getter
+@Setter
+public class TelemetryReading {
+
+    private static final LocalDateTime MIN_TIMESTAMP = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final LocalDateTime MAX_TIMESTAMP = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+
+    @NotBlank(message = "Metric must not be blank")
+    @Size(max = 255, message = "Metric must be at most 255 characters")
+    private String metric;
+
+    @NotNull(message = "Value must not be null")
+    private Double value;
+
+    private LocalDateTime timestamp;
+
+    @PositiveOrZero(message = "Sequence must not be negative")
+    private Long sequence;  // Per-device, increasing across uploads; starts at 0
+
+    @PositiveOrZero(message = "Epoch must not be negative")
+    private Long epoch;  // Per-device, raised whenever the sequence restarts; 0 when omitted
+
+    @JsonIgnore
+    @AssertTrue(message = "Value must be a finite number")
+    public boolean isValueFinite() {
+        return value == null || Double.isFinite(value);
+    }
+
+    @JsonIgnore
+    @AssertTrue(message = "Timestamp must be between 1970-01-01 and 9999-12-31")
+    public boolean isTimestampInRange() {
+        return timestamp == null || (!timestamp.isBefore(MIN_TIMESTAMP) && !timestamp.isAfter(MAX_TIMESTAMP));
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.iotbackend.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * TelemetryRequest represents a batch of readings uploaded by a single device.
+ */
+@Getter
+@Setter
+public class TelemetryRequest {
+
+    @NotEmpty(message = "Readings must not be empty")
+    private List<@Valid TelemetryReading> readings;
+}
@@ -0,0 +1,22 @@
+package com.example.iotbackend.dto.response;
+
+import com.example.iotbackend.model.RuleOperator;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * AlertRuleResponse is a DTO used to return alert rule details.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+public class AlertRuleResponse {
+    private Long id;
+    private String deviceType;
+    private String metric;
+    private RuleOperator operator;
+    private Double threshold;
+    private Integer consecutiveReadings;
+    private Boolean enabled;
+}
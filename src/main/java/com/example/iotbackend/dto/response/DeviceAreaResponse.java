@@ -0,0 +1,19 @@
+package com.example.iotbackend.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * DeviceAreaResponse is a DTO used to return the devices inside a bounding box.
+ * If truncated is set, the box holds more devices than the requested limit.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+public class DeviceAreaResponse {
+    private List<DeviceLocationResponse> devices;
+    private boolean truncated;
+}
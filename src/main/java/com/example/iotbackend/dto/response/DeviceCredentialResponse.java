@@ -0,0 +1,20 @@
+package com.example.iotbackend.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * DeviceCredentialResponse returns a newly issued device key. The secret is only shown once.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+public class DeviceCredentialResponse {
+    private Long deviceId;
+    private String keyId;
+    private String secret;
+    private LocalDateTime createdAt;
+}
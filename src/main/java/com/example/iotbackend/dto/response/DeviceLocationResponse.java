@@ -0,0 +1,19 @@
+package com.example.iotbackend.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * DeviceLocationResponse is a DTO used to return the location of a device found by a map query.
+ * The distance is only set for nearest-device queries.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+public class DeviceLocationResponse {
+    private Long id;
+    private double latitude;
+    private double longitude;
+    private Double distanceMeters;
+}
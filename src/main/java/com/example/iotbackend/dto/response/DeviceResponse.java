@@ -0,0 +1,25 @@
+package com.example.iotbackend.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * DeviceResponse is a DTO used to return device details.
+ * It includes the device ID, name, type, connectivity status, location (if known) and timestamps.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+public class DeviceResponse {
+    private Long id;
+    private String name;
+    private String type;
+    private String status;
+    private Double latitude;
+    private Double longitude;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+}
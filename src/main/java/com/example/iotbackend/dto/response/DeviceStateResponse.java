@@ -0,0 +1,21 @@
+package com.example.iotbackend.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * DeviceStateResponse is a DTO used to return the status of a device at a point in time.
+ * The status and the time it was entered are null if no status had been recorded by then.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+public class DeviceStateResponse {
+    private Long deviceId;
+    private LocalDateTime at;
+    private String status;
+    private LocalDateTime since;
+}
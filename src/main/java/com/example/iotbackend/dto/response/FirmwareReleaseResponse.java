@@ -0,0 +1,24 @@
+package com.example.iotbackend.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * FirmwareReleaseResponse is a DTO used to return a firmware release.
+ * Devices verify a downloaded image against its size and SHA-256.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+public class FirmwareReleaseResponse {
+    private Long id;
+    private String deviceType;
+    private String version;
+    private Long sizeBytes;
+    private String sha256;
+    private Integer rolloutPercent;
+    private LocalDateTime createdAt;
+}
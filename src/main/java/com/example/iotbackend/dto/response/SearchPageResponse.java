@@ -0,0 +1,22 @@
+package com.example.iotbackend.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * SearchPageResponse is a DTO used to return one page of search results.
+ *
+ * @param <T> The type of the results.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+public class SearchPageResponse<T> {
+    private List<T> items;
+    private int page;
+    private int size;
+    private boolean hasMore;
+}
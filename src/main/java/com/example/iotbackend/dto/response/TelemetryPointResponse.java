@@ -0,0 +1,18 @@
+package com.example.iotbackend.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * TelemetryPointResponse is a single reading of a metric.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+public class TelemetryPointResponse {
+    private LocalDateTime timestamp;
+    private double value;
+}
@@ -0,0 +1,20 @@
+package com.example.iotbackend.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * TelemetryResponse is used to acknowledge an uploaded batch of readings.
+ * It contains the number of accepted readings, the number of alerts they triggered, and the number of
+ * readings dropped because the device had uploaded them before.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+public class TelemetryResponse {
+    private String message;
+    private int accepted;
+    private int alertsTriggered;
+    private int duplicates;
+}
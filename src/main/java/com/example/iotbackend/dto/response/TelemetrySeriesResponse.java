@@ -0,0 +1,23 @@
+package com.example.iotbackend.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * TelemetrySeriesResponse contains the readings of one metric of a device, ordered by time.
+ * The source tells whether they were served from memory or from the database; when {@code truncated}
+ * is set, only the first readings of the range are included.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+public class TelemetrySeriesResponse {
+    private Long deviceId;
+    private String metric;
+    private String source;
+    private boolean truncated;
+    private List<TelemetryPointResponse> points;
+}
@@ -0,0 +1,15 @@
+package com.example.iotbackend.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * TokenRevocationResponse confirms that a token has been revoked by logout or explicit revocation.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+public class TokenRevocationResponse {
+    private String message;
+}
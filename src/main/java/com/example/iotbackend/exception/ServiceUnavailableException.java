@@ -0,0 +1,17 @@
+package com.example.iotbackend.exception;
+
+import lombok.Getter;
+
+/**
+ * Custom exception for handling Service Unavailable (503) errors.
+ * Carries the number of seconds after which the client may retry.
+ */
+@Getter
+public class ServiceUnavailableException extends RuntimeException {
+    private final long retryAfterSeconds;
+
+    public ServiceUnavailableException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
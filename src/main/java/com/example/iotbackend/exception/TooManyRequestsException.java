@@ -0,0 +1,17 @@
+package com.example.iotbackend.exception;
+
+import lombok.Getter;
+
+/**
+ * Custom exception for handling Too Many Requests (429) errors.
+ * Carries the number of seconds after which the client may retry.
+ */
+@Getter
+public class TooManyRequestsException extends RuntimeException {
+    private final long retryAfterSeconds;
+
+    public TooManyRequestsException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.iotbackend.model;
 
+import com.example.iotbackend.service.impl.SearchIndexEntityListener;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
@@ -9,6 +10,7 @@ import lombok.AllArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
+@EntityListeners(SearchIndexEntityListener.class)
 @Table(name = "accounts")
 @Getter
 @Setter
@@ -0,0 +1,43 @@
+package com.example.iotbackend.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "alerts")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class Alert {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "rule_id", nullable = false)
+    private Long ruleId;
+
+    @Column(name = "device_id", nullable = false)
+    private Long deviceId;
+
+    @Column(nullable = false)
+    private String metric;
+
+    @Column(name = "metric_value", nullable = false)
+    private Double value;
+
+    @Column(name = "triggered_at", nullable = false)
+    private LocalDateTime triggeredAt;
+
+    @PrePersist
+    protected void onCreate() {
+        if (triggeredAt == null) {
+            triggeredAt = LocalDateTime.now();
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.iotbackend.model;
+
+/**
+ * Authentication events recorded in the audit log.
+ */
+public enum AuditEventType {
+    LOGIN_SUCCEEDED,
+    LOGIN_FAILED,
+    /** A login rejected by the brute-force guard before the password was checked. */
+    LOGIN_LOCKED_OUT,
+    OTP_ISSUED,
+    OTP_VERIFIED,
+    OTP_REJECTED,
+    PASSWORD_RESET,
+    PASSWORD_RESET_REJECTED
+}
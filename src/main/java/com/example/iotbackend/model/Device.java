@@ -1,5 +1,7 @@
 package com.example.iotbackend.model;
 
+import com.example.iotbackend.service.impl.DeviceGeoIndexListener;
+import com.example.iotbackend.service.impl.SearchIndexEntityListener;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
@@ -9,6 +11,7 @@ import lombok.AllArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
+@EntityListeners({SearchIndexEntityListener.class, DeviceGeoIndexListener.class})
 @Table(name = "devices")
 @Getter
 @Setter
@@ -31,6 +34,15 @@ public class Device {
     @Column
     private String status;
 
+    @Column(name = "last_seen_at", insertable = false, updatable = false)  // Written by presence tracking only
+    private LocalDateTime lastSeenAt;
+
+    @Column
+    private Double latitude;
+
+    @Column
+    private Double longitude;
+
     @Column(name = "created_at")
     private LocalDateTime createdAt;
 
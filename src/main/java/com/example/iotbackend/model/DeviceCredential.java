@@ -0,0 +1,42 @@
+package com.example.iotbackend.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * An API key that lets a device sign its own requests. Each device has at most one key;
+ * the secret is kept because HMAC verification needs it.
+ */
+@Entity
+@Table(name = "device_credentials")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class DeviceCredential {
+    @Id
+    @Column(name = "key_id", length = 32)
+    private String keyId;
+
+    @Column(name = "device_id", nullable = false, unique = true)
+    private Long deviceId;
+
+    @Column(name = "account_id", nullable = false)
+    private Long accountId;
+
+    @Column(nullable = false, length = 64)
+    private String secret;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.iotbackend.model;
+
+/**
+ * Connectivity states stored in {@link Device#getStatus()}.
+ * The compacted state history stores the ordinal, so new states must be added at the end.
+ */
+public enum DeviceStatus {
+    ONLINE,
+    OFFLINE
+}
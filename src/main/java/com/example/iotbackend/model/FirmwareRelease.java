@@ -0,0 +1,55 @@
+package com.example.iotbackend.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "firmware_releases")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class FirmwareRelease {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "account_id", nullable = false)
+    private Long accountId;
+
+    @Column(name = "device_type", nullable = false)
+    private String deviceType;
+
+    @Column(nullable = false, length = 64)
+    private String version;
+
+    @Column(name = "size_bytes", nullable = false)
+    private Long sizeBytes;
+
+    @Column(nullable = false, length = 64, columnDefinition = "char(64)")
+    private String sha256;
+
+    @Column(name = "rollout_percent", nullable = false)
+    private Integer rolloutPercent = 100;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.iotbackend.model;
+
+/**
+ * Permissions that can be granted to a role.
+ * Each permission is one bit of an {@link com.example.iotbackend.security.AuthoritySet}, so at most 64 can exist.
+ */
+public enum Permission {
+    /** Create, change and delete the account's alert rules. */
+    ALERT_RULE_MANAGE,
+    /** Publish firmware releases and change their rollout. */
+    FIRMWARE_PUBLISH,
+    /** Use the /admin endpoints. */
+    ADMIN_ACCESS,
+    /** Search the accounts of all users. */
+    ACCOUNT_SEARCH,
+    /** Search the devices of any account. */
+    DEVICE_SEARCH
+}
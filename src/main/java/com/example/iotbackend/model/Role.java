@@ -6,6 +6,9 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
+import java.util.HashSet;
+import java.util.Set;
+
 @Entity
 @Getter
 @Setter
@@ -20,4 +23,10 @@ public class Role {
     @Column(nullable = false, unique = true)
     private String name;
 
+    // Names of the granted permissions; names unknown to this version are ignored when loaded
+    @ElementCollection
+    @CollectionTable(name = "role_permissions", joinColumns = @JoinColumn(name = "role_id"))
+    @Column(name = "permission", nullable = false, length = 64)
+    private Set<String> permissions = new HashSet<>();
+
 }
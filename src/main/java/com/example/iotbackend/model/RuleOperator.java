@@ -0,0 +1,30 @@
+package com.example.iotbackend.model;
+
+/**
+ * Comparison operators supported by alert rules.
+ * Each operator compares an incoming reading against the rule's threshold.
+ */
+public enum RuleOperator {
+    GT,
+    GTE,
+    LT,
+    LTE,
+    EQ;
+
+    /**
+     * Applies the operator to a reading and a threshold.
+     *
+     * @param value     The reading value.
+     * @param threshold The rule threshold.
+     * @return true if the reading satisfies the rule condition.
+     */
+    public boolean test(double value, double threshold) {
+        return switch (this) {
+            case GT -> value > threshold;
+            case GTE -> value >= threshold;
+            case LT -> value < threshold;
+            case LTE -> value <= threshold;
+            case EQ -> value == threshold;
+        };
+    }
+}
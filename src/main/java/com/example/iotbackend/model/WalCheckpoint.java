@@ -0,0 +1,31 @@
+package com.example.iotbackend.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * The position up to which a telemetry write-ahead log has been applied, keyed by the log's ID.
+ * It is updated in the same transaction as the replayed rows, so replay is exactly-once.
+ */
+@Entity
+@Table(name = "wal_checkpoints")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class WalCheckpoint {
+    @Id
+    @Column(name = "log_id", length = 36)
+    private String logId;
+
+    @Column(nullable = false)
+    private Long lsn;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -1,9 +1,18 @@
 package com.example.iotbackend.repository;
 
+import com.example.iotbackend.dto.response.AccountResponse;
 import com.example.iotbackend.model.Account;
+import com.example.iotbackend.repository.projection.AccountCredentials;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -20,4 +29,66 @@ public interface AccountRepository extends JpaRepository<Account, Long> {
      */
     Optional<Account> findByEmail(String email);
 
+    /**
+     * Finds the ID of the account with the given email address.
+     *
+     * @param email - The email of the account.
+     * @return Optional<Long> - The account ID, or empty if no account uses the email.
+     */
+    @Query("select a.id from Account a where a.email = :email")
+    Optional<Long> findIdByEmail(@Param("email") String email);
+
+    /**
+     * Finds the authentication data of an account by email, without loading the entity.
+     *
+     * @param email - The email of the account.
+     * @return Optional<AccountCredentials> - The account credentials, or empty if not found.
+     */
+    @Query("select new com.example.iotbackend.repository.projection.AccountCredentials(a.id, a.email, a.password, a.roleId) "
+            + "from Account a where a.email = :email")
+    Optional<AccountCredentials> findCredentialsByEmail(@Param("email") String email);
+
+    /**
+     * Reads the public details of an account straight into an AccountResponse.
+     * The password hash is not selected and no entity is added to the persistence context.
+     *
+     * @param id - The ID of the account.
+     * @return Optional<AccountResponse> - The account details, or empty if not found.
+     */
+    @Query("select new com.example.iotbackend.dto.response.AccountResponse(a.id, a.email, a.fullName, a.phoneNumber, a.roleId, a.createdAt, a.updatedAt) "
+            + "from Account a where a.id = :id")
+    Optional<AccountResponse> findResponseById(@Param("id") Long id);
+
+    /**
+     * Reads the public details of several accounts straight into AccountResponse objects.
+     *
+     * @param ids - The IDs of the accounts.
+     * @return List<AccountResponse> - The details of the accounts that exist, in no particular order.
+     */
+    @Query("select new com.example.iotbackend.dto.response.AccountResponse(a.id, a.email, a.fullName, a.phoneNumber, a.roleId, a.createdAt, a.updatedAt) "
+            + "from Account a where a.id in :ids")
+    List<AccountResponse> findResponsesByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Finds the version (last update, or creation if never updated) of an Account
+     * without loading the entity. Used to answer conditional requests.
+     *
+     * @param id - The ID of the account.
+     * @return Optional<LocalDateTime> - The version timestamp, or empty if the account does not exist.
+     */
+    @Query("select coalesce(a.updatedAt, a.createdAt) from Account a where a.id = :id")
+    Optional<LocalDateTime> findVersionById(@Param("id") Long id);
+
+    /**
+     * Replaces the password hash of an account in a single UPDATE, without loading the entity.
+     *
+     * @param id       - The ID of the account.
+     * @param password - The new encoded password.
+     * @param now      - The update time, stored as updated_at.
+     * @return int - The number of updated rows (0 if the account does not exist).
+     */
+    @Transactional
+    @Modifying
+    @Query("update Account a set a.password = :password, a.updatedAt = :now where a.id = :id")
+    int updatePassword(@Param("id") Long id, @Param("password") String password, @Param("now") LocalDateTime now);
 }
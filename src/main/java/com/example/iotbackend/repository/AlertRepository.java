@@ -0,0 +1,12 @@
+package com.example.iotbackend.repository;
+
+import com.example.iotbackend.model.Alert;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * AlertRepository provides CRUD operations for triggered Alert entities.
+ */
+@Repository
+public interface AlertRepository extends JpaRepository<Alert, Long> {
+}
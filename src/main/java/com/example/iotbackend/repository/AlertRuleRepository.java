@@ -0,0 +1,39 @@
+package com.example.iotbackend.repository;
+
+import com.example.iotbackend.model.AlertRule;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * AlertRuleRepository provides CRUD operations for AlertRule entities.
+ */
+@Repository
+public interface AlertRuleRepository extends JpaRepository<AlertRule, Long> {
+
+    /**
+     * Finds all enabled rules. Used to compile the in-memory rule index.
+     *
+     * @return A list of enabled AlertRule entities.
+     */
+    List<AlertRule> findAllByEnabledTrue();
+
+    /**
+     * Finds all rules belonging to the given account.
+     *
+     * @param accountId The ID of the account.
+     * @return A list of AlertRule entities owned by the account.
+     */
+    List<AlertRule> findAllByAccountId(Long accountId);
+
+    /**
+     * Finds a rule by its ID, restricted to rules owned by the given account.
+     *
+     * @param id        The ID of the rule.
+     * @param accountId The ID of the owning account.
+     * @return An Optional containing the AlertRule if found.
+     */
+    Optional<AlertRule> findByIdAndAccountId(Long id, Long accountId);
+}
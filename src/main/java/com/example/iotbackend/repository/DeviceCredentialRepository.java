@@ -0,0 +1,25 @@
+package com.example.iotbackend.repository;
+
+import com.example.iotbackend.model.DeviceCredential;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * DeviceCredentialRepository provides CRUD operations for DeviceCredential entities.
+ */
+@Repository
+public interface DeviceCredentialRepository extends JpaRepository<DeviceCredential, String> {
+
+    /**
+     * Deletes the key of a device, if it has one.
+     *
+     * @param deviceId The ID of the device.
+     * @return The number of rows deleted.
+     */
+    @Modifying
+    @Query("delete from DeviceCredential c where c.deviceId = :deviceId")
+    int deleteByDeviceId(@Param("deviceId") Long deviceId);
+}
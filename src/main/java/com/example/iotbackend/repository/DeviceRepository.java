@@ -0,0 +1,114 @@
+package com.example.iotbackend.repository;
+
+import com.example.iotbackend.dto.response.DeviceResponse;
+import com.example.iotbackend.model.Device;
+import com.example.iotbackend.repository.projection.VersionStamp;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * DeviceRepository is responsible for performing database operations related to the Device entity.
+ */
+@Repository
+public interface DeviceRepository extends JpaRepository<Device, Long> {
+
+    /**
+     * Finds a Device by its ID, restricted to devices owned by the given account.
+     *
+     * @param id        The ID of the device.
+     * @param accountId The ID of the owning account.
+     * @return An Optional containing the Device if it exists and belongs to the account.
+     */
+    Optional<Device> findByIdAndAccountId(Long id, Long accountId);
+
+    /**
+     * Checks whether a device exists and belongs to the given account.
+     *
+     * @param id        The ID of the device.
+     * @param accountId The ID of the owning account.
+     * @return true if the device exists and belongs to the account.
+     */
+    boolean existsByIdAndAccountId(Long id, Long accountId);
+
+    /**
+     * Reads the devices owned by the given account straight into DeviceResponse objects,
+     * without adding entities to the persistence context.
+     *
+     * @param accountId The ID of the owning account.
+     * @return A list of the account's devices, ordered by ID.
+     */
+    @Query("select new com.example.iotbackend.dto.response.DeviceResponse(d.id, d.name, d.type, d.status, d.latitude, d.longitude, d.createdAt, d.updatedAt) "
+            + "from Device d where d.accountId = :accountId order by d.id")
+    List<DeviceResponse> findResponsesByAccountId(@Param("accountId") Long accountId);
+
+    /**
+     * Reads a device owned by the given account straight into a DeviceResponse.
+     *
+     * @param id        The ID of the device.
+     * @param accountId The ID of the owning account.
+     * @return An Optional containing the device details, or empty if not found.
+     */
+    @Query("select new com.example.iotbackend.dto.response.DeviceResponse(d.id, d.name, d.type, d.status, d.latitude, d.longitude, d.createdAt, d.updatedAt) "
+            + "from Device d where d.id = :id and d.accountId = :accountId")
+    Optional<DeviceResponse> findResponseByIdAndAccountId(@Param("id") Long id, @Param("accountId") Long accountId);
+
+    /**
+     * Reads several devices owned by the given account straight into DeviceResponse objects.
+     *
+     * @param accountId The ID of the owning account.
+     * @param ids       The IDs of the devices.
+     * @return The details of the matching devices, in no particular order.
+     */
+    @Query("select new com.example.iotbackend.dto.response.DeviceResponse(d.id, d.name, d.type, d.status, d.latitude, d.longitude, d.createdAt, d.updatedAt) "
+            + "from Device d where d.accountId = :accountId and d.id in :ids")
+    List<DeviceResponse> findResponsesByAccountIdAndIdIn(@Param("accountId") Long accountId, @Param("ids") Collection<Long> ids);
+
+    /**
+     * Sets the location of a device owned by the given account in a single statement.
+     *
+     * @param id        The ID of the device.
+     * @param accountId The ID of the owning account.
+     * @param latitude  The latitude in degrees.
+     * @param longitude The longitude in degrees.
+     * @param updatedAt The update timestamp to record.
+     * @return The number of updated rows (0 if the device does not exist or belongs to another account).
+     */
+    @Transactional
+    @Modifying
+    @Query("update Device d set d.latitude = :latitude, d.longitude = :longitude, d.updatedAt = :updatedAt "
+            + "where d.id = :id and d.accountId = :accountId")
+    int updateLocation(@Param("id") Long id, @Param("accountId") Long accountId,
+                       @Param("latitude") Double latitude, @Param("longitude") Double longitude,
+                       @Param("updatedAt") LocalDateTime updatedAt);
+
+    /**
+     * Finds the version (last update, or creation if never updated) of a device owned by the given
+     * account without loading the entity. Used to answer conditional requests.
+     *
+     * @param id        The ID of the device.
+     * @param accountId The ID of the owning account.
+     * @return An Optional containing the version timestamp, or empty if the device is not found.
+     */
+    @Query("select coalesce(d.updatedAt, d.createdAt) from Device d where d.id = :id and d.accountId = :accountId")
+    Optional<LocalDateTime> findVersionByIdAndAccountId(@Param("id") Long id, @Param("accountId") Long accountId);
+
+    /**
+     * Summarizes the devices of an account (row count and latest modification) without loading them.
+     * Used to answer conditional requests on the device list.
+     *
+     * @param accountId The ID of the owning account.
+     * @return The version stamp of the account's device list.
+     */
+    @Query("select new com.example.iotbackend.repository.projection.VersionStamp(count(d), max(coalesce(d.updatedAt, d.createdAt))) "
+            + "from Device d where d.accountId = :accountId")
+    VersionStamp findVersionStampByAccountId(@Param("accountId") Long accountId);
+}
@@ -0,0 +1,61 @@
+package com.example.iotbackend.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * DeviceStatusStore is the persistence needed to track device presence.
+ * It is implemented by {@link JdbcDeviceStatusStore}, shared with the reactive ingestion module.
+ * The {@code lock...} methods lock the returned rows and must run inside a transaction.
+ */
+public interface DeviceStatusStore {
+
+    /**
+     * Records when devices were last heard from, never moving a stored time backwards.
+     *
+     * @param lastSeen The time each device was last heard from, by device ID.
+     */
+    void updateLastSeen(Map<Long, LocalDateTime> lastSeen);
+
+    /**
+     * Finds and locks the devices among the given ones that are not in the given status.
+     *
+     * @param ids    The IDs of the devices to check.
+     * @param status The device status.
+     * @return The IDs of the devices in another status (or none).
+     */
+    List<Long> lockIdsNotInStatus(Collection<Long> ids, String status);
+
+    /**
+     * Finds and locks the devices among the given ones that are in the given status and were last
+     * heard from at or before the given time, or never.
+     *
+     * @param ids        The IDs of the devices to check.
+     * @param status     The device status.
+     * @param seenBefore The latest last-seen time to match.
+     * @return The IDs of the matching devices.
+     */
+    List<Long> lockIdsSeenBefore(Collection<Long> ids, String status, LocalDateTime seenBefore);
+
+    /**
+     * Finds devices in the given status that were last heard from at or before the given time, or never.
+     *
+     * @param status     The device status.
+     * @param seenBefore The latest last-seen time to match.
+     * @param limit      The maximum number of IDs to return.
+     * @return A list of device IDs.
+     */
+    List<Long> findIdsSeenBefore(String status, LocalDateTime seenBefore, int limit);
+
+    /**
+     * Sets the status of several devices in a single statement.
+     *
+     * @param ids       The IDs of the devices to update.
+     * @param status    The new status.
+     * @param updatedAt The update timestamp to record.
+     * @return The number of updated rows.
+     */
+    int updateStatus(Collection<Long> ids, String status, LocalDateTime updatedAt);
+}
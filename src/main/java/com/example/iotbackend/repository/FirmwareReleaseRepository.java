@@ -0,0 +1,51 @@
+package com.example.iotbackend.repository;
+
+import com.example.iotbackend.model.FirmwareRelease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * FirmwareReleaseRepository provides CRUD operations for FirmwareRelease entities.
+ */
+@Repository
+public interface FirmwareReleaseRepository extends JpaRepository<FirmwareRelease, Long> {
+
+    /**
+     * Finds all releases belonging to the given account, newest first.
+     *
+     * @param accountId The ID of the account.
+     * @return A list of FirmwareRelease entities owned by the account.
+     */
+    List<FirmwareRelease> findAllByAccountIdOrderByIdDesc(Long accountId);
+
+    /**
+     * Finds the releases of an account for one device type, newest first.
+     *
+     * @param accountId  The ID of the account.
+     * @param deviceType The device type the releases target.
+     * @return A list of FirmwareRelease entities.
+     */
+    List<FirmwareRelease> findAllByAccountIdAndDeviceTypeOrderByIdDesc(Long accountId, String deviceType);
+
+    /**
+     * Finds a release by its ID, restricted to releases owned by the given account.
+     *
+     * @param id        The ID of the release.
+     * @param accountId The ID of the owning account.
+     * @return An Optional containing the FirmwareRelease if found.
+     */
+    Optional<FirmwareRelease> findByIdAndAccountId(Long id, Long accountId);
+
+    /**
+     * Checks whether the account already published the version for the device type.
+     *
+     * @param accountId  The ID of the account.
+     * @param deviceType The device type.
+     * @param version    The firmware version.
+     * @return true if such a release exists.
+     */
+    boolean existsByAccountIdAndDeviceTypeAndVersion(Long accountId, String deviceType, String version);
+}
@@ -0,0 +1,107 @@
+package com.example.iotbackend.repository;
+
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JdbcDeviceStatusStore reads and writes the presence columns of {@code devices} with plain JDBC,
+ * so that it works both in the main application and in the reactive ingestion module.
+ */
+@Repository
+public class JdbcDeviceStatusStore implements DeviceStatusStore {
+
+    private static final String UPDATE_LAST_SEEN =
+            "update devices set last_seen_at = ? where id = ? and (last_seen_at is null or last_seen_at < ?)";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public JdbcDeviceStatusStore(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Records when devices were last heard from, never moving a stored time backwards.
+     *
+     * @param lastSeen The time each device was last heard from, by device ID.
+     */
+    @Override
+    public void updateLastSeen(Map<Long, LocalDateTime> lastSeen) {
+        List<Object[]> rows = new ArrayList<>(lastSeen.size());
+        lastSeen.forEach((id, seenAt) -> rows.add(new Object[]{Timestamp.valueOf(seenAt), id, Timestamp.valueOf(seenAt)}));
+        jdbcTemplate.getJdbcTemplate().batchUpdate(UPDATE_LAST_SEEN, rows);
+    }
+
+    /**
+     * Finds and locks the devices among the given ones that are not in the given status.
+     *
+     * @param ids    The IDs of the devices to check.
+     * @param status The device status.
+     * @return The IDs of the devices in another status (or none).
+     */
+    @Override
+    public List<Long> lockIdsNotInStatus(Collection<Long> ids, String status) {
+        return jdbcTemplate.queryForList(
+                "select id from devices where id in (:ids) and (status is null or status <> :status) for update",
+                new MapSqlParameterSource("ids", ids).addValue("status", status), Long.class);
+    }
+
+    /**
+     * Finds and locks the devices among the given ones that are in the given status and were last
+     * heard from at or before the given time, or never.
+     *
+     * @param ids        The IDs of the devices to check.
+     * @param status     The device status.
+     * @param seenBefore The latest last-seen time to match.
+     * @return The IDs of the matching devices.
+     */
+    @Override
+    public List<Long> lockIdsSeenBefore(Collection<Long> ids, String status, LocalDateTime seenBefore) {
+        return jdbcTemplate.queryForList(
+                "select id from devices where id in (:ids) and status = :status "
+                        + "and (last_seen_at is null or last_seen_at <= :seenBefore) for update",
+                new MapSqlParameterSource("ids", ids).addValue("status", status)
+                        .addValue("seenBefore", Timestamp.valueOf(seenBefore)), Long.class);
+    }
+
+    /**
+     * Finds devices in the given status that were last heard from at or before the given time, or never.
+     *
+     * @param status     The device status.
+     * @param seenBefore The latest last-seen time to match.
+     * @param limit      The maximum number of IDs to return.
+     * @return A list of device IDs.
+     */
+    @Override
+    public List<Long> findIdsSeenBefore(String status, LocalDateTime seenBefore, int limit) {
+        return jdbcTemplate.queryForList(
+                "select id from devices where status = :status "
+                        + "and (last_seen_at is null or last_seen_at <= :seenBefore) limit :limit",
+                new MapSqlParameterSource("status", status)
+                        .addValue("seenBefore", Timestamp.valueOf(seenBefore))
+                        .addValue("limit", limit), Long.class);
+    }
+
+    /**
+     * Sets the status of several devices in a single statement.
+     *
+     * @param ids       The IDs of the devices to update.
+     * @param status    The new status.
+     * @param updatedAt The update timestamp to record.
+     * @return The number of updated rows.
+     */
+    @Override
+    public int updateStatus(Collection<Long> ids, String status, LocalDateTime updatedAt) {
+        return jdbcTemplate.update("update devices set status = :status, updated_at = :updatedAt where id in (:ids)",
+                new MapSqlParameterSource("status", status)
+                        .addValue("updatedAt", Timestamp.valueOf(updatedAt))
+                        .addValue("ids", ids));
+    }
+}
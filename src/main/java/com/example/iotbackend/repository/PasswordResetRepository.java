@@ -2,8 +2,13 @@ package com.example.iotbackend.repository;
 
 import com.example.iotbackend.model.PasswordReset;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.Optional;
 
 /**
@@ -28,4 +33,45 @@ public interface PasswordResetRepository extends JpaRepository<PasswordReset, Lo
      * @return An Optional containing the latest PasswordReset if found.
      */
     Optional<PasswordReset> findTopByAccountIdOrderByExpirationTimeDesc(Long accountId);
+
+    /**
+     * Marks the OTP of an account as verified if it is unexpired and not verified yet, in a single UPDATE.
+     *
+     * @param accountId The account ID.
+     * @param otp       The OTP code.
+     * @param now       The current time; the OTP must not expire before it.
+     * @return The number of updated rows: 1 if the OTP was verified, 0 otherwise.
+     */
+    @Transactional
+    @Modifying
+    @Query("update PasswordReset p set p.isVerified = true where p.accountId = :accountId and p.otp = :otp "
+            + "and p.expirationTime >= :now and (p.isVerified = false or p.isVerified is null)")
+    int markVerified(@Param("accountId") Long accountId, @Param("otp") String otp, @Param("now") LocalDateTime now);
+
+    /**
+     * Checks whether the OTP of an account is verified and unexpired, without loading the entry.
+     *
+     * @param accountId The account ID.
+     * @param otp       The OTP code.
+     * @param now       The current time; the OTP must not expire before it.
+     * @return true if a verified, unexpired OTP exists.
+     */
+    @Query("select count(p) > 0 from PasswordReset p where p.accountId = :accountId and p.otp = :otp "
+            + "and p.expirationTime >= :now and p.isVerified = true")
+    boolean existsVerified(@Param("accountId") Long accountId, @Param("otp") String otp, @Param("now") LocalDateTime now);
+
+    /**
+     * Deletes the OTP of an account if it is verified and unexpired, in a single DELETE.
+     * The OTP can therefore be used for one password reset only.
+     *
+     * @param accountId The account ID.
+     * @param otp       The OTP code.
+     * @param now       The current time; the OTP must not expire before it.
+     * @return The number of deleted rows: 1 if the OTP was consumed, 0 otherwise.
+     */
+    @Transactional
+    @Modifying
+    @Query("delete from PasswordReset p where p.accountId = :accountId and p.otp = :otp "
+            + "and p.expirationTime >= :now and p.isVerified = true")
+    int deleteVerified(@Param("accountId") Long accountId, @Param("otp") String otp, @Param("now") LocalDateTime now);
 }
@@ -0,0 +1,48 @@
+package com.example.iotbackend.repository;
+
+import com.example.iotbackend.model.RevokedToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * RevokedTokenRepository provides access to the exact store of revoked token IDs.
+ */
+@Repository
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, String> {
+
+    /**
+     * Returns the IDs of all revoked tokens that have not expired yet.
+     *
+     * @param now The current time.
+     * @return The token IDs.
+     */
+    @Query("select r.jti from RevokedToken r where r.expiresAt > :now")
+    List<String> findActiveIds(@Param("now") LocalDateTime now);
+
+    /**
+     * Returns the IDs of the tokens revoked at or after the given time.
+     *
+     * @param since The earliest revocation time.
+     * @return The token IDs.
+     */
+    @Query("select r.jti from RevokedToken r where r.revokedAt >= :since")
+    List<String> findIdsRevokedSince(@Param("since") LocalDateTime since);
+
+    /**
+     * Deletes the revocations of tokens that have expired, since expired tokens are rejected anyway.
+     *
+     * @param now The current time.
+     * @return The number of rows deleted.
+     */
+    @Transactional
+    @Modifying
+    @Query("delete from RevokedToken r where r.expiresAt <= :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
@@ -0,0 +1,23 @@
+package com.example.iotbackend.repository;
+
+import com.example.iotbackend.model.Role;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * RoleRepository is responsible for performing database operations related to the Role entity.
+ */
+@Repository
+public interface RoleRepository extends JpaRepository<Role, Long> {
+
+    /**
+     * Finds all roles together with their permissions in a single query.
+     *
+     * @return List<Role> - All roles, with their permissions loaded.
+     */
+    @Query("select distinct r from Role r left join fetch r.permissions")
+    List<Role> findAllWithPermissions();
+}
@@ -0,0 +1,29 @@
+package com.example.iotbackend.repository;
+
+import com.example.iotbackend.model.Telemetry;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * TelemetryRepository provides CRUD operations for Telemetry readings.
+ */
+@Repository
+public interface TelemetryRepository extends JpaRepository<Telemetry, Long> {
+
+    /**
+     * Finds the readings of one metric of a device in {@code [from, to)}, ordered by time.
+     *
+     * @param deviceId The ID of the device.
+     * @param metric   The metric name.
+     * @param from     Inclusive lower bound of recordedAt.
+     * @param to       Exclusive upper bound of recordedAt.
+     * @param limit    The maximum number of readings.
+     * @return The matching readings.
+     */
+    List<Telemetry> findByDeviceIdAndMetricAndRecordedAtGreaterThanEqualAndRecordedAtLessThanOrderByRecordedAtAsc(
+            Long deviceId, String metric, LocalDateTime from, LocalDateTime to, Limit limit);
+}
@@ -0,0 +1,13 @@
+package com.example.iotbackend.repository.projection;
+
+/**
+ * AccountCredentials carries the columns needed to authenticate an account,
+ * so that authentication does not load a managed Account entity.
+ *
+ * @param id       The account ID.
+ * @param email    The account email (the username).
+ * @param password The BCrypt password hash.
+ * @param roleId   The ID of the account's role.
+ */
+public record AccountCredentials(Long id, String email, String password, Long roleId) {
+}
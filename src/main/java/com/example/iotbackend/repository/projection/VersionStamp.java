@@ -0,0 +1,13 @@
+package com.example.iotbackend.repository.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * VersionStamp summarizes a set of rows for conditional requests:
+ * the number of rows and the most recent modification time among them.
+ *
+ * @param count        The number of rows.
+ * @param lastModified The latest update (or creation) time, or null if there are no rows.
+ */
+public record VersionStamp(long count, LocalDateTime lastModified) {
+}
@@ -0,0 +1,42 @@
+package com.example.iotbackend.security;
+
+import org.springframework.security.core.userdetails.UserDetails;
+
+/**
+ * AccountUserDetails is the authenticated account as seen by Spring Security.
+ * Unlike Spring's User, it keeps the role's shared {@link AuthoritySet} instead of copying the
+ * authorities into a new sorted set for every request.
+ */
+public class AccountUserDetails implements UserDetails {
+
+    private final Long accountId;
+    private final String email;
+    private final String password;
+    private final AuthoritySet authorities;
+
+    public AccountUserDetails(Long accountId, String email, String password, AuthoritySet authorities) {
+        this.accountId = accountId;
+        this.email = email;
+        this.password = password;
+        this.authorities = authorities;
+    }
+
+    public Long getAccountId() {
+        return accountId;
+    }
+
+    @Override
+    public AuthoritySet getAuthorities() {
+        return authorities;
+    }
+
+    @Override
+    public String getPassword() {
+        return password;
+    }
+
+    @Override
+    public String getUsername() {
+        return email;
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.iotbackend.security;
+
+import com.example.iotbackend.model.Permission;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.AbstractCollection;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * AuthoritySet is the immutable set of authorities of one role: the role itself and its permissions.
+ * <p>
+ * The permissions are held as a bit mask, so {@link #has(Permission)} is a single bit test. The set also
+ * behaves as the collection of GrantedAuthority objects Spring Security expects ({@code ROLE_<name>} and
+ * one authority per permission name), built once per role instead of once per request.
+ */
+public final class AuthoritySet extends AbstractCollection<GrantedAuthority> {
+
+    /** The authorities of an account whose role is unknown: nothing is granted. */
+    public static final AuthoritySet NONE = new AuthoritySet(null, null, 0L);
+
+    static {
+        if (Permission.values().length > Long.SIZE) {
+            throw new IllegalStateException("AuthoritySet holds at most " + Long.SIZE + " permissions");
+        }
+    }
+
+    private final Long roleId;
+    private final String roleName;
+    private final long bits;
+    private final List<GrantedAuthority> authorities;
+
+    private AuthoritySet(Long roleId, String roleName, long bits) {
+        this.roleId = roleId;
+        this.roleName = roleName;
+        this.bits = bits;
+
+        List<GrantedAuthority> list = new ArrayList<>();
+        if (roleName != null) {
+            list.add(new SimpleGrantedAuthority("ROLE_" + roleName.toUpperCase(Locale.ROOT)));
+        }
+        for (Permission permission : Permission.values()) {
+            if ((bits & bit(permission)) != 0) {
+                list.add(new SimpleGrantedAuthority(permission.name()));
+            }
+        }
+        this.authorities = List.copyOf(list);
+    }
+
+    /**
+     * Creates the authority set of a role.
+     *
+     * @param roleId      The role ID.
+     * @param roleName    The role name, e.g. "ADMIN".
+     * @param permissions The permissions granted to the role.
+     * @return The authority set.
+     */
+    public static AuthoritySet of(Long roleId, String roleName, Set<Permission> permissions) {
+        long bits = 0;
+        for (Permission permission : permissions) {
+            bits |= bit(permission);
+        }
+        return new AuthoritySet(roleId, roleName, bits);
+    }
+
+    /**
+     * Returns whether the role grants the permission.
+     */
+    public boolean has(Permission permission) {
+        return (bits & bit(permission)) != 0;
+    }
+
+    /**
+     * Returns the role ID, or null for {@link #NONE}.
+     */
+    public Long getRoleId() {
+        return roleId;
+    }
+
+    /**
+     * Returns the role name, or null for {@link #NONE}.
+     */
+    public String getRoleName() {
+        return roleName;
+    }
+
+    @Override
+    public Iterator<GrantedAuthority> iterator() {
+        return authorities.iterator();
+    }
+
+    @Override
+    public int size() {
+        return authorities.size();
+    }
+
+    /**
+     * Returns whether both sets belong to the same role with the same name and permissions.
+     */
+    public boolean sameAs(AuthoritySet other) {
+        return other != null && bits == other.bits
+                && Objects.equals(roleId, other.roleId)
+                && Objects.equals(roleName, other.roleName);
+    }
+
+    private static long bit(Permission permission) {
+        return 1L << permission.ordinal();
+    }
+}
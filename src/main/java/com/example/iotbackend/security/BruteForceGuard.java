@@ -0,0 +1,138 @@
+package com.example.iotbackend.security;
+
+import com.example.iotbackend.config.BruteForceProperties;
+import com.example.iotbackend.exception.TooManyRequestsException;
+import com.example.iotbackend.util.SlidingWindowCountMinSketch;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * BruteForceGuard tracks failed logins and failed OTP attempts per account and per client address
+ * and locks out keys that fail too often.
+ * <p>
+ * Failures are counted in sliding-window count-min sketches, one per configured tier, so memory is
+ * fixed no matter how many accounts or addresses are attacked. {@link #check(Kind, String, String)} only reads
+ * the sketches and is meant to run before any password hashing or repository call. The sketch
+ * accuracy (events in window, error bound, epsilon and delta) is published as metrics.
+ */
+@Component
+public class BruteForceGuard {
+
+    /**
+     * The kind of credential being guessed; each has its own limits.
+     */
+    public enum Kind {
+        LOGIN,
+        OTP
+    }
+
+    private final BruteForceProperties properties;
+    private final List<TierState> tiers = new ArrayList<>();
+    private final Map<Kind, Counter> failureCounters = new EnumMap<>(Kind.class);
+    private final Map<Kind, Counter> lockoutCounters = new EnumMap<>(Kind.class);
+
+    public BruteForceGuard(BruteForceProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+
+        for (BruteForceProperties.Tier tier : properties.getTiers()) {
+            SlidingWindowCountMinSketch sketch = new SlidingWindowCountMinSketch(
+                    properties.getSketchDepth(), properties.getSketchWidth(), tier.getWindow(), properties.getSketchSlots());
+            tiers.add(new TierState(tier, sketch));
+
+            String window = tier.getWindow().toString();
+            Gauge.builder("auth.bruteforce.sketch.events", sketch, s -> s.totalCount(System.currentTimeMillis()))
+                    .description("Failures counted in the sliding window")
+                    .tag("window", window).register(meterRegistry);
+            Gauge.builder("auth.bruteforce.sketch.error.bound", sketch, s -> s.epsilon() * s.totalCount(System.currentTimeMillis()))
+                    .description("Maximum overcount of a per-key estimate (epsilon * events)")
+                    .tag("window", window).register(meterRegistry);
+            Gauge.builder("auth.bruteforce.sketch.epsilon", sketch, SlidingWindowCountMinSketch::epsilon)
+                    .tag("window", window).register(meterRegistry);
+            Gauge.builder("auth.bruteforce.sketch.delta", sketch, SlidingWindowCountMinSketch::delta)
+                    .description("Probability that an estimate exceeds the error bound")
+                    .tag("window", window).register(meterRegistry);
+        }
+        for (Kind kind : Kind.values()) {
+            String tag = kind.name().toLowerCase(Locale.ROOT);
+            failureCounters.put(kind, meterRegistry.counter("auth.bruteforce.failures", "kind", tag));
+            lockoutCounters.put(kind, meterRegistry.counter("auth.bruteforce.lockouts", "kind", tag));
+        }
+    }
+
+    /**
+     * Rejects the attempt if the account or the calling address has too many recent failures.
+     *
+     * @param kind   The kind of credential being checked.
+     * @param email  The account email from the request.
+     * @param source The client address of the request, or null if unknown.
+     * @throws TooManyRequestsException if a limit has been reached.
+     */
+    public void check(Kind kind, String email, String source) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        long accountHash = SlidingWindowCountMinSketch.hash(accountKey(kind, email));
+        long sourceHash = source == null ? 0 : SlidingWindowCountMinSketch.hash(sourceKey(kind, source));
+
+        // The longest locked tier determines how long the client has to wait
+        long retryAfterMs = 0;
+        for (TierState tier : tiers) {
+            int limit = tier.limit(kind);
+            boolean locked = tier.sketch.estimate(accountHash, now) >= limit
+                    || (source != null && tier.sketch.estimate(sourceHash, now) >= limit * properties.getSourceMultiplier());
+            if (locked) {
+                retryAfterMs = Math.max(retryAfterMs, tier.sketch.slotMillis());
+            }
+        }
+        if (retryAfterMs > 0) {
+            lockoutCounters.get(kind).increment();
+            throw new TooManyRequestsException("Too many failed attempts. Please try again later.",
+                    Math.max(1, retryAfterMs / 1000));
+        }
+    }
+
+    /**
+     * Records a failed attempt for the account and the calling address.
+     *
+     * @param kind   The kind of credential that failed.
+     * @param email  The account email from the request.
+     * @param source The client address of the request, or null if unknown.
+     */
+    public void recordFailure(Kind kind, String email, String source) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        long accountHash = SlidingWindowCountMinSketch.hash(accountKey(kind, email));
+        for (TierState tier : tiers) {
+            tier.sketch.add(accountHash, now);
+            if (source != null) {
+                tier.sketch.add(SlidingWindowCountMinSketch.hash(sourceKey(kind, source)), now);
+            }
+        }
+        failureCounters.get(kind).increment();
+    }
+
+    private static String accountKey(Kind kind, String email) {
+        return kind.name() + ":a:" + (email == null ? "" : email.trim().toLowerCase(Locale.ROOT));
+    }
+
+    private static String sourceKey(Kind kind, String address) {
+        return kind.name() + ":s:" + address;
+    }
+
+    private record TierState(BruteForceProperties.Tier tier, SlidingWindowCountMinSketch sketch) {
+        int limit(Kind kind) {
+            return kind == Kind.LOGIN ? tier.getLoginLimit() : tier.getOtpLimit();
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.iotbackend.security;
+
+import com.example.iotbackend.exception.ResourceNotFoundException;
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+
+/**
+ * DeviceAuthentication is the authentication of a request signed with a device key.
+ * It carries the device and its owning account, so no user details need to be loaded.
+ */
+public class DeviceAuthentication extends AbstractAuthenticationToken {
+
+    private final Long deviceId;
+    private final Long accountId;
+
+    public DeviceAuthentication(Long deviceId, Long accountId) {
+        super(AuthorityUtils.createAuthorityList("ROLE_DEVICE"));
+        this.deviceId = deviceId;
+        this.accountId = accountId;
+        setAuthenticated(true);
+    }
+
+    public Long getDeviceId() {
+        return deviceId;
+    }
+
+    public Long getAccountId() {
+        return accountId;
+    }
+
+    /**
+     * Returns the owning account if the request targets the authenticated device itself.
+     *
+     * @param targetDeviceId The device addressed by the request.
+     * @return The ID of the account that owns the device.
+     * @throws ResourceNotFoundException if a device tries to act for another device.
+     */
+    public Long accountIdFor(Long targetDeviceId) {
+        if (!deviceId.equals(targetDeviceId)) {
+            throw new ResourceNotFoundException("Device not found with ID: " + targetDeviceId);
+        }
+        return accountId;
+    }
+
+    @Override
+    public Object getCredentials() {
+        return null;
+    }
+
+    @Override
+    public Object getPrincipal() {
+        return deviceId;
+    }
+
+    @Override
+    public String getName() {
+        return "device:" + deviceId;
+    }
+}
@@ -0,0 +1,177 @@
+package com.example.iotbackend.security;
+
+import com.example.iotbackend.dto.response.ErrorResponse;
+import com.example.iotbackend.util.CachedBodyHttpServletRequest;
+import com.example.iotbackend.util.NonceWindow;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.crypto.Mac;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * DeviceAuthenticationFilter authenticates devices that sign their requests with an API key,
+ * as a cheaper alternative to logging in as the owning account.
+ * <p>
+ * A signed request carries {@code X-Device-Id}, {@code X-Key-Id}, {@code X-Timestamp} (epoch milliseconds),
+ * {@code X-Nonce} and {@code X-Signature}, the Base64 HMAC-SHA256 of
+ * {@code METHOD \n PATH[?QUERY] \n TIMESTAMP \n NONCE \n BODY}, where the query string is signed exactly as
+ * sent. Keys come from the in-memory {@link DeviceKeyCache}, replays are rejected by a per-device
+ * {@link NonceWindow}, and no database access or user details are needed. The nonce windows are local to
+ * the instance, so a captured request can still be replayed once against each other instance until its
+ * timestamp leaves {@code device-auth.max-skew-ms}. Only the device-side endpoints (telemetry upload, heartbeat, location updates and firmware
+ * update checks and downloads) accept device signatures.
+ */
+@Component
+public class DeviceAuthenticationFilter extends OncePerRequestFilter {
+
+    public static final String DEVICE_ID_HEADER = "X-Device-Id";
+    public static final String KEY_ID_HEADER = "X-Key-Id";
+    public static final String TIMESTAMP_HEADER = "X-Timestamp";
+    public static final String NONCE_HEADER = "X-Nonce";
+    public static final String SIGNATURE_HEADER = "X-Signature";
+
+    private static final Pattern DEVICE_POST_ENDPOINTS = Pattern.compile("^/devices/\\d+/(telemetry|heartbeat)$");
+    private static final Pattern DEVICE_GET_ENDPOINTS = Pattern.compile("^/devices/\\d+/firmware(/\\d+)?$");
+    private static final Pattern DEVICE_PUT_ENDPOINTS = Pattern.compile("^/devices/\\d+/location$");
+    private static final int MAX_NONCE_LENGTH = 64;
+
+    private final DeviceKeyCache deviceKeyCache;
+    private final ObjectMapper objectMapper;
+    private final long maxSkewMs;
+    private final int nonceWindowSize;
+    private final int maxBodyBytes;
+    private final Map<Long, NonceWindow> nonceWindows = new ConcurrentHashMap<>();  // Device ID -> recent nonces
+
+    public DeviceAuthenticationFilter(
+            DeviceKeyCache deviceKeyCache,
+            ObjectMapper objectMapper,
+            @Value("${device-auth.max-skew-ms:60000}") long maxSkewMs,
+            @Value("${device-auth.nonce-window:64}") int nonceWindowSize,
+            @Value("${device-auth.max-body-bytes:1048576}") int maxBodyBytes
+    ) {
+        this.deviceKeyCache = deviceKeyCache;
+        this.objectMapper = objectMapper;
+        this.maxSkewMs = maxSkewMs;
+        this.nonceWindowSize = nonceWindowSize;
+        this.maxBodyBytes = maxBodyBytes;
+    }
+
+    /**
+     * Skips requests that are not signed by a device or do not target a device endpoint.
+     */
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (request.getHeader(DEVICE_ID_HEADER) == null) {
+            return true;
+        }
+        Pattern endpoints = switch (request.getMethod()) {
+            case "POST" -> DEVICE_POST_ENDPOINTS;
+            case "PUT" -> DEVICE_PUT_ENDPOINTS;
+            case "GET", "HEAD" -> DEVICE_GET_ENDPOINTS;
+            default -> null;
+        };
+        return endpoints == null || !endpoints.matcher(request.getRequestURI()).matches();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        String keyId = request.getHeader(KEY_ID_HEADER);
+        String timestampHeader = request.getHeader(TIMESTAMP_HEADER);
+        String nonce = request.getHeader(NONCE_HEADER);
+        String signature = request.getHeader(SIGNATURE_HEADER);
+        if (keyId == null || timestampHeader == null || nonce == null || signature == null
+                || nonce.isEmpty() || nonce.length() > MAX_NONCE_LENGTH) {
+            reject(request, response, "Missing or malformed device signature headers");
+            return;
+        }
+
+        Long deviceId;
+        long timestamp;
+        byte[] expected;
+        try {
+            deviceId = Long.valueOf(request.getHeader(DEVICE_ID_HEADER));
+            timestamp = Long.parseLong(timestampHeader);
+            expected = Base64.getDecoder().decode(signature);
+        } catch (IllegalArgumentException e) {
+            reject(request, response, "Missing or malformed device signature headers");
+            return;
+        }
+
+        // Unknown devices and mismatched keys fail without touching the database
+        DeviceKeyCache.DeviceKey key = deviceKeyCache.get(deviceId);
+        if (key == null || !key.matches(keyId)) {
+            reject(request, response, "Invalid device credentials");
+            return;
+        }
+        if (Math.abs(System.currentTimeMillis() - timestamp) > maxSkewMs) {
+            reject(request, response, "Request timestamp is outside the allowed window");
+            return;
+        }
+
+        CachedBodyHttpServletRequest cached;
+        try {
+            cached = new CachedBodyHttpServletRequest(request, maxBodyBytes);
+        } catch (IOException e) {
+            response.sendError(HttpStatus.PAYLOAD_TOO_LARGE.value());
+            return;
+        }
+
+        if (!MessageDigest.isEqual(expected, sign(key, request, timestampHeader, nonce, cached.getBody()))) {
+            reject(request, response, "Invalid device signature");
+            return;
+        }
+
+        // Only record the nonce once the signature is known to be genuine
+        NonceWindow window = nonceWindows.computeIfAbsent(deviceId, id -> new NonceWindow(nonceWindowSize));
+        if (!window.accept(nonce, timestamp)) {
+            reject(request, response, "Replayed device request");
+            return;
+        }
+
+        SecurityContextHolder.getContext().setAuthentication(new DeviceAuthentication(deviceId, key.getAccountId()));
+        filterChain.doFilter(cached, response);
+    }
+
+    private static byte[] sign(DeviceKeyCache.DeviceKey key, HttpServletRequest request,
+                               String timestamp, String nonce, byte[] body) {
+        Mac mac = key.newMac();
+        String query = request.getQueryString();
+        String target = query == null ? request.getRequestURI() : request.getRequestURI() + '?' + query;
+        String header = request.getMethod() + '\n' + target + '\n' + timestamp + '\n' + nonce + '\n';
+        mac.update(header.getBytes(StandardCharsets.UTF_8));
+        mac.update(body);
+        return mac.doFinal();
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response, String message) throws IOException {
+        ErrorResponse errorResponse = new ErrorResponse(
+                HttpServletResponse.SC_UNAUTHORIZED,
+                message,
+                LocalDateTime.now(),
+                request.getRequestURI()
+        );
+
+        response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write(objectMapper.writeValueAsString(errorResponse));
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.iotbackend.security;
+
+import com.example.iotbackend.model.DeviceCredential;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * DeviceKeyCache holds the HMAC keys of all devices in memory, keyed by device ID, so that
+ * signed device requests are verified without a database lookup.
+ * <p>
+ * Each entry keeps a {@link Mac} that has already been initialised with the key; verifiers clone it
+ * instead of repeating the key setup on every request.
+ */
+@Component
+public class DeviceKeyCache {
+
+    static final String ALGORITHM = "HmacSHA256";
+
+    private volatile Map<Long, DeviceKey> keys = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the key of a device.
+     *
+     * @param deviceId The ID of the device.
+     * @return The key, or null if the device has none.
+     */
+    public DeviceKey get(Long deviceId) {
+        return keys.get(deviceId);
+    }
+
+    /**
+     * Adds or replaces the key of a device.
+     *
+     * @param credential The stored credential.
+     */
+    public void put(DeviceCredential credential) {
+        keys.put(credential.getDeviceId(), DeviceKey.of(credential));
+    }
+
+    /**
+     * Removes the key of a device.
+     *
+     * @param deviceId The ID of the device.
+     */
+    public void remove(Long deviceId) {
+        keys.remove(deviceId);
+    }
+
+    /**
+     * Replaces the whole cache with the given credentials.
+     *
+     * @param credentials All stored credentials.
+     */
+    public void replaceAll(List<DeviceCredential> credentials) {
+        Map<Long, DeviceKey> loaded = new ConcurrentHashMap<>();
+        for (DeviceCredential credential : credentials) {
+            loaded.put(credential.getDeviceId(), DeviceKey.of(credential));
+        }
+        this.keys = loaded;
+    }
+
+    /**
+     * Returns the number of cached keys.
+     *
+     * @return The number of devices with a key.
+     */
+    public int size() {
+        return keys.size();
+    }
+
+    /**
+     * A device key with a pre-initialised MAC.
+     */
+    public static final class DeviceKey {
+        private final String keyId;
+        private final Long deviceId;
+        private final Long accountId;
+        private final SecretKeySpec key;
+        private final Mac prototype;
+
+        private DeviceKey(String keyId, Long deviceId, Long accountId, SecretKeySpec key, Mac prototype) {
+            this.keyId = keyId;
+            this.deviceId = deviceId;
+            this.accountId = accountId;
+            this.key = key;
+            this.prototype = prototype;
+        }
+
+        static DeviceKey of(DeviceCredential credential) {
+            try {
+                SecretKeySpec key = new SecretKeySpec(Base64.getDecoder().decode(credential.getSecret()), ALGORITHM);
+                Mac mac = Mac.getInstance(ALGORITHM);
+                mac.init(key);
+                return new DeviceKey(credential.getKeyId(), credential.getDeviceId(), credential.getAccountId(), key, mac);
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("Cannot initialise key " + credential.getKeyId(), e);
+            }
+        }
+
+        public String getKeyId() {
+            return keyId;
+        }
+
+        public Long getDeviceId() {
+            return deviceId;
+        }
+
+        public Long getAccountId() {
+            return accountId;
+        }
+
+        /**
+         * Returns a fresh MAC initialised with this key.
+         *
+         * @return A MAC ready to be updated.
+         */
+        public Mac newMac() {
+            try {
+                return (Mac) prototype.clone();
+            } catch (CloneNotSupportedException e) {
+                // Providers without clone support fall back to a fresh initialisation
+                try {
+                    Mac mac = Mac.getInstance(ALGORITHM);
+                    mac.init(key);
+                    return mac;
+                } catch (GeneralSecurityException ex) {
+                    throw new IllegalStateException("Cannot initialise key " + keyId, ex);
+                }
+            }
+        }
+
+        /**
+         * Checks that a key ID matches this key without leaking timing information.
+         *
+         * @param candidate The key ID sent by the device.
+         * @return true if it matches.
+         */
+        public boolean matches(String candidate) {
+            return candidate != null && MessageDigest.isEqual(
+                    keyId.getBytes(StandardCharsets.UTF_8), candidate.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+}
@@ -3,8 +3,10 @@ package com.example.iotbackend.security;
 import com.example.iotbackend.dto.response.ErrorResponse;
 import com.example.iotbackend.exception.BadRequestException;
 import com.example.iotbackend.service.JwtService;
+import com.example.iotbackend.service.TokenRevocationService;
 import com.example.iotbackend.service.impl.CustomUserDetailsService;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.Claims;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpHeaders;
@@ -36,12 +38,13 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;                // Service to handle JWT token extraction and validation
     private final CustomUserDetailsService userDetailsService;  // Service to load user details based on the username (email)
+    private final TokenRevocationService tokenRevocationService;  // Service to reject tokens revoked before they expire
 
     /**
      * This method is called for every incoming HTTP request.
      * It checks for the presence of a valid JWT token in the Authorization header.
-     * If the token is found, it extracts the user information (email), validates the token,
-     * and sets the authentication in the Spring Security context.
+     * If the token is found, it validates the token, rejects it if it has been revoked,
+     * extracts the user information (email) and sets the authentication in the Spring Security context.
      * If the token is invalid or expired, an exception is thrown and the request is rejected with a 401 Unauthorized status.
      */
 
@@ -61,24 +64,24 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         jwt = authHeader.substring(7);  // Extract the JWT token from the header (after "Bearer ")
 
         try {
-            // Extract username from the JWT token
-            String email = jwtService.extractUsername(jwt);
-            System.out.println("extractUsername: " + email);
+            // Verify the JWT token and extract its claims
+            Claims claims = jwtService.parseToken(jwt);
+            String email = claims.getSubject();
+
+            // Reject revoked tokens; the in-memory filter answers most checks without a database hit
+            if (tokenRevocationService.isRevoked(claims.getId())) {
+                throw new BadCredentialsException("JWT token has been revoked");
+            }
 
             // If email is valid and there is no authentication yet in the SecurityContext
             if (email != null && SecurityContextHolder.getContext().getAuthentication() == null) {
                 // Load user details using the email extracted from the token
                 UserDetails userDetails = this.userDetailsService.loadUserByUsername(email);
 
-                if (jwtService.validateToken(jwt)) {
-                    UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                            userDetails, null, userDetails.getAuthorities()
-                    );
-                    SecurityContextHolder.getContext().setAuthentication(authToken);
-                } else {
-                    // Invalid JWT token
-                    throw new BadCredentialsException("Invalid JWT token");
-                }
+                UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+                        userDetails, null, userDetails.getAuthorities()
+                );
+                SecurityContextHolder.getContext().setAuthentication(authToken);
             }
 
             filterChain.doFilter(request, response);
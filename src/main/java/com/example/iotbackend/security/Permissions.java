@@ -0,0 +1,55 @@
+package com.example.iotbackend.security;
+
+import com.example.iotbackend.model.Permission;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
+import org.springframework.stereotype.Component;
+
+/**
+ * Permissions answers authorization checks with a bit test on the caller's {@link AuthoritySet}
+ * rather than by scanning GrantedAuthority strings.
+ * <p>
+ * Available to method security as {@code @permissions}, e.g.
+ * {@code @PreAuthorize("@permissions.has(authentication, 'FIRMWARE_PUBLISH')")}, and to the
+ * request rules through {@link #require(Permission)}.
+ */
+@Component("permissions")
+public class Permissions {
+
+    /**
+     * Returns whether the authenticated caller has a permission.
+     * Devices and anonymous callers have none.
+     *
+     * @param authentication The caller, may be null.
+     * @param permission     The required permission.
+     * @return true if the caller's role grants the permission.
+     */
+    public boolean has(Authentication authentication, Permission permission) {
+        return authoritiesOf(authentication).has(permission);
+    }
+
+    /**
+     * Returns the authority set of the authenticated caller.
+     *
+     * @param authentication The caller, may be null.
+     * @return The caller's authority set, or {@link AuthoritySet#NONE}.
+     */
+    public static AuthoritySet authoritiesOf(Authentication authentication) {
+        if (authentication != null && authentication.getPrincipal() instanceof AccountUserDetails account) {
+            return account.getAuthorities();
+        }
+        return AuthoritySet.NONE;
+    }
+
+    /**
+     * Creates a request rule granting access to callers with a permission.
+     *
+     * @param permission The required permission.
+     * @return The authorization manager, for {@code requestMatchers(...).access(...)}.
+     */
+    public static AuthorizationManager<RequestAuthorizationContext> require(Permission permission) {
+        return (authentication, context) -> new AuthorizationDecision(authoritiesOf(authentication.get()).has(permission));
+    }
+}
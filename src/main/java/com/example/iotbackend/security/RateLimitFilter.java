@@ -0,0 +1,132 @@
+package com.example.iotbackend.security;
+
+import com.example.iotbackend.config.RateLimitProperties;
+import com.example.iotbackend.config.RateLimitProperties.KeyType;
+import com.example.iotbackend.config.RateLimitProperties.Policy;
+import com.example.iotbackend.dto.response.ErrorResponse;
+import com.example.iotbackend.util.CachedBodyHttpServletRequest;
+import com.example.iotbackend.util.RequestUtils;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * RateLimitFilter throttles the unauthenticated endpoints under /auth before any password hashing,
+ * database access or email sending takes place.
+ * <p>
+ * Each configured policy keeps a token bucket per client key (IP address or the email in the
+ * request body). A request that finds an empty bucket is rejected with 429 Too Many Requests and
+ * a Retry-After header.
+ * <p>
+ * Policies are looked up by the decoded, normalized path the request is mapped by, not the raw request
+ * URI, so that an encoded spelling such as {@code /auth/%6Cogin} cannot reach a handler unthrottled.
+ */
+@Component
+@RequiredArgsConstructor
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final RateLimiter rateLimiter;
+    private final RateLimitProperties properties;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Skips requests whose path has no policy.
+     */
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !properties.isEnabled() || rateLimiter.policiesFor(mappedPath(request)).isEmpty();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        List<Policy> policies = rateLimiter.policiesFor(mappedPath(request));
+        long now = System.currentTimeMillis();
+
+        HttpServletRequest effectiveRequest = request;
+        String email = null;
+        boolean emailRead = false;
+
+        for (Policy policy : policies) {
+            String clientKey;
+            if (policy.getKey() == KeyType.EMAIL) {
+                if (!emailRead) {
+                    // Buffer the body so the controller can still read it after we extract the email
+                    CachedBodyHttpServletRequest cached;
+                    try {
+                        cached = new CachedBodyHttpServletRequest(request, properties.getMaxBodyBytes());
+                    } catch (IOException e) {
+                        response.sendError(HttpStatus.PAYLOAD_TOO_LARGE.value());
+                        return;
+                    }
+                    effectiveRequest = cached;
+                    email = extractEmail(cached.getBody());
+                    emailRead = true;
+                }
+                if (email == null) {
+                    continue;  // Nothing to key on; the request will fail validation anyway
+                }
+                clientKey = email;
+            } else {
+                clientKey = RequestUtils.clientIp(request, properties.isTrustForwardedFor());
+            }
+
+            long retryAfterMs = rateLimiter.tryAcquire(policy, clientKey, now);
+            if (retryAfterMs > 0) {
+                reject(request, response, retryAfterMs);
+                return;
+            }
+        }
+
+        filterChain.doFilter(effectiveRequest, response);
+    }
+
+    private static String mappedPath(HttpServletRequest request) {
+        // The container has decoded and normalized both parts; together they are the path within the application
+        String pathInfo = request.getPathInfo();
+        return pathInfo == null ? request.getServletPath() : request.getServletPath() + pathInfo;
+    }
+
+    private String extractEmail(byte[] body) {
+        if (body.length == 0) {
+            return null;
+        }
+        try {
+            JsonNode email = objectMapper.readTree(body).get("email");
+            return email != null && email.isTextual() ? email.asText().trim().toLowerCase(Locale.ROOT) : null;
+        } catch (IOException e) {
+            return null;  // Malformed JSON is rejected later by the controller
+        }
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response, long retryAfterMs) throws IOException {
+        long retryAfterSeconds = Math.max(1, (retryAfterMs + 999) / 1000);
+
+        ErrorResponse errorResponse = new ErrorResponse(
+                HttpStatus.TOO_MANY_REQUESTS.value(),
+                "Too many requests. Please try again later.",
+                LocalDateTime.now(),
+                request.getRequestURI()
+        );
+
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), errorResponse);
+    }
+}
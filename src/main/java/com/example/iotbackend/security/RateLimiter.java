@@ -0,0 +1,93 @@
+package com.example.iotbackend.security;
+
+import com.example.iotbackend.config.RateLimitProperties;
+import com.example.iotbackend.config.RateLimitProperties.Policy;
+import com.example.iotbackend.util.TokenBucket;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * RateLimiter keeps one token bucket per policy and client key.
+ * <p>
+ * Buckets live in a concurrent map per policy that is bounded by {@code rate-limit.max-entries}:
+ * once full, unknown clients share a single overflow bucket, so a flood of distinct keys cannot
+ * exhaust memory and is throttled as a group. Idle buckets are evicted periodically.
+ */
+@Component
+public class RateLimiter {
+
+    private final RateLimitProperties properties;
+    private final Map<String, List<Policy>> policiesByPath;
+    private final Map<Policy, Map<String, TokenBucket>> buckets = new IdentityHashMap<>();
+    private final Map<Policy, TokenBucket> overflowBuckets = new IdentityHashMap<>();
+
+    public RateLimiter(RateLimitProperties properties) {
+        this.properties = properties;
+
+        Map<String, List<Policy>> byPath = new HashMap<>();
+        long now = System.currentTimeMillis();
+        for (Policy policy : properties.getPolicies()) {
+            byPath.computeIfAbsent(policy.getPath(), k -> new ArrayList<>()).add(policy);
+            buckets.put(policy, new ConcurrentHashMap<>());
+            overflowBuckets.put(policy, newBucket(policy, now));
+        }
+        byPath.replaceAll((path, policies) -> List.copyOf(policies));
+        this.policiesByPath = Map.copyOf(byPath);
+    }
+
+    /**
+     * Returns the policies that apply to a request path.
+     *
+     * @param path The decoded request path within the application.
+     * @return The policies for the path, or an empty list if it is not throttled.
+     */
+    public List<Policy> policiesFor(String path) {
+        return policiesByPath.getOrDefault(path, Collections.emptyList());
+    }
+
+    /**
+     * Takes one token from the bucket of a client under a policy.
+     *
+     * @param policy    The policy.
+     * @param clientKey The client key (IP address or email).
+     * @param nowMs     The current time in milliseconds.
+     * @return 0 if the request may proceed, otherwise the milliseconds until it may be retried.
+     */
+    public long tryAcquire(Policy policy, String clientKey, long nowMs) {
+        Map<String, TokenBucket> policyBuckets = buckets.get(policy);
+        TokenBucket bucket = policyBuckets.get(clientKey);
+        if (bucket == null) {
+            bucket = policyBuckets.size() >= properties.getMaxEntries()
+                    ? overflowBuckets.get(policy)
+                    : policyBuckets.computeIfAbsent(clientKey, k -> newBucket(policy, nowMs));
+        }
+        return bucket.tryConsume(nowMs);
+    }
+
+    /**
+     * Removes buckets that have not been used for longer than the idle timeout.
+     * The timeout is never shorter than a full refill, so an evicted bucket was full and
+     * dropping it does not change any client's allowance.
+     */
+    @Scheduled(fixedDelayString = "${rate-limit.eviction-interval-ms:60000}")
+    public void evictIdle() {
+        long now = System.currentTimeMillis();
+        buckets.forEach((policy, policyBuckets) -> {
+            long fullRefillMs = policy.getCapacity() * policy.getRefillPeriod().toMillis();
+            long cutoff = now - Math.max(properties.getIdleTimeout().toMillis(), fullRefillMs);
+            policyBuckets.values().removeIf(bucket -> bucket.lastRefillMs() < cutoff);
+        });
+    }
+
+    private static TokenBucket newBucket(Policy policy, long nowMs) {
+        return new TokenBucket(policy.getCapacity(), policy.getRefillPeriod().toMillis(), nowMs);
+    }
+}
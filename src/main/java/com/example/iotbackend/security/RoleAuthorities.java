@@ -0,0 +1,89 @@
+package com.example.iotbackend.security;
+
+import com.example.iotbackend.model.Permission;
+import com.example.iotbackend.model.Role;
+import com.example.iotbackend.repository.RoleRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * RoleAuthorities holds the precomputed {@link AuthoritySet} of every role, keyed by role ID.
+ * <p>
+ * The role-to-permission mappings are read once on startup and checked again periodically; the map is
+ * replaced as a whole, and only when a role or one of its grants changed, so authentication never
+ * touches the roles tables and sees either the old or the new mappings, never a mix.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RoleAuthorities {
+
+    private final RoleRepository roleRepository;
+
+    private volatile Map<Long, AuthoritySet> byRoleId = Map.of();
+
+    /**
+     * Returns the authorities of a role.
+     *
+     * @param roleId The role ID; may be null.
+     * @return The role's authority set, or {@link AuthoritySet#NONE} if the role is unknown.
+     */
+    public AuthoritySet forRole(Long roleId) {
+        AuthoritySet authorities = roleId == null ? null : byRoleId.get(roleId);
+        return authorities == null ? AuthoritySet.NONE : authorities;
+    }
+
+    /**
+     * Reloads the role-to-permission mappings and swaps them in if they changed.
+     * Runs once the application is ready and then on a fixed delay.
+     */
+    @Transactional(readOnly = true)
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${security.roles.reload-ms:60000}", fixedDelayString = "${security.roles.reload-ms:60000}")
+    public void reload() {
+        Map<Long, AuthoritySet> loaded = new HashMap<>();
+        for (Role role : roleRepository.findAllWithPermissions()) {
+            loaded.put(role.getId(), AuthoritySet.of(role.getId(), role.getName(), permissionsOf(role)));
+        }
+
+        if (!sameMappings(byRoleId, loaded)) {
+            byRoleId = Map.copyOf(loaded);
+            log.info("Loaded the permissions of {} roles", loaded.size());
+        }
+    }
+
+    private static Set<Permission> permissionsOf(Role role) {
+        Set<Permission> permissions = EnumSet.noneOf(Permission.class);
+        for (String name : role.getPermissions()) {
+            try {
+                permissions.add(Permission.valueOf(name));
+            } catch (IllegalArgumentException e) {
+                // Granted by a newer version of the application; not enforceable here
+                log.warn("Ignoring unknown permission {} of role {}", name, role.getName());
+            }
+        }
+        return permissions;
+    }
+
+    private static boolean sameMappings(Map<Long, AuthoritySet> current, Map<Long, AuthoritySet> loaded) {
+        if (current.size() != loaded.size()) {
+            return false;
+        }
+        for (Map.Entry<Long, AuthoritySet> entry : loaded.entrySet()) {
+            if (!entry.getValue().sameAs(current.get(entry.getKey()))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
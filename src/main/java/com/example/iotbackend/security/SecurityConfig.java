@@ -1,8 +1,13 @@
 package com.example.iotbackend.security;
 
+import com.example.iotbackend.config.BruteForceProperties;
+import com.example.iotbackend.config.RateLimitProperties;
+import com.example.iotbackend.model.Permission;
 import com.example.iotbackend.service.impl.CustomUserDetailsService;
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
@@ -20,12 +25,15 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
  */
 @Configuration
 @RequiredArgsConstructor
+@EnableConfigurationProperties({RateLimitProperties.class, BruteForceProperties.class})
 @EnableMethodSecurity  // Enables method-level security annotations like @PreAuthorize and @Secured
 public class SecurityConfig {
 
     private final CustomUserDetailsService userDetailsService;   // Custom service to load user details from the database
     private final JwtAuthenticationFilter jwtAuthenticationFilter;  // Custom JWT authentication filter
     private final JwtAuthenticationEntryPoint jwtAuthenticationEntryPoint;  // Handles authentication errors (e.g., invalid JWT)
+    private final RateLimitFilter rateLimitFilter;  // Throttles the public /auth endpoints
+    private final DeviceAuthenticationFilter deviceAuthenticationFilter;  // Verifies HMAC-signed device requests
 
     /**
      * Configures the security filter chain. It defines access rules, handles exceptions,
@@ -37,7 +45,13 @@ public class SecurityConfig {
 
                 // Configure access rules
                 .authorizeHttpRequests(auth -> auth
+                        // Streamed responses are redispatched after the authorized request completes, and the
+                        // stateless filters do not carry the authentication over to that (or an error) dispatch
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC, DispatcherType.ERROR).permitAll()
+                        .requestMatchers("/auth/logout", "/auth/revoke").authenticated() // Revocation needs a valid token
                         .requestMatchers("/auth/**").permitAll() // Allow unauthenticated access
+                        .requestMatchers("/actuator/health").permitAll() // Liveness checks need no token
+                        .requestMatchers("/admin/**").access(Permissions.require(Permission.ADMIN_ACCESS)) // Admin tooling
 //                        .requestMatchers("**").permitAll() // Allow unauthenticated access to all endpoints
 
                         .anyRequest().authenticated()) // Require authentication for any other requests
@@ -50,6 +64,10 @@ public class SecurityConfig {
                 .sessionManagement(session -> session
                         .sessionCreationPolicy(SessionCreationPolicy.STATELESS));
 
+        // Throttle first, so rejected requests cost nothing further
+        http.addFilterBefore(rateLimitFilter, UsernamePasswordAuthenticationFilter.class);
+        // Devices sign their own requests and never reach the user lookup
+        http.addFilterBefore(deviceAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
         // Add JWT filter before UsernamePasswordAuthenticationFilter
         http.addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
 
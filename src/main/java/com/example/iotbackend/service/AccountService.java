@@ -4,6 +4,9 @@ import com.example.iotbackend.dto.request.*;
 import com.example.iotbackend.dto.response.*;
 import com.example.iotbackend.model.Account;
 
+import java.time.LocalDateTime;
+import java.util.Optional;
+
 /**
  * AccountService is the service interface that defines the operations related to user accounts.
  * It extends IService to provide basic CRUD operations for managing accounts, and adds
@@ -20,15 +23,34 @@ public interface AccountService extends IService<Account, Long> {
      */
     AccountResponse getAccountResponseById(Long id);
 
+    /**
+     * Retrieves the version of an account (its last update, or creation time if never updated)
+     * without loading the account. Used to answer conditional requests.
+     *
+     * @param id The ID of the account.
+     * @return An Optional containing the version timestamp, or empty if it is unknown.
+     */
+    Optional<LocalDateTime> getAccountVersion(Long id);
+
+    /**
+     * Retrieves the ID of the account with the given email address.
+     *
+     * @param email The email of the account.
+     * @return The ID of the account.
+     * @throws ResourceNotFoundException if no account is found with the given email.
+     */
+    Long getAccountIdByEmail(String email);
+
     /**
      * Authenticates the user based on provided login credentials (email and password).
      * It generates a JWT token upon successful authentication.
      *
-     * @param loginRequest Contains the user's email and password for authentication.
+     * @param loginRequest  Contains the user's email and password for authentication.
+     * @param clientAddress The address of the calling client, or null if unknown.
      * @return A JWT token if authentication is successful.
      * @throws AuthenticationException if the credentials are invalid.
      */
-    String authenticate(LoginRequest loginRequest);
+    String authenticate(LoginRequest loginRequest, String clientAddress);
 
     /**
      * Registers a new account by taking the user's registration details.
@@ -44,23 +66,43 @@ public interface AccountService extends IService<Account, Long> {
      * Initiates the password reset process by generating an OTP and sending it to the user's email.
      *
      * @param forgotPasswordRequest The request containing the user's email.
+     * @param clientAddress         The address of the calling client, or null if unknown.
      * @return ForgotPasswordResponse A response message indicating that the OTP has been sent.
      */
-    ForgotPasswordResponse initiateForgotPassword(ForgotPasswordRequest forgotPasswordRequest);
+    ForgotPasswordResponse initiateForgotPassword(ForgotPasswordRequest forgotPasswordRequest, String clientAddress);
 
     /**
      * Verifies the OTP provided by the user.
      *
      * @param verifyOtpRequest The request containing the user's email and OTP.
+     * @param clientAddress    The address of the calling client, or null if unknown.
      * @return VerifyOtpResponse A response message indicating the result of the OTP verification.
      */
-    VerifyOtpResponse verifyOtp(VerifyOtpRequest verifyOtpRequest);
+    VerifyOtpResponse verifyOtp(VerifyOtpRequest verifyOtpRequest, String clientAddress);
 
     /**
      * Resets the user's password after successful OTP verification.
      *
      * @param resetPasswordRequest The request containing the user's email, OTP, and new password.
+     * @param clientAddress        The address of the calling client, or null if unknown.
      * @return ResetPasswordResponse A response message confirming the password reset.
      */
-    ResetPasswordResponse resetPassword(ResetPasswordRequest resetPasswordRequest);
+    ResetPasswordResponse resetPassword(ResetPasswordRequest resetPasswordRequest, String clientAddress);
+
+    /**
+     * Logs out by revoking the token used for the current request.
+     *
+     * @param token The JWT token of the current request.
+     * @return TokenRevocationResponse A response message confirming the logout.
+     */
+    TokenRevocationResponse logout(String token);
+
+    /**
+     * Revokes a token issued to the given account.
+     *
+     * @param email              The email of the authenticated account.
+     * @param revokeTokenRequest The request containing the token to revoke.
+     * @return TokenRevocationResponse A response message confirming the revocation.
+     */
+    TokenRevocationResponse revokeToken(String email, RevokeTokenRequest revokeTokenRequest);
 }
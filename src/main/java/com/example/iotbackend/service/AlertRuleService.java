@@ -0,0 +1,44 @@
+package com.example.iotbackend.service;
+
+import com.example.iotbackend.dto.request.AlertRuleRequest;
+import com.example.iotbackend.dto.response.AlertRuleResponse;
+import com.example.iotbackend.model.AlertRule;
+
+import java.util.List;
+
+/**
+ * AlertRuleService defines operations for managing alert rules and keeping
+ * the in-memory rule index in sync with the database.
+ */
+public interface AlertRuleService extends IService<AlertRule, Long> {
+
+    /**
+     * Retrieves all alert rules owned by the given account.
+     *
+     * @param accountId The ID of the account.
+     * @return A list of AlertRuleResponse objects.
+     */
+    List<AlertRuleResponse> getRulesForAccount(Long accountId);
+
+    /**
+     * Creates a new alert rule for the given account and recompiles the rule index.
+     *
+     * @param accountId The ID of the owning account.
+     * @param request   The rule definition.
+     * @return The created rule.
+     */
+    AlertRuleResponse createRule(Long accountId, AlertRuleRequest request);
+
+    /**
+     * Deletes an alert rule owned by the given account and recompiles the rule index.
+     *
+     * @param accountId The ID of the owning account.
+     * @param ruleId    The ID of the rule to delete.
+     */
+    void deleteRule(Long accountId, Long ruleId);
+
+    /**
+     * Reloads all enabled rules from the database into the rule engine.
+     */
+    void reloadRules();
+}
@@ -0,0 +1,33 @@
+package com.example.iotbackend.service;
+
+import com.example.iotbackend.dto.response.DeviceCredentialResponse;
+
+/**
+ * DeviceCredentialService manages the API keys that devices use to sign their requests.
+ */
+public interface DeviceCredentialService {
+
+    /**
+     * Issues a new key for a device owned by the given account, replacing any existing key.
+     *
+     * @param accountId The ID of the account that owns the device.
+     * @param deviceId  The ID of the device.
+     * @return The new key, including its secret.
+     * @throws com.example.iotbackend.exception.ResourceNotFoundException if the device does not exist or belongs to another account.
+     */
+    DeviceCredentialResponse issueKey(Long accountId, Long deviceId);
+
+    /**
+     * Revokes the key of a device owned by the given account.
+     *
+     * @param accountId The ID of the account that owns the device.
+     * @param deviceId  The ID of the device.
+     * @throws com.example.iotbackend.exception.ResourceNotFoundException if the device does not exist or belongs to another account.
+     */
+    void revokeKey(Long accountId, Long deviceId);
+
+    /**
+     * Reloads all device keys into the in-memory key cache.
+     */
+    void reloadKeys();
+}
@@ -0,0 +1,107 @@
+package com.example.iotbackend.service;
+
+import com.example.iotbackend.dto.response.DeviceAreaResponse;
+import com.example.iotbackend.dto.response.DeviceLocationResponse;
+import com.example.iotbackend.dto.response.DeviceResponse;
+import com.example.iotbackend.model.Device;
+import com.example.iotbackend.repository.projection.VersionStamp;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * DeviceService defines operations related to devices.
+ */
+public interface DeviceService extends IService<Device, Long> {
+
+    /**
+     * Records a heartbeat from a device owned by the given account.
+     *
+     * @param accountId The ID of the account that owns the device.
+     * @param deviceId  The ID of the device.
+     * @throws ResourceNotFoundException if the device does not exist or belongs to another account.
+     */
+    void heartbeat(Long accountId, Long deviceId);
+
+    /**
+     * Records a heartbeat from a device that authenticated with its own key,
+     * which already proves that the device exists.
+     *
+     * @param deviceId The ID of the device.
+     */
+    void heartbeat(Long deviceId);
+
+    /**
+     * Retrieves all devices owned by the given account.
+     *
+     * @param accountId The ID of the owning account.
+     * @return A list of DeviceResponse objects.
+     */
+    List<DeviceResponse> getDevicesForAccount(Long accountId);
+
+    /**
+     * Retrieves a device owned by the given account.
+     *
+     * @param accountId The ID of the owning account.
+     * @param deviceId  The ID of the device.
+     * @return The device details.
+     * @throws ResourceNotFoundException if the device does not exist or belongs to another account.
+     */
+    DeviceResponse getDeviceResponse(Long accountId, Long deviceId);
+
+    /**
+     * Retrieves the version of a device owned by the given account without loading it.
+     *
+     * @param accountId The ID of the owning account.
+     * @param deviceId  The ID of the device.
+     * @return An Optional containing the version timestamp, or empty if it is unknown.
+     */
+    Optional<LocalDateTime> getDeviceVersion(Long accountId, Long deviceId);
+
+    /**
+     * Retrieves the version of the device list of an account without loading the devices.
+     *
+     * @param accountId The ID of the owning account.
+     * @return The number of devices and their latest modification time.
+     */
+    VersionStamp getDeviceListVersion(Long accountId);
+
+    /**
+     * Sets the location of a device owned by the given account.
+     *
+     * @param accountId The ID of the owning account.
+     * @param deviceId  The ID of the device.
+     * @param latitude  The latitude in degrees.
+     * @param longitude The longitude in degrees.
+     * @throws ResourceNotFoundException if the device does not exist or belongs to another account.
+     */
+    void updateLocation(Long accountId, Long deviceId, double latitude, double longitude);
+
+    /**
+     * Finds the located devices of an account inside a bounding box.
+     *
+     * @param accountId The ID of the owning account.
+     * @param south     The southern edge in degrees.
+     * @param west      The western edge in degrees; greater than east for a box crossing the antimeridian.
+     * @param north     The northern edge in degrees.
+     * @param east      The eastern edge in degrees.
+     * @param limit     The maximum number of devices to return.
+     * @return The devices found, and whether the box holds more.
+     * @throws BadRequestException if the southern edge lies north of the northern edge.
+     * @throws ServiceUnavailableException if the geospatial index has not been loaded yet.
+     */
+    DeviceAreaResponse findDevicesInArea(Long accountId, double south, double west, double north, double east, int limit);
+
+    /**
+     * Finds the located devices of an account closest to a location.
+     *
+     * @param accountId The ID of the owning account.
+     * @param latitude  The latitude in degrees.
+     * @param longitude The longitude in degrees.
+     * @param count     The number of devices to return.
+     * @return Up to {@code count} devices with their distances, closest first.
+     * @throws ServiceUnavailableException if the geospatial index has not been loaded yet.
+     */
+    List<DeviceLocationResponse> findNearestDevices(Long accountId, double latitude, double longitude, int count);
+}
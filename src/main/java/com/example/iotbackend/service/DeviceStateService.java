@@ -0,0 +1,27 @@
+package com.example.iotbackend.service;
+
+import com.example.iotbackend.dto.response.DeviceStateResponse;
+
+import java.time.LocalDateTime;
+
+/**
+ * DeviceStateService answers questions about the status history of devices and keeps that history compact.
+ */
+public interface DeviceStateService {
+
+    /**
+     * Finds the status a device of the given account had at a point in time.
+     *
+     * @param accountId The ID of the account that owns the device.
+     * @param deviceId  The ID of the device.
+     * @param at        The point in time.
+     * @return The status in effect at that time and when it was entered.
+     * @throws com.example.iotbackend.exception.ResourceNotFoundException if the device does not exist or belongs to another account.
+     */
+    DeviceStateResponse getStatusAt(Long accountId, Long deviceId, LocalDateTime at);
+
+    /**
+     * Moves logged status changes older than the compaction delay into compacted segments.
+     */
+    void compact();
+}
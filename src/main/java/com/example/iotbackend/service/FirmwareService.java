@@ -0,0 +1,74 @@
+package com.example.iotbackend.service;
+
+import com.example.iotbackend.dto.request.FirmwareUploadRequest;
+import com.example.iotbackend.dto.response.FirmwareReleaseResponse;
+import com.example.iotbackend.model.FirmwareRelease;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * FirmwareService defines operations for publishing firmware releases and offering them to devices.
+ * A release targets the devices of one type of its account, and is offered to a configurable share of them.
+ */
+public interface FirmwareService extends IService<FirmwareRelease, Long> {
+
+    /**
+     * Retrieves all firmware releases of the given account, newest first.
+     *
+     * @param accountId The ID of the account.
+     * @return A list of FirmwareReleaseResponse objects.
+     */
+    List<FirmwareReleaseResponse> getReleasesForAccount(Long accountId);
+
+    /**
+     * Stores a firmware image and publishes it as a release for a device type.
+     *
+     * @param accountId The ID of the owning account.
+     * @param request   The device type, version and initial rollout share.
+     * @param image     The image content.
+     * @return The created release.
+     */
+    FirmwareReleaseResponse publish(Long accountId, FirmwareUploadRequest request, InputStream image) throws IOException;
+
+    /**
+     * Changes the share of devices a release is offered to.
+     *
+     * @param accountId      The ID of the owning account.
+     * @param releaseId      The ID of the release.
+     * @param rolloutPercent The new share, from 0 to 100.
+     * @return The updated release.
+     */
+    FirmwareReleaseResponse updateRollout(Long accountId, Long releaseId, int rolloutPercent);
+
+    /**
+     * Finds the release a device should run, if it differs from the one it reports.
+     *
+     * @param accountId      The ID of the account owning the device.
+     * @param deviceId       The ID of the device.
+     * @param currentVersion The version the device runs, or null if unknown.
+     * @return The release to install, or empty if the device is up to date.
+     */
+    Optional<FirmwareReleaseResponse> findUpdate(Long accountId, Long deviceId, String currentVersion);
+
+    /**
+     * Returns a release that targets the type of the given device, for download.
+     *
+     * @param accountId The ID of the account owning the device.
+     * @param deviceId  The ID of the device.
+     * @param releaseId The ID of the release.
+     * @return The release.
+     */
+    FirmwareRelease getReleaseForDevice(Long accountId, Long deviceId, Long releaseId);
+
+    /**
+     * Returns the location of the image of a release.
+     *
+     * @param release The release.
+     * @return The path of the image file.
+     */
+    Path imagePath(FirmwareRelease release);
+}
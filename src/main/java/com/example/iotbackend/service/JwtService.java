@@ -1,5 +1,7 @@
 package com.example.iotbackend.service;
 
+import io.jsonwebtoken.Claims;
+
 /**
  * JwtService is an interface that defines the operations related to JSON Web Token (JWT) generation, validation,
  * and extraction. This service is used for handling authentication and authorization in the system via JWT tokens.
@@ -29,4 +31,12 @@ public interface JwtService {
      * @return The username (subject) extracted from the token.
      */
     String extractUsername(String token);
+
+    /**
+     * Parses the given JWT token, verifying its signature and expiry.
+     *
+     * @param token The JWT token to parse.
+     * @return The claims of the token.
+     */
+    Claims parseToken(String token);
 }
@@ -2,6 +2,7 @@ package com.example.iotbackend.service;
 
 import com.example.iotbackend.model.PasswordReset;
 
+import java.time.LocalDateTime;
 import java.util.Optional;
 
 /**
@@ -25,4 +26,35 @@ public interface PasswordResetService extends IService<PasswordReset, Long> {
      * @return An Optional containing the PasswordReset if found, or empty otherwise.
      */
     Optional<PasswordReset> findByAccountIdAndOtp(Long accountId, String otp);
+
+    /**
+     * Atomically marks an unexpired, not yet verified OTP as verified.
+     *
+     * @param accountId The ID of the account.
+     * @param otp The One-Time Password to verify.
+     * @param now The current time.
+     * @return true if the OTP was verified by this call.
+     */
+    boolean markVerified(Long accountId, String otp, LocalDateTime now);
+
+    /**
+     * Checks whether an OTP is verified and unexpired. The answer may be stale by the time it is used;
+     * {@link #consumeVerified} remains the authoritative check.
+     *
+     * @param accountId The ID of the account.
+     * @param otp The One-Time Password.
+     * @param now The current time.
+     * @return true if the OTP is verified and unexpired.
+     */
+    boolean isVerified(Long accountId, String otp, LocalDateTime now);
+
+    /**
+     * Atomically deletes a verified, unexpired OTP so that it cannot be used again.
+     *
+     * @param accountId The ID of the account.
+     * @param otp The verified One-Time Password.
+     * @param now The current time.
+     * @return true if the OTP was consumed by this call.
+     */
+    boolean consumeVerified(Long accountId, String otp, LocalDateTime now);
 }
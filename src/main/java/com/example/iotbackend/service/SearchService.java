@@ -0,0 +1,29 @@
+package com.example.iotbackend.service;
+
+import com.example.iotbackend.dto.request.DeviceSearchRequest;
+import com.example.iotbackend.dto.request.SearchRequest;
+import com.example.iotbackend.dto.response.AccountResponse;
+import com.example.iotbackend.dto.response.DeviceResponse;
+import com.example.iotbackend.dto.response.SearchPageResponse;
+
+/**
+ * SearchService defines the type-ahead searches of the admin tooling.
+ */
+public interface SearchService {
+
+    /**
+     * Searches the accounts by email and full name.
+     *
+     * @param request The text typed so far and the page.
+     * @return The page of matching accounts.
+     */
+    SearchPageResponse<AccountResponse> searchAccounts(SearchRequest request);
+
+    /**
+     * Searches the devices of one account by name.
+     *
+     * @param request The account, the text typed so far and the page.
+     * @return The page of matching devices.
+     */
+    SearchPageResponse<DeviceResponse> searchDevices(DeviceSearchRequest request);
+}
@@ -0,0 +1,31 @@
+package com.example.iotbackend.service;
+
+import com.example.iotbackend.dto.request.TelemetryExportRequest;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * TelemetryExportService streams the stored telemetry of a device.
+ */
+public interface TelemetryExportService {
+
+    /**
+     * Checks that the device exists and belongs to the given account.
+     *
+     * @param accountId The ID of the account.
+     * @param deviceId  The ID of the device.
+     * @throws com.example.iotbackend.exception.ResourceNotFoundException if the device does not exist or belongs to another account.
+     */
+    void requireExportable(Long accountId, Long deviceId);
+
+    /**
+     * Writes the matching readings of a device to the given stream in ID order.
+     *
+     * @param deviceId The ID of the device.
+     * @param request  The export parameters.
+     * @param out      The stream to write to; flushed after every page.
+     * @throws IOException if writing to the stream fails.
+     */
+    void export(Long deviceId, TelemetryExportRequest request, OutputStream out) throws IOException;
+}
@@ -0,0 +1,33 @@
+package com.example.iotbackend.service;
+
+import com.example.iotbackend.dto.request.TelemetryQueryRequest;
+import com.example.iotbackend.dto.request.TelemetryRequest;
+import com.example.iotbackend.dto.response.TelemetryResponse;
+import com.example.iotbackend.dto.response.TelemetrySeriesResponse;
+
+/**
+ * TelemetryService defines operations for ingesting and reading device telemetry.
+ */
+public interface TelemetryService {
+
+    /**
+     * Stores a batch of readings for a device owned by the given account
+     * and evaluates the alert rules that apply to it.
+     *
+     * @param accountId The ID of the account that owns the device.
+     * @param deviceId  The ID of the reporting device.
+     * @param request   The batch of readings.
+     * @return TelemetryResponse A summary of the accepted readings and triggered alerts.
+     */
+    TelemetryResponse ingest(Long accountId, Long deviceId, TelemetryRequest request);
+
+    /**
+     * Returns the readings of one metric of a device owned by the given account over a time range.
+     *
+     * @param accountId The ID of the account that owns the device.
+     * @param deviceId  The ID of the device.
+     * @param request   The metric and time range.
+     * @return TelemetrySeriesResponse The readings, ordered by time.
+     */
+    TelemetrySeriesResponse query(Long accountId, Long deviceId, TelemetryQueryRequest request);
+}
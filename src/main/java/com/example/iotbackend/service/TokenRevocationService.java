@@ -0,0 +1,34 @@
+package com.example.iotbackend.service;
+
+import io.jsonwebtoken.Claims;
+
+/**
+ * TokenRevocationService records revoked JWTs and answers whether a token has been revoked.
+ */
+public interface TokenRevocationService {
+
+    /**
+     * Revokes the token described by the given claims until it expires.
+     *
+     * @param claims The verified claims of the token to revoke.
+     */
+    void revoke(Claims claims);
+
+    /**
+     * Checks whether the token with the given ID has been revoked.
+     *
+     * @param jti The token ID ({@code jti} claim).
+     * @return true if the token has been revoked.
+     */
+    boolean isRevoked(String jti);
+
+    /**
+     * Adds revocations recently made through other instances to the in-memory filter.
+     */
+    void poll();
+
+    /**
+     * Drops expired revocations and rebuilds the in-memory filter from the exact store.
+     */
+    void rebuild();
+}
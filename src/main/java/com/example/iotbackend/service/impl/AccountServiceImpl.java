@@ -5,15 +5,19 @@ import com.example.iotbackend.dto.response.*;
 import com.example.iotbackend.exception.BadRequestException;
 import com.example.iotbackend.exception.ConflictException;
 import com.example.iotbackend.exception.ResourceNotFoundException;
+import com.example.iotbackend.exception.TooManyRequestsException;
 import com.example.iotbackend.exception.UnauthorizedException;
 import com.example.iotbackend.model.Account;
+import com.example.iotbackend.model.AuditEventType;
 import com.example.iotbackend.model.PasswordReset;
 import com.example.iotbackend.repository.AccountRepository;
+import com.example.iotbackend.security.BruteForceGuard;
 import com.example.iotbackend.service.AccountService;
 import com.example.iotbackend.service.EmailService;
 import com.example.iotbackend.service.JwtService;
 import com.example.iotbackend.service.PasswordResetService;
-import jakarta.transaction.Transactional;
+import com.example.iotbackend.service.TokenRevocationService;
+import io.jsonwebtoken.Claims;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -21,6 +25,8 @@ import org.springframework.security.authentication.UsernamePasswordAuthenticatio
 import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.security.SecureRandom;
 import java.time.LocalDateTime;
@@ -40,6 +46,11 @@ public class AccountServiceImpl extends AbstractService<Account, Long> implement
     private final JwtService jwtService;
     private final EmailService emailService;
     private final PasswordResetService passwordResetService;
+    private final BruteForceGuard bruteForceGuard;
+    private final TokenRevocationService tokenRevocationService;
+    private final CoalescingLookups coalescingLookups;
+    private final TransactionTemplate transactionTemplate;
+    private final AuditLog auditLog;
 
     /**
      * Returns the repository for performing CRUD operations on Account entities.
@@ -53,25 +64,45 @@ public class AccountServiceImpl extends AbstractService<Account, Long> implement
 
     /**
      * Retrieves account details by its ID.
+     * The details are selected straight into the response in a read-only transaction,
+     * so neither the password hash nor a managed entity is loaded.
      *
      * @param id The ID of the account to retrieve.
      * @return An AccountResponse object containing the account details.
      * @throws ResourceNotFoundException if the account with the given ID is not found.
      */
     @Override
+    @Transactional(readOnly = true)
     public AccountResponse getAccountResponseById(Long id) {
-        Account account = accountRepository.findById(id)
+        return accountRepository.findResponseById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Account not found with ID: " + id));
+    }
 
-        return new AccountResponse(
-                account.getId(),
-                account.getEmail(),
-                account.getFullName(),
-                account.getPhoneNumber(),
-                account.getRoleId(),
-                account.getCreatedAt(),
-                account.getUpdatedAt()
-        );
+    /**
+     * Retrieves the version of an account without loading the entity.
+     *
+     * @param id The ID of the account.
+     * @return An Optional containing the version timestamp, or empty if it is unknown.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<LocalDateTime> getAccountVersion(Long id) {
+        return accountRepository.findVersionById(id);
+    }
+
+    /**
+     * Retrieves the ID of the account with the given email address.
+     *
+     * Concurrent requests for the same email share one query.
+     *
+     * @param email The email of the account.
+     * @return The ID of the account.
+     * @throws ResourceNotFoundException if no account is found with the given email.
+     */
+    @Override
+    public Long getAccountIdByEmail(String email) {
+        return coalescingLookups.findAccountIdByEmail(email)
+                .orElseThrow(() -> new ResourceNotFoundException("Account not found with email: " + email));
     }
 
     /**
@@ -90,13 +121,22 @@ public class AccountServiceImpl extends AbstractService<Account, Long> implement
     /**
      * Authenticates a user based on the provided login request (email and password).
      * If authentication is successful, a JWT token is generated.
+     * Accounts and clients with too many recent failures are rejected before the password is hashed.
      *
-     * @param loginRequest The login credentials (email and password).
+     * @param loginRequest  The login credentials (email and password).
+     * @param clientAddress The address of the calling client, or null if unknown.
      * @return A JWT token if authentication is successful.
      * @throws BadRequestException if authentication fails (invalid username or password).
+     * @throws com.example.iotbackend.exception.TooManyRequestsException if the account or client is locked out.
      */
     @Override
-    public String authenticate(LoginRequest loginRequest) {
+    public String authenticate(LoginRequest loginRequest, String clientAddress) {
+        try {
+            bruteForceGuard.check(BruteForceGuard.Kind.LOGIN, loginRequest.getEmail(), clientAddress);
+        } catch (TooManyRequestsException e) {
+            auditLog.record(AuditEventType.LOGIN_LOCKED_OUT, null, loginRequest.getEmail(), clientAddress);
+            throw e;
+        }
         try {
             // Authenticate with user information
             authenticationManager.authenticate(
@@ -105,9 +145,12 @@ public class AccountServiceImpl extends AbstractService<Account, Long> implement
                             loginRequest.getPassword()
                     )
             );
+            auditLog.record(AuditEventType.LOGIN_SUCCEEDED, null, loginRequest.getEmail(), clientAddress);
             // Generate and return a JWT token upon successful authentication
             return jwtService.generateToken(loginRequest.getEmail());
         } catch (AuthenticationException e) {
+            bruteForceGuard.recordFailure(BruteForceGuard.Kind.LOGIN, loginRequest.getEmail(), clientAddress);
+            auditLog.record(AuditEventType.LOGIN_FAILED, null, loginRequest.getEmail(), clientAddress);
             // Throw UnauthorizedException if authentication fails due to invalid credentials
             throw new UnauthorizedException("Invalid username or password");
         }
@@ -147,21 +190,16 @@ public class AccountServiceImpl extends AbstractService<Account, Long> implement
      * Initiates the password reset process by generating an OTP and sending it to the user's email.
      *
      * @param forgotPasswordRequest The request containing the user's email.
+     * @param clientAddress         The address of the calling client, or null if unknown.
      * @return ForgotPasswordResponse A response message indicating that the OTP has been sent.
      * @throws BadRequestException if no account is found with the provided email.
      */
     @Override
-    public ForgotPasswordResponse initiateForgotPassword(ForgotPasswordRequest forgotPasswordRequest) {
+    public ForgotPasswordResponse initiateForgotPassword(ForgotPasswordRequest forgotPasswordRequest, String clientAddress) {
         String email = forgotPasswordRequest.getEmail();
-        // Retrieve the account associated with the provided email
-        Optional<Account> accountOpt = accountRepository.findByEmail(email);
-
-        if (accountOpt.isEmpty()) {
-            throw new BadRequestException("No account found with the provided email.");
-        }
-
-        Account account = accountOpt.get();
-        Long accountId = account.getId();
+        // Retrieve the ID of the account associated with the provided email
+        Long accountId = coalescingLookups.findAccountIdByEmail(email)
+                .orElseThrow(() -> new BadRequestException("No account found with the provided email."));
 
         // Generate a 6-digit OTP
         String otp = generateOtp();
@@ -182,6 +220,7 @@ public class AccountServiceImpl extends AbstractService<Account, Long> implement
 
         // Send the generated OTP to the user's email
         emailService.sendOtpEmail(email, otp);
+        auditLog.record(AuditEventType.OTP_ISSUED, accountId, email, clientAddress);
 
         // Return a response indicating that the OTP has been sent
         return new ForgotPasswordResponse("OTP has been sent to your email.");
@@ -191,47 +230,38 @@ public class AccountServiceImpl extends AbstractService<Account, Long> implement
      * Verifies the OTP provided by the user.
      *
      * @param verifyOtpRequest The request containing the user's email and OTP.
+     * @param clientAddress    The address of the calling client, or null if unknown.
      * @return VerifyOtpResponse A response message indicating the result of the OTP verification.
      * @throws BadRequestException if the OTP is invalid, expired, or has already been used.
+     * @throws com.example.iotbackend.exception.TooManyRequestsException if too many wrong OTPs were submitted.
      */
     @Override
-    public VerifyOtpResponse verifyOtp(VerifyOtpRequest verifyOtpRequest) {
+    public VerifyOtpResponse verifyOtp(VerifyOtpRequest verifyOtpRequest, String clientAddress) {
         String email = verifyOtpRequest.getEmail();
         String otp = verifyOtpRequest.getOtp();
 
-        // Retrieve the account associated with the provided email
-        Optional<Account> accountOpt = accountRepository.findByEmail(email);
-
-        if (accountOpt.isEmpty()) {
-            throw new BadRequestException("No account found with the provided email.");
-        }
-
-        Account account = accountOpt.get();
-        Long accountId = account.getId();
-
-        // Retrieve the PasswordReset entry matching the account ID and OTP
-        Optional<PasswordReset> passwordResetOpt = passwordResetService.findByAccountIdAndOtp(accountId, otp);
-        PasswordReset passwordReset = passwordResetOpt.orElseThrow(() -> new BadRequestException("Invalid OTP."));
-
-        // Check if the OTP has expired
-        if (passwordReset.getExpirationTime().isBefore(LocalDateTime.now())) {
-            // Delete the expired OTP
-            passwordResetService.delete(passwordReset.getId());
-            throw new BadRequestException("OTP has expired. Please request a new one.");
-        }
-
-        // Check if the OTP has already been verified (used)
-        if (Boolean.TRUE.equals(passwordReset.getIsVerified())) {
-            // Delete the already used OTP
-            passwordResetService.delete(passwordReset.getId());
+        // Reject OTP guessing before touching the database
+        bruteForceGuard.check(BruteForceGuard.Kind.OTP, email, clientAddress);
+
+        // Retrieve the ID of the account associated with the provided email
+        Long accountId = coalescingLookups.findAccountIdByEmail(email)
+                .orElseThrow(() -> new BadRequestException("No account found with the provided email."));
+
+        // Verify in one conditional UPDATE; a concurrent duplicate submission finds nothing left to update
+        if (!passwordResetService.markVerified(accountId, otp, LocalDateTime.now())) {
+            auditLog.record(AuditEventType.OTP_REJECTED, accountId, email, clientAddress);
+            // Only the failure path reads the entry, to tell the user why
+            PasswordReset passwordReset = requireOtp(accountId, otp, email, clientAddress);
+            if (passwordReset.getExpirationTime().isBefore(LocalDateTime.now())) {
+                // Delete the expired OTP
+                passwordResetService.delete(passwordReset.getId());
+                throw new BadRequestException("OTP has expired. Please request a new one.");
+            }
+            // Already verified: keep it for the reset, so a repeated submission does not invalidate it
             throw new BadRequestException("OTP has already been used.");
         }
 
-        // Mark the OTP as verified
-        passwordReset.setIsVerified(true);
-        // Save the updated PasswordReset entry
-        passwordResetService.save(passwordReset);
-
+        auditLog.record(AuditEventType.OTP_VERIFIED, accountId, email, clientAddress);
         // Return a response indicating that the OTP has been verified successfully
         return new VerifyOtpResponse("OTP verified successfully.");
     }
@@ -240,49 +270,105 @@ public class AccountServiceImpl extends AbstractService<Account, Long> implement
      * Resets the user's password after successful OTP verification.
      *
      * @param resetPasswordRequest The request containing the user's email, OTP, and new password.
+     * @param clientAddress        The address of the calling client, or null if unknown.
      * @return ResetPasswordResponse A response message confirming the password reset.
      * @throws BadRequestException if the OTP is invalid, expired, or has not been verified.
+     * @throws com.example.iotbackend.exception.TooManyRequestsException if too many wrong OTPs were submitted.
      */
     @Override
-    public ResetPasswordResponse resetPassword(ResetPasswordRequest resetPasswordRequest) {
+    public ResetPasswordResponse resetPassword(ResetPasswordRequest resetPasswordRequest, String clientAddress) {
         String email = resetPasswordRequest.getEmail();
         String otp = resetPasswordRequest.getOtp();
         String newPassword = resetPasswordRequest.getNewPassword();
 
-        // Retrieve the account associated with the provided email
-        Optional<Account> accountOpt = accountRepository.findByEmail(email);
-
-        if (accountOpt.isEmpty()) {
-            throw new BadRequestException("No account found with the provided email.");
+        // Reject OTP guessing before touching the database
+        bruteForceGuard.check(BruteForceGuard.Kind.OTP, email, clientAddress);
+
+        // Retrieve the ID of the account associated with the provided email
+        Long accountId = coalescingLookups.findAccountIdByEmail(email)
+                .orElseThrow(() -> new BadRequestException("No account found with the provided email."));
+
+        boolean reset = false;
+        // Only hash for an OTP that is verified, so that wrong or unverified OTPs cost no BCrypt round
+        if (passwordResetService.isVerified(accountId, otp, LocalDateTime.now())) {
+            // Hash before the transaction, so that no row stays locked while BCrypt runs
+            String encodedPassword = passwordEncoder.encode(newPassword);
+
+            // Consume the verified OTP and set the password in one transaction; a duplicate submission consumes nothing
+            reset = Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+                LocalDateTime now = LocalDateTime.now();
+                if (!passwordResetService.consumeVerified(accountId, otp, now)) {
+                    return false;
+                }
+                accountRepository.updatePassword(accountId, encodedPassword, now);
+                return true;
+            }));
         }
 
-        Account account = accountOpt.get();
-        Long accountId = account.getId();
+        if (!reset) {
+            auditLog.record(AuditEventType.PASSWORD_RESET_REJECTED, accountId, email, clientAddress);
+            // Only the failure path reads the entry, to tell the user why
+            PasswordReset passwordReset = requireOtp(accountId, otp, email, clientAddress);
+            if (passwordReset.getExpirationTime().isBefore(LocalDateTime.now())) {
+                passwordResetService.delete(passwordReset.getId());
+                throw new BadRequestException("OTP has expired. Please request a new one.");
+            }
+            throw new BadRequestException("OTP has not been verified. Please verify the OTP first.");
+        }
 
-        // Retrieve the PasswordReset entry matching the account ID and OTP
-        Optional<PasswordReset> passwordResetOpt = passwordResetService.findByAccountIdAndOtp(accountId, otp);
-        PasswordReset passwordReset = passwordResetOpt.orElseThrow(() -> new BadRequestException("Invalid OTP."));
+        auditLog.record(AuditEventType.PASSWORD_RESET, accountId, email, clientAddress);
+        // Return a response indicating that the password has been reset successfully
+        return new ResetPasswordResponse("Password has been reset successfully.");
+    }
 
-        // Check if the OTP has expired
-        if (passwordReset.getExpirationTime().isBefore(LocalDateTime.now())) {
-            passwordResetService.delete(passwordReset.getId());
-            throw new BadRequestException("OTP has expired. Please request a new one.");
-        }
+    /**
+     * Returns the PasswordReset entry matching the account and OTP, counting a brute-force failure if there is none.
+     *
+     * @param accountId     The ID of the account.
+     * @param otp           The submitted OTP.
+     * @param email         The account email, used as the brute-force key.
+     * @param clientAddress The address of the calling client, also used as a brute-force key.
+     * @return The matching PasswordReset entry.
+     * @throws BadRequestException if no entry matches.
+     */
+    private PasswordReset requireOtp(Long accountId, String otp, String email, String clientAddress) {
+        return passwordResetService.findByAccountIdAndOtp(accountId, otp).orElseThrow(() -> {
+            bruteForceGuard.recordFailure(BruteForceGuard.Kind.OTP, email, clientAddress);
+            return new BadRequestException("Invalid OTP.");
+        });
+    }
 
-        // Check if the OTP has been verified
-        if (!Boolean.TRUE.equals(passwordReset.getIsVerified())) {
-            throw new BadRequestException("OTP has not been verified. Please verify the OTP first.");
-        }
+    /**
+     * Logs out by revoking the token used for the current request.
+     *
+     * @param token The JWT token of the current request.
+     * @return TokenRevocationResponse A response message confirming the logout.
+     */
+    @Override
+    public TokenRevocationResponse logout(String token) {
+        tokenRevocationService.revoke(jwtService.parseToken(token));
+        return new TokenRevocationResponse("Logged out successfully.");
+    }
 
-        // Update the user's password with the new encoded password
-        account.setPassword(passwordEncoder.encode(newPassword));
-        // Save the updated account to the database
-        accountRepository.save(account);
+    /**
+     * Revokes a token issued to the given account.
+     *
+     * @param email              The email of the authenticated account.
+     * @param revokeTokenRequest The request containing the token to revoke.
+     * @return TokenRevocationResponse A response message confirming the revocation.
+     * @throws BadRequestException if the token belongs to another account.
+     */
+    @Override
+    public TokenRevocationResponse revokeToken(String email, RevokeTokenRequest revokeTokenRequest) {
+        Claims claims = jwtService.parseToken(revokeTokenRequest.getToken());
 
-        passwordResetService.delete(passwordReset.getId());
+        // Accounts may only revoke their own tokens
+        if (!email.equals(claims.getSubject())) {
+            throw new BadRequestException("Token does not belong to the current account.");
+        }
 
-        // Return a response indicating that the password has been reset successfully
-        return new ResetPasswordResponse("Password has been reset successfully.");
+        tokenRevocationService.revoke(claims);
+        return new TokenRevocationResponse("Token has been revoked.");
     }
 
     /**
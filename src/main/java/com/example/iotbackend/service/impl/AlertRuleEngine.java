@@ -0,0 +1,232 @@
+package com.example.iotbackend.service.impl;
+
+import com.example.iotbackend.model.Alert;
+import com.example.iotbackend.model.AlertRule;
+import com.example.iotbackend.model.Device;
+import com.example.iotbackend.model.RuleOperator;
+import com.example.iotbackend.model.Telemetry;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * AlertRuleEngine evaluates alert rules inline on the telemetry ingestion path.
+ * <p>
+ * Enabled rules are compiled into an immutable index keyed by account ID, device type and metric,
+ * so each reading is only checked against the rules that can apply to it. Rule parameters and the
+ * per-device "consecutive matches" counters are kept in primitive arrays. Evaluation never touches
+ * the database; the index is swapped atomically whenever the rules are reloaded. Groups whose rules did
+ * not change are carried into the new index as they are, so reloads do not reset their streaks.
+ */
+@Component
+public class AlertRuleEngine {
+
+    private volatile CompiledRules compiled = CompiledRules.EMPTY;  // Current rule index, replaced on reload
+
+    /**
+     * Compiles the given rules into a new index and makes it active.
+     * Streak counters survive for every rule whose condition is unchanged; a new or modified rule starts
+     * counting from zero. Concurrent reloads are serialized, so each compiles from the index the previous one
+     * produced; evaluation is never blocked.
+     *
+     * @param rules The enabled rules to compile.
+     */
+    public synchronized void load(List<AlertRule> rules) {
+        this.compiled = CompiledRules.compile(rules, compiled);
+    }
+
+    /**
+     * Returns the number of rules in the active index.
+     *
+     * @return The number of compiled rules.
+     */
+    public int size() {
+        return compiled.size;
+    }
+
+    /**
+     * Evaluates a batch of readings from one device against the compiled rules.
+     *
+     * @param device   The device that produced the readings.
+     * @param readings The readings, in the order they were reported.
+     * @return The alerts triggered by the batch; an empty list if none fired.
+     */
+    public List<Alert> evaluate(Device device, List<Telemetry> readings) {
+        // Resolve the rules for this account and device type once per batch
+        Map<String, RuleGroup> byMetric = compiled.lookup(device.getAccountId(), device.getType());
+        if (byMetric == null) {
+            return Collections.emptyList();
+        }
+
+        List<Alert> alerts = null;
+        for (Telemetry reading : readings) {
+            RuleGroup group = byMetric.get(reading.getMetric());
+            if (group == null) {
+                continue;
+            }
+            alerts = group.evaluate(device.getId(), reading, alerts);
+        }
+        return alerts == null ? Collections.emptyList() : alerts;
+    }
+
+    /**
+     * Immutable rule index: account ID -> device type -> metric -> rule group.
+     */
+    private static final class CompiledRules {
+
+        static final CompiledRules EMPTY = new CompiledRules(Collections.emptyMap(), 0);
+
+        private final Map<Long, Map<String, Map<String, RuleGroup>>> index;
+        private final int size;
+
+        private CompiledRules(Map<Long, Map<String, Map<String, RuleGroup>>> index, int size) {
+            this.index = index;
+            this.size = size;
+        }
+
+        static CompiledRules compile(List<AlertRule> rules, CompiledRules previous) {
+            // Group the rules by their index key before building the primitive arrays
+            Map<Long, Map<String, Map<String, List<AlertRule>>>> grouped = new HashMap<>();
+            for (AlertRule rule : rules) {
+                grouped.computeIfAbsent(rule.getAccountId(), k -> new HashMap<>())
+                        .computeIfAbsent(rule.getDeviceType(), k -> new HashMap<>())
+                        .computeIfAbsent(rule.getMetric(), k -> new ArrayList<>())
+                        .add(rule);
+            }
+
+            Map<Long, Map<String, Map<String, RuleGroup>>> index = new HashMap<>();
+            grouped.forEach((accountId, byType) -> {
+                Map<String, Map<String, RuleGroup>> types = new HashMap<>();
+                byType.forEach((type, byMetric) -> {
+                    Map<String, RuleGroup> metrics = new HashMap<>();
+                    byMetric.forEach((metric, group) ->
+                            metrics.put(metric, RuleGroup.of(group, previous.lookup(accountId, type, metric))));
+                    types.put(type, Map.copyOf(metrics));
+                });
+                index.put(accountId, Map.copyOf(types));
+            });
+            return new CompiledRules(Map.copyOf(index), rules.size());
+        }
+
+        Map<String, RuleGroup> lookup(Long accountId, String deviceType) {
+            Map<String, Map<String, RuleGroup>> byType = index.get(accountId);
+            return byType == null ? null : byType.get(deviceType);
+        }
+
+        RuleGroup lookup(Long accountId, String deviceType, String metric) {
+            Map<String, RuleGroup> byMetric = lookup(accountId, deviceType);
+            return byMetric == null ? null : byMetric.get(metric);
+        }
+    }
+
+    /**
+     * All rules sharing the same account, device type and metric, stored column-wise.
+     * The streak counters of a device are a single int array aligned with the rule columns.
+     */
+    private static final class RuleGroup {
+
+        private final long[] ruleIds;
+        private final RuleOperator[] operators;
+        private final double[] thresholds;
+        private final int[] required;
+        private final Map<Long, int[]> streaks = new ConcurrentHashMap<>();  // Device ID -> consecutive match counts
+
+        /**
+         * Builds the group for the given rules, reusing the previous group for the same key if its rules
+         * are identical, or else carrying over the streaks of the rules that kept their condition.
+         */
+        static RuleGroup of(List<AlertRule> rules, RuleGroup previous) {
+            RuleGroup group = new RuleGroup(rules);
+            if (previous == null) {
+                return group;
+            }
+            if (Arrays.equals(group.ruleIds, previous.ruleIds) && Arrays.equals(group.operators, previous.operators)
+                    && Arrays.equals(group.thresholds, previous.thresholds) && Arrays.equals(group.required, previous.required)) {
+                return previous;
+            }
+            group.carryStreaks(previous);
+            return group;
+        }
+
+        private RuleGroup(List<AlertRule> rules) {
+            int n = rules.size();
+            ruleIds = new long[n];
+            operators = new RuleOperator[n];
+            thresholds = new double[n];
+            required = new int[n];
+            for (int i = 0; i < n; i++) {
+                AlertRule rule = rules.get(i);
+                ruleIds[i] = rule.getId();
+                operators[i] = rule.getOperator();
+                thresholds[i] = rule.getThreshold();
+                required[i] = Math.max(1, rule.getConsecutiveReadings());
+            }
+        }
+
+        /**
+         * Copies the counters of rules with the same ID and condition from the previous group. Readings
+         * evaluated by the previous group while this runs may be missed by the copy.
+         */
+        private void carryStreaks(RuleGroup previous) {
+            int[] source = new int[ruleIds.length];  // Column in the previous group, or -1
+            boolean any = false;
+            for (int i = 0; i < ruleIds.length; i++) {
+                source[i] = -1;
+                for (int j = 0; j < previous.ruleIds.length; j++) {
+                    if (previous.ruleIds[j] == ruleIds[i] && previous.operators[j] == operators[i]
+                            && previous.thresholds[j] == thresholds[i] && previous.required[j] == required[i]) {
+                        source[i] = j;
+                        any = true;
+                        break;
+                    }
+                }
+            }
+            if (!any) {
+                return;
+            }
+
+            previous.streaks.forEach((deviceId, previousStreak) -> {
+                int[] streak = new int[ruleIds.length];
+                synchronized (previousStreak) {
+                    for (int i = 0; i < ruleIds.length; i++) {
+                        if (source[i] >= 0) {
+                            streak[i] = previousStreak[source[i]];
+                        }
+                    }
+                }
+                streaks.put(deviceId, streak);
+            });
+        }
+
+        List<Alert> evaluate(Long deviceId, Telemetry reading, List<Alert> alerts) {
+            int[] streak = streaks.computeIfAbsent(deviceId, k -> new int[ruleIds.length]);
+            double value = reading.getValue();
+
+            // Readings of one device normally arrive on one thread, so this lock is uncontended
+            synchronized (streak) {
+                for (int i = 0; i < ruleIds.length; i++) {
+                    if (!operators[i].test(value, thresholds[i])) {
+                        streak[i] = 0;
+                        continue;
+                    }
+                    // Fire exactly once when the streak reaches the required length
+                    if (++streak[i] == required[i]) {
+                        if (alerts == null) {
+                            alerts = new ArrayList<>();
+                        }
+                        alerts.add(new Alert(null, ruleIds[i], deviceId, reading.getMetric(), value, reading.getRecordedAt()));
+                    } else if (streak[i] > required[i]) {
+                        streak[i] = required[i];  // Saturate so long runs cannot overflow
+                    }
+                }
+            }
+            return alerts;
+        }
+    }
+}
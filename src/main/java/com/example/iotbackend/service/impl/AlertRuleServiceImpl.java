@@ -0,0 +1,136 @@
+package com.example.iotbackend.service.impl;
+
+import com.example.iotbackend.dto.request.AlertRuleRequest;
+import com.example.iotbackend.dto.response.AlertRuleResponse;
+import com.example.iotbackend.exception.ResourceNotFoundException;
+import com.example.iotbackend.model.AlertRule;
+import com.example.iotbackend.repository.AlertRuleRepository;
+import com.example.iotbackend.service.AlertRuleService;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+/**
+ * AlertRuleServiceImpl manages alert rules and keeps the AlertRuleEngine index up to date.
+ * The index is rebuilt on startup, after every rule change has committed, and periodically so that
+ * changes made through other instances are picked up.
+ */
+@Service
+@RequiredArgsConstructor
+public class AlertRuleServiceImpl extends AbstractService<AlertRule, Long> implements AlertRuleService {
+
+    private final AlertRuleRepository alertRuleRepository;
+    private final AlertRuleEngine alertRuleEngine;
+
+    /**
+     * Returns the repository for performing CRUD operations on AlertRule entities.
+     *
+     * @return The AlertRuleRepository instance.
+     */
+    @Override
+    protected JpaRepository<AlertRule, Long> getRepository() {
+        return alertRuleRepository;
+    }
+
+    /**
+     * Retrieves all alert rules owned by the given account.
+     *
+     * @param accountId The ID of the account.
+     * @return A list of AlertRuleResponse objects.
+     */
+    @Override
+    public List<AlertRuleResponse> getRulesForAccount(Long accountId) {
+        return alertRuleRepository.findAllByAccountId(accountId).stream()
+                .map(AlertRuleServiceImpl::toResponse)
+                .toList();
+    }
+
+    /**
+     * Creates a new alert rule for the given account and recompiles the rule index.
+     *
+     * @param accountId The ID of the owning account.
+     * @param request   The rule definition.
+     * @return The created rule.
+     */
+    @Override
+    @Transactional
+    public AlertRuleResponse createRule(Long accountId, AlertRuleRequest request) {
+        AlertRule rule = new AlertRule();
+        rule.setAccountId(accountId);
+        rule.setDeviceType(request.getDeviceType());
+        rule.setMetric(request.getMetric());
+        rule.setOperator(request.getOperator());
+        rule.setThreshold(request.getThreshold());
+        rule.setConsecutiveReadings(request.getConsecutiveReadings() == null ? 1 : request.getConsecutiveReadings());
+        rule.setEnabled(true);
+
+        AlertRule saved = save(rule);
+        reloadRulesAfterCommit();
+        return toResponse(saved);
+    }
+
+    /**
+     * Deletes an alert rule owned by the given account and recompiles the rule index.
+     *
+     * @param accountId The ID of the owning account.
+     * @param ruleId    The ID of the rule to delete.
+     * @throws ResourceNotFoundException if the rule does not exist or belongs to another account.
+     */
+    @Override
+    @Transactional
+    public void deleteRule(Long accountId, Long ruleId) {
+        AlertRule rule = alertRuleRepository.findByIdAndAccountId(ruleId, accountId)
+                .orElseThrow(() -> new ResourceNotFoundException("Alert rule not found with ID: " + ruleId));
+        alertRuleRepository.delete(rule);
+        reloadRulesAfterCommit();
+    }
+
+    /**
+     * Reloads all enabled rules from the database into the rule engine.
+     * Runs once the application is ready and then on a fixed delay. Reloads are serialized from reading
+     * to loading, so a reload that read the rules earlier never replaces the index of a later one.
+     */
+    @Override
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${alerts.rules.reload-ms:60000}", fixedDelayString = "${alerts.rules.reload-ms:60000}")
+    public synchronized void reloadRules() {
+        alertRuleEngine.load(alertRuleRepository.findAllByEnabledTrue());
+    }
+
+    /**
+     * Reloads the rules once the current transaction has committed, so that a change that is rolled back
+     * is never published and the reload sees the committed change.
+     */
+    private void reloadRulesAfterCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            reloadRules();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                reloadRules();
+            }
+        });
+    }
+
+    private static AlertRuleResponse toResponse(AlertRule rule) {
+        return new AlertRuleResponse(
+                rule.getId(),
+                rule.getDeviceType(),
+                rule.getMetric(),
+                rule.getOperator(),
+                rule.getThreshold(),
+                rule.getConsecutiveReadings(),
+                rule.getEnabled()
+        );
+    }
+}
@@ -0,0 +1,234 @@
+package com.example.iotbackend.service.impl;
+
+import com.example.iotbackend.model.AuditEventType;
+import com.example.iotbackend.util.RingBuffer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * AuditLog records authentication events in the {@code audit_events} table without making the
+ * authentication calls wait for the database.
+ * <p>
+ * Callers write the event into a pre-allocated slot of a {@link RingBuffer} and return. A single
+ * writer thread drains the buffer and inserts the events in JDBC batches; while the database is
+ * unavailable it retries the current batch with backoff and the buffer absorbs new events. When the
+ * buffer is full, the {@code audit.full-policy} decides: {@code DROP} discards the event at once,
+ * {@code WAIT} lets the caller wait up to {@code audit.full-wait-ms} for a free slot before dropping it.
+ * Dropped events are counted in {@code audit.events.dropped}.
+ * <p>
+ * The subject and client address come from unauthenticated requests; they are cut to the column widths
+ * when recorded, and a batch the database still rejects for its data is dropped rather than retried, so
+ * no single request can stall the writer and with it every later event.
+ */
+@Slf4j
+@Component
+public class AuditLog {
+
+    private static final long MAX_BACKOFF_MS = 5000;
+    private static final int SUBJECT_LENGTH = 255;  // audit_events.subject
+    private static final int CLIENT_ADDRESS_LENGTH = 64;  // audit_events.client_address
+
+    private static final String INSERT_EVENT =
+            "insert into audit_events (event_type, account_id, subject, client_address, occurred_at) values (?, ?, ?, ?, ?)";
+
+    /**
+     * What happens to an event recorded while the buffer is full.
+     */
+    public enum FullPolicy {
+        /** Discard the event. */
+        DROP,
+        /** Wait up to audit.full-wait-ms for a free slot, then discard the event. */
+        WAIT
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+    private final RingBuffer<Slot> buffer;
+    private final int batchSize;
+    private final long idleNanos;
+    private final FullPolicy fullPolicy;
+    private final long fullWaitNanos;
+    private final Counter written;
+    private final Counter dropped;
+    private volatile boolean running;
+    private Thread writer;
+
+    public AuditLog(
+            JdbcTemplate jdbcTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${audit.enabled:true}") boolean enabled,
+            @Value("${audit.buffer-size:8192}") int bufferSize,
+            @Value("${audit.batch-size:500}") int batchSize,
+            @Value("${audit.idle-ms:20}") long idleMs,
+            @Value("${audit.full-policy:DROP}") FullPolicy fullPolicy,
+            @Value("${audit.full-wait-ms:5}") long fullWaitMs
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+        this.buffer = new RingBuffer<>(bufferSize, Slot::new);
+        this.batchSize = batchSize;
+        this.idleNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, idleMs));
+        this.fullPolicy = fullPolicy;
+        this.fullWaitNanos = TimeUnit.MILLISECONDS.toNanos(fullWaitMs);
+        this.written = Counter.builder("audit.events.written")
+                .description("Audit events inserted into the database")
+                .register(meterRegistry);
+        this.dropped = Counter.builder("audit.events.dropped")
+                .description("Audit events discarded because the buffer was full or the database rejected them")
+                .register(meterRegistry);
+        Gauge.builder("audit.buffer.pending", buffer, RingBuffer::size)
+                .description("Audit events waiting to be written")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Records an authentication event.
+     *
+     * @param type          The event type.
+     * @param accountId     The ID of the account concerned, or null if unknown.
+     * @param subject       The email the request was made for, or null.
+     * @param clientAddress The address of the calling client, or null if unknown.
+     */
+    public void record(AuditEventType type, Long accountId, String subject, String clientAddress) {
+        if (!enabled) {
+            return;
+        }
+        long sequence = claim();
+        if (sequence < 0) {
+            dropped.increment();
+            return;
+        }
+        Slot slot = buffer.slot(sequence);
+        slot.type = type;
+        slot.accountId = accountId;
+        slot.subject = truncate(subject, SUBJECT_LENGTH);
+        slot.clientAddress = truncate(clientAddress, CLIENT_ADDRESS_LENGTH);
+        slot.occurredAt = System.currentTimeMillis();
+        buffer.publish(sequence);
+    }
+
+    /**
+     * Starts the writer thread once the application is ready.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled || running) {
+            return;
+        }
+        running = true;
+        writer = new Thread(this::writeLoop, "audit-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Stops the writer thread after it has written the events recorded so far, waiting at most
+     * a few seconds; events still buffered after that are lost.
+     */
+    @PreDestroy
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(writer);
+        try {
+            writer.join(MAX_BACKOFF_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private long claim() {
+        long sequence = buffer.tryClaim();
+        if (sequence >= 0 || fullPolicy == FullPolicy.DROP) {
+            return sequence;
+        }
+        long deadline = System.nanoTime() + fullWaitNanos;
+        while (sequence < 0 && System.nanoTime() < deadline) {
+            LockSupport.parkNanos(50_000);
+            sequence = buffer.tryClaim();
+        }
+        return sequence;
+    }
+
+    private void writeLoop() {
+        List<Object[]> batch = new ArrayList<>(batchSize);
+        long backoffMs = 0;
+        while (running || !batch.isEmpty() || buffer.size() > 0) {
+            if (batch.isEmpty()) {
+                buffer.drain(batchSize, slot -> batch.add(slot.copyAndClear()));
+            }
+            if (batch.isEmpty()) {
+                if (!running) {
+                    return;
+                }
+                LockSupport.parkNanos(idleNanos);
+                continue;
+            }
+
+            try {
+                jdbcTemplate.batchUpdate(INSERT_EVENT, batch, new int[]{
+                        Types.VARCHAR, Types.BIGINT, Types.VARCHAR, Types.VARCHAR, Types.TIMESTAMP});
+                written.increment(batch.size());
+                batch.clear();
+                backoffMs = 0;
+            } catch (DataIntegrityViolationException e) {
+                // Retrying cannot help and would keep every later event out
+                log.error("Dropping {} audit events the database rejected: {}", batch.size(), e.getMessage());
+                dropped.increment(batch.size());
+                batch.clear();
+                backoffMs = 0;
+            } catch (RuntimeException e) {
+                if (!running) {
+                    log.error("Discarding {} audit events at shutdown: {}", batch.size(), e.getMessage());
+                    return;
+                }
+                // The database is unavailable; keep the batch and let the buffer take new events meanwhile
+                backoffMs = Math.min(Math.max(50, backoffMs * 2), MAX_BACKOFF_MS);
+                log.warn("Writing {} audit events failed, retrying in {} ms: {}", batch.size(), backoffMs, e.getMessage());
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(backoffMs));
+            }
+        }
+    }
+
+    private static String truncate(String value, int length) {
+        return value == null || value.length() <= length ? value : value.substring(0, length);
+    }
+
+    /**
+     * A reusable buffer slot holding one event.
+     */
+    private static final class Slot {
+        AuditEventType type;
+        Long accountId;
+        String subject;
+        String clientAddress;
+        long occurredAt;
+
+        Object[] copyAndClear() {
+            Object[] row = {type.name(), accountId, subject, clientAddress, new Timestamp(occurredAt)};
+            // Do not keep the strings reachable until the slot is reused
+            accountId = null;
+            subject = null;
+            clientAddress = null;
+            return row;
+        }
+    }
+}
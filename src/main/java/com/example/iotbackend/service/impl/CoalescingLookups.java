@@ -0,0 +1,116 @@
+package com.example.iotbackend.service.impl;
+
+import com.example.iotbackend.model.Device;
+import com.example.iotbackend.model.FirmwareRelease;
+import com.example.iotbackend.repository.AccountRepository;
+import com.example.iotbackend.repository.DeviceRepository;
+import com.example.iotbackend.repository.FirmwareReleaseRepository;
+import com.example.iotbackend.repository.projection.AccountCredentials;
+import com.example.iotbackend.util.SingleFlight;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * CoalescingLookups wraps the hottest repository reads in a {@link SingleFlight}, so that concurrent
+ * identical lookups (e.g. many requests of one account arriving at once) share a single query.
+ * <p>
+ * Each lookup publishes {@code repository.singleflight.calls} and {@code repository.singleflight.shared}
+ * counters and a {@code repository.singleflight.dedup.ratio} gauge, tagged with the lookup name.
+ * Results are shared between threads, so only immutable values and read-only entities go through here.
+ */
+@Component
+public class CoalescingLookups {
+
+    private final AccountRepository accountRepository;
+    private final DeviceRepository deviceRepository;
+    private final FirmwareReleaseRepository firmwareReleaseRepository;
+    private final SingleFlight<String, Optional<AccountCredentials>> credentialsByEmail;
+    private final SingleFlight<String, Optional<Long>> accountIdByEmail;
+    private final SingleFlight<DeviceKey, Optional<Device>> ownedDevice;
+    private final SingleFlight<FirmwareKey, List<FirmwareRelease>> firmwareReleases;
+
+    public CoalescingLookups(AccountRepository accountRepository,
+                             DeviceRepository deviceRepository,
+                             FirmwareReleaseRepository firmwareReleaseRepository,
+                             MeterRegistry meterRegistry) {
+        this.accountRepository = accountRepository;
+        this.deviceRepository = deviceRepository;
+        this.firmwareReleaseRepository = firmwareReleaseRepository;
+        this.credentialsByEmail = register(meterRegistry, "account.credentials.by-email");
+        this.accountIdByEmail = register(meterRegistry, "account.id.by-email");
+        this.ownedDevice = register(meterRegistry, "device.by-id-and-account");
+        this.firmwareReleases = register(meterRegistry, "firmware.by-account-and-type");
+    }
+
+    /**
+     * Finds the authentication data of an account by email.
+     *
+     * @param email The account email.
+     * @return The credentials, or empty if no account uses the email.
+     */
+    public Optional<AccountCredentials> findCredentialsByEmail(String email) {
+        return credentialsByEmail.execute(email, () -> accountRepository.findCredentialsByEmail(email));
+    }
+
+    /**
+     * Finds the ID of the account with the given email.
+     *
+     * @param email The account email.
+     * @return The account ID, or empty if no account uses the email.
+     */
+    public Optional<Long> findAccountIdByEmail(String email) {
+        return accountIdByEmail.execute(email, () -> accountRepository.findIdByEmail(email));
+    }
+
+    /**
+     * Finds a device owned by the given account. The returned entity is detached and shared; callers must not modify it.
+     *
+     * @param deviceId  The ID of the device.
+     * @param accountId The ID of the owning account.
+     * @return The device, or empty if it does not exist or belongs to another account.
+     */
+    public Optional<Device> findOwnedDevice(Long deviceId, Long accountId) {
+        return ownedDevice.execute(new DeviceKey(deviceId, accountId),
+                () -> deviceRepository.findByIdAndAccountId(deviceId, accountId));
+    }
+
+    /**
+     * Finds the firmware releases of an account for a device type, newest first. Many devices of a fleet
+     * check for updates at the same moment, so this is the lookup that coalesces best. The returned
+     * list is unmodifiable and its entities are shared; callers must not modify them.
+     *
+     * @param accountId  The ID of the account.
+     * @param deviceType The device type the releases target.
+     * @return The releases, possibly empty.
+     */
+    public List<FirmwareRelease> findFirmwareReleases(Long accountId, String deviceType) {
+        return firmwareReleases.execute(new FirmwareKey(accountId, deviceType),
+                () -> List.copyOf(firmwareReleaseRepository.findAllByAccountIdAndDeviceTypeOrderByIdDesc(accountId, deviceType)));
+    }
+
+    private static <K, V> SingleFlight<K, V> register(MeterRegistry meterRegistry, String lookup) {
+        SingleFlight<K, V> flight = new SingleFlight<>();
+        FunctionCounter.builder("repository.singleflight.calls", flight, SingleFlight::calls)
+                .description("Lookups requested")
+                .tag("lookup", lookup).register(meterRegistry);
+        FunctionCounter.builder("repository.singleflight.shared", flight, SingleFlight::shared)
+                .description("Lookups answered by a query already in flight")
+                .tag("lookup", lookup).register(meterRegistry);
+        Gauge.builder("repository.singleflight.dedup.ratio", flight,
+                        f -> f.calls() == 0 ? 0 : (double) f.shared() / f.calls())
+                .description("Share of lookups that did not run their own query")
+                .tag("lookup", lookup).register(meterRegistry);
+        return flight;
+    }
+
+    private record DeviceKey(Long deviceId, Long accountId) {
+    }
+
+    private record FirmwareKey(Long accountId, String deviceType) {
+    }
+}
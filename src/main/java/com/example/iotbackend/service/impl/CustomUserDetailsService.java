@@ -1,9 +1,9 @@
 package com.example.iotbackend.service.impl;
 
-import com.example.iotbackend.model.Account;
-import com.example.iotbackend.repository.AccountRepository;
+import com.example.iotbackend.repository.projection.AccountCredentials;
+import com.example.iotbackend.security.AccountUserDetails;
+import com.example.iotbackend.security.RoleAuthorities;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -17,12 +17,14 @@ import org.springframework.stereotype.Service;
 @RequiredArgsConstructor
 public class CustomUserDetailsService implements UserDetailsService {
 
-    private final AccountRepository accountRepository;
+    private final CoalescingLookups coalescingLookups;
+    private final RoleAuthorities roleAuthorities;
 
     /**
      * Loads the user by email for authentication purposes.
-     * It fetches the user from the database and returns a UserDetails object containing
-     * the user credentials (email, password) and roles.
+     * It fetches only the credential columns from the database, sharing the query with concurrent logins
+     * of the same email, and returns a UserDetails object containing the user credentials (email, password)
+     * and the precomputed authorities of the account's role.
      *
      * @param email The email of the user to be authenticated.
      * @return A UserDetails object representing the user.
@@ -30,15 +32,12 @@ public class CustomUserDetailsService implements UserDetailsService {
      */
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
-        // Fetch the account from the database by email
-        Account account = accountRepository.findByEmail(email)
+        // Fetch the account credentials from the database by email
+        AccountCredentials account = coalescingLookups.findCredentialsByEmail(email)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + email));
 
-        // Return a UserDetails object (used by Spring Security for authentication)
-        return User.builder()
-                .username(account.getEmail())
-                .password(account.getPassword())
-                .roles("USER")
-                .build();
+        // Return a UserDetails object (used by Spring Security for authentication) sharing the role's authority set
+        return new AccountUserDetails(account.id(), account.email(), account.password(),
+                roleAuthorities.forRole(account.roleId()));
     }
 }
\ No newline at end of file
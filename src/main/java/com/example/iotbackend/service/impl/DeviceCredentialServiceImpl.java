@@ -0,0 +1,101 @@
+package com.example.iotbackend.service.impl;
+
+import com.example.iotbackend.dto.response.DeviceCredentialResponse;
+import com.example.iotbackend.exception.ResourceNotFoundException;
+import com.example.iotbackend.model.DeviceCredential;
+import com.example.iotbackend.repository.DeviceCredentialRepository;
+import com.example.iotbackend.repository.DeviceRepository;
+import com.example.iotbackend.security.DeviceKeyCache;
+import com.example.iotbackend.service.DeviceCredentialService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.HexFormat;
+
+/**
+ * DeviceCredentialServiceImpl issues and revokes device keys and keeps the DeviceKeyCache in sync.
+ * The cache is loaded on startup, updated on every change, and reloaded periodically so that
+ * keys issued or revoked through other instances are picked up.
+ */
+@Service
+@RequiredArgsConstructor
+public class DeviceCredentialServiceImpl implements DeviceCredentialService {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final DeviceCredentialRepository deviceCredentialRepository;
+    private final DeviceRepository deviceRepository;
+    private final DeviceKeyCache deviceKeyCache;
+
+    /**
+     * Issues a new key for a device owned by the given account, replacing any existing key.
+     *
+     * @param accountId The ID of the account that owns the device.
+     * @param deviceId  The ID of the device.
+     * @return The new key, including its secret.
+     * @throws ResourceNotFoundException if the device does not exist or belongs to another account.
+     */
+    @Override
+    @Transactional
+    public DeviceCredentialResponse issueKey(Long accountId, Long deviceId) {
+        requireOwnedDevice(accountId, deviceId);
+
+        byte[] secret = new byte[32];
+        RANDOM.nextBytes(secret);
+        byte[] keyId = new byte[12];
+        RANDOM.nextBytes(keyId);
+
+        DeviceCredential credential = new DeviceCredential();
+        credential.setKeyId("dk_" + HexFormat.of().formatHex(keyId));
+        credential.setDeviceId(deviceId);
+        credential.setAccountId(accountId);
+        credential.setSecret(Base64.getEncoder().encodeToString(secret));
+
+        // A device has a single key; issuing a new one rotates it
+        deviceCredentialRepository.deleteByDeviceId(deviceId);
+        deviceCredentialRepository.flush();
+        DeviceCredential saved = deviceCredentialRepository.save(credential);
+        deviceKeyCache.put(saved);
+
+        return new DeviceCredentialResponse(deviceId, saved.getKeyId(), saved.getSecret(), saved.getCreatedAt());
+    }
+
+    /**
+     * Revokes the key of a device owned by the given account.
+     *
+     * @param accountId The ID of the account that owns the device.
+     * @param deviceId  The ID of the device.
+     * @throws ResourceNotFoundException if the device does not exist or belongs to another account.
+     */
+    @Override
+    @Transactional
+    public void revokeKey(Long accountId, Long deviceId) {
+        requireOwnedDevice(accountId, deviceId);
+        deviceCredentialRepository.deleteByDeviceId(deviceId);
+        deviceKeyCache.remove(deviceId);
+    }
+
+    /**
+     * Reloads all device keys into the in-memory key cache.
+     * Runs once the application is ready and then on a fixed delay.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${device-auth.reload-ms:60000}", fixedDelayString = "${device-auth.reload-ms:60000}")
+    public void reloadKeys() {
+        deviceKeyCache.replaceAll(deviceCredentialRepository.findAll());
+    }
+
+    private void requireOwnedDevice(Long accountId, Long deviceId) {
+        if (!deviceRepository.existsByIdAndAccountId(deviceId, accountId)) {
+            throw new ResourceNotFoundException("Device not found with ID: " + deviceId);
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.example.iotbackend.service.impl;
+
+import com.example.iotbackend.model.Device;
+import com.example.iotbackend.util.GeoGridIndex;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * DeviceGeoIndex keeps the locations of all devices in a {@link GeoGridIndex}, scoped by the owning
+ * account, for map views and nearest-device lookups.
+ * <p>
+ * The index is loaded from the database once the application is ready and refreshed in place periodically,
+ * which also picks up changes made through other instances. In between, {@link DeviceGeoIndexListener}
+ * and the location update path apply every change made in this instance. A device changed while a refresh
+ * is running keeps the state of that change; the refresh neither overwrites nor removes it.
+ */
+@Slf4j
+@Component
+public class DeviceGeoIndex {
+
+    private static final String SELECT_LOCATED_DEVICES =
+            "select id, account_id, latitude, longitude from devices where latitude is not null and longitude is not null";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final GeoGridIndex index;
+    private volatile Set<Long> changedDuringRefresh;  // Devices changed while a refresh is running
+    private volatile boolean ready;
+
+    public DeviceGeoIndex(
+            DataSource dataSource,
+            MeterRegistry meterRegistry,
+            @Value("${geo.index.cell-degrees:0.05}") double cellDegrees
+    ) {
+        // Stream the rows instead of letting the MySQL driver buffer the whole table
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(Integer.MIN_VALUE);
+        this.index = new GeoGridIndex(cellDegrees);
+        Gauge.builder("geo.index.devices", index, GeoGridIndex::size)
+                .description("Devices with a location in the geospatial index")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Loads every located device from the database and drops the indexed devices that no longer have one.
+     * Runs once the application is ready and then on a fixed delay.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${geo.index.refresh-ms:900000}", fixedDelayString = "${geo.index.refresh-ms:900000}")
+    public synchronized void refresh() {
+        long start = System.currentTimeMillis();
+        Set<Long> changed = ConcurrentHashMap.newKeySet();
+        changedDuringRefresh = changed;
+        try {
+            Set<Long> seen = new HashSet<>();
+            jdbcTemplate.query(SELECT_LOCATED_DEVICES, rs -> {
+                long id = rs.getLong(1);
+                seen.add(id);
+                if (!changed.contains(id)) {
+                    index.put(rs.getLong(2), id, rs.getDouble(3), rs.getDouble(4));
+                }
+            });
+            index.removeIf(id -> !seen.contains(id) && !changed.contains(id));
+            ready = true;
+        } finally {
+            changedDuringRefresh = null;
+        }
+        log.info("Geospatial index refreshed with {} devices in {} ms", index.size(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Returns whether the index has been loaded from the database at least once.
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Finds the devices of one account inside a bounding box.
+     *
+     * @param accountId The ID of the owning account.
+     * @param south     The southern edge in degrees.
+     * @param west      The western edge in degrees; greater than east for a box crossing the antimeridian.
+     * @param north     The northern edge in degrees.
+     * @param east      The eastern edge in degrees.
+     * @param limit     The maximum number of devices to return.
+     * @return The devices found, and whether the box holds more.
+     */
+    public GeoGridIndex.BoxResult withinBox(Long accountId, double south, double west, double north, double east, int limit) {
+        return index.withinBox(accountId, south, west, north, east, limit);
+    }
+
+    /**
+     * Finds the devices of one account closest to a location.
+     *
+     * @param accountId The ID of the owning account.
+     * @param latitude  The latitude in degrees.
+     * @param longitude The longitude in degrees.
+     * @param count     The number of devices to return.
+     * @return Up to {@code count} devices with their distances, closest first.
+     */
+    public List<GeoGridIndex.Hit> nearest(Long accountId, double latitude, double longitude, int count) {
+        return index.nearest(accountId, latitude, longitude, count);
+    }
+
+    /**
+     * Adds, moves or removes a device according to its current location.
+     */
+    void index(Device device) {
+        if (device.getLatitude() == null || device.getLongitude() == null) {
+            remove(device.getId());
+        } else {
+            put(device.getAccountId(), device.getId(), device.getLatitude(), device.getLongitude());
+        }
+    }
+
+    /**
+     * Adds or moves a device.
+     */
+    void put(Long accountId, Long deviceId, double latitude, double longitude) {
+        markChanged(deviceId);
+        index.put(accountId, deviceId, latitude, longitude);
+    }
+
+    /**
+     * Removes a device.
+     */
+    void remove(Long deviceId) {
+        markChanged(deviceId);
+        index.remove(deviceId);
+    }
+
+    private void markChanged(Long deviceId) {
+        Set<Long> changed = changedDuringRefresh;
+        if (changed != null) {
+            changed.add(deviceId);
+        }
+    }
+}
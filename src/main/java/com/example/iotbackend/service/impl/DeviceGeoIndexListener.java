@@ -0,0 +1,42 @@
+package com.example.iotbackend.service.impl;
+
+import com.example.iotbackend.model.Device;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.stereotype.Component;
+
+/**
+ * DeviceGeoIndexListener applies device location changes to the {@link DeviceGeoIndex} as they are flushed.
+ * Changes that are later rolled back stay in the index until the next refresh.
+ */
+@Component
+public class DeviceGeoIndexListener {
+
+    private final DeviceGeoIndex deviceGeoIndex;
+
+    public DeviceGeoIndexListener(DeviceGeoIndex deviceGeoIndex) {
+        this.deviceGeoIndex = deviceGeoIndex;
+    }
+
+    /**
+     * Indexes the location of a created or updated device, or removes it if the device has none.
+     *
+     * @param device The device.
+     */
+    @PostPersist
+    @PostUpdate
+    public void onSave(Device device) {
+        deviceGeoIndex.index(device);
+    }
+
+    /**
+     * Removes a deleted device from the index.
+     *
+     * @param device The device.
+     */
+    @PostRemove
+    public void onRemove(Device device) {
+        deviceGeoIndex.remove(device.getId());
+    }
+}
@@ -0,0 +1,187 @@
+package com.example.iotbackend.service.impl;
+
+import com.example.iotbackend.model.DeviceStatus;
+import com.example.iotbackend.repository.DeviceStatusStore;
+import com.example.iotbackend.util.HashedTimingWheel;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * DevicePresenceTracker decides whether devices are online from the heartbeats and telemetry they send.
+ * <p>
+ * Every message re-arms the device's timer in a {@link HashedTimingWheel} and is remembered until the next
+ * flush, which writes {@code devices.last_seen_at} in one batch and switches devices that are not stored
+ * as ONLINE to ONLINE. A device whose timer expires is switched to OFFLINE only if its stored last-seen
+ * time is older than the timeout, so an instance never takes offline a device that another instance
+ * (e.g. a reactive ingestion pod) is still hearing from. Devices that no running instance tracks, such as
+ * those that went silent while the application was down, are found by a periodic sweep over last-seen times.
+ * <p>
+ * Each transition is decided on rows locked in the same transaction that writes it, so every actual
+ * change is written and appended to the status history exactly once, whichever instance observes it.
+ */
+@Slf4j
+@Component
+public class DevicePresenceTracker {
+
+    private final DeviceStatusStore deviceStatusStore;
+    private final DeviceStateLog deviceStateLog;
+    private final TransactionTemplate transactionTemplate;
+    private final HashedTimingWheel wheel;
+    private final long timeoutMs;
+    private final int flushBatchSize;
+    private final int sweepLimit;
+    private final Map<Long, Long> seen = new ConcurrentHashMap<>();  // Device ID -> last heard (epoch ms), not yet written
+    private final Set<Long> expired = ConcurrentHashMap.newKeySet();  // Devices to take offline unless heard from elsewhere
+
+    public DevicePresenceTracker(
+            DeviceStatusStore deviceStatusStore,
+            DeviceStateLog deviceStateLog,
+            TransactionTemplate transactionTemplate,
+            @Value("${presence.timeout-ms:90000}") long timeoutMs,
+            @Value("${presence.tick-ms:1000}") long tickMs,
+            @Value("${presence.wheel-size:512}") int wheelSize,
+            @Value("${presence.flush-batch-size:1000}") int flushBatchSize,
+            @Value("${presence.sweep-limit:10000}") int sweepLimit
+    ) {
+        this.deviceStatusStore = deviceStatusStore;
+        this.deviceStateLog = deviceStateLog;
+        this.transactionTemplate = transactionTemplate;
+        this.wheel = new HashedTimingWheel(timeoutMs, tickMs, wheelSize);
+        this.timeoutMs = timeoutMs;
+        this.flushBatchSize = flushBatchSize;
+        this.sweepLimit = sweepLimit;
+    }
+
+    /**
+     * Records that a device has been heard from.
+     *
+     * @param deviceId The ID of the device.
+     */
+    public void touch(Long deviceId) {
+        long now = System.currentTimeMillis();
+        wheel.touch(deviceId, now);
+        seen.merge(deviceId, now, Math::max);
+    }
+
+    /**
+     * Returns the number of devices this instance considers online.
+     *
+     * @return The number of tracked devices.
+     */
+    public int trackedDevices() {
+        return wheel.size();
+    }
+
+    /**
+     * Advances the timing wheel and queues an offline check for every expired device.
+     */
+    @Scheduled(fixedRateString = "${presence.tick-ms:1000}")
+    public void tick() {
+        wheel.advance(System.currentTimeMillis(), expired::add);
+    }
+
+    /**
+     * Queues an offline check for devices stored as ONLINE that nobody has heard from within the timeout,
+     * including devices no running instance tracks.
+     */
+    @Scheduled(initialDelayString = "${presence.sweep-ms:60000}", fixedDelayString = "${presence.sweep-ms:60000}")
+    public void sweep() {
+        LocalDateTime seenBefore = LocalDateTime.now().minus(timeoutMs, ChronoUnit.MILLIS);
+        expired.addAll(deviceStatusStore.findIdsSeenBefore(DeviceStatus.ONLINE.name(), seenBefore, sweepLimit));
+    }
+
+    /**
+     * Writes last-seen times and the resulting status transitions to the database, in batches.
+     * Devices heard from are written first, so one that came back before the flush stays online.
+     */
+    @Scheduled(fixedDelayString = "${presence.flush-ms:5000}")
+    public void flush() {
+        LocalDateTime now = LocalDateTime.now();
+        flushSeen(now);
+        flushExpired(now);
+    }
+
+    private void flushSeen(LocalDateTime now) {
+        Map<Long, Long> drained = new HashMap<>();
+        for (Map.Entry<Long, Long> entry : seen.entrySet()) {
+            // Only remove the entry if the device was not heard from again meanwhile
+            if (seen.remove(entry.getKey(), entry.getValue())) {
+                drained.put(entry.getKey(), entry.getValue());
+            }
+        }
+
+        for (List<Long> batch : batches(drained.keySet())) {
+            Map<Long, LocalDateTime> lastSeen = new HashMap<>();
+            batch.forEach(id -> lastSeen.put(id, toDateTime(drained.get(id))));
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    deviceStatusStore.updateLastSeen(lastSeen);
+                    List<Long> cameOnline = deviceStatusStore.lockIdsNotInStatus(batch, DeviceStatus.ONLINE.name());
+                    if (!cameOnline.isEmpty()) {
+                        deviceStatusStore.updateStatus(cameOnline, DeviceStatus.ONLINE.name(), now);
+                        deviceStateLog.record(cameOnline, DeviceStatus.ONLINE, now);
+                    }
+                });
+            } catch (RuntimeException e) {
+                // Re-queue the batch, keeping any later time, and retry on the next flush
+                log.warn("Failed to flush {} device last-seen times: {}", batch.size(), e.getMessage());
+                batch.forEach(id -> seen.merge(id, drained.get(id), Math::max));
+            }
+        }
+    }
+
+    private void flushExpired(LocalDateTime now) {
+        List<Long> drained = new ArrayList<>();
+        for (Long deviceId : expired) {
+            if (expired.remove(deviceId)) {
+                drained.add(deviceId);
+            }
+        }
+
+        LocalDateTime seenBefore = now.minus(timeoutMs, ChronoUnit.MILLIS);
+        for (List<Long> batch : batches(drained)) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    List<Long> silent = deviceStatusStore.lockIdsSeenBefore(batch, DeviceStatus.ONLINE.name(), seenBefore);
+                    if (!silent.isEmpty()) {
+                        deviceStatusStore.updateStatus(silent, DeviceStatus.OFFLINE.name(), now);
+                        deviceStateLog.record(silent, DeviceStatus.OFFLINE, now);
+                    }
+                });
+            } catch (RuntimeException e) {
+                log.warn("Failed to flush {} device offline checks: {}", batch.size(), e.getMessage());
+                expired.addAll(batch);
+            }
+        }
+    }
+
+    private List<List<Long>> batches(Iterable<Long> ids) {
+        // Sorted, so concurrent flushes on several instances lock rows in the same order
+        List<Long> sorted = new ArrayList<>();
+        ids.forEach(sorted::add);
+        sorted.sort(null);
+        List<List<Long>> batches = new ArrayList<>();
+        for (int from = 0; from < sorted.size(); from += flushBatchSize) {
+            batches.add(sorted.subList(from, Math.min(from + flushBatchSize, sorted.size())));
+        }
+        return batches;
+    }
+
+    private static LocalDateTime toDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+}
@@ -0,0 +1,193 @@
+package com.example.iotbackend.service.impl;
+
+import com.example.iotbackend.dto.response.DeviceAreaResponse;
+import com.example.iotbackend.dto.response.DeviceLocationResponse;
+import com.example.iotbackend.dto.response.DeviceResponse;
+import com.example.iotbackend.exception.BadRequestException;
+import com.example.iotbackend.exception.ResourceNotFoundException;
+import com.example.iotbackend.exception.ServiceUnavailableException;
+import com.example.iotbackend.model.Device;
+import com.example.iotbackend.repository.DeviceRepository;
+import com.example.iotbackend.repository.projection.VersionStamp;
+import com.example.iotbackend.service.DeviceService;
+import com.example.iotbackend.util.GeoGridIndex;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * DeviceServiceImpl is the service layer implementation for managing devices.
+ * Read paths select DTOs directly in read-only transactions instead of loading managed entities;
+ * map queries are answered from the in-memory {@link DeviceGeoIndex} without touching the database.
+ */
+@Service
+@RequiredArgsConstructor
+public class DeviceServiceImpl extends AbstractService<Device, Long> implements DeviceService {
+
+    private final DeviceRepository deviceRepository;
+    private final DevicePresenceTracker devicePresenceTracker;
+    private final DeviceGeoIndex deviceGeoIndex;
+
+    /**
+     * Returns the repository for performing CRUD operations on Device entities.
+     *
+     * @return The DeviceRepository instance.
+     */
+    @Override
+    protected JpaRepository<Device, Long> getRepository() {
+        return deviceRepository;
+    }
+
+    /**
+     * Records a heartbeat from a device owned by the given account.
+     *
+     * @param accountId The ID of the account that owns the device.
+     * @param deviceId  The ID of the device.
+     * @throws ResourceNotFoundException if the device does not exist or belongs to another account.
+     */
+    @Override
+    public void heartbeat(Long accountId, Long deviceId) {
+        if (!deviceRepository.existsByIdAndAccountId(deviceId, accountId)) {
+            throw new ResourceNotFoundException("Device not found with ID: " + deviceId);
+        }
+        devicePresenceTracker.touch(deviceId);
+    }
+
+    /**
+     * Records a heartbeat from a device that authenticated with its own key,
+     * which already proves that the device exists.
+     *
+     * @param deviceId The ID of the device.
+     */
+    @Override
+    public void heartbeat(Long deviceId) {
+        devicePresenceTracker.touch(deviceId);
+    }
+
+    /**
+     * Retrieves all devices owned by the given account.
+     *
+     * @param accountId The ID of the owning account.
+     * @return A list of DeviceResponse objects.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<DeviceResponse> getDevicesForAccount(Long accountId) {
+        return deviceRepository.findResponsesByAccountId(accountId);
+    }
+
+    /**
+     * Retrieves a device owned by the given account.
+     *
+     * @param accountId The ID of the owning account.
+     * @param deviceId  The ID of the device.
+     * @return The device details.
+     * @throws ResourceNotFoundException if the device does not exist or belongs to another account.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public DeviceResponse getDeviceResponse(Long accountId, Long deviceId) {
+        return deviceRepository.findResponseByIdAndAccountId(deviceId, accountId)
+                .orElseThrow(() -> new ResourceNotFoundException("Device not found with ID: " + deviceId));
+    }
+
+    /**
+     * Retrieves the version of a device owned by the given account without loading it.
+     *
+     * @param accountId The ID of the owning account.
+     * @param deviceId  The ID of the device.
+     * @return An Optional containing the version timestamp, or empty if it is unknown.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<LocalDateTime> getDeviceVersion(Long accountId, Long deviceId) {
+        return deviceRepository.findVersionByIdAndAccountId(deviceId, accountId);
+    }
+
+    /**
+     * Retrieves the version of the device list of an account without loading the devices.
+     *
+     * @param accountId The ID of the owning account.
+     * @return The number of devices and their latest modification time.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public VersionStamp getDeviceListVersion(Long accountId) {
+        return deviceRepository.findVersionStampByAccountId(accountId);
+    }
+
+    /**
+     * Sets the location of a device owned by the given account and moves it in the geospatial index.
+     *
+     * @param accountId The ID of the owning account.
+     * @param deviceId  The ID of the device.
+     * @param latitude  The latitude in degrees.
+     * @param longitude The longitude in degrees.
+     * @throws ResourceNotFoundException if the device does not exist or belongs to another account.
+     */
+    @Override
+    @Transactional
+    public void updateLocation(Long accountId, Long deviceId, double latitude, double longitude) {
+        // A bulk update bypasses the entity listeners, so the index is updated here
+        if (deviceRepository.updateLocation(deviceId, accountId, latitude, longitude, LocalDateTime.now()) == 0) {
+            throw new ResourceNotFoundException("Device not found with ID: " + deviceId);
+        }
+        deviceGeoIndex.put(accountId, deviceId, latitude, longitude);
+    }
+
+    /**
+     * Finds the located devices of an account inside a bounding box.
+     *
+     * @param accountId The ID of the owning account.
+     * @param south     The southern edge in degrees.
+     * @param west      The western edge in degrees; greater than east for a box crossing the antimeridian.
+     * @param north     The northern edge in degrees.
+     * @param east      The eastern edge in degrees.
+     * @param limit     The maximum number of devices to return.
+     * @return The devices found, and whether the box holds more.
+     * @throws BadRequestException if the southern edge lies north of the northern edge.
+     * @throws ServiceUnavailableException if the geospatial index has not been loaded yet.
+     */
+    @Override
+    public DeviceAreaResponse findDevicesInArea(Long accountId, double south, double west, double north, double east, int limit) {
+        if (south > north) {
+            throw new BadRequestException("South must not be greater than north");
+        }
+        requireGeoIndex();
+        GeoGridIndex.BoxResult result = deviceGeoIndex.withinBox(accountId, south, west, north, east, limit);
+        List<DeviceLocationResponse> devices = result.points().stream()
+                .map(point -> new DeviceLocationResponse(point.id(), point.latitude(), point.longitude(), null))
+                .toList();
+        return new DeviceAreaResponse(devices, result.truncated());
+    }
+
+    /**
+     * Finds the located devices of an account closest to a location.
+     *
+     * @param accountId The ID of the owning account.
+     * @param latitude  The latitude in degrees.
+     * @param longitude The longitude in degrees.
+     * @param count     The number of devices to return.
+     * @return Up to {@code count} devices with their distances, closest first.
+     * @throws ServiceUnavailableException if the geospatial index has not been loaded yet.
+     */
+    @Override
+    public List<DeviceLocationResponse> findNearestDevices(Long accountId, double latitude, double longitude, int count) {
+        requireGeoIndex();
+        return deviceGeoIndex.nearest(accountId, latitude, longitude, count).stream()
+                .map(hit -> new DeviceLocationResponse(hit.point().id(), hit.point().latitude(),
+                        hit.point().longitude(), hit.distanceMeters()))
+                .toList();
+    }
+
+    private void requireGeoIndex() {
+        if (!deviceGeoIndex.isReady()) {
+            throw new ServiceUnavailableException("Geospatial index is being loaded. Please retry later.", 5);
+        }
+    }
+}
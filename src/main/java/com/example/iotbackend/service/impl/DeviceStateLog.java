@@ -0,0 +1,45 @@
+package com.example.iotbackend.service.impl;
+
+import com.example.iotbackend.model.DeviceStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * DeviceStateLog appends device status changes to {@code device_state_log}, the uncompacted tail
+ * of each device's status history.
+ * <p>
+ * Callers only pass actual transitions, decided on locked {@code devices} rows in the same transaction,
+ * so the history holds each change once even with several instances tracking presence.
+ */
+@Component
+public class DeviceStateLog {
+
+    private static final String INSERT_CHANGE =
+            "insert into device_state_log (device_id, status, changed_at) values (?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public DeviceStateLog(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Appends a status change for each device.
+     *
+     * @param deviceIds The IDs of the devices that changed status.
+     * @param status    The new status.
+     * @param changedAt The time of the change.
+     */
+    public void record(List<Long> deviceIds, DeviceStatus status, LocalDateTime changedAt) {
+        Timestamp timestamp = Timestamp.valueOf(changedAt);
+        jdbcTemplate.batchUpdate(INSERT_CHANGE, deviceIds, deviceIds.size(), (ps, deviceId) -> {
+            ps.setLong(1, deviceId);
+            ps.setString(2, status.name());
+            ps.setTimestamp(3, timestamp);
+        });
+    }
+}
@@ -0,0 +1,217 @@
+package com.example.iotbackend.service.impl;
+
+import com.example.iotbackend.dto.response.DeviceStateResponse;
+import com.example.iotbackend.exception.ResourceNotFoundException;
+import com.example.iotbackend.model.DeviceStatus;
+import com.example.iotbackend.repository.DeviceRepository;
+import com.example.iotbackend.service.DeviceStateService;
+import com.example.iotbackend.util.StateTimeline;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * DeviceStateServiceImpl answers as-of queries over the device status history and compacts it.
+ * <p>
+ * The history of a device is a series of non-overlapping compacted segments (a {@link StateTimeline}
+ * each: the status at the segment start plus the later changes) followed by the uncompacted tail in
+ * {@code device_state_log}. An as-of query checks the tail first, then seeks the segment starting
+ * at or before the time through the (device_id, start_at) index and binary-searches inside it.
+ * Compaction periodically folds tail entries older than {@code device-state.compact-after} into the
+ * device's last segment until it holds {@code device-state.segment-entries} changes, then starts a new one.
+ */
+@Slf4j
+@Service
+public class DeviceStateServiceImpl implements DeviceStateService {
+
+    private static final DeviceStatus[] STATUSES = DeviceStatus.values();
+
+    private static final String SELECT_TAIL_AT =
+            "select status, changed_at from device_state_log where device_id = ? and changed_at <= ? "
+                    + "order by changed_at desc, id desc limit 1";
+    private static final String SELECT_SEGMENT_AT =
+            "select entries from device_state_segments where device_id = ? and start_at <= ? "
+                    + "order by start_at desc limit 1";
+    private static final String SELECT_DEVICES_TO_COMPACT =
+            "select distinct device_id from device_state_log where changed_at < ? limit ?";
+    private static final String LOCK_DEVICE = "select id from devices where id = ? for update";
+    private static final String SELECT_TAIL_BEFORE =
+            "select status, changed_at from device_state_log where device_id = ? and changed_at < ? order by changed_at, id";
+    private static final String SELECT_LAST_SEGMENT =
+            "select id, entries from device_state_segments where device_id = ? order by start_at desc limit 1";
+    private static final String INSERT_SEGMENT =
+            "insert into device_state_segments (device_id, start_at, end_at, entry_count, entries) values (?, ?, ?, ?, ?)";
+    private static final String UPDATE_SEGMENT =
+            "update device_state_segments set start_at = ?, end_at = ?, entry_count = ?, entries = ? where id = ?";
+    private static final String DELETE_TAIL_BEFORE =
+            "delete from device_state_log where device_id = ? and changed_at < ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final DeviceRepository deviceRepository;
+    private final Duration compactAfter;
+    private final int segmentEntries;
+    private final int compactBatchDevices;
+
+    public DeviceStateServiceImpl(
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            DeviceRepository deviceRepository,
+            @Value("${device-state.compact-after:1h}") Duration compactAfter,
+            @Value("${device-state.segment-entries:256}") int segmentEntries,
+            @Value("${device-state.compact-batch-devices:500}") int compactBatchDevices
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.deviceRepository = deviceRepository;
+        this.compactAfter = compactAfter;
+        this.segmentEntries = segmentEntries;
+        this.compactBatchDevices = compactBatchDevices;
+    }
+
+    /**
+     * Finds the status a device of the given account had at a point in time.
+     *
+     * @param accountId The ID of the account that owns the device.
+     * @param deviceId  The ID of the device.
+     * @param at        The point in time.
+     * @return The status in effect at that time and when it was entered; both null if none was recorded yet.
+     * @throws ResourceNotFoundException if the device does not exist or belongs to another account.
+     */
+    @Override
+    public DeviceStateResponse getStatusAt(Long accountId, Long deviceId, LocalDateTime at) {
+        if (!deviceRepository.existsByIdAndAccountId(deviceId, accountId)) {
+            throw new ResourceNotFoundException("Device not found with ID: " + deviceId);
+        }
+
+        // The tail only holds changes newer than every segment, so a hit there is the answer
+        List<DeviceStateResponse> tail = jdbcTemplate.query(SELECT_TAIL_AT,
+                (rs, rowNum) -> new DeviceStateResponse(deviceId, at, rs.getString(1), rs.getTimestamp(2).toLocalDateTime()),
+                deviceId, Timestamp.valueOf(at));
+        if (!tail.isEmpty()) {
+            return tail.get(0);
+        }
+
+        List<byte[]> segment = jdbcTemplate.query(SELECT_SEGMENT_AT, (rs, rowNum) -> rs.getBytes(1),
+                deviceId, Timestamp.valueOf(at));
+        if (!segment.isEmpty()) {
+            StateTimeline timeline = StateTimeline.decode(segment.get(0));
+            int index = timeline.indexAt(toMillis(at));
+            if (index >= 0) {
+                return new DeviceStateResponse(deviceId, at, STATUSES[timeline.stateOf(index)].name(),
+                        toDateTime(timeline.timeAt(index)));
+            }
+        }
+        return new DeviceStateResponse(deviceId, at, null, null);
+    }
+
+    /**
+     * Moves logged status changes older than the compaction delay into compacted segments,
+     * one transaction per device.
+     */
+    @Override
+    @Scheduled(initialDelayString = "${device-state.compact-ms:600000}", fixedDelayString = "${device-state.compact-ms:600000}")
+    public void compact() {
+        Timestamp cutoff = Timestamp.valueOf(LocalDateTime.now().minus(compactAfter));
+        int compacted = 0;
+        List<Long> deviceIds;
+        do {
+            deviceIds = jdbcTemplate.queryForList(SELECT_DEVICES_TO_COMPACT, Long.class, cutoff, compactBatchDevices);
+            for (Long deviceId : deviceIds) {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> compactDevice(deviceId, cutoff));
+                    compacted++;
+                } catch (RuntimeException e) {
+                    log.warn("Compacting the status history of device {} failed: {}", deviceId, e.getMessage());
+                    return;
+                }
+            }
+        } while (deviceIds.size() == compactBatchDevices);
+
+        if (compacted > 0) {
+            log.debug("Compacted the status history of {} devices", compacted);
+        }
+    }
+
+    private void compactDevice(Long deviceId, Timestamp cutoff) {
+        // Serializes compactions of the device across instances
+        if (jdbcTemplate.queryForList(LOCK_DEVICE, Long.class, deviceId).isEmpty()) {
+            return;  // Deleted; its history went with it
+        }
+
+        List<Entry> tail = jdbcTemplate.query(SELECT_TAIL_BEFORE,
+                (rs, rowNum) -> new Entry(toMillis(rs.getTimestamp(2).toLocalDateTime()),
+                        (byte) DeviceStatus.valueOf(rs.getString(1)).ordinal()),
+                deviceId, cutoff);
+        if (tail.isEmpty()) {
+            return;
+        }
+
+        List<LastSegment> last = jdbcTemplate.query(SELECT_LAST_SEGMENT,
+                (rs, rowNum) -> new LastSegment(rs.getLong(1), StateTimeline.decode(rs.getBytes(2))), deviceId);
+        LastSegment lastSegment = last.isEmpty() ? null : last.get(0);
+
+        if (lastSegment != null && lastSegment.timeline().size() < segmentEntries) {
+            // Extend the last segment with the new changes
+            StateTimeline previous = lastSegment.timeline();
+            List<Entry> entries = new ArrayList<>(previous.size() + tail.size());
+            for (int i = 0; i < previous.size(); i++) {
+                entries.add(new Entry(previous.timeAt(i), (byte) previous.stateOf(i)));
+            }
+            entries.addAll(tail);
+            entries.sort(Comparator.comparingLong(Entry::time));  // Stable: older segment entries stay before the tail
+            StateTimeline merged = collapse(-1, entries);
+            jdbcTemplate.update(UPDATE_SEGMENT, toTimestamp(merged.timeAt(0)), toTimestamp(merged.timeAt(merged.size() - 1)),
+                    merged.size(), merged.encode(), lastSegment.id());
+        } else {
+            // Start a new segment; changes repeating the last compacted status are dropped
+            int previousState = lastSegment == null ? -1 : lastSegment.timeline().lastState();
+            StateTimeline timeline = collapse(previousState, tail);
+            if (timeline.size() > 0) {
+                jdbcTemplate.update(INSERT_SEGMENT, deviceId, toTimestamp(timeline.timeAt(0)),
+                        toTimestamp(timeline.timeAt(timeline.size() - 1)), timeline.size(), timeline.encode());
+            }
+        }
+        jdbcTemplate.update(DELETE_TAIL_BEFORE, deviceId, cutoff);
+    }
+
+    private static StateTimeline collapse(int previousState, List<Entry> entries) {
+        long[] times = new long[entries.size()];
+        byte[] states = new byte[entries.size()];
+        for (int i = 0; i < entries.size(); i++) {
+            times[i] = entries.get(i).time();
+            states[i] = entries.get(i).state();
+        }
+        return StateTimeline.collapse(previousState, times, states);
+    }
+
+    private static long toMillis(LocalDateTime dateTime) {
+        return dateTime.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    private static LocalDateTime toDateTime(long millis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneOffset.UTC);
+    }
+
+    private static Timestamp toTimestamp(long millis) {
+        return Timestamp.valueOf(toDateTime(millis));
+    }
+
+    private record Entry(long time, byte state) {
+    }
+
+    private record LastSegment(long id, StateTimeline timeline) {
+    }
+}
@@ -0,0 +1,170 @@
+package com.example.iotbackend.service.impl;
+
+import com.example.iotbackend.model.Account;
+import com.example.iotbackend.model.Device;
+import com.example.iotbackend.util.PrefixIndex;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
+
+/**
+ * EntitySearchIndex keeps in-memory {@link PrefixIndex}es of account emails and names and of device names
+ * for type-ahead search.
+ * <p>
+ * The indexes are built from the database once the application is ready and rebuilt periodically, which
+ * also picks up changes made through other instances. In between, {@link SearchIndexEntityListener} applies
+ * every account and device change made through JPA in this instance. Devices are scoped by their owning
+ * account; accounts all share one scope.
+ */
+@Slf4j
+@Component
+public class EntitySearchIndex {
+
+    /** The scope all accounts are indexed in. */
+    public static final long ACCOUNTS_SCOPE = 0;
+
+    private static final String SELECT_ACCOUNTS = "select id, email, full_name from accounts";
+    private static final String SELECT_DEVICES = "select id, account_id, name from devices";
+
+    private final JdbcTemplate jdbcTemplate;
+    private volatile Indexes indexes = new Indexes(new PrefixIndex(), new PrefixIndex());
+    private volatile Queue<Consumer<Indexes>> pendingChanges;  // Changes made while a rebuild is running
+    private volatile boolean ready;
+
+    public EntitySearchIndex(DataSource dataSource, MeterRegistry meterRegistry) {
+        // Stream the rows instead of letting the MySQL driver buffer whole tables
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(Integer.MIN_VALUE);
+        Gauge.builder("search.index.entries", this, index -> index.indexes.accounts().size())
+                .description("Entries in the type-ahead search index")
+                .tag("index", "accounts").register(meterRegistry);
+        Gauge.builder("search.index.entries", this, index -> index.indexes.devices().size())
+                .description("Entries in the type-ahead search index")
+                .tag("index", "devices").register(meterRegistry);
+    }
+
+    /**
+     * Rebuilds both indexes from the database and swaps them in.
+     * Runs once the application is ready and then on a fixed delay.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${search.index.rebuild-ms:900000}", fixedDelayString = "${search.index.rebuild-ms:900000}")
+    public synchronized void rebuild() {
+        long start = System.currentTimeMillis();
+        Queue<Consumer<Indexes>> changes = new ConcurrentLinkedQueue<>();
+        pendingChanges = changes;
+        try {
+            PrefixIndex.Builder accountsBuilder = PrefixIndex.builder();
+            jdbcTemplate.query(SELECT_ACCOUNTS, rs -> {
+                accountsBuilder.put(ACCOUNTS_SCOPE, rs.getLong(1), rs.getString(2), rs.getString(3));
+            });
+            PrefixIndex.Builder devicesBuilder = PrefixIndex.builder();
+            jdbcTemplate.query(SELECT_DEVICES, rs -> {
+                devicesBuilder.put(rs.getLong(2), rs.getLong(1), rs.getString(3));
+            });
+            Indexes next = new Indexes(accountsBuilder.build(), devicesBuilder.build());
+
+            // Apply the changes made while the tables were being read, then swap; a change arriving
+            // between the last replay and the swap goes to the old indexes and waits for the next rebuild
+            synchronized (changes) {
+                Consumer<Indexes> change;
+                while ((change = changes.poll()) != null) {
+                    change.accept(next);
+                }
+                indexes = next;
+                pendingChanges = null;
+            }
+            ready = true;
+        } finally {
+            pendingChanges = null;
+        }
+        log.info("Search index built with {} accounts and {} devices in {} ms",
+                indexes.accounts().size(), indexes.devices().size(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Returns whether the indexes have been built from the database at least once.
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Searches the accounts by email and full name.
+     *
+     * @param query  The text typed so far.
+     * @param offset The number of matches to skip.
+     * @param limit  The maximum number of matches to return.
+     * @return The matching account IDs.
+     */
+    public PrefixIndex.Page searchAccounts(String query, int offset, int limit) {
+        return indexes.accounts().search(ACCOUNTS_SCOPE, query, offset, limit);
+    }
+
+    /**
+     * Searches the devices of one account by name.
+     *
+     * @param accountId The ID of the owning account.
+     * @param query     The text typed so far.
+     * @param offset    The number of matches to skip.
+     * @param limit     The maximum number of matches to return.
+     * @return The matching device IDs.
+     */
+    public PrefixIndex.Page searchDevices(Long accountId, String query, int offset, int limit) {
+        return indexes.devices().search(accountId, query, offset, limit);
+    }
+
+    /**
+     * Adds or updates an account.
+     */
+    void index(Account account) {
+        apply(indexes -> indexes.accounts().put(ACCOUNTS_SCOPE, account.getId(), account.getEmail(), account.getFullName()));
+    }
+
+    /**
+     * Adds or updates a device.
+     */
+    void index(Device device) {
+        apply(indexes -> indexes.devices().put(device.getAccountId(), device.getId(), device.getName()));
+    }
+
+    /**
+     * Removes an account.
+     */
+    void removeAccount(Long id) {
+        apply(indexes -> indexes.accounts().remove(id));
+    }
+
+    /**
+     * Removes a device.
+     */
+    void removeDevice(Long id) {
+        apply(indexes -> indexes.devices().remove(id));
+    }
+
+    private void apply(Consumer<Indexes> change) {
+        change.accept(indexes);
+        Queue<Consumer<Indexes>> changes = pendingChanges;
+        if (changes != null) {
+            // Also record it for the indexes being rebuilt, unless they have been swapped in meanwhile
+            synchronized (changes) {
+                if (pendingChanges == changes) {
+                    changes.add(change);
+                }
+            }
+        }
+    }
+
+    private record Indexes(PrefixIndex accounts, PrefixIndex devices) {
+    }
+}
@@ -0,0 +1,187 @@
+package com.example.iotbackend.service.impl;
+
+import com.example.iotbackend.dto.request.FirmwareUploadRequest;
+import com.example.iotbackend.dto.response.FirmwareReleaseResponse;
+import com.example.iotbackend.exception.ConflictException;
+import com.example.iotbackend.exception.ResourceNotFoundException;
+import com.example.iotbackend.model.Device;
+import com.example.iotbackend.model.FirmwareRelease;
+import com.example.iotbackend.repository.FirmwareReleaseRepository;
+import com.example.iotbackend.service.FirmwareService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * FirmwareServiceImpl publishes firmware releases and decides which release each device should run.
+ * <p>
+ * A device is offered the newest release for its type whose rollout includes it. Each device falls into a
+ * fixed bucket from 0 to 99 per release, so raising a release's rollout percent only ever adds devices,
+ * and lowering it stops the release from being offered without downgrading devices that already run it.
+ */
+@Service
+@RequiredArgsConstructor
+public class FirmwareServiceImpl extends AbstractService<FirmwareRelease, Long> implements FirmwareService {
+
+    private final FirmwareReleaseRepository firmwareReleaseRepository;
+    private final FirmwareStore firmwareStore;
+    private final CoalescingLookups coalescingLookups;
+
+    /**
+     * Returns the repository for performing CRUD operations on FirmwareRelease entities.
+     *
+     * @return The FirmwareReleaseRepository instance.
+     */
+    @Override
+    protected JpaRepository<FirmwareRelease, Long> getRepository() {
+        return firmwareReleaseRepository;
+    }
+
+    /**
+     * Retrieves all firmware releases of the given account, newest first.
+     *
+     * @param accountId The ID of the account.
+     * @return A list of FirmwareReleaseResponse objects.
+     */
+    @Override
+    public List<FirmwareReleaseResponse> getReleasesForAccount(Long accountId) {
+        return firmwareReleaseRepository.findAllByAccountIdOrderByIdDesc(accountId).stream()
+                .map(FirmwareServiceImpl::toResponse)
+                .toList();
+    }
+
+    /**
+     * Stores a firmware image and publishes it as a release for a device type.
+     * The image is streamed to disk, never held in memory as a whole.
+     *
+     * @param accountId The ID of the owning account.
+     * @param request   The device type, version and initial rollout share.
+     * @param image     The image content.
+     * @return The created release.
+     * @throws ConflictException if the version was already published for the device type.
+     */
+    @Override
+    public FirmwareReleaseResponse publish(Long accountId, FirmwareUploadRequest request, InputStream image) throws IOException {
+        if (firmwareReleaseRepository.existsByAccountIdAndDeviceTypeAndVersion(accountId, request.getDeviceType(), request.getVersion())) {
+            throw new ConflictException("Firmware version " + request.getVersion() + " already exists for device type " + request.getDeviceType());
+        }
+
+        FirmwareStore.StoredImage stored = firmwareStore.store(image);
+
+        FirmwareRelease release = new FirmwareRelease();
+        release.setAccountId(accountId);
+        release.setDeviceType(request.getDeviceType());
+        release.setVersion(request.getVersion());
+        release.setSizeBytes(stored.size());
+        release.setSha256(stored.sha256());
+        release.setRolloutPercent(request.getRolloutPercent() == null ? 100 : request.getRolloutPercent());
+        return toResponse(save(release));
+    }
+
+    /**
+     * Changes the share of devices a release is offered to.
+     *
+     * @param accountId      The ID of the owning account.
+     * @param releaseId      The ID of the release.
+     * @param rolloutPercent The new share, from 0 to 100.
+     * @return The updated release.
+     * @throws ResourceNotFoundException if the release does not exist or belongs to another account.
+     */
+    @Override
+    public FirmwareReleaseResponse updateRollout(Long accountId, Long releaseId, int rolloutPercent) {
+        FirmwareRelease release = firmwareReleaseRepository.findByIdAndAccountId(releaseId, accountId)
+                .orElseThrow(() -> new ResourceNotFoundException("Firmware release not found with ID: " + releaseId));
+        release.setRolloutPercent(rolloutPercent);
+        return toResponse(save(release));
+    }
+
+    /**
+     * Finds the release a device should run, if it differs from the one it reports.
+     * A device already running a release at least as new as the one selected is left alone.
+     *
+     * @param accountId      The ID of the account owning the device.
+     * @param deviceId       The ID of the device.
+     * @param currentVersion The version the device runs, or null if unknown.
+     * @return The release to install, or empty if the device is up to date.
+     * @throws ResourceNotFoundException if the device does not exist or belongs to another account.
+     */
+    @Override
+    public Optional<FirmwareReleaseResponse> findUpdate(Long accountId, Long deviceId, String currentVersion) {
+        Device device = requireDevice(accountId, deviceId);
+
+        // Newest first: the first release that includes the device is its target
+        for (FirmwareRelease release : coalescingLookups.findFirmwareReleases(accountId, device.getType())) {
+            if (release.getVersion().equals(currentVersion)) {
+                return Optional.empty();
+            }
+            if (rolloutBucket(deviceId, release.getId()) < release.getRolloutPercent()) {
+                return Optional.of(toResponse(release));
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Returns a release that targets the type of the given device, for download.
+     *
+     * @param accountId The ID of the account owning the device.
+     * @param deviceId  The ID of the device.
+     * @param releaseId The ID of the release.
+     * @return The release.
+     * @throws ResourceNotFoundException if the device or a matching release does not exist.
+     */
+    @Override
+    public FirmwareRelease getReleaseForDevice(Long accountId, Long deviceId, Long releaseId) {
+        Device device = requireDevice(accountId, deviceId);
+        return coalescingLookups.findFirmwareReleases(accountId, device.getType()).stream()
+                .filter(release -> release.getId().equals(releaseId))
+                .findFirst()
+                .orElseThrow(() -> new ResourceNotFoundException("Firmware release not found with ID: " + releaseId));
+    }
+
+    /**
+     * Returns the location of the image of a release.
+     *
+     * @param release The release.
+     * @return The path of the image file.
+     */
+    @Override
+    public Path imagePath(FirmwareRelease release) {
+        return firmwareStore.path(release.getSha256());
+    }
+
+    private Device requireDevice(Long accountId, Long deviceId) {
+        return coalescingLookups.findOwnedDevice(deviceId, accountId)
+                .orElseThrow(() -> new ResourceNotFoundException("Device not found with ID: " + deviceId));
+    }
+
+    /**
+     * Returns the stable bucket (0-99) of a device for a release; the device is included while
+     * the bucket is below the rollout percent.
+     */
+    private static int rolloutBucket(long deviceId, long releaseId) {
+        long h = deviceId * 0x9E3779B97F4A7C15L ^ releaseId * 0xC2B2AE3D27D4EB4FL;
+        h ^= h >>> 31;
+        h *= 0xBF58476D1CE4E5B9L;
+        h ^= h >>> 29;
+        return (int) Math.floorMod(h, 100L);
+    }
+
+    private static FirmwareReleaseResponse toResponse(FirmwareRelease release) {
+        return new FirmwareReleaseResponse(
+                release.getId(),
+                release.getDeviceType(),
+                release.getVersion(),
+                release.getSizeBytes(),
+                release.getSha256(),
+                release.getRolloutPercent(),
+                release.getCreatedAt()
+        );
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.iotbackend.service.impl;
+
+import com.example.iotbackend.exception.BadRequestException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * FirmwareStore keeps firmware images on the local filesystem, named by their SHA-256, so that
+ * identical images published several times are stored once and a stored file never changes.
+ * Images are written to a temporary file while being hashed and only renamed into place when complete.
+ */
+@Slf4j
+@Component
+public class FirmwareStore {
+
+    private static final int COPY_BUFFER_BYTES = 64 * 1024;
+
+    private final Path directory;
+    private final long maxBytes;
+
+    public FirmwareStore(@Value("${firmware.dir:./data/firmware}") String directory,
+                         @Value("${firmware.max-bytes:268435456}") long maxBytes) {
+        this.directory = Path.of(directory).toAbsolutePath();
+        this.maxBytes = maxBytes;
+        try {
+            Files.createDirectories(this.directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create the firmware store in " + directory, e);
+        }
+    }
+
+    /**
+     * Stores an image read from the stream.
+     *
+     * @param in The image content.
+     * @return The SHA-256 and size of the stored image.
+     * @throws BadRequestException if the image is empty or larger than the configured limit.
+     */
+    public StoredImage store(InputStream in) throws IOException {
+        MessageDigest digest = sha256();
+        Path temp = Files.createTempFile(directory, "upload-", ".tmp");
+        try {
+            long size = 0;
+            byte[] buffer = new byte[COPY_BUFFER_BYTES];
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    size += read;
+                    if (size > maxBytes) {
+                        throw new BadRequestException("Firmware image exceeds " + maxBytes + " bytes");
+                    }
+                    digest.update(buffer, 0, read);
+                    out.write(buffer, 0, read);
+                }
+            }
+            if (size == 0) {
+                throw new BadRequestException("Firmware image must not be empty");
+            }
+
+            String sha256 = HexFormat.of().formatHex(digest.digest());
+            Path target = path(sha256);
+            if (Files.exists(target)) {
+                Files.delete(temp);  // Same image published before
+            } else {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+                log.info("Stored firmware image {} ({} bytes)", sha256, size);
+            }
+            return new StoredImage(sha256, size);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Returns the location of a stored image.
+     *
+     * @param sha256 The hex SHA-256 of the image.
+     * @return The path of the image file.
+     */
+    public Path path(String sha256) {
+        return directory.resolve(sha256 + ".bin");
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * A stored image.
+     *
+     * @param sha256 The hex SHA-256 of the content, also its file name.
+     * @param size   The size in bytes.
+     */
+    public record StoredImage(String sha256, long size) {
+    }
+}
@@ -9,6 +9,7 @@ import org.springframework.stereotype.Service;
 
 import javax.crypto.SecretKey;
 import java.util.Date;
+import java.util.UUID;
 
 /**
  * JwtServiceImpl is an implementation of JwtService that handles the creation, validation,
@@ -45,6 +46,7 @@ public class JwtServiceImpl implements JwtService {
     @Override
     public String generateToken(String username) {
         return Jwts.builder()
+                .setId(UUID.randomUUID().toString())  // Set a unique token ID so the token can be revoked
                 .setSubject(username)  // Set the username as the subject of the JWT token
                 .setIssuedAt(new Date())  // Set the issued date as the current date
                 .setExpiration(new Date((new Date()).getTime() + jwtExpirationMs))  // Set the expiration date based on the configured expiration time
@@ -77,14 +79,25 @@ public class JwtServiceImpl implements JwtService {
      */
     @Override
     public String extractUsername(String token) {
+        return parseToken(token).getSubject();
+    }
+
+    /**
+     * Parses the given JWT token, verifying its signature and expiry.
+     *
+     * @param token The JWT token to parse.
+     * @return The claims of the token.
+     * @throws BadCredentialsException if the token is invalid, expired, or has an incorrect signature.
+     */
+    @Override
+    public Claims parseToken(String token) {
         try {
-            // Parse the JWT token and extract the subject (username)
+            // Parse the JWT token and return its claims
             return Jwts.parserBuilder()
                     .setSigningKey(secretKey)
                     .build()
                     .parseClaimsJws(token)
-                    .getBody()
-                    .getSubject();
+                    .getBody();
         } catch (SignatureException e) {
             // Handle invalid JWT signature (the signature does not match)
             System.out.println("JWT signature invalid: " + e.getMessage());
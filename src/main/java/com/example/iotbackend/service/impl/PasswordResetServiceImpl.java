@@ -6,6 +6,7 @@ import com.example.iotbackend.service.PasswordResetService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -83,4 +84,43 @@ public class PasswordResetServiceImpl implements PasswordResetService {
     public Optional<PasswordReset> findByAccountIdAndOtp(Long accountId, String otp) {
         return passwordResetRepository.findByAccountIdAndOtp(accountId, otp);
     }
+
+    /**
+     * Atomically marks an unexpired, not yet verified OTP as verified.
+     *
+     * @param accountId The ID of the account.
+     * @param otp The One-Time Password to verify.
+     * @param now The current time.
+     * @return true if the OTP was verified by this call.
+     */
+    @Override
+    public boolean markVerified(Long accountId, String otp, LocalDateTime now) {
+        return passwordResetRepository.markVerified(accountId, otp, now) == 1;
+    }
+
+    /**
+     * Checks whether an OTP is verified and unexpired.
+     *
+     * @param accountId The ID of the account.
+     * @param otp The One-Time Password.
+     * @param now The current time.
+     * @return true if the OTP is verified and unexpired.
+     */
+    @Override
+    public boolean isVerified(Long accountId, String otp, LocalDateTime now) {
+        return passwordResetRepository.existsVerified(accountId, otp, now);
+    }
+
+    /**
+     * Atomically deletes a verified, unexpired OTP so that it cannot be used again.
+     *
+     * @param accountId The ID of the account.
+     * @param otp The verified One-Time Password.
+     * @param now The current time.
+     * @return true if the OTP was consumed by this call.
+     */
+    @Override
+    public boolean consumeVerified(Long accountId, String otp, LocalDateTime now) {
+        return passwordResetRepository.deleteVerified(accountId, otp, now) == 1;
+    }
 }
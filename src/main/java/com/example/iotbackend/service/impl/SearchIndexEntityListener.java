@@ -0,0 +1,52 @@
+package com.example.iotbackend.service.impl;
+
+import com.example.iotbackend.model.Account;
+import com.example.iotbackend.model.Device;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.stereotype.Component;
+
+/**
+ * SearchIndexEntityListener applies account and device changes to the {@link EntitySearchIndex}
+ * as they are flushed. Changes that are later rolled back stay in the index until the next rebuild;
+ * search results are read back from the database, so they never show such entries.
+ */
+@Component
+public class SearchIndexEntityListener {
+
+    private final EntitySearchIndex entitySearchIndex;
+
+    public SearchIndexEntityListener(EntitySearchIndex entitySearchIndex) {
+        this.entitySearchIndex = entitySearchIndex;
+    }
+
+    /**
+     * Indexes a created or updated entity.
+     *
+     * @param entity The account or device.
+     */
+    @PostPersist
+    @PostUpdate
+    public void onSave(Object entity) {
+        if (entity instanceof Account account) {
+            entitySearchIndex.index(account);
+        } else if (entity instanceof Device device) {
+            entitySearchIndex.index(device);
+        }
+    }
+
+    /**
+     * Removes a deleted entity from the index.
+     *
+     * @param entity The account or device.
+     */
+    @PostRemove
+    public void onRemove(Object entity) {
+        if (entity instanceof Account account) {
+            entitySearchIndex.removeAccount(account.getId());
+        } else if (entity instanceof Device device) {
+            entitySearchIndex.removeDevice(device.getId());
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.iotbackend.service.impl;
+
+import com.example.iotbackend.dto.request.DeviceSearchRequest;
+import com.example.iotbackend.dto.request.SearchRequest;
+import com.example.iotbackend.dto.response.AccountResponse;
+import com.example.iotbackend.dto.response.DeviceResponse;
+import com.example.iotbackend.dto.response.SearchPageResponse;
+import com.example.iotbackend.exception.ServiceUnavailableException;
+import com.example.iotbackend.repository.AccountRepository;
+import com.example.iotbackend.repository.DeviceRepository;
+import com.example.iotbackend.service.SearchService;
+import com.example.iotbackend.util.PrefixIndex;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * SearchServiceImpl answers type-ahead searches from the in-memory {@link EntitySearchIndex} and reads
+ * the matching page back from the database by primary key, so results always show current data.
+ */
+@Service
+@RequiredArgsConstructor
+public class SearchServiceImpl implements SearchService {
+
+    private final EntitySearchIndex entitySearchIndex;
+    private final AccountRepository accountRepository;
+    private final DeviceRepository deviceRepository;
+
+    /**
+     * Searches the accounts by email and full name.
+     *
+     * @param request The text typed so far and the page.
+     * @return The page of matching accounts.
+     * @throws ServiceUnavailableException if the index is still being built.
+     */
+    @Override
+    public SearchPageResponse<AccountResponse> searchAccounts(SearchRequest request) {
+        requireReady();
+        PrefixIndex.Page page = entitySearchIndex.searchAccounts(request.getQ(), request.getPage() * request.getSize(), request.getSize());
+        List<AccountResponse> items = page.ids().isEmpty()
+                ? List.of()
+                : inOrder(page.ids(), accountRepository.findResponsesByIdIn(page.ids()), AccountResponse::getId);
+        return new SearchPageResponse<>(items, request.getPage(), request.getSize(), page.hasMore());
+    }
+
+    /**
+     * Searches the devices of one account by name.
+     *
+     * @param request The account, the text typed so far and the page.
+     * @return The page of matching devices.
+     * @throws ServiceUnavailableException if the index is still being built.
+     */
+    @Override
+    public SearchPageResponse<DeviceResponse> searchDevices(DeviceSearchRequest request) {
+        requireReady();
+        PrefixIndex.Page page = entitySearchIndex.searchDevices(request.getAccountId(), request.getQ(),
+                request.getPage() * request.getSize(), request.getSize());
+        List<DeviceResponse> items = page.ids().isEmpty()
+                ? List.of()
+                : inOrder(page.ids(), deviceRepository.findResponsesByAccountIdAndIdIn(request.getAccountId(), page.ids()), DeviceResponse::getId);
+        return new SearchPageResponse<>(items, request.getPage(), request.getSize(), page.hasMore());
+    }
+
+    private void requireReady() {
+        if (!entitySearchIndex.isReady()) {
+            throw new ServiceUnavailableException("Search index is being built. Please retry later.", 5);
+        }
+    }
+
+    /**
+     * Orders the loaded rows like the index results, dropping IDs that no longer exist.
+     */
+    private static <T> List<T> inOrder(List<Long> ids, List<T> rows, Function<T, Long> id) {
+        Map<Long, T> byId = rows.stream().collect(Collectors.toMap(id, Function.identity()));
+        return ids.stream().map(byId::get).filter(Objects::nonNull).toList();
+    }
+}
@@ -0,0 +1,179 @@
+package com.example.iotbackend.service.impl;
+
+import com.example.iotbackend.dto.request.TelemetryReading;
+import com.example.iotbackend.util.SequenceWindow;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * TelemetryDeduplicator drops readings that a device has already uploaded, so that retried uploads
+ * over flaky links are stored and evaluated once.
+ * <p>
+ * Devices number their readings with a per-device sequence number; each device gets a
+ * {@link SequenceWindow} of the most recent numbers, kept in memory, and readings are checked against
+ * it before anything is evaluated or written. Readings without a sequence number are always accepted;
+ * readings without an epoch count as epoch 0.
+ * Windows of devices that stop reporting are dropped after {@code telemetry.dedup.idle-ms}. The windows
+ * live in this instance only: after a restart, or when a device's uploads reach several instances,
+ * a retry is not recognized.
+ */
+@Component
+public class TelemetryDeduplicator {
+
+    private final boolean enabled;
+    private final int windowSize;
+    private final long idleMs;
+    private final Map<Long, DeviceWindow> windows = new ConcurrentHashMap<>();  // Device ID -> recent sequence numbers
+    private final LongAdder duplicates = new LongAdder();
+    private final LongAdder stale = new LongAdder();
+
+    public TelemetryDeduplicator(@Value("${telemetry.dedup.enabled:true}") boolean enabled,
+                                 @Value("${telemetry.dedup.window:1024}") int windowSize,
+                                 @Value("${telemetry.dedup.idle-ms:86400000}") long idleMs) {
+        this.enabled = enabled;
+        this.windowSize = windowSize;
+        this.idleMs = idleMs;
+    }
+
+    /**
+     * Records the sequence numbers of an uploaded batch and returns the readings not seen before.
+     * If the fresh readings cannot be stored, the caller must {@link Admission#rollback() roll back}
+     * the admission so that the device's retry is accepted.
+     *
+     * @param deviceId The ID of the reporting device.
+     * @param readings The uploaded readings.
+     * @return The admission of the batch.
+     */
+    public Admission admit(Long deviceId, List<TelemetryReading> readings) {
+        if (!enabled) {
+            return new Admission(null, readings, new long[0], new long[0], 0);
+        }
+
+        DeviceWindow window = null;
+        List<TelemetryReading> fresh = new ArrayList<>(readings.size());
+        long[] accepted = new long[readings.size()];
+        long[] acceptedEpochs = new long[readings.size()];
+        int acceptedCount = 0;
+        int rejected = 0;
+        for (TelemetryReading reading : readings) {
+            Long sequence = reading.getSequence();
+            if (sequence == null) {
+                fresh.add(reading);
+                continue;
+            }
+            if (window == null) {
+                window = windows.computeIfAbsent(deviceId, id -> new DeviceWindow(new SequenceWindow(windowSize)));
+                window.lastSeen = System.currentTimeMillis();
+            }
+            long epoch = reading.getEpoch() == null ? 0 : reading.getEpoch();
+            switch (window.sequences.accept(epoch, sequence)) {
+                case ACCEPTED -> {
+                    fresh.add(reading);
+                    acceptedEpochs[acceptedCount] = epoch;
+                    accepted[acceptedCount++] = sequence;
+                }
+                case DUPLICATE -> {
+                    duplicates.increment();
+                    rejected++;
+                }
+                case STALE -> {
+                    stale.increment();
+                    rejected++;
+                }
+            }
+        }
+        long[] sequences = acceptedCount == accepted.length ? accepted : Arrays.copyOf(accepted, acceptedCount);
+        long[] epochs = acceptedCount == acceptedEpochs.length ? acceptedEpochs : Arrays.copyOf(acceptedEpochs, acceptedCount);
+        return new Admission(window == null ? null : window.sequences, fresh, epochs, sequences, rejected);
+    }
+
+    /**
+     * Drops the windows of devices that have not uploaded sequenced readings for a while.
+     */
+    @Scheduled(fixedDelayString = "${telemetry.dedup.sweep-ms:600000}")
+    public void sweep() {
+        long cutoff = System.currentTimeMillis() - idleMs;
+        windows.values().removeIf(window -> window.lastSeen < cutoff);
+    }
+
+    /**
+     * Returns the number of readings dropped as already seen.
+     */
+    public long duplicates() {
+        return duplicates.sum();
+    }
+
+    /**
+     * Returns the number of readings dropped because their sequence number was too old to check.
+     */
+    public long stale() {
+        return stale.sum();
+    }
+
+    /**
+     * Returns the number of devices with a window in memory.
+     */
+    public int devices() {
+        return windows.size();
+    }
+
+    /**
+     * The result of admitting an uploaded batch.
+     */
+    public static final class Admission {
+
+        private final SequenceWindow window;
+        private final List<TelemetryReading> fresh;
+        private final long[] epochs;
+        private final long[] sequences;
+        private final int rejected;
+
+        private Admission(SequenceWindow window, List<TelemetryReading> fresh, long[] epochs, long[] sequences, int rejected) {
+            this.window = window;
+            this.fresh = fresh;
+            this.epochs = epochs;
+            this.sequences = sequences;
+            this.rejected = rejected;
+        }
+
+        /**
+         * Returns the readings to store, in upload order.
+         */
+        public List<TelemetryReading> fresh() {
+            return fresh;
+        }
+
+        /**
+         * Returns the number of readings dropped as duplicates or stale.
+         */
+        public int rejected() {
+            return rejected;
+        }
+
+        /**
+         * Forgets the sequence numbers recorded by this admission.
+         */
+        public void rollback() {
+            for (int i = 0; i < sequences.length; i++) {
+                window.forget(epochs[i], sequences[i]);
+            }
+        }
+    }
+
+    private static final class DeviceWindow {
+        final SequenceWindow sequences;
+        volatile long lastSeen;
+
+        DeviceWindow(SequenceWindow sequences) {
+            this.sequences = sequences;
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package com.example.iotbackend.service.impl;
+
+import com.example.iotbackend.dto.request.TelemetryExportRequest;
+import com.example.iotbackend.exception.ResourceNotFoundException;
+import com.example.iotbackend.repository.DeviceRepository;
+import com.example.iotbackend.service.TelemetryExportService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * TelemetryExportServiceImpl streams telemetry as CSV or NDJSON with constant memory.
+ * <p>
+ * Rows are read in keyset pages ({@code id > last id, order by id}) through a forward-only, read-only
+ * cursor into a fixed-size buffer that is reused for every page. The connection is returned to the pool
+ * after each page, before the page is written, so a slow client never holds a database connection.
+ */
+@Service
+public class TelemetryExportServiceImpl implements TelemetryExportService {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DeviceRepository deviceRepository;
+    private final int pageSize;
+
+    public TelemetryExportServiceImpl(
+            JdbcTemplate jdbcTemplate,
+            DeviceRepository deviceRepository,
+            @Value("${telemetry.export.page-size:5000}") int pageSize
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.deviceRepository = deviceRepository;
+        this.pageSize = pageSize;
+    }
+
+    /**
+     * Checks that the device exists and belongs to the given account.
+     *
+     * @param accountId The ID of the account.
+     * @param deviceId  The ID of the device.
+     * @throws ResourceNotFoundException if the device does not exist or belongs to another account.
+     */
+    @Override
+    public void requireExportable(Long accountId, Long deviceId) {
+        if (!deviceRepository.existsByIdAndAccountId(deviceId, accountId)) {
+            throw new ResourceNotFoundException("Device not found with ID: " + deviceId);
+        }
+    }
+
+    /**
+     * Writes the matching readings of a device to the given stream in ID order.
+     *
+     * @param deviceId The ID of the device.
+     * @param request  The export parameters.
+     * @param out      The stream to write to; flushed after every page.
+     * @throws IOException if writing to the stream fails.
+     */
+    @Override
+    public void export(Long deviceId, TelemetryExportRequest request, OutputStream out) throws IOException {
+        boolean csv = request.getFormat() == TelemetryExportRequest.Format.CSV;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        if (csv) {
+            writer.write("id,device_id,metric,value,recorded_at\n");
+        }
+
+        Page page = new Page(pageSize);
+        long afterId = request.getAfterId();
+        do {
+            readPage(deviceId, afterId, request, page);
+            for (int i = 0; i < page.size; i++) {
+                if (csv) {
+                    writeCsvRow(writer, deviceId, page, i);
+                } else {
+                    writeJsonRow(writer, deviceId, page, i);
+                }
+            }
+            // Push each page to the client (and through the compressor) as its own chunk
+            writer.flush();
+            if (page.size > 0) {
+                afterId = page.ids[page.size - 1];
+            }
+        } while (page.size == pageSize);
+    }
+
+    private void readPage(Long deviceId, long afterId, TelemetryExportRequest request, Page page) {
+        StringBuilder sql = new StringBuilder(
+                "select id, metric, metric_value, recorded_at from telemetry where device_id = ? and id > ?");
+        List<Object> args = new ArrayList<>(6);
+        args.add(deviceId);
+        args.add(afterId);
+        if (request.getFrom() != null) {
+            sql.append(" and recorded_at >= ?");
+            args.add(Timestamp.valueOf(request.getFrom()));
+        }
+        if (request.getTo() != null) {
+            sql.append(" and recorded_at < ?");
+            args.add(Timestamp.valueOf(request.getTo()));
+        }
+        if (request.getMetric() != null) {
+            sql.append(" and metric = ?");
+            args.add(request.getMetric());
+        }
+        sql.append(" order by id limit ?");
+        args.add(pageSize);
+
+        page.size = 0;
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(
+                    sql.toString(), ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(pageSize);
+            for (int i = 0; i < args.size(); i++) {
+                statement.setObject(i + 1, args.get(i));
+            }
+            return statement;
+        }, rs -> {
+            int i = page.size++;
+            page.ids[i] = rs.getLong(1);
+            page.metrics[i] = rs.getString(2);
+            page.values[i] = rs.getDouble(3);
+            page.recordedAt[i] = rs.getTimestamp(4).toLocalDateTime();
+        });
+    }
+
+    private static void writeCsvRow(Writer writer, Long deviceId, Page page, int i) throws IOException {
+        writer.write(Long.toString(page.ids[i]));
+        writer.write(',');
+        writer.write(deviceId.toString());
+        writer.write(',');
+        writeCsvField(writer, page.metrics[i]);
+        writer.write(',');
+        writer.write(Double.toString(page.values[i]));
+        writer.write(',');
+        writer.write(page.recordedAt[i].toString());
+        writer.write('\n');
+    }
+
+    private static void writeCsvField(Writer writer, String value) throws IOException {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    private static void writeJsonRow(Writer writer, Long deviceId, Page page, int i) throws IOException {
+        writer.write("{\"id\":");
+        writer.write(Long.toString(page.ids[i]));
+        writer.write(",\"deviceId\":");
+        writer.write(deviceId.toString());
+        writer.write(",\"metric\":");
+        writeJsonString(writer, page.metrics[i]);
+        writer.write(",\"value\":");
+        double value = page.values[i];
+        // JSON has no NaN or Infinity
+        writer.write(Double.isFinite(value) ? Double.toString(value) : "null");
+        writer.write(",\"recordedAt\":\"");
+        writer.write(page.recordedAt[i].toString());
+        writer.write("\"}\n");
+    }
+
+    private static void writeJsonString(Writer writer, String value) throws IOException {
+        writer.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> writer.write("\\\"");
+                case '\\' -> writer.write("\\\\");
+                case '\n' -> writer.write("\\n");
+                case '\r' -> writer.write("\\r");
+                case '\t' -> writer.write("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        writer.write(String.format("\\u%04x", (int) c));
+                    } else {
+                        writer.write(c);
+                    }
+                }
+            }
+        }
+        writer.write('"');
+    }
+
+    /**
+     * A reusable column-wise buffer for one page of rows.
+     */
+    private static final class Page {
+        final long[] ids;
+        final String[] metrics;
+        final double[] values;
+        final LocalDateTime[] recordedAt;
+        int size;
+
+        Page(int capacity) {
+            ids = new long[capacity];
+            metrics = new String[capacity];
+            values = new double[capacity];
+            recordedAt = new LocalDateTime[capacity];
+        }
+    }
+}
@@ -0,0 +1,281 @@
+package com.example.iotbackend.service.impl;
+
+import com.example.iotbackend.model.Telemetry;
+import com.example.iotbackend.util.GorillaBlock;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * TelemetryHotTier keeps the recent readings of every device and metric in memory, compressed in
+ * {@link GorillaBlock}s, so that range queries over the last hours are answered without MySQL.
+ * <p>
+ * Each series (device ID and metric) remembers the time from which it is complete: the start of the
+ * application, moved forward whenever one of its blocks is evicted. A query starting before that time
+ * is not covered and goes to the database. Blocks are evicted once they are older than the retention,
+ * and the oldest blocks overall are evicted while the tier exceeds its memory budget.
+ * <p>
+ * Only uploads received by this instance are seen, and a query answered from memory would silently miss
+ * readings ingested elsewhere (another API instance or the reactive ingestion module). The tier is therefore
+ * off unless enabled, which is only correct when this instance receives all telemetry.
+ */
+@Slf4j
+@Component
+public class TelemetryHotTier {
+
+    private final boolean enabled;
+    private final long retentionMs;
+    private final long maxBytes;
+    private final int blockPoints;
+    private final long blockSpanMs;
+    private final Map<SeriesKey, Series> series = new ConcurrentHashMap<>();
+    private volatile long unknownSeriesFrom;  // A series absent from the map had no readings since this time
+    private volatile long footprintBytes;     // Measured at the last sweep
+
+    public TelemetryHotTier(
+            MeterRegistry meterRegistry,
+            @Value("${telemetry.hot-tier.enabled:false}") boolean enabled,
+            @Value("${telemetry.hot-tier.retention-ms:86400000}") long retentionMs,
+            @Value("${telemetry.hot-tier.max-bytes:268435456}") long maxBytes,
+            @Value("${telemetry.hot-tier.block-points:1024}") int blockPoints,
+            @Value("${telemetry.hot-tier.block-span-ms:3600000}") long blockSpanMs
+    ) {
+        this.enabled = enabled;
+        this.retentionMs = retentionMs;
+        this.maxBytes = maxBytes;
+        this.blockPoints = blockPoints;
+        this.blockSpanMs = blockSpanMs;
+        this.unknownSeriesFrom = toMillis(LocalDateTime.now());
+
+        Gauge.builder("telemetry.hottier.series", series, Map::size)
+                .description("Device metrics held in the in-memory telemetry tier")
+                .register(meterRegistry);
+        Gauge.builder("telemetry.hottier.bytes", this, tier -> tier.footprintBytes)
+                .description("Approximate memory used by the in-memory telemetry tier")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Adds accepted readings to their series.
+     *
+     * @param readings The readings of one upload.
+     */
+    public void record(List<Telemetry> readings) {
+        if (!enabled) {
+            return;
+        }
+        for (Telemetry reading : readings) {
+            SeriesKey key = new SeriesKey(reading.getDeviceId(), reading.getMetric());
+            long timestamp = toMillis(reading.getRecordedAt());
+            // A series removed by a concurrent sweep rejects the point; retry with a fresh one
+            while (!series.computeIfAbsent(key, k -> new Series(unknownSeriesFrom))
+                    .append(timestamp, reading.getValue(), blockPoints, blockSpanMs)) {
+                Thread.onSpinWait();
+            }
+        }
+    }
+
+    /**
+     * Collects the readings of a series in {@code [from, to)}, ordered by time, if the tier holds all of them.
+     *
+     * @param deviceId The ID of the device.
+     * @param metric   The metric name.
+     * @param from     Inclusive lower bound.
+     * @param to       Exclusive upper bound.
+     * @return The points, or null if the range is not fully covered by the tier.
+     */
+    public List<Point> query(Long deviceId, String metric, LocalDateTime from, LocalDateTime to) {
+        if (!enabled) {
+            return null;
+        }
+        long fromMs = toMillis(from);
+        long toMs = toMillis(to);
+        Series s = series.get(new SeriesKey(deviceId, metric));
+        if (s == null) {
+            return fromMs >= unknownSeriesFrom ? new ArrayList<>() : null;
+        }
+        List<Point> points = s.scan(fromMs, toMs);
+        if (points != null) {
+            points.sort(Comparator.comparingLong(Point::timestamp));  // Out-of-order uploads start new blocks
+        }
+        return points;
+    }
+
+    /**
+     * Evicts blocks past the retention, then the oldest blocks while the tier exceeds its memory budget.
+     */
+    @Scheduled(fixedDelayString = "${telemetry.hot-tier.sweep-ms:60000}")
+    public void sweep() {
+        if (!enabled) {
+            return;
+        }
+        long cutoff = toMillis(LocalDateTime.now()) - retentionMs;
+        long total = 0;
+        for (Map.Entry<SeriesKey, Series> entry : series.entrySet()) {
+            Series s = entry.getValue();
+            long bytes = s.evictBefore(cutoff);
+            if (bytes < 0) {
+                // Nothing left; later readings start a new series covering only what follows
+                unknownSeriesFrom = Math.max(unknownSeriesFrom, s.coversFrom);
+                series.remove(entry.getKey(), s);
+            } else {
+                total += bytes;
+            }
+        }
+
+        if (total > maxBytes) {
+            total -= evictOldest(total - maxBytes + maxBytes / 10);
+        }
+        footprintBytes = total;
+    }
+
+    private long evictOldest(long bytesToFree) {
+        List<Candidate> candidates = new ArrayList<>();
+        for (Series s : series.values()) {
+            s.collectSealed(candidates);
+        }
+        candidates.sort(Comparator.comparingLong(c -> c.block().lastTimestamp()));
+
+        long freed = 0;
+        int evicted = 0;
+        for (Candidate candidate : candidates) {
+            if (freed >= bytesToFree) {
+                break;
+            }
+            if (candidate.series().evict(candidate.block())) {
+                freed += candidate.block().sizeInBytes();
+                evicted++;
+            }
+        }
+        log.info("Telemetry hot tier over budget, evicted {} blocks ({} bytes)", evicted, freed);
+        return freed;
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    /**
+     * A reading returned by a query.
+     */
+    public record Point(long timestamp, double value) {
+
+        /**
+         * Returns the timestamp as a LocalDateTime.
+         */
+        public LocalDateTime time() {
+            return LocalDateTime.ofEpochSecond(Math.floorDiv(timestamp, 1000), (int) Math.floorMod(timestamp, 1000) * 1_000_000, ZoneOffset.UTC);
+        }
+    }
+
+    private record SeriesKey(Long deviceId, String metric) {
+    }
+
+    private record Candidate(Series series, GorillaBlock block) {
+    }
+
+    /**
+     * The blocks of one device metric. All access is synchronized on the series.
+     */
+    private static final class Series {
+        private final ArrayDeque<GorillaBlock> sealed = new ArrayDeque<>();
+        private GorillaBlock open;
+        private long coversFrom;  // Every reading at or after this time is held
+        private boolean removed;
+
+        Series(long coversFrom) {
+            this.coversFrom = coversFrom;
+        }
+
+        synchronized boolean append(long timestamp, double value, int blockPoints, long blockSpanMs) {
+            if (removed) {
+                return false;
+            }
+            if (open != null && (timestamp < open.lastTimestamp()
+                    || open.size() >= blockPoints
+                    || timestamp - open.firstTimestamp() >= blockSpanMs)) {
+                sealOpen();
+            }
+            if (open == null) {
+                open = new GorillaBlock(timestamp, value);
+            } else {
+                open.append(timestamp, value);
+            }
+            return true;
+        }
+
+        synchronized List<Point> scan(long from, long to) {
+            if (from < coversFrom) {
+                return null;
+            }
+            List<Point> points = new ArrayList<>();
+            for (GorillaBlock block : sealed) {
+                block.scan(from, to, (t, v) -> points.add(new Point(t, v)));
+            }
+            if (open != null) {
+                open.scan(from, to, (t, v) -> points.add(new Point(t, v)));
+            }
+            return points;
+        }
+
+        /**
+         * Evicts the blocks whose readings are all older than the cutoff.
+         *
+         * @return The bytes still held, or -1 if the series is now empty and was marked removed.
+         */
+        synchronized long evictBefore(long cutoff) {
+            if (open != null && open.lastTimestamp() < cutoff) {
+                sealOpen();
+            }
+            sealed.removeIf(block -> {
+                if (block.lastTimestamp() >= cutoff) {
+                    return false;
+                }
+                coversFrom = Math.max(coversFrom, block.lastTimestamp() + 1);
+                return true;
+            });
+            if (sealed.isEmpty() && open == null) {
+                removed = true;
+                return -1;
+            }
+            long bytes = 0;
+            for (GorillaBlock block : sealed) {
+                bytes += block.sizeInBytes();
+            }
+            return open == null ? bytes : bytes + open.sizeInBytes();
+        }
+
+        synchronized void collectSealed(List<Candidate> candidates) {
+            for (GorillaBlock block : sealed) {
+                candidates.add(new Candidate(this, block));
+            }
+        }
+
+        synchronized boolean evict(GorillaBlock block) {
+            if (!sealed.remove(block)) {
+                return false;
+            }
+            coversFrom = Math.max(coversFrom, block.lastTimestamp() + 1);
+            return true;
+        }
+
+        private void sealOpen() {
+            open.seal();
+            sealed.addLast(open);
+            open = null;
+        }
+    }
+}
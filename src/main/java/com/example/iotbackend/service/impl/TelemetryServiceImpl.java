@@ -0,0 +1,173 @@
+package com.example.iotbackend.service.impl;
+
+import com.example.iotbackend.dto.request.TelemetryQueryRequest;
+import com.example.iotbackend.dto.request.TelemetryReading;
+import com.example.iotbackend.dto.request.TelemetryRequest;
+import com.example.iotbackend.dto.response.TelemetryPointResponse;
+import com.example.iotbackend.dto.response.TelemetryResponse;
+import com.example.iotbackend.dto.response.TelemetrySeriesResponse;
+import com.example.iotbackend.exception.ResourceNotFoundException;
+import com.example.iotbackend.model.Alert;
+import com.example.iotbackend.model.Device;
+import com.example.iotbackend.model.Telemetry;
+import com.example.iotbackend.repository.AlertRepository;
+import com.example.iotbackend.repository.TelemetryRepository;
+import com.example.iotbackend.service.TelemetryService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * TelemetryServiceImpl stores uploaded readings and runs them through the AlertRuleEngine.
+ * Every upload also refreshes the device's presence timer. Readings the device has uploaded before are
+ * dropped by the {@link TelemetryDeduplicator} before anything is evaluated or written.
+ * <p>
+ * With the write-ahead log enabled, an upload is acknowledged once it is durable in the local
+ * {@link TelemetryWal} and reaches the database asynchronously. Device lookups are cached briefly,
+ * so a database stall does not hold up devices that have reported recently. Range queries are served from
+ * the in-memory {@link TelemetryHotTier} when it covers the range.
+ */
+@Service
+@RequiredArgsConstructor
+public class TelemetryServiceImpl implements TelemetryService {
+
+    private final TelemetryRepository telemetryRepository;
+    private final AlertRepository alertRepository;
+    private final AlertRuleEngine alertRuleEngine;
+    private final DevicePresenceTracker devicePresenceTracker;
+    private final TelemetryWal telemetryWal;
+    private final TransactionTemplate transactionTemplate;
+    private final TelemetryHotTier telemetryHotTier;
+    private final CoalescingLookups coalescingLookups;
+    private final TelemetryDeduplicator telemetryDeduplicator;
+    private final Map<Long, CachedDevice> deviceCache = new ConcurrentHashMap<>();  // Device ID -> recently loaded device
+
+    private static final long DEVICE_CACHE_TTL_MS = 30_000;
+    private static final int DEVICE_CACHE_MAX_SIZE = 100_000;
+    private static final int MAX_QUERY_POINTS = 10_000;
+
+    /**
+     * Stores a batch of readings and evaluates the alert rules that apply to the device.
+     *
+     * @param accountId The ID of the account that owns the device.
+     * @param deviceId  The ID of the reporting device.
+     * @param request   The batch of readings.
+     * @return TelemetryResponse A summary of the accepted readings, triggered alerts and dropped duplicates.
+     * @throws ResourceNotFoundException if the device does not exist or belongs to another account.
+     */
+    @Override
+    public TelemetryResponse ingest(Long accountId, Long deviceId, TelemetryRequest request) {
+        Device device = findOwnedDevice(accountId, deviceId);
+
+        // Any upload counts as a sign of life
+        devicePresenceTracker.touch(deviceId);
+
+        // Drop retried readings before they reach the rule engine or storage
+        TelemetryDeduplicator.Admission admission = telemetryDeduplicator.admit(deviceId, request.getReadings());
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Telemetry> readings = new ArrayList<>(admission.fresh().size());
+        for (TelemetryReading reading : admission.fresh()) {
+            LocalDateTime recordedAt = reading.getTimestamp() != null ? reading.getTimestamp() : now;
+            readings.add(new Telemetry(null, deviceId, reading.getMetric(), reading.getValue(), recordedAt));
+        }
+        if (readings.isEmpty()) {
+            return new TelemetryResponse("Telemetry accepted", 0, 0, admission.rejected());
+        }
+
+        // Evaluate the rules in memory, then write readings and alerts in one batch each
+        List<Alert> alerts = alertRuleEngine.evaluate(device, readings);
+        try {
+            if (telemetryWal.isEnabled()) {
+                telemetryWal.append(deviceId, readings, alerts);
+            } else {
+                transactionTemplate.executeWithoutResult(status -> {
+                    telemetryRepository.saveAll(readings);
+                    if (!alerts.isEmpty()) {
+                        alertRepository.saveAll(alerts);
+                    }
+                });
+            }
+        } catch (RuntimeException e) {
+            admission.rollback();  // Not stored, so the device's retry must be accepted
+            throw e;
+        }
+        telemetryHotTier.record(readings);
+
+        return new TelemetryResponse("Telemetry accepted", readings.size(), alerts.size(), admission.rejected());
+    }
+
+    /**
+     * Returns the readings of one metric of a device over a time range, from memory when the hot tier
+     * covers the range and from the database otherwise. At most {@value #MAX_QUERY_POINTS} readings are returned.
+     *
+     * @param accountId The ID of the account that owns the device.
+     * @param deviceId  The ID of the device.
+     * @param request   The metric and time range; defaults to the last hour.
+     * @return TelemetrySeriesResponse The readings, ordered by time.
+     * @throws ResourceNotFoundException if the device does not exist or belongs to another account.
+     */
+    @Override
+    public TelemetrySeriesResponse query(Long accountId, Long deviceId, TelemetryQueryRequest request) {
+        findOwnedDevice(accountId, deviceId);
+
+        LocalDateTime to = request.getTo() != null ? request.getTo() : LocalDateTime.now();
+        LocalDateTime from = request.getFrom() != null ? request.getFrom() : to.minusHours(1);
+        String metric = request.getMetric();
+
+        List<TelemetryHotTier.Point> cached = telemetryHotTier.query(deviceId, metric, from, to);
+        if (cached != null) {
+            int count = Math.min(cached.size(), MAX_QUERY_POINTS);
+            List<TelemetryPointResponse> points = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                TelemetryHotTier.Point point = cached.get(i);
+                points.add(new TelemetryPointResponse(point.time(), point.value()));
+            }
+            return new TelemetrySeriesResponse(deviceId, metric, "memory", cached.size() > count, points);
+        }
+
+        // Fetch one extra row to tell whether the range was truncated
+        List<Telemetry> rows = telemetryRepository
+                .findByDeviceIdAndMetricAndRecordedAtGreaterThanEqualAndRecordedAtLessThanOrderByRecordedAtAsc(
+                        deviceId, metric, from, to, Limit.of(MAX_QUERY_POINTS + 1));
+        int count = Math.min(rows.size(), MAX_QUERY_POINTS);
+        List<TelemetryPointResponse> points = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            points.add(new TelemetryPointResponse(rows.get(i).getRecordedAt(), rows.get(i).getValue()));
+        }
+        return new TelemetrySeriesResponse(deviceId, metric, "database", rows.size() > count, points);
+    }
+
+    /**
+     * Returns the device if it belongs to the account, from the cache when it was loaded recently.
+     * Cache misses for the same device (e.g. after the entry expired) share one query.
+     */
+    private Device findOwnedDevice(Long accountId, Long deviceId) {
+        long now = System.currentTimeMillis();
+        CachedDevice cached = deviceCache.get(deviceId);
+        if (cached != null && now - cached.loadedAt() < DEVICE_CACHE_TTL_MS) {
+            if (!cached.device().getAccountId().equals(accountId)) {
+                throw new ResourceNotFoundException("Device not found with ID: " + deviceId);
+            }
+            return cached.device();
+        }
+
+        Device device = coalescingLookups.findOwnedDevice(deviceId, accountId)
+                .orElseThrow(() -> new ResourceNotFoundException("Device not found with ID: " + deviceId));
+        if (deviceCache.size() >= DEVICE_CACHE_MAX_SIZE) {
+            deviceCache.clear();  // Crude bound; the active devices are reloaded within one TTL
+        }
+        deviceCache.put(deviceId, new CachedDevice(device, now));
+        return device;
+    }
+
+    private record CachedDevice(Device device, long loadedAt) {
+    }
+}
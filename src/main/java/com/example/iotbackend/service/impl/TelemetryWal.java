@@ -0,0 +1,323 @@
+package com.example.iotbackend.service.impl;
+
+import com.example.iotbackend.exception.ServiceUnavailableException;
+import com.example.iotbackend.model.Alert;
+import com.example.iotbackend.model.Telemetry;
+import com.example.iotbackend.util.WriteAheadLog;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * TelemetryWal makes accepted telemetry durable on local disk before it reaches the database.
+ * <p>
+ * Uploads are appended to a {@link WriteAheadLog} and acknowledged once the group commit has forced
+ * them to disk, so a stalled or failing-over database does not hold request threads. A background thread
+ * replays the log into the {@code telemetry} and {@code alerts} tables in large batches. The replay
+ * position is stored in {@code wal_checkpoints} under the log's ID in the same transaction as the rows,
+ * so every record is applied exactly once, also after a crash; segments before the checkpoint are recycled.
+ * <p>
+ * While the database is unavailable the replay retries with backoff. A batch the database rejects for
+ * its data (e.g. a reading of a device deleted meanwhile) is applied record by record instead; records
+ * that are still rejected are moved to the {@code dead-letter} directory of the log, so one bad upload
+ * cannot stop the replay of everything after it.
+ */
+@Slf4j
+@Component
+@Lazy(false)  // Replays what a previous run left behind without waiting for the first upload
+public class TelemetryWal {
+
+    private static final long MAX_BACKOFF_MS = 5000;
+    private static final String DEAD_LETTER_DIRECTORY = "dead-letter";
+
+    private static final String INSERT_TELEMETRY =
+            "insert into telemetry (device_id, metric, metric_value, recorded_at) values (?, ?, ?, ?)";
+    private static final String INSERT_ALERT =
+            "insert into alerts (rule_id, device_id, metric, metric_value, triggered_at) values (?, ?, ?, ?, ?)";
+    private static final String SELECT_CHECKPOINT = "select lsn from wal_checkpoints where log_id = ?";
+    private static final String UPSERT_CHECKPOINT =
+            "insert into wal_checkpoints (log_id, lsn, updated_at) values (?, ?, ?) "
+                    + "on duplicate key update lsn = values(lsn), updated_at = values(updated_at)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final long syncTimeoutMs;
+    private final int replayBatchRecords;
+    private final long replayIdleMs;
+    private final WriteAheadLog wal;
+    private final Path deadLetterDirectory;
+    private final Counter deadLetters;
+    private final Object idle = new Object();  // Replay thread waits here between polls
+    private volatile boolean running;
+    private Thread replayer;
+    private long position = -1;  // Replay thread only: end of the applied records; -1 until read from the database
+
+    public TelemetryWal(
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${telemetry.wal.enabled:true}") boolean enabled,
+            @Value("${telemetry.wal.dir:./data/wal}") String directory,
+            @Value("${telemetry.wal.segment-bytes:67108864}") int segmentBytes,
+            @Value("${telemetry.wal.commit-interval-ms:2}") long commitIntervalMs,
+            @Value("${telemetry.wal.sync-timeout-ms:1000}") long syncTimeoutMs,
+            @Value("${telemetry.wal.replay-batch-records:500}") int replayBatchRecords,
+            @Value("${telemetry.wal.replay-idle-ms:50}") long replayIdleMs
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = enabled;
+        this.syncTimeoutMs = syncTimeoutMs;
+        this.replayBatchRecords = replayBatchRecords;
+        this.replayIdleMs = replayIdleMs;
+        this.deadLetterDirectory = Path.of(directory).resolve(DEAD_LETTER_DIRECTORY);
+        this.deadLetters = Counter.builder("telemetry.wal.dead.letters")
+                .description("Write-ahead log records the database rejected, moved to the dead-letter directory")
+                .register(meterRegistry);
+        if (!enabled) {
+            this.wal = null;
+            return;
+        }
+        try {
+            this.wal = new WriteAheadLog(Path.of(directory), segmentBytes, commitIntervalMs);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open the telemetry write-ahead log in " + directory, e);
+        }
+        Gauge.builder("telemetry.wal.segments", wal, WriteAheadLog::segmentCount)
+                .description("Write-ahead log segments not yet replayed into the database")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns whether uploads go through the write-ahead log.
+     *
+     * @return true if the log is enabled.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Appends an upload to the log and waits until it is durable.
+     *
+     * @param deviceId The ID of the reporting device.
+     * @param readings The readings to store.
+     * @param alerts   The alerts the readings triggered.
+     * @throws ServiceUnavailableException if the upload could not be made durable in time.
+     */
+    public void append(Long deviceId, List<Telemetry> readings, List<Alert> alerts) {
+        try {
+            long lsn = wal.append(TelemetryWalCodec.encode(deviceId, readings, alerts));
+            wal.awaitDurable(lsn, syncTimeoutMs);
+        } catch (IOException | TimeoutException e) {
+            log.error("Telemetry write-ahead log append failed: {}", e.getMessage());
+            throw new ServiceUnavailableException("Telemetry could not be stored, please retry.", 1);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException("Telemetry could not be stored, please retry.", 1);
+        }
+    }
+
+    /**
+     * Starts replaying the log into the database once the application is ready.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void startReplay() {
+        if (!enabled || running) {
+            return;
+        }
+        running = true;
+        replayer = new Thread(this::replayLoop, "wal-replay");
+        replayer.setDaemon(true);
+        replayer.start();
+    }
+
+    /**
+     * Stops the replay thread after its current batch and closes the log.
+     * Records not yet replayed stay on disk and are applied on the next start.
+     */
+    @PreDestroy
+    public void stop() {
+        if (!enabled) {
+            return;
+        }
+        running = false;
+        synchronized (idle) {
+            idle.notifyAll();
+        }
+        if (replayer != null) {
+            try {
+                replayer.join(MAX_BACKOFF_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        wal.close();
+    }
+
+    private void replayLoop() {
+        long backoffMs = replayIdleMs;
+        while (running) {
+            try {
+                if (replayNext()) {
+                    backoffMs = replayIdleMs;
+                } else {
+                    pause(replayIdleMs);
+                }
+            } catch (RuntimeException e) {
+                // The database is unavailable; the records stay in the log until it is back
+                log.warn("Telemetry replay failed, retrying in {} ms: {}", backoffMs, e.getMessage());
+                pause(backoffMs);
+                backoffMs = Math.min(Math.max(1, backoffMs) * 2, MAX_BACKOFF_MS);
+            }
+        }
+    }
+
+    /**
+     * Applies the next batch of records to the database.
+     *
+     * @return Whether there were records to apply.
+     * @throws RuntimeException if the database is unavailable; nothing after the stored checkpoint is lost.
+     */
+    boolean replayNext() {
+        if (position < 0) {
+            position = storedCheckpoint();
+        }
+
+        List<LoggedRecord> records = new ArrayList<>();
+        long end = wal.read(position, replayBatchRecords, (payload, endLsn) -> records.add(new LoggedRecord(payload, endLsn)));
+        if (records.isEmpty()) {
+            position = end;
+            return false;
+        }
+
+        try {
+            try {
+                apply(records.stream().map(LoggedRecord::decode).toList(), end);
+            } catch (DataIntegrityViolationException e) {
+                // Rejected data, not an unavailable database: find the records at fault one by one
+                log.warn("Telemetry replay of {} records was rejected, applying them one by one: {}", records.size(), e.getMessage());
+                applyEach(records);
+            }
+        } catch (RuntimeException e) {
+            position = -1;  // Part of the batch may be applied; continue from the stored checkpoint
+            throw e;
+        }
+        position = end;
+        wal.checkpoint(end);
+        return true;
+    }
+
+    private long storedCheckpoint() {
+        List<Long> stored = jdbcTemplate.queryForList(SELECT_CHECKPOINT, Long.class, wal.logId());
+        if (stored.isEmpty()) {
+            return 0;  // Before the first segment: replay everything
+        }
+        long checkpoint = stored.get(0);
+        if (checkpoint > wal.durableLsn()) {
+            // Cannot belong to this log; starting after it would skip acknowledged records forever
+            log.warn("Telemetry WAL checkpoint {} lies beyond the end of log {} at {}, replaying from the start",
+                    checkpoint, wal.logId(), wal.durableLsn());
+            return 0;
+        }
+        return checkpoint;
+    }
+
+    private void applyEach(List<LoggedRecord> records) {
+        for (LoggedRecord record : records) {
+            try {
+                apply(List.of(record.decode()), record.endLsn());
+            } catch (DataIntegrityViolationException e) {
+                deadLetter(record, e);
+            }
+        }
+    }
+
+    private void deadLetter(LoggedRecord record, DataIntegrityViolationException cause) {
+        // Written before the checkpoint passes the record, so the record is either in the log or here
+        Path file = deadLetterDirectory.resolve(wal.logId() + "-" + record.endLsn() + ".rec");
+        try {
+            Files.createDirectories(deadLetterDirectory);
+            Files.write(file, record.payload());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write dead-letter record " + file, e);
+        }
+        jdbcTemplate.update(UPSERT_CHECKPOINT, wal.logId(), record.endLsn(), Timestamp.valueOf(LocalDateTime.now()));
+        deadLetters.increment();
+        log.error("Telemetry WAL record ending at {} was rejected by the database and moved to {}: {}",
+                record.endLsn(), file, cause.getMessage());
+    }
+
+    private void apply(List<TelemetryWalCodec.Batch> batches, long checkpointLsn) {
+        List<Telemetry> readings = new ArrayList<>();
+        List<Alert> alerts = new ArrayList<>();
+        for (TelemetryWalCodec.Batch batch : batches) {
+            readings.addAll(batch.readings());
+            alerts.addAll(batch.alerts());
+        }
+
+        // Rows and checkpoint commit together, so a record is never applied twice
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate(INSERT_TELEMETRY, readings, readings.size(), (ps, reading) -> {
+                ps.setLong(1, reading.getDeviceId());
+                ps.setString(2, reading.getMetric());
+                ps.setDouble(3, reading.getValue());
+                ps.setTimestamp(4, Timestamp.valueOf(reading.getRecordedAt()));
+            });
+            if (!alerts.isEmpty()) {
+                jdbcTemplate.batchUpdate(INSERT_ALERT, alerts, alerts.size(), (ps, alert) -> {
+                    ps.setLong(1, alert.getRuleId());
+                    ps.setLong(2, alert.getDeviceId());
+                    ps.setString(3, alert.getMetric());
+                    ps.setDouble(4, alert.getValue());
+                    ps.setTimestamp(5, Timestamp.valueOf(alert.getTriggeredAt()));
+                });
+            }
+            jdbcTemplate.update(UPSERT_CHECKPOINT, wal.logId(), checkpointLsn, Timestamp.valueOf(LocalDateTime.now()));
+        });
+    }
+
+    /**
+     * A record read from the log, with the LSN just after it.
+     */
+    private record LoggedRecord(byte[] payload, long endLsn) {
+        TelemetryWalCodec.Batch decode() {
+            return TelemetryWalCodec.decode(payload);
+        }
+    }
+
+    private void pause(long millis) {
+        synchronized (idle) {
+            if (!running) {
+                return;
+            }
+            try {
+                idle.wait(Math.max(1, millis));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+            }
+        }
+    }
+}
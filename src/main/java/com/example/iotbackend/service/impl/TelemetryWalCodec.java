@@ -0,0 +1,128 @@
+package com.example.iotbackend.service.impl;
+
+import com.example.iotbackend.model.Alert;
+import com.example.iotbackend.model.Telemetry;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * TelemetryWalCodec encodes one accepted telemetry upload (its readings and the alerts they
+ * triggered) as a compact write-ahead log record, and decodes it again for replay.
+ */
+final class TelemetryWalCodec {
+
+    private static final byte VERSION = 1;
+
+    private TelemetryWalCodec() {
+    }
+
+    /**
+     * A decoded upload.
+     */
+    record Batch(List<Telemetry> readings, List<Alert> alerts) {
+    }
+
+    /**
+     * Encodes an upload as a log record.
+     *
+     * @param deviceId The ID of the reporting device.
+     * @param readings The readings to store.
+     * @param alerts   The alerts the readings triggered.
+     * @return The record bytes.
+     */
+    static byte[] encode(Long deviceId, List<Telemetry> readings, List<Alert> alerts) {
+        int size = 1 + 8 + 4 + 4;
+        List<byte[]> readingMetrics = new ArrayList<>(readings.size());
+        for (Telemetry reading : readings) {
+            byte[] metric = reading.getMetric().getBytes(StandardCharsets.UTF_8);
+            readingMetrics.add(metric);
+            size += 4 + metric.length + 8 + 12;
+        }
+        List<byte[]> alertMetrics = new ArrayList<>(alerts.size());
+        for (Alert alert : alerts) {
+            byte[] metric = alert.getMetric().getBytes(StandardCharsets.UTF_8);
+            alertMetrics.add(metric);
+            size += 8 + 4 + metric.length + 8 + 12;
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.put(VERSION);
+        buffer.putLong(deviceId);
+        buffer.putInt(readings.size());
+        for (int i = 0; i < readings.size(); i++) {
+            Telemetry reading = readings.get(i);
+            putBytes(buffer, readingMetrics.get(i));
+            buffer.putDouble(reading.getValue());
+            putTime(buffer, reading.getRecordedAt());
+        }
+        buffer.putInt(alerts.size());
+        for (int i = 0; i < alerts.size(); i++) {
+            Alert alert = alerts.get(i);
+            buffer.putLong(alert.getRuleId());
+            putBytes(buffer, alertMetrics.get(i));
+            buffer.putDouble(alert.getValue());
+            putTime(buffer, alert.getTriggeredAt());
+        }
+        return buffer.array();
+    }
+
+    /**
+     * Decodes a log record written by {@link #encode(Long, List, List)}.
+     *
+     * @param record The record bytes.
+     * @return The readings and alerts of the upload.
+     */
+    static Batch decode(byte[] record) {
+        ByteBuffer buffer = ByteBuffer.wrap(record);
+        byte version = buffer.get();
+        if (version != VERSION) {
+            throw new IllegalStateException("Unsupported telemetry WAL record version " + version);
+        }
+        long deviceId = buffer.getLong();
+
+        int readingCount = buffer.getInt();
+        List<Telemetry> readings = new ArrayList<>(readingCount);
+        for (int i = 0; i < readingCount; i++) {
+            String metric = getString(buffer);
+            double value = buffer.getDouble();
+            readings.add(new Telemetry(null, deviceId, metric, value, getTime(buffer)));
+        }
+
+        int alertCount = buffer.getInt();
+        List<Alert> alerts = new ArrayList<>(alertCount);
+        for (int i = 0; i < alertCount; i++) {
+            long ruleId = buffer.getLong();
+            String metric = getString(buffer);
+            double value = buffer.getDouble();
+            alerts.add(new Alert(null, ruleId, deviceId, metric, value, getTime(buffer)));
+        }
+        return new Batch(readings, alerts);
+    }
+
+    private static void putBytes(ByteBuffer buffer, byte[] bytes) {
+        buffer.putInt(bytes.length);
+        buffer.put(bytes);
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void putTime(ByteBuffer buffer, LocalDateTime time) {
+        buffer.putLong(time.toEpochSecond(ZoneOffset.UTC));
+        buffer.putInt(time.getNano());
+    }
+
+    private static LocalDateTime getTime(ByteBuffer buffer) {
+        long seconds = buffer.getLong();
+        int nanos = buffer.getInt();
+        return LocalDateTime.ofEpochSecond(seconds, nanos, ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.iotbackend.service.impl;
+
+import com.example.iotbackend.model.RevokedToken;
+import com.example.iotbackend.repository.RevokedTokenRepository;
+import com.example.iotbackend.service.TokenRevocationService;
+import com.example.iotbackend.util.BloomFilter;
+import io.jsonwebtoken.Claims;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+/**
+ * TokenRevocationServiceImpl keeps revoked token IDs in the {@code revoked_tokens} table and
+ * mirrors them in an in-memory Bloom filter.
+ * <p>
+ * Almost every request carries a token that was never revoked, and the filter answers those without
+ * a database hit. Only when the filter reports a possible match is the table consulted. Revocations
+ * made through other instances are polled for every {@code jwt.revocation.poll-ms}, so a revoked token
+ * is rejected everywhere within a few seconds. Revocations are dropped once the token has expired, and
+ * the filter is rebuilt on a fixed delay so that its size stays bounded.
+ */
+@Slf4j
+@Service
+public class TokenRevocationServiceImpl implements TokenRevocationService {
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final long expectedRevocations;
+    private final double falsePositiveRate;
+    private final long pollLookbackMs;
+    private volatile BloomFilter filter;    // Filter consulted by isRevoked
+    private volatile BloomFilter building;  // Filter being rebuilt; also receives new revocations
+
+    public TokenRevocationServiceImpl(
+            RevokedTokenRepository revokedTokenRepository,
+            @Value("${jwt.revocation.expected-revocations:10000}") long expectedRevocations,
+            @Value("${jwt.revocation.false-positive-rate:0.001}") double falsePositiveRate,
+            @Value("${jwt.revocation.poll-lookback-ms:60000}") long pollLookbackMs
+    ) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.expectedRevocations = expectedRevocations;
+        this.falsePositiveRate = falsePositiveRate;
+        this.pollLookbackMs = pollLookbackMs;
+        this.filter = new BloomFilter(expectedRevocations, falsePositiveRate);
+    }
+
+    /**
+     * Revokes the token described by the given claims until it expires.
+     * The row is written before the filter is updated, so a concurrent rebuild never loses it.
+     *
+     * @param claims The verified claims of the token to revoke.
+     */
+    @Override
+    public void revoke(Claims claims) {
+        String jti = claims.getId();
+        if (jti == null) {
+            return;  // Tokens issued before revocation support carry no ID and simply run out
+        }
+        LocalDateTime expiresAt = LocalDateTime.ofInstant(claims.getExpiration().toInstant(), ZoneId.systemDefault());
+        revokedTokenRepository.save(new RevokedToken(jti, claims.getSubject(), expiresAt, LocalDateTime.now()));
+
+        filter.put(jti);
+        BloomFilter next = building;
+        if (next != null) {
+            next.put(jti);
+        }
+    }
+
+    /**
+     * Checks whether the token with the given ID has been revoked.
+     * A negative answer from the Bloom filter is final; a positive one is confirmed against the table.
+     *
+     * @param jti The token ID ({@code jti} claim).
+     * @return true if the token has been revoked.
+     */
+    @Override
+    public boolean isRevoked(String jti) {
+        if (jti == null || !filter.mightContain(jti)) {
+            return false;
+        }
+        return revokedTokenRepository.existsById(jti);
+    }
+
+    /**
+     * Adds the revocations of the last {@code jwt.revocation.poll-lookback-ms} to the Bloom filter.
+     * Looking back further than the poll interval keeps rows that committed late, or were stamped by an
+     * instance whose clock runs behind, from being missed; adding a token twice is harmless.
+     */
+    @Override
+    @Scheduled(initialDelayString = "${jwt.revocation.poll-ms:2000}", fixedDelayString = "${jwt.revocation.poll-ms:2000}")
+    public void poll() {
+        List<String> recent = revokedTokenRepository.findIdsRevokedSince(
+                LocalDateTime.now().minus(pollLookbackMs, ChronoUnit.MILLIS));
+        BloomFilter current = filter;
+        recent.forEach(current::put);
+        BloomFilter next = building;
+        if (next != null) {
+            recent.forEach(next::put);
+        }
+    }
+
+    /**
+     * Drops expired revocations and rebuilds the Bloom filter from the remaining rows.
+     * Runs once the application is ready and then on a fixed delay.
+     */
+    @Override
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${jwt.revocation.rebuild-ms:600000}", fixedDelayString = "${jwt.revocation.rebuild-ms:600000}")
+    public void rebuild() {
+        LocalDateTime now = LocalDateTime.now();
+        int expired = revokedTokenRepository.deleteExpired(now);
+
+        // Publish the new filter before reading the table so revocations made meanwhile reach it too
+        BloomFilter next = new BloomFilter(expectedRevocations, falsePositiveRate);
+        building = next;
+        try {
+            List<String> active = revokedTokenRepository.findActiveIds(now);
+            if (active.size() > expectedRevocations) {
+                log.warn("{} active revocations exceed the expected {}; the false-positive rate will rise",
+                        active.size(), expectedRevocations);
+            }
+            active.forEach(next::put);
+            filter = next;
+            log.debug("Rebuilt token revocation filter with {} entries, dropped {} expired", active.size(), expired);
+        } finally {
+            building = null;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.iotbackend.util;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Helpers for deriving HTTP validators (ETag and Last-Modified) from entity timestamps.
+ */
+public final class EntityTags {
+
+    private EntityTags() {
+    }
+
+    /**
+     * Converts an entity timestamp to epoch milliseconds for the Last-Modified header.
+     *
+     * @param timestamp The entity timestamp, interpreted in the server time zone.
+     * @return The timestamp in epoch milliseconds, or -1 if it is null.
+     */
+    public static long lastModified(LocalDateTime timestamp) {
+        return timestamp == null ? -1 : timestamp.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    /**
+     * Builds a weak ETag from the given parts, e.g. an ID and a modification time.
+     * Weak, because the JSON may be serialized or compressed differently for the same version;
+     * Tomcat also only compresses responses whose ETag is weak.
+     *
+     * @param parts The values that identify the representation version.
+     * @return The ETag value, {@code W/"..."}.
+     */
+    public static String of(Object... parts) {
+        StringBuilder tag = new StringBuilder("W/\"");
+        for (int i = 0; i < parts.length; i++) {
+            if (i > 0) {
+                tag.append('-');
+            }
+            Object part = parts[i];
+            tag.append(part instanceof LocalDateTime time ? Long.toString(lastModified(time), 36) : String.valueOf(part));
+        }
+        return tag.append('"').toString();
+    }
+}
@@ -0,0 +1,324 @@
+package com.example.iotbackend.util;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongPredicate;
+
+/**
+ * GeoGridIndex answers bounding-box and nearest-neighbour queries over points in memory.
+ * <p>
+ * The globe is divided into a grid of {@code cellDegrees} x {@code cellDegrees} cells; every scope
+ * (e.g. the owning account) keeps a map from occupied cell to the points in it. A box query visits the
+ * cells overlapping the box, or the scope's occupied cells if those are fewer. A nearest query visits
+ * rings of cells around the point, closest first, and stops once no cell further out can hold a point
+ * closer than the n-th found so far. Boxes may cross the antimeridian (west greater than east).
+ * <p>
+ * Points are identified by a numeric ID and belong to one scope; queries only see the points of the
+ * scope they name. All methods are thread-safe.
+ */
+public class GeoGridIndex {
+
+    private static final double EARTH_RADIUS_METERS = 6_371_008.8;
+    private static final double METERS_PER_DEGREE = EARTH_RADIUS_METERS * Math.PI / 180;
+
+    private final double cellDegrees;
+    private final int rows;
+    private final int columns;
+    private final Map<Long, Point> points = new ConcurrentHashMap<>();  // Point ID -> point
+    private final Map<Long, Map<Long, Map<Long, Point>>> scopes = new ConcurrentHashMap<>();  // Scope -> cell -> ID -> point
+
+    /**
+     * Creates an empty index.
+     *
+     * @param cellDegrees The cell size in degrees of latitude and longitude.
+     */
+    public GeoGridIndex(double cellDegrees) {
+        if (!(cellDegrees > 0 && cellDegrees <= 90)) {
+            throw new IllegalArgumentException("Cell size must be between 0 and 90 degrees");
+        }
+        this.cellDegrees = cellDegrees;
+        this.rows = (int) Math.ceil(180 / cellDegrees);
+        this.columns = (int) Math.ceil(360 / cellDegrees);
+    }
+
+    /**
+     * Adds a point, or moves an existing one.
+     *
+     * @param scope     The scope the point can be found in.
+     * @param id        The point ID.
+     * @param latitude  The latitude in degrees (-90 to 90).
+     * @param longitude The longitude in degrees (-180 to 180).
+     */
+    public void put(long scope, long id, double latitude, double longitude) {
+        if (!(latitude >= -90 && latitude <= 90 && longitude >= -180 && longitude <= 180)) {
+            throw new IllegalArgumentException("Coordinates out of range: " + latitude + ", " + longitude);
+        }
+        Point next = new Point(id, scope, latitude, longitude, cellOf(latitude, longitude));
+
+        // Serialized per point, so concurrent moves of one point cannot interleave
+        points.compute(id, (key, previous) -> {
+            if (previous != null) {
+                removeFromCell(previous);
+            }
+            // Added under the cell's lock, so an emptied cell being dropped cannot swallow the point
+            scopes.computeIfAbsent(scope, s -> new ConcurrentHashMap<>()).compute(next.cell(), (cellKey, cell) -> {
+                Map<Long, Point> target = cell == null ? new ConcurrentHashMap<>() : cell;
+                target.put(id, next);
+                return target;
+            });
+            return next;
+        });
+    }
+
+    /**
+     * Removes a point.
+     *
+     * @param id The point ID.
+     */
+    public void remove(long id) {
+        points.computeIfPresent(id, (key, previous) -> {
+            removeFromCell(previous);
+            return null;
+        });
+    }
+
+    /**
+     * Removes every point whose ID matches.
+     *
+     * @param filter Selects the IDs to remove.
+     */
+    public void removeIf(LongPredicate filter) {
+        for (Long id : points.keySet()) {
+            if (filter.test(id)) {
+                remove(id);
+            }
+        }
+    }
+
+    /**
+     * Finds the points of a scope inside a bounding box, in no particular order.
+     *
+     * @param scope The scope to search.
+     * @param south The southern edge in degrees.
+     * @param west  The western edge in degrees; greater than east for a box crossing the antimeridian.
+     * @param north The northern edge in degrees.
+     * @param east  The eastern edge in degrees.
+     * @param limit The maximum number of points to return.
+     * @return The points found, and whether the box holds more.
+     */
+    public BoxResult withinBox(long scope, double south, double west, double north, double east, int limit) {
+        Map<Long, Map<Long, Point>> cells = scopes.get(scope);
+        if (cells == null || south > north || limit <= 0) {
+            return new BoxResult(List.of(), false);
+        }
+
+        List<Point> found = new ArrayList<>();
+        int firstRow = rowOf(south);
+        int lastRow = rowOf(north);
+        int firstColumn = columnOf(west);
+        int lastColumn = columnOf(east);
+        // Capped, so a wrapping box whose edges share a cell visits each column once
+        int columnSpan = Math.min(columns, west <= east ? lastColumn - firstColumn + 1 : columns - firstColumn + lastColumn + 1);
+        long boxCells = (long) (lastRow - firstRow + 1) * columnSpan;
+
+        if (boxCells > cells.size()) {
+            // Large box: fewer occupied cells than cells in the box
+            for (Map<Long, Point> cell : cells.values()) {
+                if (collect(cell, south, west, north, east, found, limit)) {
+                    break;
+                }
+            }
+        } else {
+            outer:
+            for (int row = firstRow; row <= lastRow; row++) {
+                for (int i = 0; i < columnSpan; i++) {
+                    Map<Long, Point> cell = cells.get(cellKey(row, (firstColumn + i) % columns));
+                    if (cell != null && collect(cell, south, west, north, east, found, limit)) {
+                        break outer;
+                    }
+                }
+            }
+        }
+
+        boolean truncated = found.size() > limit;
+        return new BoxResult(truncated ? found.subList(0, limit) : found, truncated);
+    }
+
+    /**
+     * Finds the points of a scope closest to a location.
+     *
+     * @param scope     The scope to search.
+     * @param latitude  The latitude in degrees.
+     * @param longitude The longitude in degrees.
+     * @param count     The number of points to return.
+     * @return Up to {@code count} points with their distances, closest first.
+     */
+    public List<Hit> nearest(long scope, double latitude, double longitude, int count) {
+        Map<Long, Map<Long, Point>> cells = scopes.get(scope);
+        if (cells == null || count <= 0) {
+            return List.of();
+        }
+
+        // Max-heap of the best candidates, so the furthest of them is dropped first
+        PriorityQueue<Hit> best = new PriorityQueue<>(Comparator.comparingDouble(Hit::distanceMeters).reversed());
+        int centerRow = rowOf(latitude);
+        int centerColumn = columnOf(longitude);
+        for (int ring = 0; ; ring++) {
+            long ringArea = (2L * ring + 1) * (2L * ring + 1);
+            if (ringArea > cells.size() || 2 * ring + 1 >= columns) {
+                // Further rings cost more than looking at every occupied cell once
+                best.clear();
+                for (Map<Long, Point> cell : cells.values()) {
+                    offer(cell, latitude, longitude, count, best);
+                }
+                break;
+            }
+
+            for (int row = centerRow - ring; row <= centerRow + ring; row++) {
+                if (row < 0 || row >= rows) {
+                    continue;
+                }
+                boolean edgeRow = row == centerRow - ring || row == centerRow + ring;
+                for (int offset = -ring; offset <= ring; offset += edgeRow ? 1 : 2 * Math.max(ring, 1)) {
+                    int column = Math.floorMod(centerColumn + offset, columns);
+                    Map<Long, Point> cell = cells.get(cellKey(row, column));
+                    if (cell != null) {
+                        offer(cell, latitude, longitude, count, best);
+                    }
+                }
+            }
+
+            if (best.size() == count && lowerBoundOutside(ring, centerRow, centerColumn, latitude, longitude,
+                    best.peek().distanceMeters()) >= best.peek().distanceMeters()) {
+                break;
+            }
+        }
+
+        List<Hit> hits = new ArrayList<>(best);
+        hits.sort(Comparator.comparingDouble(Hit::distanceMeters));
+        return hits;
+    }
+
+    /**
+     * Returns the number of indexed points.
+     */
+    public int size() {
+        return points.size();
+    }
+
+    /**
+     * Returns the great-circle distance between two locations.
+     *
+     * @return The distance in meters.
+     */
+    public static double distanceMeters(double latitude1, double longitude1, double latitude2, double longitude2) {
+        double dLat = Math.toRadians(latitude2 - latitude1);
+        double dLon = Math.toRadians(longitude2 - longitude1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(latitude1)) * Math.cos(Math.toRadians(latitude2)) * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_METERS * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    /**
+     * Returns a distance no point outside the rings searched so far can be closer than.
+     */
+    private double lowerBoundOutside(int ring, int centerRow, int centerColumn, double latitude, double longitude, double worstMeters) {
+        double southEdge = (centerRow - ring) * cellDegrees - 90;
+        double northEdge = (centerRow + ring + 1) * cellDegrees - 90;
+        double latitudeGap = Math.min(southEdge <= -90 ? Double.MAX_VALUE : latitude - southEdge,
+                northEdge >= 90 ? Double.MAX_VALUE : northEdge - latitude);
+        double latitudeBound = latitudeGap * METERS_PER_DEGREE;
+
+        double westEdge = (centerColumn - ring) * cellDegrees - 180;
+        double eastEdge = (centerColumn + ring + 1) * cellDegrees - 180;
+        double longitudeGap = Math.min(longitude - westEdge, eastEdge - longitude);
+        // A point closer than the worst candidate lies within that many degrees of latitude, where a degree
+        // of longitude is at least cos(maxLatitude) times its length at the equator
+        double maxLatitude = Math.min(90, Math.abs(latitude) + worstMeters / METERS_PER_DEGREE);
+        double longitudeBound = 2 * EARTH_RADIUS_METERS
+                * Math.asin(Math.min(1, Math.cos(Math.toRadians(maxLatitude)) * Math.sin(Math.toRadians(longitudeGap) / 2)));
+
+        return Math.min(latitudeBound, longitudeBound);
+    }
+
+    private static boolean collect(Map<Long, Point> cell, double south, double west, double north, double east,
+                                   List<Point> found, int limit) {
+        for (Point point : cell.values()) {
+            boolean inLongitude = west <= east
+                    ? point.longitude() >= west && point.longitude() <= east
+                    : point.longitude() >= west || point.longitude() <= east;
+            if (point.latitude() >= south && point.latitude() <= north && inLongitude) {
+                found.add(point);
+                if (found.size() > limit) {
+                    return true;  // One more than the limit, to tell whether there are more
+                }
+            }
+        }
+        return false;
+    }
+
+    private static void offer(Map<Long, Point> cell, double latitude, double longitude, int count, PriorityQueue<Hit> best) {
+        for (Point point : cell.values()) {
+            double distance = distanceMeters(latitude, longitude, point.latitude(), point.longitude());
+            if (best.size() < count) {
+                best.add(new Hit(point, distance));
+            } else if (distance < best.peek().distanceMeters()) {
+                best.poll();
+                best.add(new Hit(point, distance));
+            }
+        }
+    }
+
+    private void removeFromCell(Point point) {
+        Map<Long, Map<Long, Point>> cells = scopes.get(point.scope());
+        if (cells == null) {
+            return;
+        }
+        cells.computeIfPresent(point.cell(), (key, cell) -> {
+            cell.remove(point.id());
+            return cell.isEmpty() ? null : cell;
+        });
+    }
+
+    private long cellOf(double latitude, double longitude) {
+        return cellKey(rowOf(latitude), columnOf(longitude));
+    }
+
+    private long cellKey(int row, int column) {
+        return (long) row * columns + column;
+    }
+
+    private int rowOf(double latitude) {
+        return Math.min(rows - 1, Math.max(0, (int) Math.floor((latitude + 90) / cellDegrees)));
+    }
+
+    private int columnOf(double longitude) {
+        // 180 falls in the last column, so boxes ending there find it without wrapping around
+        return Math.min(columns - 1, Math.max(0, (int) Math.floor((longitude + 180) / cellDegrees)));
+    }
+
+    /**
+     * An indexed point.
+     */
+    public record Point(long id, long scope, double latitude, double longitude, long cell) {
+    }
+
+    /**
+     * A point found by a nearest query.
+     */
+    public record Hit(Point point, double distanceMeters) {
+    }
+
+    /**
+     * The points found by a box query.
+     *
+     * @param points    The points, at most the requested limit.
+     * @param truncated Whether the box holds further points.
+     */
+    public record BoxResult(List<Point> points, boolean truncated) {
+    }
+}
@@ -0,0 +1,268 @@
+package com.example.iotbackend.util;
+
+import java.util.Arrays;
+
+/**
+ * GorillaBlock stores a run of (timestamp, value) points in a compressed bit stream, following the
+ * encoding of Facebook's Gorilla time-series database.
+ * <p>
+ * Timestamps (epoch milliseconds) are stored as the delta of their delta, which is a single zero bit for
+ * regularly spaced readings. Values are XORed with the previous value and only the meaningful bits are
+ * kept, which is a single zero bit for an unchanged value. The stream lives in a {@code long[]} that grows
+ * as needed and is trimmed when the block is sealed; a point typically takes a few bytes instead of
+ * the ~80 bytes of a boxed entity.
+ * <p>
+ * Points must be appended in non-decreasing timestamp order. The class is not thread-safe.
+ */
+public class GorillaBlock {
+
+    private long[] words = new long[16];
+    private long bitCount;
+    private int size;
+
+    private final long firstTimestamp;
+    private long lastTimestamp;
+    private long lastDelta;
+    private long lastValueBits;
+    private int lastLeading = Integer.MAX_VALUE;  // No previous XOR window yet
+    private int lastTrailing;
+
+    /**
+     * Starts a block with its first point, which is stored uncompressed.
+     *
+     * @param timestamp The timestamp in epoch milliseconds.
+     * @param value     The value.
+     */
+    public GorillaBlock(long timestamp, double value) {
+        firstTimestamp = timestamp;
+        lastTimestamp = timestamp;
+        lastValueBits = Double.doubleToRawLongBits(value);
+        writeBits(timestamp, 64);
+        writeBits(lastValueBits, 64);
+        size = 1;
+    }
+
+    /**
+     * Appends a point.
+     *
+     * @param timestamp The timestamp in epoch milliseconds, not before the last appended one.
+     * @param value     The value.
+     * @throws IllegalArgumentException if the timestamp is before the last one.
+     */
+    public void append(long timestamp, double value) {
+        if (timestamp < lastTimestamp) {
+            throw new IllegalArgumentException("Timestamps must not decrease");
+        }
+        long delta = timestamp - lastTimestamp;
+        writeTimestamp(delta - lastDelta);
+        lastDelta = delta;
+        lastTimestamp = timestamp;
+
+        long valueBits = Double.doubleToRawLongBits(value);
+        writeValue(valueBits ^ lastValueBits);
+        lastValueBits = valueBits;
+        size++;
+    }
+
+    /**
+     * Returns the number of points in the block.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the timestamp of the first point.
+     */
+    public long firstTimestamp() {
+        return firstTimestamp;
+    }
+
+    /**
+     * Returns the timestamp of the last point.
+     */
+    public long lastTimestamp() {
+        return lastTimestamp;
+    }
+
+    /**
+     * Returns the approximate heap footprint of the block in bytes.
+     */
+    public long sizeInBytes() {
+        return 16L + 8L * words.length + 64;
+    }
+
+    /**
+     * Releases the unused tail of the buffer. Call once no more points will be appended.
+     */
+    public void seal() {
+        words = Arrays.copyOf(words, (int) ((bitCount + 63) >>> 6));
+    }
+
+    /**
+     * Calls the consumer with every point whose timestamp lies in {@code [from, to)}, in stored order.
+     *
+     * @param from     Inclusive lower bound in epoch milliseconds.
+     * @param to       Exclusive upper bound in epoch milliseconds.
+     * @param consumer Receives the matching points.
+     */
+    public void scan(long from, long to, PointConsumer consumer) {
+        if (to <= firstTimestamp || from > lastTimestamp) {
+            return;
+        }
+        Reader reader = new Reader();
+        long timestamp = reader.readBits(64);
+        long valueBits = reader.readBits(64);
+        long delta = 0;
+        int leading = 0;
+        int trailing = 0;
+        for (int read = 1; ; read++) {
+            if (timestamp >= to) {
+                return;  // Timestamps only grow, nothing further can match
+            }
+            if (timestamp >= from) {
+                consumer.accept(timestamp, Double.longBitsToDouble(valueBits));
+            }
+            if (read == size) {
+                return;
+            }
+
+            delta += reader.readTimestamp();
+            timestamp += delta;
+
+            if (reader.readBit()) {
+                if (reader.readBit()) {
+                    leading = (int) reader.readBits(5);
+                    int meaningful = (int) reader.readBits(6);
+                    if (meaningful == 0) {
+                        meaningful = 64;
+                    }
+                    trailing = 64 - leading - meaningful;
+                }
+                long xor = reader.readBits(64 - leading - trailing) << trailing;
+                valueBits ^= xor;
+            }
+        }
+    }
+
+    private void writeTimestamp(long deltaOfDelta) {
+        if (deltaOfDelta == 0) {
+            writeBits(0, 1);
+        } else if (deltaOfDelta >= -64 && deltaOfDelta <= 63) {
+            writeBits(0b10, 2);
+            writeBits(deltaOfDelta, 7);
+        } else if (deltaOfDelta >= -256 && deltaOfDelta <= 255) {
+            writeBits(0b110, 3);
+            writeBits(deltaOfDelta, 9);
+        } else if (deltaOfDelta >= -2048 && deltaOfDelta <= 2047) {
+            writeBits(0b1110, 4);
+            writeBits(deltaOfDelta, 12);
+        } else if (deltaOfDelta >= Integer.MIN_VALUE && deltaOfDelta <= Integer.MAX_VALUE) {
+            writeBits(0b11110, 5);
+            writeBits(deltaOfDelta, 32);
+        } else {
+            writeBits(0b11111, 5);
+            writeBits(deltaOfDelta, 64);
+        }
+    }
+
+    private void writeValue(long xor) {
+        if (xor == 0) {
+            writeBits(0, 1);
+            return;
+        }
+        int leading = Math.min(Long.numberOfLeadingZeros(xor), 31);
+        int trailing = Long.numberOfTrailingZeros(xor);
+        if (leading >= lastLeading && trailing >= lastTrailing) {
+            // Fits in the previous window: reuse its bounds
+            writeBits(0b10, 2);
+            writeBits(xor >>> lastTrailing, 64 - lastLeading - lastTrailing);
+            return;
+        }
+        int meaningful = 64 - leading - trailing;
+        writeBits(0b11, 2);
+        writeBits(leading, 5);
+        writeBits(meaningful == 64 ? 0 : meaningful, 6);
+        writeBits(xor >>> trailing, meaningful);
+        lastLeading = leading;
+        lastTrailing = trailing;
+    }
+
+    private void writeBits(long value, int bits) {
+        if (bits == 0) {
+            return;
+        }
+        if (bits < 64) {
+            value &= (1L << bits) - 1;
+        }
+        int wordIndex = (int) (bitCount >>> 6);
+        int used = (int) (bitCount & 63);
+        if (wordIndex + 1 >= words.length) {
+            words = Arrays.copyOf(words, words.length * 2);
+        }
+        int free = 64 - used;
+        if (bits <= free) {
+            words[wordIndex] |= value << (free - bits);
+        } else {
+            words[wordIndex] |= value >>> (bits - free);
+            words[wordIndex + 1] |= value << (64 - (bits - free));
+        }
+        bitCount += bits;
+    }
+
+    /**
+     * Receives points read from a block.
+     */
+    @FunctionalInterface
+    public interface PointConsumer {
+        void accept(long timestamp, double value);
+    }
+
+    /**
+     * Sequential bit reader over the block's buffer.
+     */
+    private final class Reader {
+        private long position;
+
+        boolean readBit() {
+            return readBits(1) != 0;
+        }
+
+        long readBits(int bits) {
+            if (bits == 0) {
+                return 0;
+            }
+            int wordIndex = (int) (position >>> 6);
+            int used = (int) (position & 63);
+            int free = 64 - used;
+            long result;
+            if (bits <= free) {
+                result = words[wordIndex] >>> (free - bits);
+            } else {
+                result = (words[wordIndex] << (bits - free)) | (words[wordIndex + 1] >>> (64 - (bits - free)));
+            }
+            position += bits;
+            return bits == 64 ? result : result & ((1L << bits) - 1);
+        }
+
+        long readTimestamp() {
+            if (!readBit()) {
+                return 0;
+            }
+            if (!readBit()) {
+                return signed(readBits(7), 7);
+            }
+            if (!readBit()) {
+                return signed(readBits(9), 9);
+            }
+            if (!readBit()) {
+                return signed(readBits(12), 12);
+            }
+            return readBit() ? readBits(64) : signed(readBits(32), 32);
+        }
+
+        private long signed(long value, int bits) {
+            return (value << (64 - bits)) >> (64 - bits);
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.example.iotbackend.util;
+
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.function.LongConsumer;
+
+/**
+ * HashedTimingWheel tracks one expiry timer per long key (e.g. a device ID) without scheduling
+ * a task per key.
+ * <p>
+ * Re-arming an existing timer is a single CAS on the timer's deadline and never touches the wheel;
+ * the tick thread lazily moves a timer to its new bucket when it finds the deadline has been pushed
+ * back. Only the thread calling {@link #advance(long, LongConsumer)} mutates the buckets, so
+ * {@link #touch(long, long)} is safe to call from any number of request threads.
+ */
+public class HashedTimingWheel {
+
+    private static final long EXPIRED = Long.MIN_VALUE;  // Deadline marker for timers that have fired
+
+    private static final AtomicLongFieldUpdater<Node> DEADLINE =
+            AtomicLongFieldUpdater.newUpdater(Node.class, "deadline");
+
+    private final long timeoutMs;
+    private final long tickMs;
+    private final int mask;
+    private final ArrayDeque<Node>[] buckets;
+    private final Map<Long, Node> timers = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<Node> pending = new ConcurrentLinkedQueue<>();  // New timers not yet placed in a bucket
+    private long currentTick = -1;  // Last processed tick, owned by the tick thread
+
+    /**
+     * Creates a timing wheel.
+     *
+     * @param timeoutMs The time after the last touch at which a key expires.
+     * @param tickMs    The wheel resolution; expiry is reported at most one tick late.
+     * @param wheelSize The number of buckets, rounded up to a power of two.
+     */
+    @SuppressWarnings("unchecked")
+    public HashedTimingWheel(long timeoutMs, long tickMs, int wheelSize) {
+        if (timeoutMs <= 0 || tickMs <= 0 || wheelSize <= 0) {
+            throw new IllegalArgumentException("Timeout, tick and wheel size must be positive");
+        }
+        int size = Integer.highestOneBit(Math.max(1, wheelSize - 1)) << 1;
+        this.timeoutMs = timeoutMs;
+        this.tickMs = tickMs;
+        this.mask = size - 1;
+        this.buckets = new ArrayDeque[size];
+        for (int i = 0; i < size; i++) {
+            buckets[i] = new ArrayDeque<>();
+        }
+    }
+
+    /**
+     * Arms or re-arms the timer for a key so that it expires {@code timeoutMs} after {@code nowMs}.
+     *
+     * @param key   The key to track.
+     * @param nowMs The current time in milliseconds.
+     * @return true if the key was not being tracked (first touch, or touch after expiry).
+     */
+    public boolean touch(long key, long nowMs) {
+        long deadline = nowMs + timeoutMs;
+        for (;;) {
+            Node node = timers.get(key);
+            if (node == null) {
+                Node fresh = new Node(key, deadline);
+                if (timers.putIfAbsent(key, fresh) == null) {
+                    pending.add(fresh);
+                    return true;
+                }
+                continue;
+            }
+            if (node.rearm(deadline)) {
+                return false;
+            }
+            // The timer fired concurrently; drop the stale mapping and start a new one
+            timers.remove(key, node);
+        }
+    }
+
+    /**
+     * Stops tracking a key without reporting it as expired.
+     *
+     * @param key The key to remove.
+     */
+    public void cancel(long key) {
+        Node node = timers.remove(key);
+        if (node != null) {
+            DEADLINE.set(node, EXPIRED);
+        }
+    }
+
+    /**
+     * Returns the number of keys currently tracked.
+     *
+     * @return The number of armed timers.
+     */
+    public int size() {
+        return timers.size();
+    }
+
+    /**
+     * Advances the wheel to {@code nowMs}, reporting every key whose timer has expired.
+     * Must only be called from a single thread.
+     *
+     * @param nowMs     The current time in milliseconds.
+     * @param onExpired Callback invoked with each expired key.
+     */
+    public void advance(long nowMs, LongConsumer onExpired) {
+        long targetTick = nowMs / tickMs;
+        if (currentTick < 0) {
+            currentTick = targetTick - 1;
+        }
+
+        // Place timers created since the last tick
+        Node fresh;
+        while ((fresh = pending.poll()) != null) {
+            if (fresh.deadline != EXPIRED) {
+                place(fresh);
+            }
+        }
+
+        // After a long pause every bucket is visited once rather than once per missed tick
+        long fromTick = Math.max(currentTick + 1, targetTick - mask);
+        for (long tick = fromTick; tick <= targetTick; tick++) {
+            ArrayDeque<Node> bucket = buckets[(int) (tick & mask)];
+            for (int remaining = bucket.size(); remaining > 0; remaining--) {
+                Node node = bucket.pollFirst();
+                long deadline = node.deadline;
+                if (deadline == EXPIRED) {
+                    continue;  // Cancelled
+                }
+                if (deadline <= nowMs) {
+                    if (DEADLINE.compareAndSet(node, deadline, EXPIRED)) {
+                        timers.remove(node.key, node);
+                        onExpired.accept(node.key);
+                        continue;
+                    }
+                    deadline = node.deadline;  // Re-armed while we were looking at it
+                }
+                place(node, Math.max(deadline / tickMs, tick + 1));
+            }
+        }
+        currentTick = targetTick;
+    }
+
+    private void place(Node node) {
+        place(node, Math.max(node.deadline / tickMs, currentTick + 1));
+    }
+
+    private void place(Node node, long tick) {
+        buckets[(int) (tick & mask)].addLast(node);
+    }
+
+    /**
+     * A single timer. The deadline is the only field written by request threads.
+     */
+    static final class Node {
+        final long key;
+        volatile long deadline;
+
+        Node(long key, long deadline) {
+            this.key = key;
+            this.deadline = deadline;
+        }
+
+        boolean rearm(long newDeadline) {
+            for (;;) {
+                long current = deadline;
+                if (current == EXPIRED) {
+                    return false;
+                }
+                if (current >= newDeadline || DEADLINE.compareAndSet(this, current, newDeadline)) {
+                    return true;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.iotbackend.util;
+
+/**
+ * NonceWindow remembers the most recent nonces of one sender to reject replayed requests.
+ * <p>
+ * Only the last {@code capacity} nonces are kept. To stay safe once a nonce has been forgotten,
+ * any request not newer than the newest forgotten one is rejected as well, so a sender that sends
+ * more than {@code capacity} requests per clock-skew window must send them in timestamp order.
+ */
+public class NonceWindow {
+
+    private final String[] nonces;
+    private final long[] timestamps;
+    private int next;          // Ring position of the next entry
+    private int size;
+    private long floor = Long.MIN_VALUE;  // Timestamp of the newest evicted entry
+
+    /**
+     * Creates a window.
+     *
+     * @param capacity The number of nonces to remember.
+     */
+    public NonceWindow(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        this.nonces = new String[capacity];
+        this.timestamps = new long[capacity];
+    }
+
+    /**
+     * Records a nonce unless it has been seen before.
+     *
+     * @param nonce     The nonce sent with the request.
+     * @param timestamp The request timestamp in milliseconds.
+     * @return true if the nonce is new and was recorded; false if the request is a replay.
+     */
+    public synchronized boolean accept(String nonce, long timestamp) {
+        if (timestamp <= floor) {
+            return false;
+        }
+        for (int i = 0; i < size; i++) {
+            if (nonces[i].equals(nonce)) {
+                return false;
+            }
+        }
+        if (size == nonces.length) {
+            floor = Math.max(floor, timestamps[next]);
+        } else {
+            size++;
+        }
+        nonces[next] = nonce;
+        timestamps[next] = timestamp;
+        next = (next + 1) % nonces.length;
+        return true;
+    }
+}
@@ -0,0 +1,275 @@
+package com.example.iotbackend.util;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.regex.Pattern;
+
+/**
+ * PrefixIndex answers type-ahead queries over short text fields (emails, names) in memory.
+ * <p>
+ * Every word of an indexed field is a search term: a query matches an entry when it is a prefix of
+ * the field or of the text starting at any word in it, so "doe" finds "john.doe@example.com" and
+ * "Jane Doe". Text is compared case- and accent-insensitively. Terms are kept in one sorted set,
+ * ordered by scope and then by text; a term is a position in its field rather than a copy of the
+ * text, so an entry costs about one set node per word. A lookup is a seek to the first term of the
+ * scope starting with the query, followed by a walk that stops as soon as the requested page is full.
+ * <p>
+ * Entries are identified by a numeric ID and belong to one scope (e.g. the owning account);
+ * queries only see entries of the scope they name. All methods are thread-safe.
+ */
+public class PrefixIndex {
+
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+
+    private final NavigableSet<Term> terms = new ConcurrentSkipListSet<>();
+    private final Map<Long, Term[]> entries = new ConcurrentHashMap<>();  // Entry ID -> its terms
+
+    /**
+     * Adds an entry, or replaces the fields and scope of an existing one.
+     *
+     * @param scope  The scope the entry can be found in.
+     * @param id     The entry ID.
+     * @param fields The searchable texts; null fields are skipped.
+     */
+    public void put(long scope, long id, String... fields) {
+        Term[] next = termsOf(scope, id, fields);
+
+        // Serialized per entry, so concurrent updates of one entry cannot interleave
+        entries.compute(id, (key, previous) -> {
+            if (previous != null) {
+                for (Term term : previous) {
+                    terms.remove(term);
+                }
+            }
+            for (Term term : next) {
+                terms.add(term);
+            }
+            return next;
+        });
+    }
+
+    /**
+     * Removes an entry.
+     *
+     * @param id The entry ID.
+     */
+    public void remove(long id) {
+        entries.computeIfPresent(id, (key, previous) -> {
+            for (Term term : previous) {
+                terms.remove(term);
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Finds the entries of a scope matching the query, ordered by the matching text.
+     *
+     * @param scope  The scope to search.
+     * @param query  The text typed so far.
+     * @param offset The number of matching entries to skip.
+     * @param limit  The maximum number of entries to return.
+     * @return The page of matching entry IDs.
+     */
+    public Page search(long scope, String query, int offset, int limit) {
+        String prefix = normalize(query).strip();
+        if (prefix.isEmpty() || limit <= 0) {
+            return new Page(List.of(), false);
+        }
+
+        // An entry can match through several of its words; count it once, at its first match
+        Set<Long> matched = new LinkedHashSet<>();
+        int wanted = offset + limit + 1;  // One more than the page, to tell whether there are more
+        for (Term term : terms.tailSet(new Term(scope, prefix, 0, Long.MIN_VALUE, Integer.MIN_VALUE), true)) {
+            if (term.scope != scope || !term.startsWith(prefix)) {
+                break;
+            }
+            matched.add(term.id);
+            if (matched.size() == wanted) {
+                break;
+            }
+        }
+
+        List<Long> ids = matched.stream().skip(offset).limit(limit).toList();
+        return new Page(ids, matched.size() == wanted);
+    }
+
+    /**
+     * Returns the number of indexed entries.
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Returns the number of indexed terms.
+     */
+    public int terms() {
+        return terms.size();
+    }
+
+    /**
+     * Returns a builder for loading many entries at once.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Lower-cases the text and strips accents, so that e.g. "Nguyễn Đức" is found by "nguyen duc".
+     */
+    public static String normalize(String text) {
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        return COMBINING_MARKS.matcher(decomposed).replaceAll("")
+                .replace('đ', 'd').replace('Đ', 'D')
+                .toLowerCase(Locale.ROOT);
+    }
+
+    private static Term[] termsOf(long scope, long id, String... fields) {
+        List<Term> terms = new ArrayList<>();
+        for (int field = 0; field < fields.length; field++) {
+            if (fields[field] == null) {
+                continue;
+            }
+            String text = normalize(fields[field]);
+            for (int offset = 0; offset < text.length(); offset++) {
+                if (isWordStart(text, offset)) {
+                    terms.add(new Term(scope, text, offset, id, field));
+                }
+            }
+        }
+        return terms.toArray(new Term[0]);
+    }
+
+    private static boolean isWordStart(String text, int offset) {
+        return Character.isLetterOrDigit(text.charAt(offset))
+                && (offset == 0 || !Character.isLetterOrDigit(text.charAt(offset - 1)));
+    }
+
+    /**
+     * Builder loading many entries at once: the terms are sorted first and added in order, which is
+     * an order of magnitude faster than adding them in arrival order. Not thread-safe.
+     */
+    public static final class Builder {
+
+        private final Map<Long, Term[]> entries = new HashMap<>();
+        private int termCount;
+
+        private Builder() {
+        }
+
+        /**
+         * Adds an entry; an entry added twice keeps the fields of the last call.
+         *
+         * @param scope  The scope the entry can be found in.
+         * @param id     The entry ID.
+         * @param fields The searchable texts; null fields are skipped.
+         * @return this builder.
+         */
+        public Builder put(long scope, long id, String... fields) {
+            Term[] entryTerms = termsOf(scope, id, fields);
+            Term[] previous = entries.put(id, entryTerms);
+            termCount += entryTerms.length - (previous == null ? 0 : previous.length);
+            return this;
+        }
+
+        /**
+         * Creates the index.
+         *
+         * @return The index holding the added entries.
+         */
+        public PrefixIndex build() {
+            Term[] sorted = new Term[termCount];
+            int next = 0;
+            for (Term[] entryTerms : entries.values()) {
+                System.arraycopy(entryTerms, 0, sorted, next, entryTerms.length);
+                next += entryTerms.length;
+            }
+            Arrays.parallelSort(sorted);
+            PrefixIndex index = new PrefixIndex();
+            for (Term term : sorted) {
+                index.terms.add(term);
+            }
+            index.entries.putAll(entries);
+            return index;
+        }
+    }
+
+    /**
+     * A page of search results.
+     *
+     * @param ids     The matching entry IDs of the page.
+     * @param hasMore Whether further matching entries follow the page.
+     */
+    public record Page(List<Long> ids, boolean hasMore) {
+    }
+
+    /**
+     * A searchable position: the text of a field from a word start on.
+     */
+    private static final class Term implements Comparable<Term> {
+        final long scope;
+        final String text;
+        final int offset;
+        final long id;
+        final int field;
+
+        Term(long scope, String text, int offset, long id, int field) {
+            this.scope = scope;
+            this.text = text;
+            this.offset = offset;
+            this.id = id;
+            this.field = field;
+        }
+
+        boolean startsWith(String prefix) {
+            return text.startsWith(prefix, offset);
+        }
+
+        @Override
+        public int compareTo(Term other) {
+            int c = Long.compare(scope, other.scope);
+            if (c != 0) {
+                return c;
+            }
+            int length = text.length() - offset;
+            int otherLength = other.text.length() - other.offset;
+            for (int i = 0, n = Math.min(length, otherLength); i < n; i++) {
+                c = Character.compare(text.charAt(offset + i), other.text.charAt(other.offset + i));
+                if (c != 0) {
+                    return c;
+                }
+            }
+            c = Integer.compare(length, otherLength);
+            if (c != 0) {
+                return c;
+            }
+            c = Long.compare(id, other.id);
+            if (c != 0) {
+                return c;
+            }
+            c = Integer.compare(field, other.field);
+            return c != 0 ? c : Integer.compare(offset, other.offset);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Term other && compareTo(other) == 0;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(id) * 31 + field * 17 + offset;
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.iotbackend.util;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * RangedFileTransfer writes a file, or a single byte range of it, to an HTTP response without
+ * loading the whole file into memory.
+ * <p>
+ * When the container supports it (Tomcat's NIO connector over plain HTTP), the transfer is handed to the
+ * connector, which uses {@code sendfile} once the response headers are written, and the bytes never
+ * reach the JVM. Otherwise (TLS, HTTP/2) the file is copied with {@link FileChannel#transferTo} into the
+ * response stream; since that target is not a file or socket channel, every byte passes through small
+ * temporary buffers (8 KiB in the JDK) and the container's output buffer, so memory stays bounded but
+ * the copy costs CPU and short-lived heap allocations in proportion to the file size. A {@code Range} header with one range is answered with
+ * 206 or 416; {@code If-Range} is honored against the given ETag, and anything else (multiple ranges,
+ * a malformed header) gets the full file.
+ */
+public final class RangedFileTransfer {
+
+    // Request attributes of Tomcat's sendfile support (org.apache.catalina.Globals)
+    private static final String SENDFILE_SUPPORTED_ATTR = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME_ATTR = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START_ATTR = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END_ATTR = "org.apache.tomcat.sendfile.end";
+
+    private RangedFileTransfer() {
+    }
+
+    /**
+     * Sends the file, or the requested range of it, with the ETag and range headers set.
+     *
+     * @param request  The current request.
+     * @param response The response to write; content type and disposition should already be set.
+     * @param file     The file to send; must not change while being sent.
+     * @param eTag     The quoted entity tag of the file.
+     */
+    public static void send(HttpServletRequest request, HttpServletResponse response,
+                            Path file, String eTag) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long start = 0;
+            long end = size - 1;
+
+            response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+            response.setHeader(HttpHeaders.ETAG, eTag);
+
+            HttpRange range = requestedRange(request, eTag);
+            if (range != null) {
+                start = range.getRangeStart(size);
+                end = range.getRangeEnd(size);
+                if (start >= size || start > end) {
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + size);
+                    response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                    return;
+                }
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + size);
+            } else {
+                response.setStatus(HttpServletResponse.SC_OK);
+            }
+
+            long length = end - start + 1;
+            response.setContentLengthLong(length);
+            if ("HEAD".equals(request.getMethod()) || length == 0) {
+                return;
+            }
+
+            if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED_ATTR))) {
+                // The connector streams the file from the page cache after this method returns
+                request.setAttribute(SENDFILE_FILENAME_ATTR, file.toAbsolutePath().toString());
+                request.setAttribute(SENDFILE_START_ATTR, start);
+                request.setAttribute(SENDFILE_END_ATTR, end + 1);  // Exclusive
+                return;
+            }
+
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            while (position <= end) {
+                long sent = channel.transferTo(position, end + 1 - position, out);
+                if (sent <= 0) {
+                    throw new IOException("Transfer of " + file + " stopped at byte " + position);
+                }
+                position += sent;
+            }
+            response.flushBuffer();
+        }
+    }
+
+    /**
+     * Returns the single range to send, or null to send the whole file.
+     */
+    private static HttpRange requestedRange(HttpServletRequest request, String eTag) {
+        String header = request.getHeader(HttpHeaders.RANGE);
+        if (header == null) {
+            return null;
+        }
+        // A resumed download of a file that has since changed must start over
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange != null && !ifRange.equals(eTag)) {
+            return null;
+        }
+        try {
+            List<HttpRange> ranges = HttpRange.parseRanges(header);
+            return ranges.size() == 1 ? ranges.get(0) : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
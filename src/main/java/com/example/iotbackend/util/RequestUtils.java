@@ -0,0 +1,73 @@
+package com.example.iotbackend.util;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Helpers for inspecting incoming HTTP requests.
+ */
+public final class RequestUtils {
+
+    private static final String FORWARDED_FOR = "X-Forwarded-For";
+
+    private RequestUtils() {
+    }
+
+    /**
+     * Resolves the address of the calling client.
+     *
+     * @param request           The HTTP request.
+     * @param trustForwardedFor Whether to use the first X-Forwarded-For entry set by a trusted proxy.
+     * @return The client address.
+     */
+    public static String clientIp(HttpServletRequest request, boolean trustForwardedFor) {
+        if (trustForwardedFor) {
+            String forwarded = request.getHeader(FORWARDED_FOR);
+            if (forwarded != null && !forwarded.isBlank()) {
+                int comma = forwarded.indexOf(',');
+                return (comma < 0 ? forwarded : forwarded.substring(0, comma)).trim();
+            }
+        }
+        return request.getRemoteAddr();
+    }
+
+    /**
+     * Checks whether an Accept-Encoding header allows a content coding, honouring quality values:
+     * {@code gzip;q=0} refuses gzip, and {@code *} covers any coding not listed by name.
+     *
+     * @param acceptEncoding The Accept-Encoding header, or null if absent.
+     * @param coding         The content coding, e.g. {@code gzip}.
+     * @return true if the coding is listed, directly or through {@code *}, with a non-zero quality.
+     */
+    public static boolean acceptsEncoding(String acceptEncoding, String coding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Boolean wildcard = null;
+        for (String entry : acceptEncoding.split(",")) {
+            String[] parts = entry.split(";");
+            String name = parts[0].trim();
+            boolean accepted = quality(parts) > 0;
+            if (name.equalsIgnoreCase(coding)) {
+                return accepted;
+            }
+            if (name.equals("*")) {
+                wildcard = accepted;
+            }
+        }
+        return Boolean.TRUE.equals(wildcard);
+    }
+
+    private static double quality(String[] parameters) {
+        for (int i = 1; i < parameters.length; i++) {
+            String parameter = parameters[i].trim();
+            if (parameter.length() > 2 && parameter.regionMatches(true, 0, "q=", 0, 2)) {
+                try {
+                    return Double.parseDouble(parameter.substring(2).trim());
+                } catch (NumberFormatException e) {
+                    return 0;  // Not a valid weight, so do not rely on the coding being understood
+                }
+            }
+        }
+        return 1;
+    }
+}
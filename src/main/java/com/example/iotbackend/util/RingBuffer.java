@@ -0,0 +1,119 @@
+package com.example.iotbackend.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * RingBuffer hands events from any number of producer threads to a single consumer thread through
+ * a fixed array of slots that are allocated once and reused.
+ * <p>
+ * A producer claims the next sequence number with a compare-and-set, fills the slot of that number in
+ * place and publishes it; the consumer reads published slots in sequence order and releases them for
+ * reuse. Neither side takes a lock or allocates. When all slots are claimed and not yet released,
+ * {@link #tryClaim()} fails and the producer decides what to do with the event.
+ * <p>
+ * Protocol for producers: {@code long seq = tryClaim(); if (seq >= 0) { fill(slot(seq)); publish(seq); }}.
+ * Every claimed sequence must be published, otherwise the consumer stops at it.
+ *
+ * @param <T> The slot type.
+ */
+public class RingBuffer<T> {
+
+    private final Object[] slots;
+    private final AtomicLongArray published;  // Sequence last published in each slot
+    private final int mask;
+    private final AtomicLong claimCursor = new AtomicLong();     // Next sequence to hand out
+    private final AtomicLong releaseCursor = new AtomicLong();   // Sequences below are free; written by the consumer only
+
+    /**
+     * Creates a ring buffer.
+     *
+     * @param capacity    The number of slots; rounded up to a power of two.
+     * @param slotFactory Creates the slots, once each.
+     */
+    public RingBuffer(int capacity, Supplier<T> slotFactory) {
+        if (capacity <= 0 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("Capacity must be between 1 and 2^30");
+        }
+        int size = capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+        this.slots = new Object[size];
+        this.published = new AtomicLongArray(size);
+        this.mask = size - 1;
+        for (int i = 0; i < size; i++) {
+            slots[i] = slotFactory.get();
+            published.set(i, -1);
+        }
+    }
+
+    /**
+     * Claims the next slot.
+     *
+     * @return The claimed sequence number, or -1 if all slots are in use.
+     */
+    public long tryClaim() {
+        while (true) {
+            long sequence = claimCursor.get();
+            if (sequence - releaseCursor.get() >= slots.length) {
+                return -1;
+            }
+            if (claimCursor.compareAndSet(sequence, sequence + 1)) {
+                return sequence;
+            }
+        }
+    }
+
+    /**
+     * Returns the slot of a claimed sequence number, to be filled before it is published.
+     */
+    @SuppressWarnings("unchecked")
+    public T slot(long sequence) {
+        return (T) slots[(int) sequence & mask];
+    }
+
+    /**
+     * Makes a filled slot visible to the consumer.
+     *
+     * @param sequence The claimed sequence number.
+     */
+    public void publish(long sequence) {
+        published.setRelease((int) sequence & mask, sequence);
+    }
+
+    /**
+     * Passes published slots to the consumer in sequence order and releases them afterwards.
+     * The consumer must copy what it needs, since a released slot is refilled by producers.
+     * Must only be called from one thread.
+     *
+     * @param max      The maximum number of slots to consume.
+     * @param consumer Receives each slot.
+     * @return The number of slots consumed.
+     */
+    public int drain(int max, Consumer<T> consumer) {
+        long next = releaseCursor.get();
+        int count = 0;
+        while (count < max && published.getAcquire((int) (next + count) & mask) == next + count) {
+            consumer.accept(slot(next + count));
+            count++;
+        }
+        if (count > 0) {
+            releaseCursor.setRelease(next + count);
+        }
+        return count;
+    }
+
+    /**
+     * Returns the number of claimed slots not yet released.
+     */
+    public int size() {
+        return (int) Math.max(0, claimCursor.get() - releaseCursor.get());
+    }
+
+    /**
+     * Returns the number of slots.
+     */
+    public int capacity() {
+        return slots.length;
+    }
+}
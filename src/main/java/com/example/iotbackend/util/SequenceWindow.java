@@ -0,0 +1,133 @@
+package com.example.iotbackend.util;
+
+import java.util.Arrays;
+
+/**
+ * SequenceWindow remembers which of the most recent sequence numbers of one sender have been seen,
+ * in a sliding bitmap of {@code size} bits ending at the highest sequence number seen.
+ * <p>
+ * A number inside the window is accepted once, however late or out of order it arrives. Numbers that
+ * have slid out of the window can no longer be told apart from duplicates and are rejected as stale.
+ * <p>
+ * A sender that loses its counter (e.g. a reboot or factory reset) starts over at 0. It signals this by
+ * raising its epoch (e.g. a boot counter): numbers of a newer epoch clear the window, numbers of an older
+ * one are stale. Without an epoch a restart cannot be told apart from a retried first upload, so a 0 still
+ * in the window is checked like any other number, and only a 0 that has slid out of it clears the window.
+ */
+public class SequenceWindow {
+
+    /**
+     * The outcome of offering a sequence number.
+     */
+    public enum Result {
+        /** First time seen; recorded. */
+        ACCEPTED,
+        /** Already seen within the window. */
+        DUPLICATE,
+        /** Older than the window. */
+        STALE
+    }
+
+    private final long[] words;
+    private final int size;
+    private long epoch;  // Epoch of the numbers in the window
+    private long highest = -1;  // Highest sequence number seen; -1 before the first one
+
+    /**
+     * Creates a window.
+     *
+     * @param size The number of sequence numbers to remember; rounded up to a multiple of 64.
+     */
+    public SequenceWindow(int size) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("Size must be positive");
+        }
+        this.words = new long[(size + 63) >>> 6];
+        this.size = words.length << 6;
+    }
+
+    /**
+     * Records a sequence number of the first epoch unless it has been seen before.
+     *
+     * @param sequence The non-negative sequence number.
+     * @return Whether the number was accepted, or why not.
+     */
+    public Result accept(long sequence) {
+        return accept(0, sequence);
+    }
+
+    /**
+     * Records a sequence number unless it has been seen before.
+     *
+     * @param epoch    The non-negative epoch, raised by the sender whenever it restarts its counter.
+     * @param sequence The non-negative sequence number.
+     * @return Whether the number was accepted, or why not.
+     */
+    public synchronized Result accept(long epoch, long sequence) {
+        if (epoch != this.epoch) {
+            if (epoch < this.epoch) {
+                return Result.STALE;
+            }
+            // The sender restarted its counter
+            Arrays.fill(words, 0L);
+            this.epoch = epoch;
+            highest = -1;
+        }
+
+        if (sequence > highest) {
+            advanceTo(sequence);
+        } else if (highest - sequence >= size) {
+            if (sequence != 0) {
+                return Result.STALE;
+            }
+            // A 0 this old cannot be a retry: the sender restarted its counter without an epoch
+            Arrays.fill(words, 0L);
+            highest = 0;
+        } else if (isSet(sequence)) {
+            return Result.DUPLICATE;
+        }
+        set(sequence);
+        return Result.ACCEPTED;
+    }
+
+    /**
+     * Forgets an accepted sequence number, so that it is accepted again, e.g. when storing it failed.
+     * Numbers that have left the window in the meantime stay forgotten as stale.
+     *
+     * @param epoch    The epoch of the sequence number.
+     * @param sequence The sequence number to forget.
+     */
+    public synchronized void forget(long epoch, long sequence) {
+        if (epoch == this.epoch && sequence <= highest && highest - sequence < size) {
+            words[index(sequence)] &= ~bit(sequence);
+        }
+    }
+
+    private void advanceTo(long sequence) {
+        // Clear the slots of the numbers the window slides over
+        if (highest < 0 || sequence - highest >= size) {
+            Arrays.fill(words, 0L);
+        } else {
+            for (long s = highest + 1; s < sequence; s++) {
+                words[index(s)] &= ~bit(s);
+            }
+        }
+        highest = sequence;
+    }
+
+    private boolean isSet(long sequence) {
+        return (words[index(sequence)] & bit(sequence)) != 0;
+    }
+
+    private void set(long sequence) {
+        words[index(sequence)] |= bit(sequence);
+    }
+
+    private int index(long sequence) {
+        return (int) ((sequence % size) >>> 6);
+    }
+
+    private static long bit(long sequence) {
+        return 1L << (sequence & 63);
+    }
+}
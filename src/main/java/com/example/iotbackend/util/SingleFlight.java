@@ -0,0 +1,101 @@
+package com.example.iotbackend.util;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * SingleFlight coalesces concurrent calls for the same key into one execution.
+ * <p>
+ * The first caller for a key runs the loader on its own thread; callers arriving while it is running
+ * wait for and share its result (or exception) instead of running the loader again. Nothing is cached:
+ * once the call completes, the next caller for the key starts a new one. Shared results are handed to
+ * several threads, so loaders should return immutable values.
+ *
+ * @param <K> The key type.
+ * @param <V> The result type.
+ */
+public class SingleFlight<K, V> {
+
+    private final Map<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder shared = new LongAdder();
+
+    /**
+     * Returns the result of the loader for the key, joining a call already in flight for the same key.
+     *
+     * @param key    The key identifying the call.
+     * @param loader Produces the result; only run if no call for the key is in flight.
+     * @return The result.
+     */
+    public V execute(K key, Supplier<V> loader) {
+        calls.increment();
+        CompletableFuture<V> call = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, call);
+        if (existing != null) {
+            shared.increment();
+            return await(existing);
+        }
+
+        try {
+            V value = loader.get();
+            call.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            call.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, call);
+        }
+    }
+
+    /**
+     * Returns the number of calls made.
+     */
+    public long calls() {
+        return calls.sum();
+    }
+
+    /**
+     * Returns the number of calls that shared the result of another call instead of running the loader.
+     */
+    public long shared() {
+        return shared.sum();
+    }
+
+    /**
+     * Returns the number of keys with a call currently in flight.
+     */
+    public int inFlight() {
+        return inFlight.size();
+    }
+
+    private static <V> V await(CompletableFuture<V> call) {
+        boolean interrupted = false;
+        try {
+            for (;;) {
+                try {
+                    return call.get();
+                } catch (InterruptedException e) {
+                    interrupted = true;  // The leader completes the call regardless; keep waiting
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause();
+                    if (cause instanceof RuntimeException runtime) {
+                        throw runtime;
+                    }
+                    if (cause instanceof Error error) {
+                        throw error;
+                    }
+                    throw new IllegalStateException(cause);
+                }
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package com.example.iotbackend.util;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * SlidingWindowCountMinSketch counts events per key over a sliding time window in fixed memory.
+ * <p>
+ * The window is split into {@code slots} sub-windows, each a count-min sketch of {@code depth} rows
+ * by {@code width} counters. A slot is cleared when time wraps around to it, so counts older than the
+ * window fall away without any per-key state; writers reaching the new sub-window wait for the clear
+ * to finish, so none of their events is wiped. Estimates never undercount; they overcount by at most
+ * {@code epsilon * N} with probability {@code 1 - delta}, where N is the number of events in the window.
+ */
+public class SlidingWindowCountMinSketch {
+
+    private static final long CLEARING = Long.MIN_VALUE;  // Slot epoch while a writer clears the slot
+
+    private final int depth;
+    private final int width;
+    private final int mask;
+    private final int slots;
+    private final long slotMs;
+    private final AtomicIntegerArray[] counters;  // One depth * width table per slot
+    private final AtomicLongArray slotEpochs;      // Which time slot each table currently holds
+    private final AtomicLongArray slotTotals;      // Number of events added to each table
+
+    /**
+     * Creates a sketch.
+     *
+     * @param depth  The number of hash rows; failure probability is e^-depth.
+     * @param width  The counters per row, rounded up to a power of two; error is e/width of the total.
+     * @param window The length of the sliding window.
+     * @param slots  The number of sub-windows; the window slides in steps of window/slots.
+     */
+    public SlidingWindowCountMinSketch(int depth, int width, Duration window, int slots) {
+        if (depth <= 0 || width <= 0 || slots <= 0 || window.toMillis() < slots) {
+            throw new IllegalArgumentException("Depth, width and slots must be positive and the window at least one ms per slot");
+        }
+        this.depth = depth;
+        this.width = Integer.highestOneBit(Math.max(1, width - 1)) << 1;
+        this.mask = this.width - 1;
+        this.slots = slots;
+        this.slotMs = window.toMillis() / slots;
+        this.counters = new AtomicIntegerArray[slots];
+        for (int i = 0; i < slots; i++) {
+            counters[i] = new AtomicIntegerArray(depth * this.width);
+        }
+        this.slotEpochs = new AtomicLongArray(slots);
+        this.slotTotals = new AtomicLongArray(slots);
+    }
+
+    /**
+     * Hashes a key for use with {@link #add(long, long)} and {@link #estimate(long, long)}.
+     *
+     * @param key The key.
+     * @return A 64-bit hash of the key.
+     */
+    public static long hash(String key) {
+        long h = 0xcbf29ce484222325L;  // FNV-1a
+        for (int i = 0; i < key.length(); i++) {
+            h ^= key.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        // Final avalanche (from MurmurHash3 fmix64) so that both halves are well mixed
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    /**
+     * Counts one event for a key.
+     *
+     * @param hash  The key hash.
+     * @param nowMs The current time in milliseconds.
+     */
+    public void add(long hash, long nowMs) {
+        long epoch = nowMs / slotMs;
+        int slot = currentSlot(epoch);
+        AtomicIntegerArray table = counters[slot];
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int row = 0; row < depth; row++) {
+            table.incrementAndGet(row * width + ((h1 + row * h2) & mask));
+        }
+        slotTotals.incrementAndGet(slot);
+    }
+
+    /**
+     * Estimates the number of events for a key within the window.
+     *
+     * @param hash  The key hash.
+     * @param nowMs The current time in milliseconds.
+     * @return An estimate that is never below the true count.
+     */
+    public int estimate(long hash, long nowMs) {
+        long epoch = nowMs / slotMs;
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        int total = 0;
+        for (int slot = 0; slot < slots; slot++) {
+            if (!isLive(slot, epoch)) {
+                continue;
+            }
+            AtomicIntegerArray table = counters[slot];
+            int min = Integer.MAX_VALUE;
+            for (int row = 0; row < depth; row++) {
+                min = Math.min(min, table.get(row * width + ((h1 + row * h2) & mask)));
+            }
+            total += min;
+        }
+        return total;
+    }
+
+    /**
+     * Returns the number of events (for all keys) within the window.
+     *
+     * @param nowMs The current time in milliseconds.
+     * @return The total event count N.
+     */
+    public long totalCount(long nowMs) {
+        long epoch = nowMs / slotMs;
+        long total = 0;
+        for (int slot = 0; slot < slots; slot++) {
+            if (isLive(slot, epoch)) {
+                total += slotTotals.get(slot);
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Returns the relative error bound: estimates exceed the true count by at most epsilon * N.
+     *
+     * @return epsilon.
+     */
+    public double epsilon() {
+        return Math.E / width;
+    }
+
+    /**
+     * Returns the probability that an estimate exceeds the error bound.
+     *
+     * @return delta.
+     */
+    public double delta() {
+        return Math.exp(-depth);
+    }
+
+    /**
+     * Returns the time after which the oldest sub-window leaves the window.
+     *
+     * @return The sub-window length in milliseconds.
+     */
+    public long slotMillis() {
+        return slotMs;
+    }
+
+    private boolean isLive(int slot, long epoch) {
+        long slotEpoch = slotEpochs.get(slot);
+        return slotEpoch > epoch - slots && slotEpoch <= epoch;
+    }
+
+    private int currentSlot(long epoch) {
+        int slot = (int) (epoch % slots);
+        for (;;) {
+            long seen = slotEpochs.get(slot);
+            if (seen == CLEARING) {
+                Thread.onSpinWait();  // Another writer is clearing the slot for the new sub-window
+            } else if (seen >= epoch) {
+                return slot;
+            } else if (slotEpochs.compareAndSet(slot, seen, CLEARING)) {
+                // Cleared before the new sub-window is published, so no event counted in it can be wiped
+                AtomicIntegerArray table = counters[slot];
+                for (int i = 0; i < table.length(); i++) {
+                    table.set(i, 0);
+                }
+                slotTotals.set(slot, 0);
+                slotEpochs.set(slot, epoch);
+                return slot;
+            }
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.example.iotbackend.util;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+
+/**
+ * StateTimeline is an immutable, time-ordered list of state changes of one entity, stored as a
+ * snapshot (the state at the first timestamp) followed by deltas (each later change).
+ * <p>
+ * Consecutive entries with the same state are collapsed when the timeline is created, so its size
+ * grows with the number of actual changes, not with how often the state was reported. The encoded
+ * form is the entry count followed by the timestamps as variable-length deltas and one byte per state;
+ * a few bytes per change. {@link #stateAt(long)} is a binary search over the decoded timestamps.
+ */
+public class StateTimeline {
+
+    private static final byte VERSION = 1;
+
+    private final long[] times;
+    private final byte[] states;
+
+    private StateTimeline(long[] times, byte[] states) {
+        this.times = times;
+        this.states = states;
+    }
+
+    /**
+     * Creates a timeline from changes sorted by time, dropping every entry that repeats the state before it.
+     *
+     * @param previousState The state before the first entry, or -1 if unknown; an entry equal to it is dropped too.
+     * @param times         The change timestamps (epoch milliseconds), in non-decreasing order.
+     * @param states        The state reached at each timestamp (0-127).
+     * @return The collapsed timeline, possibly empty.
+     */
+    public static StateTimeline collapse(int previousState, long[] times, byte[] states) {
+        if (times.length != states.length) {
+            throw new IllegalArgumentException("Times and states differ in length");
+        }
+        long[] keptTimes = new long[times.length];
+        byte[] keptStates = new byte[states.length];
+        int kept = 0;
+        int current = previousState;
+        for (int i = 0; i < times.length; i++) {
+            if (i > 0 && times[i] < times[i - 1]) {
+                throw new IllegalArgumentException("Times must be in non-decreasing order");
+            }
+            if (states[i] < 0) {
+                throw new IllegalArgumentException("States must be between 0 and 127");
+            }
+            if (states[i] != current) {
+                keptTimes[kept] = times[i];
+                keptStates[kept] = states[i];
+                kept++;
+                current = states[i];
+            }
+        }
+        return new StateTimeline(Arrays.copyOf(keptTimes, kept), Arrays.copyOf(keptStates, kept));
+    }
+
+    /**
+     * Decodes a timeline written by {@link #encode()}.
+     *
+     * @param bytes The encoded timeline.
+     * @return The timeline.
+     */
+    public static StateTimeline decode(byte[] bytes) {
+        int[] position = {0};
+        if (bytes.length == 0 || bytes[position[0]++] != VERSION) {
+            throw new IllegalArgumentException("Unsupported state timeline encoding");
+        }
+        int size = (int) readVarLong(bytes, position);
+        long[] times = new long[size];
+        byte[] states = new byte[size];
+        long time = 0;
+        for (int i = 0; i < size; i++) {
+            time += readVarLong(bytes, position);
+            times[i] = time;
+            states[i] = bytes[position[0]++];
+        }
+        return new StateTimeline(times, states);
+    }
+
+    /**
+     * Encodes the timeline.
+     *
+     * @return The encoded bytes.
+     */
+    public byte[] encode() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(2 + times.length * 4);
+        out.write(VERSION);
+        writeVarLong(out, times.length);
+        long previous = 0;
+        for (int i = 0; i < times.length; i++) {
+            writeVarLong(out, times[i] - previous);  // Non-negative: the first time, then gaps
+            previous = times[i];
+            out.write(states[i]);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Returns the index of the last change at or before a time.
+     *
+     * @param time The time (epoch milliseconds).
+     * @return The entry index, or -1 if the time is before the first entry.
+     */
+    public int indexAt(long time) {
+        int index = Arrays.binarySearch(times, time);
+        if (index < 0) {
+            return -index - 2;  // Insertion point minus one: the last entry before the time
+        }
+        // Equal timestamps: the last of them is the state in effect
+        while (index + 1 < times.length && times[index + 1] == time) {
+            index++;
+        }
+        return index;
+    }
+
+    /**
+     * Returns the state in effect at a time.
+     *
+     * @param time The time (epoch milliseconds).
+     * @return The state, or -1 if the time is before the first entry.
+     */
+    public int stateAt(long time) {
+        int index = indexAt(time);
+        return index < 0 ? -1 : states[index];
+    }
+
+    /**
+     * Returns the number of entries.
+     */
+    public int size() {
+        return times.length;
+    }
+
+    /**
+     * Returns the timestamp of an entry.
+     */
+    public long timeAt(int index) {
+        return times[index];
+    }
+
+    /**
+     * Returns the state of an entry.
+     */
+    public int stateOf(int index) {
+        return states[index];
+    }
+
+    /**
+     * Returns the last state, or -1 if the timeline is empty.
+     */
+    public int lastState() {
+        return times.length == 0 ? -1 : states[states.length - 1];
+    }
+
+    private static void writeVarLong(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static long readVarLong(byte[] bytes, int[] position) {
+        long value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = bytes[position[0]++];
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while (b < 0);
+        return value;
+    }
+}
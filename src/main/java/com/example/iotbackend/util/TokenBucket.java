@@ -0,0 +1,85 @@
+package com.example.iotbackend.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * TokenBucket is a lock-free token bucket whose whole state fits in one {@code long}.
+ * <p>
+ * The upper 40 bits hold the time of the last refill (milliseconds since {@link #EPOCH_BASE}),
+ * the lower 24 bits hold the current tokens in thousandths of a token. Refill and consumption
+ * are applied together with a single CAS, so no thread ever blocks.
+ */
+public final class TokenBucket {
+
+    private static final long EPOCH_BASE = System.currentTimeMillis();  // Keeps relative times within 40 bits
+    private static final int TOKEN_BITS = 24;
+    private static final long TOKEN_MASK = (1L << TOKEN_BITS) - 1;
+    private static final long MILLI = 1000;
+
+    /** The largest supported capacity, limited by the 24-bit token field. */
+    public static final int MAX_CAPACITY = (int) (TOKEN_MASK / MILLI);
+
+    private final AtomicLong state;
+    private final long capacity;        // In thousandths of a token
+    private final long refillPeriodMs;  // Time to regain one token
+
+    /**
+     * Creates a full bucket.
+     *
+     * @param capacity       The maximum number of tokens (burst size).
+     * @param refillPeriodMs The time needed to regain one token.
+     * @param nowMs          The current time in milliseconds.
+     */
+    public TokenBucket(int capacity, long refillPeriodMs, long nowMs) {
+        if (capacity <= 0 || capacity > MAX_CAPACITY || refillPeriodMs <= 0) {
+            throw new IllegalArgumentException("Capacity must be in 1.." + MAX_CAPACITY + " and refill period positive");
+        }
+        this.capacity = capacity * MILLI;
+        this.refillPeriodMs = refillPeriodMs;
+        this.state = new AtomicLong(pack(nowMs, this.capacity));
+    }
+
+    /**
+     * Tries to take one token.
+     *
+     * @param nowMs The current time in milliseconds.
+     * @return 0 if a token was taken, otherwise the number of milliseconds until one becomes available.
+     */
+    public long tryConsume(long nowMs) {
+        for (;;) {
+            long current = state.get();
+            long last = (current >>> TOKEN_BITS) + EPOCH_BASE;
+            long tokens = current & TOKEN_MASK;
+
+            long elapsed = nowMs - last;
+            if (elapsed > 0) {
+                long gained = elapsed * MILLI / refillPeriodMs;
+                if (gained > 0) {
+                    tokens = Math.min(capacity, tokens + gained);
+                    last = nowMs;
+                }
+            }
+
+            if (tokens < MILLI) {
+                // Not enough for a whole token: report the wait without touching the state
+                return Math.max(1, (MILLI - tokens) * refillPeriodMs / MILLI);
+            }
+            if (state.compareAndSet(current, pack(last, tokens - MILLI))) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Returns the time of the last refill, used to find idle buckets.
+     *
+     * @return The last refill time in epoch milliseconds.
+     */
+    public long lastRefillMs() {
+        return (state.get() >>> TOKEN_BITS) + EPOCH_BASE;
+    }
+
+    private static long pack(long timeMs, long tokens) {
+        return (Math.max(0, timeMs - EPOCH_BASE) << TOKEN_BITS) | tokens;
+    }
+}
@@ -0,0 +1,463 @@
+package com.example.iotbackend.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * WriteAheadLog is a segmented, memory-mapped, append-only log of byte records.
+ * <p>
+ * Records are copied into the mapped active segment under a short lock. A single commit thread
+ * forces dirty pages to disk and advances the durable position, so that one {@code msync} covers every
+ * record appended since the previous one (group commit). Writers that need durability wait with
+ * {@link #awaitDurable(long, long)}. Positions are log sequence numbers (LSNs): the segment number in the
+ * high 32 bits and the byte offset just after the record in the low 32 bits.
+ * <p>
+ * Each record is stored as {@code [int length][int segment][int crc32c][payload]}. The segment number in
+ * the header lets recycled segment files be reused without zeroing them: stale records from a previous
+ * use carry a different number and mark the end of the segment, as does a torn write with a bad checksum.
+ * <p>
+ * A random log ID is written into the directory when the log is created. Positions are only meaningful
+ * within one log, so anything stored about them elsewhere (such as a replay checkpoint) should be keyed
+ * by that ID: a wiped or replaced directory starts a new log with a new ID.
+ */
+public class WriteAheadLog implements Closeable {
+
+    private static final int HEADER_BYTES = 12;
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SPARE_PREFIX = "spare-";
+    private static final String SUFFIX = ".wal";
+    private static final String LOG_ID_FILE = "log-id";
+
+    private final Path directory;
+    private final int segmentBytes;
+    private final String logId;
+    private final Map<Long, Segment> segments = new ConcurrentSkipListMap<>();  // Segment number -> mapping
+    private final ArrayDeque<Path> spares = new ArrayDeque<>();  // Recycled segment files, guarded by appendLock
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private final Object durableMonitor = new Object();
+    private final Thread committer;
+
+    private Segment active;          // Guarded by appendLock
+    private long writtenLsn;         // Guarded by durableMonitor
+    private long durableLsn;         // Guarded by durableMonitor
+    private long spareCounter;       // Guarded by appendLock
+    private volatile boolean open = true;
+
+    /**
+     * Opens the log in the given directory, recovering the append position from the existing segments.
+     *
+     * @param directory        The directory holding the segment files; created if missing.
+     * @param segmentBytes     The size of each segment file.
+     * @param commitIntervalMs The longest time in milliseconds the commit thread waits before forcing pending records.
+     * @throws IOException if the directory or segments cannot be opened.
+     */
+    public WriteAheadLog(Path directory, int segmentBytes, long commitIntervalMs) throws IOException {
+        if (segmentBytes <= HEADER_BYTES) {
+            throw new IllegalArgumentException("Segment size must exceed the record header");
+        }
+        this.directory = Files.createDirectories(directory);
+        this.segmentBytes = segmentBytes;
+
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                String name = file.getFileName().toString();
+                if (name.startsWith(SEGMENT_PREFIX) && name.endsWith(SUFFIX)) {
+                    long number = Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SUFFIX.length()));
+                    segments.put(number, Segment.map(file, number, segmentBytes));
+                } else if (name.startsWith(SPARE_PREFIX) && name.endsWith(SUFFIX)) {
+                    spares.add(file);
+                }
+            }
+        }
+
+        logId = readOrCreateLogId();
+
+        if (segments.isEmpty()) {
+            active = createSegment(1);
+        } else {
+            // Everything up to the last valid record of the newest segment survived
+            active = ((ConcurrentSkipListMap<Long, Segment>) segments).lastEntry().getValue();
+            active.position = active.scanEnd();
+        }
+        writtenLsn = durableLsn = lsn(active.number, active.position);
+
+        committer = new Thread(() -> commitLoop(commitIntervalMs), "wal-commit");
+        committer.setDaemon(true);
+        committer.start();
+    }
+
+    /**
+     * Returns the ID of this log, which stays the same as long as the directory is kept.
+     *
+     * @return The log ID.
+     */
+    public String logId() {
+        return logId;
+    }
+
+    /**
+     * Builds an LSN from a segment number and an offset.
+     */
+    public static long lsn(long segment, int offset) {
+        return (segment << 32) | (offset & 0xffffffffL);
+    }
+
+    /**
+     * Returns the segment number of an LSN.
+     */
+    public static long segmentOf(long lsn) {
+        return lsn >>> 32;
+    }
+
+    /**
+     * Returns the offset of an LSN within its segment.
+     */
+    public static int offsetOf(long lsn) {
+        return (int) lsn;
+    }
+
+    /**
+     * Appends a record. The record is visible to readers once it is durable.
+     *
+     * @param payload The record bytes.
+     * @return The LSN just after the record, to be passed to {@link #awaitDurable(long, long)}.
+     * @throws IOException if a new segment cannot be created.
+     */
+    public long append(byte[] payload) throws IOException {
+        int recordBytes = HEADER_BYTES + payload.length;
+        if (recordBytes > segmentBytes) {
+            throw new IllegalArgumentException("Record of " + payload.length + " bytes does not fit in a segment");
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(payload);
+
+        long end;
+        appendLock.lock();
+        try {
+            ensureOpen();
+            if (active.position + recordBytes > segmentBytes) {
+                active = createSegment(active.number + 1);
+            }
+            int offset = active.position;
+            ByteBuffer buffer = active.buffer;
+            buffer.putInt(offset + 4, (int) active.number);
+            buffer.putInt(offset + 8, (int) crc.getValue());
+            buffer.put(offset + HEADER_BYTES, payload);
+            buffer.putInt(offset, payload.length);  // Length last, so a torn header reads as end of segment
+            active.position = offset + recordBytes;
+            end = lsn(active.number, active.position);
+        } finally {
+            appendLock.unlock();
+        }
+
+        synchronized (durableMonitor) {
+            if (end > writtenLsn) {
+                writtenLsn = end;
+            }
+            durableMonitor.notifyAll();
+        }
+        return end;
+    }
+
+    /**
+     * Waits until everything up to the given LSN has been forced to disk.
+     *
+     * @param lsn       The LSN returned by {@link #append(byte[])}.
+     * @param timeoutMs The longest time to wait.
+     * @throws TimeoutException     if the LSN did not become durable in time.
+     * @throws InterruptedException if the thread was interrupted while waiting.
+     */
+    public void awaitDurable(long lsn, long timeoutMs) throws TimeoutException, InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        synchronized (durableMonitor) {
+            while (durableLsn < lsn) {
+                long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                if (remaining <= 0 || !open) {
+                    throw new TimeoutException("Write-ahead log did not sync in time");
+                }
+                durableMonitor.wait(remaining);
+            }
+        }
+    }
+
+    /**
+     * Returns the LSN up to which records are durable and can be read.
+     *
+     * @return The durable LSN.
+     */
+    public long durableLsn() {
+        synchronized (durableMonitor) {
+            return durableLsn;
+        }
+    }
+
+    /**
+     * Reads durable records starting at the given LSN.
+     *
+     * @param fromLsn    The LSN to start at (the end of the last record already processed).
+     * @param maxRecords The maximum number of records to read.
+     * @param consumer   Receives each record's payload and the LSN just after it.
+     * @return The LSN after the last record read, or {@code fromLsn} if there was none.
+     */
+    public long read(long fromLsn, int maxRecords, RecordConsumer consumer) {
+        long limit = durableLsn();
+        long position = fromLsn;
+        int count = 0;
+        while (count < maxRecords && position < limit) {
+            Segment segment = segments.get(segmentOf(position));
+            if (segment == null) {
+                position = nextSegmentStart(segmentOf(position));
+                if (position < 0) {
+                    break;
+                }
+                continue;
+            }
+            int offset = offsetOf(position);
+            int length = segment.recordLength(offset);
+            if (length < 0) {
+                // End of this segment; continue in the next one
+                position = lsn(segment.number + 1, 0);
+                continue;
+            }
+            byte[] payload = new byte[length];
+            segment.buffer.get(offset + HEADER_BYTES, payload);
+            position = lsn(segment.number, offset + HEADER_BYTES + length);
+            consumer.accept(payload, position);
+            count++;
+        }
+        return position;
+    }
+
+    /**
+     * Declares that every record before the given LSN has been applied. Segments that lie entirely
+     * before it are recycled for later reuse.
+     *
+     * @param lsn The checkpoint LSN.
+     */
+    public void checkpoint(long lsn) {
+        long keepFrom = segmentOf(lsn);
+        appendLock.lock();
+        try {
+            for (Segment segment : segments.values()) {
+                if (segment.number >= keepFrom || segment == active) {
+                    break;
+                }
+                Path spare = directory.resolve(SPARE_PREFIX + (++spareCounter) + SUFFIX);
+                try {
+                    Files.move(segment.file, spare, StandardCopyOption.ATOMIC_MOVE);
+                    segments.remove(segment.number);
+                    spares.add(spare);
+                } catch (IOException e) {
+                    return;  // Still mapped on some platforms; try again at the next checkpoint
+                }
+            }
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of segments currently holding records.
+     *
+     * @return The segment count.
+     */
+    public int segmentCount() {
+        return segments.size();
+    }
+
+    /**
+     * Forces outstanding records to disk and stops the commit thread.
+     */
+    @Override
+    public void close() {
+        open = false;
+        synchronized (durableMonitor) {
+            durableMonitor.notifyAll();
+        }
+        try {
+            committer.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        forceUpTo(durableLsn(), writtenLsnSnapshot());
+    }
+
+    private void commitLoop(long commitIntervalMs) {
+        while (open) {
+            long from;
+            long target;
+            synchronized (durableMonitor) {
+                while (open && writtenLsn == durableLsn) {
+                    try {
+                        durableMonitor.wait(commitIntervalMs);
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                from = durableLsn;
+                target = writtenLsn;
+            }
+            if (target == from) {
+                continue;
+            }
+
+            // One force covers every record appended since the last one
+            forceUpTo(from, target);
+            synchronized (durableMonitor) {
+                durableLsn = target;
+                durableMonitor.notifyAll();
+            }
+        }
+    }
+
+    private void forceUpTo(long from, long target) {
+        for (long number = segmentOf(from); number <= segmentOf(target); number++) {
+            Segment segment = segments.get(number);
+            if (segment == null) {
+                continue;
+            }
+            int start = number == segmentOf(from) ? offsetOf(from) : 0;
+            int end = number == segmentOf(target) ? offsetOf(target) : segmentBytes;
+            if (end > start) {
+                segment.buffer.force(start, end - start);
+            }
+        }
+    }
+
+    private long writtenLsnSnapshot() {
+        synchronized (durableMonitor) {
+            return writtenLsn;
+        }
+    }
+
+    private long nextSegmentStart(long after) {
+        for (long number : segments.keySet()) {
+            if (number > after) {
+                return lsn(number, 0);
+            }
+        }
+        return -1;
+    }
+
+    private String readOrCreateLogId() throws IOException {
+        Path file = directory.resolve(LOG_ID_FILE);
+        if (Files.exists(file)) {
+            String id = Files.readString(file, StandardCharsets.US_ASCII).trim();
+            if (!id.isEmpty()) {
+                return id;
+            }
+        }
+        // Written to a temporary file, forced and renamed, so a crash never leaves a partial ID behind
+        String id = UUID.randomUUID().toString();
+        Path temporary = directory.resolve(LOG_ID_FILE + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            channel.write(ByteBuffer.wrap(id.getBytes(StandardCharsets.US_ASCII)));
+            channel.force(true);
+        }
+        Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE);
+        return id;
+    }
+
+    private Segment createSegment(long number) throws IOException {
+        Path file = directory.resolve(SEGMENT_PREFIX + String.format("%016d", number) + SUFFIX);
+        Path spare = spares.poll();
+        if (spare != null) {
+            // Reuse an already allocated file; its stale records carry an older segment number
+            Files.move(spare, file, StandardCopyOption.ATOMIC_MOVE);
+        }
+        Segment segment = Segment.map(file, number, segmentBytes);
+        segment.buffer.putInt(0, 0);  // Make sure a reused file does not start with a record of this number
+        segments.put(number, segment);
+        return segment;
+    }
+
+    private void ensureOpen() throws IOException {
+        if (!open) {
+            throw new IOException("Write-ahead log is closed");
+        }
+    }
+
+    /**
+     * Receives records read from the log.
+     */
+    @FunctionalInterface
+    public interface RecordConsumer {
+        void accept(byte[] payload, long endLsn);
+    }
+
+    /**
+     * One mapped segment file.
+     */
+    private static final class Segment {
+        final Path file;
+        final long number;
+        final MappedByteBuffer buffer;
+        int position;  // Append offset, only used for the active segment
+
+        private Segment(Path file, long number, MappedByteBuffer buffer) {
+            this.file = file;
+            this.number = number;
+            this.buffer = buffer;
+        }
+
+        static Segment map(Path file, long number, int segmentBytes) throws IOException {
+            try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw");
+                 FileChannel channel = raf.getChannel()) {
+                if (raf.length() < segmentBytes) {
+                    raf.setLength(segmentBytes);
+                }
+                return new Segment(file, number, channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes));
+            }
+        }
+
+        /**
+         * Returns the payload length of the record at the offset, or -1 if there is no valid record.
+         */
+        int recordLength(int offset) {
+            if (offset + HEADER_BYTES > buffer.capacity()) {
+                return -1;
+            }
+            int length = buffer.getInt(offset);
+            if (length <= 0 || offset + HEADER_BYTES + length > buffer.capacity()
+                    || buffer.getInt(offset + 4) != (int) number) {
+                return -1;
+            }
+            byte[] payload = new byte[length];
+            buffer.get(offset + HEADER_BYTES, payload);
+            CRC32C crc = new CRC32C();
+            crc.update(payload);
+            return (int) crc.getValue() == buffer.getInt(offset + 8) ? length : -1;
+        }
+
+        /**
+         * Finds the end of the last valid record.
+         */
+        int scanEnd() {
+            int offset = 0;
+            int length;
+            while ((length = recordLength(offset)) >= 0) {
+                offset += HEADER_BYTES + length;
+            }
+            return offset;
+        }
+    }
+}
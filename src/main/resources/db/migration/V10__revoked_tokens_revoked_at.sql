@@ -0,0 +1,3 @@
+-- Instances poll for revocations made elsewhere by the time they were made
+alter table revoked_tokens
+    add index idx_revoked_tokens_revoked_at (revoked_at);
@@ -0,0 +1,42 @@
+-- Schema as previously generated by Hibernate (spring.jpa.hibernate.ddl-auto=update).
+-- Databases created that way are baselined at this version and only receive the later migrations.
+
+create table roles (
+    id   bigint       not null auto_increment,
+    name varchar(255) not null,
+    primary key (id),
+    constraint uk_roles_name unique (name)
+) engine = InnoDB;
+
+create table accounts (
+    id           bigint       not null auto_increment,
+    email        varchar(255) not null,
+    password     varchar(255) not null,
+    full_name    varchar(255) not null,
+    phone_number varchar(255),
+    role_id      bigint,
+    created_at   datetime(6),
+    updated_at   datetime(6),
+    primary key (id),
+    constraint uk_accounts_email unique (email)
+) engine = InnoDB;
+
+create table password_resets (
+    id              bigint      not null auto_increment,
+    account_id      bigint      not null,
+    otp             varchar(6)  not null,
+    expiration_time datetime(6) not null,
+    is_verified     bit,
+    primary key (id)
+) engine = InnoDB;
+
+create table devices (
+    id         bigint       not null auto_increment,
+    account_id bigint       not null,
+    name       varchar(255) not null,
+    type       varchar(255) not null,
+    status     varchar(255),
+    created_at datetime(6),
+    updated_at datetime(6),
+    primary key (id)
+) engine = InnoDB;
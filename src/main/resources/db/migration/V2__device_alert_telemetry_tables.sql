@@ -0,0 +1,64 @@
+-- Tables of device credentials, alert rules and alerts, telemetry, token revocation and WAL checkpoints.
+-- They are not part of the V1 baseline, so a baselined database gets them here; indexes and foreign keys
+-- follow in V3.
+
+create table device_credentials (
+    key_id     varchar(32) not null,
+    device_id  bigint      not null,
+    account_id bigint      not null,
+    secret     varchar(64) not null,
+    created_at datetime(6),
+    primary key (key_id),
+    constraint uk_device_credentials_device unique (device_id)
+) engine = InnoDB;
+
+create table alert_rules (
+    id                   bigint                              not null auto_increment,
+    account_id           bigint                              not null,
+    device_type          varchar(255)                        not null,
+    metric               varchar(255)                        not null,
+    operator             enum ('GT','GTE','LT','LTE','EQ')   not null,
+    threshold            double                              not null,
+    consecutive_readings integer                             not null,
+    enabled              bit                                 not null,
+    created_at           datetime(6),
+    updated_at           datetime(6),
+    primary key (id)
+) engine = InnoDB;
+
+create table alerts (
+    id           bigint       not null auto_increment,
+    rule_id      bigint       not null,
+    device_id    bigint       not null,
+    metric       varchar(255) not null,
+    metric_value double       not null,
+    triggered_at datetime(6)  not null,
+    primary key (id)
+) engine = InnoDB;
+
+create table telemetry (
+    id           bigint       not null auto_increment,
+    device_id    bigint       not null,
+    metric       varchar(255) not null,
+    metric_value double       not null,
+    recorded_at  datetime(6)  not null,
+    primary key (id),
+    index idx_telemetry_device (device_id),
+    index idx_telemetry_series (device_id, metric, recorded_at)
+) engine = InnoDB;
+
+create table revoked_tokens (
+    jti        varchar(36)  not null,
+    subject    varchar(255) not null,
+    expires_at datetime(6)  not null,
+    revoked_at datetime(6)  not null,
+    primary key (jti),
+    index idx_revoked_tokens_expires_at (expires_at)
+) engine = InnoDB;
+
+create table wal_checkpoints (
+    log_id     varchar(36)  not null,
+    lsn        bigint       not null,
+    updated_at datetime(6)  not null,
+    primary key (log_id)
+) engine = InnoDB;
@@ -0,0 +1,37 @@
+-- Indexes matched to the repository queries, and foreign keys between owned rows.
+-- Every index leads with the column of the equality filter, so lookups stay index range scans
+-- as the tables grow; InnoDB appends the primary key, which also serves "order by id".
+
+-- PasswordResetRepository.findByAccountIdAndOtp
+-- PasswordResetRepository.findTopByAccountIdOrderByExpirationTimeDesc
+alter table password_resets
+    add index idx_password_resets_account_otp (account_id, otp),
+    add index idx_password_resets_account_expiration (account_id, expiration_time),
+    add constraint fk_password_resets_account foreign key (account_id) references accounts (id) on delete cascade;
+
+-- DeviceRepository.findResponsesByAccountId (order by id), findVersionStampByAccountId
+-- Devices by status for presence tracking; V9 replaces it with (status, last_seen_at) for
+-- DeviceStatusStore.findIdsSeenBefore
+alter table devices
+    add index idx_devices_account (account_id),
+    add index idx_devices_status (status),
+    add constraint fk_devices_account foreign key (account_id) references accounts (id);
+
+alter table device_credentials
+    add index idx_device_credentials_account (account_id),
+    add constraint fk_device_credentials_device foreign key (device_id) references devices (id) on delete cascade,
+    add constraint fk_device_credentials_account foreign key (account_id) references accounts (id) on delete cascade;
+
+-- AlertRuleRepository.findAllByAccountId
+alter table alert_rules
+    add index idx_alert_rules_account (account_id),
+    add constraint fk_alert_rules_account foreign key (account_id) references accounts (id) on delete cascade;
+
+-- Alerts of a device by time. rule_id has no foreign key, so alert history survives deleting its rule.
+alter table alerts
+    add index idx_alerts_device_triggered (device_id, triggered_at),
+    add index idx_alerts_rule (rule_id),
+    add constraint fk_alerts_device foreign key (device_id) references devices (id);
+
+alter table telemetry
+    add constraint fk_telemetry_device foreign key (device_id) references devices (id);
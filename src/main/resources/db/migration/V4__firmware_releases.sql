@@ -0,0 +1,16 @@
+-- Firmware images published by an account for one of its device types; the image itself lives
+-- in the firmware store on disk, named by its SHA-256
+create table firmware_releases (
+    id              bigint       not null auto_increment,
+    account_id      bigint       not null,
+    device_type     varchar(255) not null,
+    version         varchar(64)  not null,
+    size_bytes      bigint       not null,
+    sha256          char(64)     not null,
+    rollout_percent integer      not null,
+    created_at      datetime(6),
+    updated_at      datetime(6),
+    primary key (id),
+    constraint uk_firmware_releases_version unique (account_id, device_type, version),
+    constraint fk_firmware_releases_account foreign key (account_id) references accounts (id)
+) engine=InnoDB;
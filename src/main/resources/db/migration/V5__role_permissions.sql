@@ -0,0 +1,25 @@
+-- Permissions granted to each role; loaded into memory by RoleAuthorities
+create table role_permissions (
+    role_id    bigint      not null,
+    permission varchar(64) not null,
+    primary key (role_id, permission),
+    constraint fk_role_permissions_role foreign key (role_id) references roles (id)
+) engine=InnoDB;
+
+-- Role 1 is the role given to every new account; keep whatever name an existing installation gave it
+insert ignore into roles (id, name) values (1, 'USER');
+insert ignore into roles (name) values ('ADMIN');
+
+insert ignore into role_permissions (role_id, permission) values
+    (1, 'ALERT_RULE_MANAGE'),
+    (1, 'FIRMWARE_PUBLISH');
+
+insert ignore into role_permissions (role_id, permission)
+select r.id, p.permission
+from roles r
+         cross join (select 'ALERT_RULE_MANAGE' as permission
+                     union all select 'FIRMWARE_PUBLISH'
+                     union all select 'ADMIN_ACCESS'
+                     union all select 'ACCOUNT_SEARCH'
+                     union all select 'DEVICE_SEARCH') p
+where r.name = 'ADMIN';
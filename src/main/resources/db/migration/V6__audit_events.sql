@@ -0,0 +1,12 @@
+-- Authentication audit trail, appended in batches by AuditLog; never updated
+create table audit_events (
+    id             bigint      not null auto_increment,
+    event_type     varchar(32) not null,
+    account_id     bigint,
+    subject        varchar(255),
+    client_address varchar(64),
+    occurred_at    datetime(6) not null,
+    primary key (id),
+    index idx_audit_events_account (account_id, occurred_at),
+    index idx_audit_events_time (occurred_at)
+) engine=InnoDB;
@@ -0,0 +1,25 @@
+-- Device status changes not yet compacted; appended by DeviceStateLog, only when the status differs
+create table device_state_log (
+    id         bigint      not null auto_increment,
+    device_id  bigint      not null,
+    status     varchar(16) not null,
+    changed_at datetime(6) not null,
+    primary key (id),
+    index idx_device_state_log_device_time (device_id, changed_at),
+    index idx_device_state_log_time (changed_at),
+    constraint fk_device_state_log_device foreign key (device_id) references devices (id) on delete cascade
+) engine=InnoDB;
+
+-- Compacted history: each segment holds the status at start_at followed by the later changes
+-- up to end_at, encoded by StateTimeline; segments of a device do not overlap
+create table device_state_segments (
+    id          bigint      not null auto_increment,
+    device_id   bigint      not null,
+    start_at    datetime(6) not null,
+    end_at      datetime(6) not null,
+    entry_count integer     not null,
+    entries     blob        not null,
+    primary key (id),
+    index idx_device_state_segments_device_start (device_id, start_at),
+    constraint fk_device_state_segments_device foreign key (device_id) references devices (id) on delete cascade
+) engine=InnoDB;
@@ -0,0 +1,4 @@
+-- Optional device coordinates (WGS 84 degrees); queried through the in-memory DeviceGeoIndex
+alter table devices
+    add column latitude  double,
+    add column longitude double;
@@ -0,0 +1,6 @@
+-- When any instance last heard from a device. Presence tracking only marks a device offline once this is
+-- older than the timeout, so instances that never receive a device's traffic cannot take it offline.
+alter table devices
+    add column last_seen_at datetime(6),
+    drop index idx_devices_status,
+    add index idx_devices_status_last_seen (status, last_seen_at);
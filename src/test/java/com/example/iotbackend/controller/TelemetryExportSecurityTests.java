@@ -0,0 +1,144 @@
+package com.example.iotbackend.controller;
+
+import com.example.iotbackend.config.AsyncConfig;
+import com.example.iotbackend.config.InstrumentedExecutors;
+import com.example.iotbackend.dto.request.TelemetryExportRequest;
+import com.example.iotbackend.security.DeviceAuthenticationFilter;
+import com.example.iotbackend.security.DeviceKeyCache;
+import com.example.iotbackend.security.JwtAuthenticationEntryPoint;
+import com.example.iotbackend.security.JwtAuthenticationFilter;
+import com.example.iotbackend.security.RateLimitFilter;
+import com.example.iotbackend.security.RateLimiter;
+import com.example.iotbackend.security.SecurityConfig;
+import com.example.iotbackend.service.AccountService;
+import com.example.iotbackend.service.JwtService;
+import com.example.iotbackend.service.TelemetryExportService;
+import com.example.iotbackend.service.TelemetryService;
+import com.example.iotbackend.service.TokenRevocationService;
+import com.example.iotbackend.service.impl.CustomUserDetailsService;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Covers the streamed telemetry export through the real security filter chain, including its async dispatch.
+ */
+@WebMvcTest(TelemetryController.class)
+@Import({SecurityConfig.class, JwtAuthenticationFilter.class, JwtAuthenticationEntryPoint.class,
+        DeviceAuthenticationFilter.class, DeviceKeyCache.class, RateLimitFilter.class, RateLimiter.class,
+        AsyncConfig.class, InstrumentedExecutors.class, TelemetryExportSecurityTests.Meters.class})
+class TelemetryExportSecurityTests {
+
+    private static final String EMAIL = "owner@example.com";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private TelemetryService telemetryService;
+    @MockitoBean
+    private TelemetryExportService telemetryExportService;
+    @MockitoBean
+    private AccountService accountService;
+    @MockitoBean
+    private JwtService jwtService;
+    @MockitoBean
+    private CustomUserDetailsService userDetailsService;
+    @MockitoBean
+    private TokenRevocationService tokenRevocationService;
+
+    @BeforeEach
+    void authenticate() throws Exception {
+        Claims claims = mock(Claims.class);
+        when(claims.getSubject()).thenReturn(EMAIL);
+        when(claims.getId()).thenReturn("token-1");
+        when(jwtService.parseToken("token")).thenReturn(claims);
+        when(userDetailsService.loadUserByUsername(EMAIL))
+                .thenReturn(User.withUsername(EMAIL).password("").authorities("USER").build());
+        when(accountService.getAccountIdByEmail(EMAIL)).thenReturn(1L);
+        doAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(2);
+            out.write("id,timestamp,metric,value\n".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(telemetryExportService).export(eq(7L), any(TelemetryExportRequest.class), any(OutputStream.class));
+    }
+
+    @Test
+    void completesTheAsyncDispatchOfAnAuthorizedExport() throws Exception {
+        MvcResult result = mockMvc.perform(get("/devices/7/telemetry/export")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer token"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andExpect(content().string("id,timestamp,metric,value\n"));
+    }
+
+    @Test
+    void doesNotCompressWhenGzipIsRefused() throws Exception {
+        MvcResult result = mockMvc.perform(get("/devices/7/telemetry/export")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer token")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0, identity"))
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING));
+    }
+
+    @Test
+    void compressesWhenGzipIsAccepted() throws Exception {
+        MvcResult result = mockMvc.perform(get("/devices/7/telemetry/export")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer token")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "deflate, GZIP;q=0.5"))
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"));
+    }
+
+    @Test
+    void rejectsAnExportWithoutAToken() throws Exception {
+        mockMvc.perform(get("/devices/7/telemetry/export"))
+                .andExpect(status().isUnauthorized())
+                .andExpect(request().asyncNotStarted());
+    }
+
+    @TestConfiguration
+    static class Meters {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+}
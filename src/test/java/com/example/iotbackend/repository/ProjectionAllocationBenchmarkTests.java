@@ -0,0 +1,103 @@
+package com.example.iotbackend.repository;
+
+import com.example.iotbackend.dto.response.DeviceResponse;
+import com.example.iotbackend.model.Account;
+import com.example.iotbackend.model.Device;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Measures the heap allocated per request by the account and device reads, loading managed entities
+ * in a read-write transaction (as before) against selecting projections in a read-only transaction.
+ * Needs the configured database, like {@link QueryPlanTests}. Run with {@code mvn -Pbenchmark test}.
+ */
+@Tag("benchmark")
+@SpringBootTest
+class ProjectionAllocationBenchmarkTests {
+
+    private static final int DEVICES = 100;
+    private static final int WARMUP = 2_000;
+    private static final int ITERATIONS = 5_000;
+
+    @Autowired
+    private AccountRepository accountRepository;
+    @Autowired
+    private DeviceRepository deviceRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Test
+    void projectionsAllocateLessThanEntities() {
+        String email = "benchmark-" + UUID.randomUUID() + "@example.com";
+        Account account = accountRepository.save(new Account(null, email, "$2a$10$hash", "Benchmark", null, null, null, null));
+        try {
+            for (int i = 0; i < DEVICES; i++) {
+                deviceRepository.save(new Device(null, account.getId(), "sensor-" + i, "thermostat", "OFFLINE",
+                        null, 10.0 + i, 106.0, null, null));
+            }
+            Long accountId = account.getId();
+            TransactionTemplate readWrite = new TransactionTemplate(transactionManager);
+            TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+            readOnly.setReadOnly(true);
+
+            long deviceEntities = measure("device list, entities", () -> readWrite.execute(status ->
+                    entityManager.createQuery("select d from Device d where d.accountId = :accountId order by d.id", Device.class)
+                            .setParameter("accountId", accountId)
+                            .getResultList().stream()
+                            .map(d -> new DeviceResponse(d.getId(), d.getName(), d.getType(), d.getStatus(),
+                                    d.getLatitude(), d.getLongitude(), d.getCreatedAt(), d.getUpdatedAt()))
+                            .toList()));
+            long deviceProjections = measure("device list, projection", () -> readOnly.execute(status ->
+                    deviceRepository.findResponsesByAccountId(accountId)));
+
+            long accountEntities = measure("account by email, entity", () -> readWrite.execute(status ->
+                    accountRepository.findByEmail(email).orElseThrow().getId()));
+            long accountProjections = measure("account by email, id only", () -> readOnly.execute(status ->
+                    accountRepository.findIdByEmail(email).orElseThrow()));
+
+            assertEquals(DEVICES, deviceRepository.findResponsesByAccountId(accountId).size());
+            assertTrue(deviceProjections < deviceEntities, "Device projection should allocate less than entities");
+            assertTrue(accountProjections < accountEntities, "Account ID lookup should allocate less than the entity");
+        } finally {
+            deviceRepository.deleteAllById(deviceRepository.findResponsesByAccountId(account.getId()).stream()
+                    .map(DeviceResponse::getId)
+                    .toList());
+            accountRepository.deleteById(account.getId());
+        }
+    }
+
+    /**
+     * Runs a read repeatedly on this thread and reports the bytes it allocated per call.
+     */
+    private static long measure(String name, Supplier<?> read) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        for (int i = 0; i < WARMUP; i++) {
+            read.get();
+        }
+        long thread = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(thread);
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            read.get();
+        }
+        long perCall = (threads.getThreadAllocatedBytes(thread) - before) / ITERATIONS;
+        System.out.printf("%-28s %,10d bytes/call %,8d us/call%n",
+                name, perCall, (System.nanoTime() - start) / 1_000 / ITERATIONS);
+        return perCall;
+    }
+}
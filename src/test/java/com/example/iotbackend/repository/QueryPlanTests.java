@@ -0,0 +1,106 @@
+package com.example.iotbackend.repository;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Runs EXPLAIN on the hot queries against the migrated schema and fails if any of them
+ * scans a whole table or reads a table without using an index.
+ * <p>
+ * The test tables are nearly empty, where a scan is cheapest. The session is told to cost key
+ * lookups as on large tables ({@code max_seeks_for_key}), so the plans match those in production.
+ */
+@SpringBootTest
+class QueryPlanTests {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    static Stream<Arguments> hotQueries() {
+        return Stream.of(
+                Arguments.of("account by email",
+                        "select id, password from accounts where email = ?", new Object[]{"a@example.com"}),
+                Arguments.of("password reset by account and otp",
+                        "select * from password_resets where account_id = ? and otp = ?", new Object[]{1, "123456"}),
+                Arguments.of("latest password reset of account",
+                        "select * from password_resets where account_id = ? order by expiration_time desc limit 1", new Object[]{1}),
+                Arguments.of("devices of account",
+                        "select * from devices where account_id = ? order by id", new Object[]{1}),
+                Arguments.of("device list version stamp",
+                        "select count(*), max(coalesce(updated_at, created_at)) from devices where account_id = ?", new Object[]{1}),
+                Arguments.of("owned device",
+                        "select * from devices where id = ? and account_id = ?", new Object[]{1, 1}),
+                Arguments.of("silent online devices (presence sweep)",
+                        "select id from devices where status = ? and (last_seen_at is null or last_seen_at <= ?) limit 10000",
+                        new Object[]{"ONLINE", "2024-01-01 00:00:00"}),
+                Arguments.of("alert rules of account",
+                        "select * from alert_rules where account_id = ?", new Object[]{1}),
+                Arguments.of("device credential by device",
+                        "select * from device_credentials where device_id = ?", new Object[]{1}),
+                Arguments.of("telemetry series range",
+                        "select recorded_at, metric_value from telemetry where device_id = ? and metric = ? "
+                                + "and recorded_at >= ? and recorded_at < ? order by recorded_at limit 10001",
+                        new Object[]{1, "temperature", "2024-01-01 00:00:00", "2024-01-02 00:00:00"}),
+                Arguments.of("telemetry export page",
+                        "select id, metric, metric_value, recorded_at from telemetry where device_id = ? and id > ? order by id limit 5000",
+                        new Object[]{1, 0}),
+                Arguments.of("alerts of device by time",
+                        "select * from alerts where device_id = ? and triggered_at >= ? order by triggered_at",
+                        new Object[]{1, "2024-01-01 00:00:00"}),
+                Arguments.of("firmware releases of device type",
+                        "select * from firmware_releases where account_id = ? and device_type = ? order by id desc",
+                        new Object[]{1, "thermostat"}),
+                Arguments.of("device status as of",
+                        "select status, changed_at from device_state_log where device_id = ? and changed_at <= ? "
+                                + "order by changed_at desc, id desc limit 1", new Object[]{1, "2024-01-01 00:00:00"}),
+                Arguments.of("device status segment as of",
+                        "select entries from device_state_segments where device_id = ? and start_at <= ? "
+                                + "order by start_at desc limit 1", new Object[]{1, "2024-01-01 00:00:00"}),
+                Arguments.of("active revoked tokens",
+                        "select jti from revoked_tokens where expires_at > ?", new Object[]{"2024-01-01 00:00:00"}),
+                Arguments.of("recently revoked tokens",
+                        "select jti from revoked_tokens where revoked_at >= ?", new Object[]{"2024-01-01 00:00:00"})
+        );
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("hotQueries")
+    void hotQueryUsesAnIndex(String name, String sql, Object[] args) {
+        List<Map<String, Object>> plan = explain(sql, args);
+        assertFalse(plan.isEmpty(), "No plan for " + name);
+        for (Map<String, Object> row : plan) {
+            if (row.get("type") == null) {
+                continue;  // No table access, e.g. a unique lookup that found no row while planning
+            }
+            if ("ALL".equals(row.get("type")) || row.get("key") == null) {
+                fail("Full table scan of " + row.get("table") + " for '" + name + "': " + plan);
+            }
+        }
+    }
+
+    private List<Map<String, Object>> explain(String sql, Object[] args) {
+        // The setting is per session, so it is made, used and reset on one connection
+        return jdbcTemplate.execute((ConnectionCallback<List<Map<String, Object>>>) connection -> {
+            JdbcTemplate session = new JdbcTemplate(new SingleConnectionDataSource(connection, true));
+            session.execute("set session max_seeks_for_key = 1");
+            try {
+                return session.queryForList("explain " + sql, args);
+            } finally {
+                session.execute("set session max_seeks_for_key = default");
+            }
+        });
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.iotbackend.security;
+
+import com.example.iotbackend.model.DeviceCredential;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import javax.crypto.Mac;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Covers the request signatures checked by the DeviceAuthenticationFilter.
+ */
+class DeviceAuthenticationFilterTests {
+
+    private static final String SECRET = Base64.getEncoder().encodeToString(new byte[32]);
+
+    private final DeviceKeyCache deviceKeyCache = new DeviceKeyCache();
+    private final DeviceAuthenticationFilter filter = new DeviceAuthenticationFilter(
+            deviceKeyCache, new ObjectMapper().findAndRegisterModules(), 60_000, 64, 1024);
+
+    DeviceAuthenticationFilterTests() {
+        deviceKeyCache.put(new DeviceCredential("key-1", 7L, 1L, SECRET, null));
+    }
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void acceptsASignedQueryString() throws Exception {
+        MockHttpServletRequest request = firmwareCheck("currentVersion=1.0.0", "nonce-1");
+        sign(request, "/devices/7/firmware?currentVersion=1.0.0");
+        assertEquals(HttpStatus.OK.value(), send(request));
+    }
+
+    @Test
+    void rejectsAnAlteredQueryString() throws Exception {
+        MockHttpServletRequest request = firmwareCheck("currentVersion=0.0.1", "nonce-1");
+        sign(request, "/devices/7/firmware?currentVersion=1.0.0");
+        assertEquals(HttpStatus.UNAUTHORIZED.value(), send(request));
+    }
+
+    @Test
+    void rejectsAReplayedNonce() throws Exception {
+        MockHttpServletRequest first = firmwareCheck(null, "nonce-1");
+        sign(first, "/devices/7/firmware");
+        assertEquals(HttpStatus.OK.value(), send(first));
+
+        MockHttpServletRequest replay = firmwareCheck(null, "nonce-1");
+        sign(replay, "/devices/7/firmware");
+        assertEquals(HttpStatus.UNAUTHORIZED.value(), send(replay));
+    }
+
+    private static MockHttpServletRequest firmwareCheck(String query, String nonce) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/devices/7/firmware");
+        request.setQueryString(query);
+        request.addHeader(DeviceAuthenticationFilter.DEVICE_ID_HEADER, "7");
+        request.addHeader(DeviceAuthenticationFilter.KEY_ID_HEADER, "key-1");
+        request.addHeader(DeviceAuthenticationFilter.TIMESTAMP_HEADER, String.valueOf(System.currentTimeMillis()));
+        request.addHeader(DeviceAuthenticationFilter.NONCE_HEADER, nonce);
+        return request;
+    }
+
+    private void sign(MockHttpServletRequest request, String target) {
+        Mac mac = deviceKeyCache.get(7L).newMac();
+        String header = request.getMethod() + '\n' + target + '\n'
+                + request.getHeader(DeviceAuthenticationFilter.TIMESTAMP_HEADER) + '\n'
+                + request.getHeader(DeviceAuthenticationFilter.NONCE_HEADER) + '\n';
+        byte[] signature = mac.doFinal(header.getBytes(StandardCharsets.UTF_8));
+        request.addHeader(DeviceAuthenticationFilter.SIGNATURE_HEADER, Base64.getEncoder().encodeToString(signature));
+    }
+
+    private int send(MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response.getStatus();
+    }
+}
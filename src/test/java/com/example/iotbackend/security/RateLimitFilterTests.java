@@ -0,0 +1,64 @@
+package com.example.iotbackend.security;
+
+import com.example.iotbackend.config.RateLimitProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockServletContext;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * Covers the path matching of the RateLimitFilter.
+ */
+class RateLimitFilterTests {
+
+    private final RateLimitFilter filter = filter("/auth/login", 1);
+
+    @Test
+    void throttlesThePlainPath() throws Exception {
+        assertEquals(HttpStatus.OK.value(), send("/auth/login"));
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS.value(), send("/auth/login"));
+    }
+
+    @Test
+    void throttlesAnEncodedSpellingOfThePath() throws Exception {
+        assertEquals(HttpStatus.OK.value(), send("/auth/login"));
+        // Decoded to /auth/login before the handler is chosen, so it must share the bucket
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS.value(), send("/auth/%6Cogin"));
+    }
+
+    @Test
+    void leavesOtherPathsAlone() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            assertEquals(HttpStatus.OK.value(), send("/devices"));
+        }
+    }
+
+    private int send(String rawPath) throws Exception {
+        MockHttpServletRequest request = post(URI.create(rawPath)).buildRequest(new MockServletContext());
+        request.setRemoteAddr("192.0.2.1");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response.getStatus();
+    }
+
+    private static RateLimitFilter filter(String path, int capacity) {
+        RateLimitProperties.Policy policy = new RateLimitProperties.Policy();
+        policy.setPath(path);
+        policy.setKey(RateLimitProperties.KeyType.IP);
+        policy.setCapacity(capacity);
+        policy.setRefillPeriod(Duration.ofHours(1));
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setPolicies(List.of(policy));
+        return new RateLimitFilter(new RateLimiter(properties), properties, new ObjectMapper().findAndRegisterModules());
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.iotbackend.service.impl;
+
+import com.example.iotbackend.model.Telemetry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Covers the replay of the telemetry write-ahead log against a database that rejects some records.
+ */
+class TelemetryWalTests {
+
+    private static final String POISON = "poison";
+
+    @TempDir
+    Path directory;
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final List<String> stored = new ArrayList<>();  // Metrics inserted, in order
+    private final List<Long> checkpoints = new ArrayList<>();
+    private boolean databaseDown;
+    private TelemetryWal telemetryWal;
+
+    @AfterEach
+    void close() {
+        if (telemetryWal != null) {
+            telemetryWal.stop();
+        }
+    }
+
+    @Test
+    void movesARejectedRecordToTheDeadLetterDirectoryAndReplaysTheRest() throws Exception {
+        telemetryWal = open();
+        telemetryWal.append(1L, List.of(reading("temperature-1")), List.of());
+        telemetryWal.append(1L, List.of(reading(POISON)), List.of());
+        telemetryWal.append(1L, List.of(reading("temperature-2")), List.of());
+
+        assertTrue(telemetryWal.replayNext());
+
+        assertEquals(List.of("temperature-1", "temperature-2"), stored);
+        assertEquals(1, deadLetterFiles().size());
+        assertFalse(telemetryWal.replayNext());  // Nothing left, the poison record is not retried
+    }
+
+    @Test
+    void keepsTheRecordsInTheLogWhileTheDatabaseIsUnavailable() throws Exception {
+        telemetryWal = open();
+        telemetryWal.append(1L, List.of(reading("temperature-1")), List.of());
+
+        databaseDown = true;
+        assertThrows(CannotGetJdbcConnectionException.class, telemetryWal::replayNext);
+        assertTrue(stored.isEmpty());
+        assertTrue(deadLetterFiles().isEmpty());
+
+        databaseDown = false;
+        assertTrue(telemetryWal.replayNext());
+        assertEquals(List.of("temperature-1"), stored);
+        assertEquals(1, checkpoints.size());
+    }
+
+    private TelemetryWal open() {
+        when(jdbcTemplate.queryForList(anyString(), eq(Long.class), any())).thenAnswer(invocation ->
+                checkpoints.isEmpty() ? List.of() : List.of(checkpoints.get(checkpoints.size() - 1)));
+        doAnswer(invocation -> {
+            if (databaseDown) {
+                throw new CannotGetJdbcConnectionException("Connection refused");
+            }
+            Collection<?> rows = invocation.getArgument(1);
+            List<String> metrics = rows.stream().map(row -> ((Telemetry) row).getMetric()).toList();
+            if (metrics.contains(POISON)) {
+                throw new DataIntegrityViolationException("Data too long for column 'metric'");
+            }
+            stored.addAll(metrics);
+            return new int[0][];
+        }).when(jdbcTemplate).batchUpdate(anyString(), anyCollection(), anyInt(), any());
+        doAnswer(invocation -> {
+            checkpoints.add(invocation.getArgument(2));
+            return 1;
+        }).when(jdbcTemplate).update(anyString(), any(), any(), any());
+
+        TransactionTemplate transactionTemplate = new TransactionTemplate(mock(PlatformTransactionManager.class));
+        return new TelemetryWal(jdbcTemplate, transactionTemplate, new SimpleMeterRegistry(),
+                true, directory.toString(), 4096, 1, 5000, 500, 50);
+    }
+
+    private static Telemetry reading(String metric) {
+        return new Telemetry(null, 1L, metric, 21.5, LocalDateTime.of(2024, 1, 1, 0, 0));
+    }
+
+    private List<Path> deadLetterFiles() throws Exception {
+        Path deadLetters = directory.resolve("dead-letter");
+        if (!Files.isDirectory(deadLetters)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(deadLetters)) {
+            return files.toList();
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.iotbackend.util;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.function.IntConsumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Measures map queries in a GeoGridIndex of 500,000 devices clustered around cities, one account holding
+ * 300,000 of them and the rest spread over 1,000 accounts. Run with {@code mvn -Pbenchmark test}.
+ */
+@Tag("benchmark")
+class GeoGridIndexBenchmarkTests {
+
+    private static final int LARGE_ACCOUNT_DEVICES = 300_000;
+    private static final int OTHER_DEVICES = 200_000;
+    private static final int QUERIES = 20_000;
+    private static final long LARGE_ACCOUNT = 1;
+    private static final double[][] CITIES = {{21.03, 105.85}, {10.78, 106.70}, {16.05, 108.22}, {35.68, 139.69},
+            {51.51, -0.13}, {40.71, -74.01}, {-33.87, 151.21}, {1.35, 103.82}, {48.86, 2.35}, {-23.55, -46.63}};
+
+    private static GeoGridIndex index;
+
+    @BeforeAll
+    static void populate() {
+        Random random = new Random(42);
+        long start = System.nanoTime();
+        index = new GeoGridIndex(0.05);
+        for (int i = 0; i < LARGE_ACCOUNT_DEVICES + OTHER_DEVICES; i++) {
+            double[] city = CITIES[random.nextInt(CITIES.length)];
+            double latitude = Math.max(-90, Math.min(90, city[0] + random.nextGaussian() * 0.5));
+            double longitude = Math.max(-180, Math.min(180, city[1] + random.nextGaussian() * 0.5));
+            long account = i < LARGE_ACCOUNT_DEVICES ? LARGE_ACCOUNT : 2 + random.nextInt(1_000);
+            index.put(account, i, latitude, longitude);
+        }
+        System.out.printf("Indexed %d devices in %d ms%n", index.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @Test
+    void cityViewBoxQueriesTakeUnderAMillisecond() {
+        Random random = new Random(7);
+        long[] nanos = measure(i -> {
+            double[] city = CITIES[random.nextInt(CITIES.length)];
+            double latitude = city[0] + random.nextGaussian() * 0.3;
+            double longitude = city[1] + random.nextGaussian() * 0.3;
+            // A street-level view, roughly 5 x 5 km
+            index.withinBox(LARGE_ACCOUNT, latitude - 0.025, longitude - 0.025, latitude + 0.025, longitude + 0.025, 1000);
+        });
+        report("box", nanos);
+        assertTrue(percentile(nanos, 0.99) < 1_000_000, "p99 box query took 1 ms or more");
+    }
+
+    @Test
+    void nearestQueriesTakeUnderAMillisecond() {
+        Random random = new Random(11);
+        long[] nanos = measure(i -> {
+            double[] city = CITIES[random.nextInt(CITIES.length)];
+            index.nearest(LARGE_ACCOUNT, city[0] + random.nextGaussian(), city[1] + random.nextGaussian(), 10);
+        });
+        report("nearest", nanos);
+        assertTrue(percentile(nanos, 0.99) < 1_000_000, "p99 nearest query took 1 ms or more");
+    }
+
+    @Test
+    void worldViewIsTruncatedAtTheLimit() {
+        GeoGridIndex.BoxResult result = index.withinBox(LARGE_ACCOUNT, -90, -180, 90, 180, 1000);
+        assertEquals(1000, result.points().size());
+        assertTrue(result.truncated());
+    }
+
+    @Test
+    void nearestMatchesAFullScan() {
+        List<GeoGridIndex.Hit> hits = index.nearest(LARGE_ACCOUNT, 21.0, 105.8, 5);
+        double closest = Double.MAX_VALUE;
+        GeoGridIndex.BoxResult all = index.withinBox(LARGE_ACCOUNT, -90, -180, 90, 180, Integer.MAX_VALUE - 1);
+        for (GeoGridIndex.Point point : all.points()) {
+            closest = Math.min(closest, GeoGridIndex.distanceMeters(21.0, 105.8, point.latitude(), point.longitude()));
+        }
+        assertEquals(5, hits.size());
+        assertEquals(closest, hits.get(0).distanceMeters(), 1e-6);
+    }
+
+    private static long[] measure(IntConsumer query) {
+        // Warm up, then time every query individually
+        for (int i = 0; i < QUERIES; i++) {
+            query.accept(i);
+        }
+        long[] nanos = new long[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            long start = System.nanoTime();
+            query.accept(i);
+            nanos[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+        return nanos;
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        return sorted[(int) Math.min(sorted.length - 1, Math.round(p * sorted.length))];
+    }
+
+    private static void report(String query, long[] sorted) {
+        System.out.printf("%s: p50 %.1f us, p99 %.1f us, p99.9 %.1f us, max %.1f us%n", query,
+                percentile(sorted, 0.5) / 1000.0, percentile(sorted, 0.99) / 1000.0,
+                percentile(sorted, 0.999) / 1000.0, sorted[sorted.length - 1] / 1000.0);
+    }
+}
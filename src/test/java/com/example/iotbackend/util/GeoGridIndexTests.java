@@ -0,0 +1,171 @@
+package com.example.iotbackend.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Covers the box and nearest queries of a GeoGridIndex against a brute-force scan of the same points.
+ */
+class GeoGridIndexTests {
+
+    @Test
+    void findsPointsInABoxCrossingTheAntimeridian() {
+        GeoGridIndex index = new GeoGridIndex(1);
+        index.put(1, 1, 10, 179.5);
+        index.put(1, 2, 10, -179.5);
+        index.put(1, 3, 10, 180);
+        index.put(1, 4, 10, -180);
+        index.put(1, 5, 10, 0);
+        index.put(1, 6, 10, 178.5);
+
+        assertEquals(Set.of(1L, 2L, 3L, 4L), ids(index.withinBox(1, 9, 179, 11, -179, 100)));
+        // Both edges in the same cell: the box spans all but a sliver of the globe, visiting each column once
+        assertEquals(Set.of(1L, 2L, 3L, 4L, 5L, 6L), ids(index.withinBox(1, 9, 179.4, 11, 179.3, 100)));
+        assertEquals(Set.of(1L, 3L), ids(index.withinBox(1, 9, 179.4, 11, 180, 100)));
+    }
+
+    @Test
+    void boxQueriesMatchABruteForceScan() {
+        Random random = new Random(42);
+        for (double cellDegrees : new double[]{0.5, 5, 45}) {
+            GeoGridIndex index = new GeoGridIndex(cellDegrees);
+            List<double[]> points = populate(index, random, 2_000);
+            for (int query = 0; query < 500; query++) {
+                double south = -90 + random.nextDouble() * 180;
+                double north = Math.min(90, south + random.nextDouble() * 40);
+                double west = -180 + random.nextDouble() * 360;
+                double east = -180 + random.nextDouble() * 360;  // Less than west for boxes wrapping around
+
+                Set<Long> expected = new HashSet<>();
+                for (int i = 0; i < points.size(); i++) {
+                    double[] point = points.get(i);
+                    boolean inLongitude = west <= east
+                            ? point[1] >= west && point[1] <= east
+                            : point[1] >= west || point[1] <= east;
+                    if (point[0] >= south && point[0] <= north && inLongitude) {
+                        expected.add((long) i);
+                    }
+                }
+                GeoGridIndex.BoxResult result = index.withinBox(0, south, west, north, east, points.size());
+                assertEquals(expected, ids(result), "Box " + south + "," + west + " to " + north + "," + east);
+                assertFalse(result.truncated());
+            }
+        }
+    }
+
+    @Test
+    void truncatesAtTheLimit() {
+        GeoGridIndex index = new GeoGridIndex(1);
+        for (int i = 0; i < 10; i++) {
+            index.put(1, i, i * 0.1, i * 0.1);
+        }
+
+        GeoGridIndex.BoxResult exact = index.withinBox(1, -1, -1, 2, 2, 10);
+        assertEquals(10, exact.points().size());
+        assertFalse(exact.truncated());
+
+        GeoGridIndex.BoxResult truncated = index.withinBox(1, -1, -1, 2, 2, 4);
+        assertEquals(4, truncated.points().size());
+        assertTrue(truncated.truncated());
+
+        assertTrue(index.withinBox(1, -1, -1, 2, 2, 0).points().isEmpty());
+    }
+
+    @Test
+    void nearestMatchesABruteForceScanNearThePolesAndTheDateline() {
+        Random random = new Random(7);
+        double[][] centers = {{89.9, 0}, {-89.9, 120}, {0, 179.9}, {0, -179.9}, {65, 180}, {-45, -180}, {21, 105.8}};
+        for (double cellDegrees : new double[]{0.25, 2, 30}) {
+            GeoGridIndex index = new GeoGridIndex(cellDegrees);
+            List<double[]> points = new ArrayList<>();
+            // Clusters around each awkward location, plus a sparse background over the whole globe
+            for (double[] center : centers) {
+                for (int i = 0; i < 200; i++) {
+                    double latitude = Math.max(-90, Math.min(90, center[0] + random.nextGaussian() * 2));
+                    double longitude = wrap(center[1] + random.nextGaussian() * 2);
+                    index.put(0, points.size(), latitude, longitude);
+                    points.add(new double[]{latitude, longitude});
+                }
+            }
+            points.addAll(populate(index, random, 300));
+
+            for (double[] center : centers) {
+                for (int query = 0; query < 20; query++) {
+                    double latitude = Math.max(-90, Math.min(90, center[0] + random.nextGaussian()));
+                    double longitude = wrap(center[1] + random.nextGaussian());
+                    int count = 1 + random.nextInt(25);
+                    assertNearest(index, points, latitude, longitude, count);
+                }
+            }
+            assertNearest(index, points, 90, 0, 10);
+            assertNearest(index, points, -90, 0, 10);
+            assertNearest(index, points, 0, 180, 10);
+            assertNearest(index, points, 0, -180, 10);
+        }
+    }
+
+    @Test
+    void keepsScopesApart() {
+        GeoGridIndex index = new GeoGridIndex(1);
+        index.put(1, 1, 10, 10);
+        index.put(2, 2, 10.001, 10.001);
+        index.put(2, 3, 50, 50);
+
+        assertEquals(Set.of(1L), ids(index.withinBox(1, 0, 0, 20, 20, 10)));
+        assertEquals(List.of(1L), index.nearest(1, 10, 10, 5).stream().map(hit -> hit.point().id()).toList());
+        assertTrue(index.nearest(3, 10, 10, 5).isEmpty());
+
+        // Moving a point to another scope and location leaves nothing behind
+        index.put(1, 2, -10, -10);
+        assertEquals(Set.of(2L), ids(index.withinBox(1, -20, -20, 0, 0, 10)));
+        assertEquals(Set.of(3L), ids(index.withinBox(2, -90, -180, 90, 180, 10)));
+
+        index.remove(2);
+        assertTrue(index.withinBox(1, -20, -20, 0, 0, 10).points().isEmpty());
+        assertEquals(2, index.size());
+    }
+
+    private static void assertNearest(GeoGridIndex index, List<double[]> points, double latitude, double longitude, int count) {
+        List<Double> expected = points.stream()
+                .map(point -> GeoGridIndex.distanceMeters(latitude, longitude, point[0], point[1]))
+                .sorted()
+                .limit(count)
+                .toList();
+        List<GeoGridIndex.Hit> hits = index.nearest(0, latitude, longitude, count);
+        String query = count + " nearest to " + latitude + "," + longitude;
+        assertEquals(expected.size(), hits.size(), query);
+        for (int i = 0; i < hits.size(); i++) {
+            assertEquals(expected.get(i), hits.get(i).distanceMeters(), 1e-6, query + ", hit " + i);
+        }
+    }
+
+    private static List<double[]> populate(GeoGridIndex index, Random random, int count) {
+        List<double[]> points = new ArrayList<>();
+        int first = index.size();
+        for (int i = 0; i < count; i++) {
+            double latitude = -90 + random.nextDouble() * 180;
+            double longitude = -180 + random.nextDouble() * 360;
+            index.put(0, first + i, latitude, longitude);
+            points.add(new double[]{latitude, longitude});
+        }
+        return points;
+    }
+
+    private static double wrap(double longitude) {
+        return longitude > 180 ? longitude - 360 : longitude < -180 ? longitude + 360 : longitude;
+    }
+
+    private static Set<Long> ids(GeoGridIndex.BoxResult result) {
+        return result.points().stream().map(GeoGridIndex.Point::id).collect(Collectors.toSet());
+    }
+}
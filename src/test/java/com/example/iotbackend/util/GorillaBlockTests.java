@@ -0,0 +1,109 @@
+package com.example.iotbackend.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Covers the round trip of points through the delta-of-delta and XOR encoding of the GorillaBlock.
+ */
+class GorillaBlockTests {
+
+    private static final long START = 1_700_000_000_000L;
+
+    @Test
+    void roundTripsSpecialValuesBitForBit() {
+        double[] values = {0.0, -0.0, 0.0, Double.NaN, Double.longBitsToDouble(0x7ff8_0000_0000_0001L),
+                Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.MIN_VALUE, -Double.MIN_VALUE,
+                Double.MAX_VALUE, -Double.MAX_VALUE, 1.0, 1.0, 21.5, -21.5, Math.PI, 0.1 + 0.2};
+        List<long[]> points = new ArrayList<>();
+        for (int i = 0; i < values.length; i++) {
+            points.add(new long[]{START + i * 1000L, Double.doubleToRawLongBits(values[i])});
+        }
+        assertRoundTrip(points);
+    }
+
+    @Test
+    void roundTripsEqualTimestampsAndLargeGaps() {
+        long[] timestamps = {START, START, START, START + 1, START + 1, START + 60_000, START + 120_000,
+                START + 120_063, START + 120_063 + 2_000, START + 10_000_000_000L, START + 10_000_000_001L,
+                START + 10_000_000_001L, START + 3_000_000_000_000L, START + 3_000_000_000_001L};
+        List<long[]> points = new ArrayList<>();
+        for (int i = 0; i < timestamps.length; i++) {
+            points.add(new long[]{timestamps[i], Double.doubleToRawLongBits(i * 0.5)});
+        }
+        assertRoundTrip(points);
+    }
+
+    @Test
+    void roundTripsRandomSeries() {
+        Random random = new Random(42);
+        for (int series = 0; series < 200; series++) {
+            List<long[]> points = new ArrayList<>();
+            long timestamp = START + random.nextInt(1_000_000);
+            double value = random.nextGaussian() * 100;
+            int count = 1 + random.nextInt(500);
+            for (int i = 0; i < count; i++) {
+                points.add(new long[]{timestamp, Double.doubleToRawLongBits(value)});
+                // Mostly regular spacing, with jitter, repeats and the occasional long gap
+                timestamp += switch (random.nextInt(10)) {
+                    case 0 -> 0;
+                    case 1 -> random.nextInt(5_000);
+                    case 2 -> (long) random.nextInt(Integer.MAX_VALUE) * random.nextInt(1_000);
+                    default -> 1_000;
+                };
+                value = switch (random.nextInt(4)) {
+                    case 0 -> value;
+                    case 1 -> Double.longBitsToDouble(random.nextLong());
+                    default -> value + random.nextGaussian();
+                };
+            }
+            assertRoundTrip(points);
+        }
+    }
+
+    @Test
+    void scansOnlyTheRequestedRange() {
+        GorillaBlock block = new GorillaBlock(START, 1);
+        block.append(START + 1000, 2);
+        block.append(START + 1000, 3);
+        block.append(START + 2000, 4);
+
+        List<Double> values = new ArrayList<>();
+        block.scan(START + 1000, START + 2000, (timestamp, value) -> values.add(value));
+        assertEquals(List.of(2.0, 3.0), values);
+    }
+
+    @Test
+    void rejectsDecreasingTimestamps() {
+        GorillaBlock block = new GorillaBlock(START, 1);
+        assertThrows(IllegalArgumentException.class, () -> block.append(START - 1, 2));
+    }
+
+    private static void assertRoundTrip(List<long[]> points) {
+        GorillaBlock block = new GorillaBlock(points.get(0)[0], Double.longBitsToDouble(points.get(0)[1]));
+        for (long[] point : points.subList(1, points.size())) {
+            block.append(point[0], Double.longBitsToDouble(point[1]));
+        }
+        assertEquals(points.size(), block.size());
+        assertScanned(points, block);
+        block.seal();
+        assertScanned(points, block);
+    }
+
+    private static void assertScanned(List<long[]> expected, GorillaBlock block) {
+        List<long[]> scanned = new ArrayList<>();
+        block.scan(Long.MIN_VALUE, Long.MAX_VALUE,
+                (timestamp, value) -> scanned.add(new long[]{timestamp, Double.doubleToRawLongBits(value)}));
+        assertEquals(expected.size(), scanned.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i)[0], scanned.get(i)[0], "Timestamp of point " + i);
+            assertEquals(expected.get(i)[1], scanned.get(i)[1], "Value bits of point " + i);
+        }
+    }
+}
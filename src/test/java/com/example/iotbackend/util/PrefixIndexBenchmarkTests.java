@@ -0,0 +1,111 @@
+package com.example.iotbackend.util;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Measures type-ahead lookups in a PrefixIndex of a million accounts (email and full name, one scope)
+ * and a million devices (name, spread over 10,000 account scopes). Run with {@code mvn -Pbenchmark test}.
+ */
+@Tag("benchmark")
+class PrefixIndexBenchmarkTests {
+
+    private static final int ENTRIES = 1_000_000;
+    private static final int LOOKUPS = 100_000;
+    private static final String[] FIRST_NAMES = {"An", "Bình", "Chi", "Dũng", "Giang", "Hà", "Hùng", "Lan", "Linh", "Minh",
+            "Nam", "Ngọc", "Phương", "Quang", "Sơn", "Thảo", "Trang", "Tuấn", "Việt", "Yến"};
+    private static final String[] LAST_NAMES = {"Nguyễn", "Trần", "Lê", "Phạm", "Hoàng", "Huỳnh", "Phan", "Vũ", "Võ", "Đặng"};
+    private static final String[] DOMAINS = {"gmail.com", "yahoo.com", "outlook.com", "example.vn", "iot.io"};
+    private static final String[] DEVICE_WORDS = {"sensor", "thermostat", "gateway", "meter", "camera", "pump", "valve", "tracker"};
+    private static final String[] ROOMS = {"kitchen", "garage", "office", "lab", "roof", "basement", "hall", "warehouse"};
+
+    private static PrefixIndex accounts;
+    private static PrefixIndex devices;
+    private static String[] queries;
+
+    @BeforeAll
+    static void populate() {
+        Random random = new Random(42);
+        long start = System.nanoTime();
+        PrefixIndex.Builder accountsBuilder = PrefixIndex.builder();
+        PrefixIndex.Builder devicesBuilder = PrefixIndex.builder();
+        for (int i = 0; i < ENTRIES; i++) {
+            String first = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+            String last = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+            String email = PrefixIndex.normalize(first + "." + last) + i + "@" + DOMAINS[random.nextInt(DOMAINS.length)];
+            accountsBuilder.put(0, i, email, last + " Văn " + first);
+
+            String name = DEVICE_WORDS[random.nextInt(DEVICE_WORDS.length)] + "-" + ROOMS[random.nextInt(ROOMS.length)] + "-" + i;
+            devicesBuilder.put(i % 10_000, i, name);
+        }
+        accounts = accountsBuilder.build();
+        devices = devicesBuilder.build();
+        System.out.printf("Indexed %d accounts (%d terms) and %d devices (%d terms) in %d ms%n",
+                accounts.size(), accounts.terms(), devices.size(), devices.terms(), (System.nanoTime() - start) / 1_000_000);
+
+        queries = new String[LOOKUPS];
+        for (int i = 0; i < LOOKUPS; i++) {
+            String word = switch (random.nextInt(4)) {
+                case 0 -> FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+                case 1 -> LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+                case 2 -> DEVICE_WORDS[random.nextInt(DEVICE_WORDS.length)];
+                default -> String.valueOf(random.nextInt(ENTRIES));
+            };
+            queries[i] = word.substring(0, 1 + random.nextInt(word.length()));
+        }
+    }
+
+    @Test
+    void accountLookupsAreSubMillisecond() {
+        long[] nanos = measure(query -> accounts.search(0, query, 0, 20));
+        report("accounts", nanos);
+        assertTrue(percentile(nanos, 0.99) < 1_000_000, "p99 account lookup took 1 ms or more");
+    }
+
+    @Test
+    void scopedDeviceLookupsAreSubMillisecond() {
+        Random random = new Random(7);
+        long[] nanos = measure(query -> devices.search(random.nextInt(10_000), query, 0, 20));
+        report("devices", nanos);
+        assertTrue(percentile(nanos, 0.99) < 1_000_000, "p99 device lookup took 1 ms or more");
+    }
+
+    @Test
+    void findsWordsInsideFieldsWithoutAccents() {
+        assertFalse(accounts.search(0, "nguyen", 0, 1).ids().isEmpty());
+        assertFalse(accounts.search(0, "gmail", 0, 1).ids().isEmpty());
+        assertFalse(devices.search(17, "kitch", 0, 1).ids().isEmpty());
+    }
+
+    private static long[] measure(java.util.function.Function<String, PrefixIndex.Page> lookup) {
+        // Warm up, then time every lookup individually
+        for (int i = 0; i < LOOKUPS; i++) {
+            lookup.apply(queries[i]);
+        }
+        long[] nanos = new long[LOOKUPS];
+        for (int i = 0; i < LOOKUPS; i++) {
+            long start = System.nanoTime();
+            lookup.apply(queries[i]);
+            nanos[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+        return nanos;
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        return sorted[(int) Math.min(sorted.length - 1, Math.round(p * sorted.length))];
+    }
+
+    private static void report(String index, long[] sorted) {
+        System.out.printf("%s: p50 %.1f us, p99 %.1f us, p99.9 %.1f us, max %.1f us%n", index,
+                percentile(sorted, 0.5) / 1000.0, percentile(sorted, 0.99) / 1000.0,
+                percentile(sorted, 0.999) / 1000.0, sorted[sorted.length - 1] / 1000.0);
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.iotbackend.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Covers the matching, paging and scoping of PrefixIndex searches.
+ */
+class PrefixIndexTests {
+
+    @Test
+    void matchesAnyWordOfAnyField() {
+        PrefixIndex index = new PrefixIndex();
+        index.put(1, 1, "john.doe@example.com", "John Doe");
+        index.put(1, 2, "jane@example.com", "Jane Smith");
+
+        assertEquals(List.of(1L), index.search(1, "doe", 0, 10).ids());
+        assertEquals(List.of(1L), index.search(1, "john do", 0, 10).ids());
+        assertEquals(List.of(2L), index.search(1, "smi", 0, 10).ids());
+        assertEquals(Set.of(1L, 2L), Set.copyOf(index.search(1, "example", 0, 10).ids()));
+        // Inside a word is not a match
+        assertTrue(index.search(1, "mith", 0, 10).ids().isEmpty());
+    }
+
+    @Test
+    void foldsCaseAndAccents() {
+        PrefixIndex index = new PrefixIndex();
+        index.put(1, 1, "Nguyễn Đức Anh");
+        index.put(1, 2, "ĐẶNG THỊ HÀ");
+
+        assertEquals(List.of(1L), index.search(1, "nguyen duc", 0, 10).ids());
+        assertEquals(List.of(1L), index.search(1, "NGUYỄN", 0, 10).ids());
+        assertEquals(List.of(1L), index.search(1, "đu", 0, 10).ids());
+        assertEquals(List.of(2L), index.search(1, "dang thi ha", 0, 10).ids());
+        assertEquals(List.of(2L), index.search(1, "  Thị  ", 0, 10).ids());
+    }
+
+    @Test
+    void pagesThroughEveryMatchOnce() {
+        PrefixIndex index = new PrefixIndex();
+        for (int i = 0; i < 53; i++) {
+            // Two fields and repeated words, so most entries match the query several times
+            index.put(1, i, "sensor-" + i + " sensor", "Sensor room " + (i % 7));
+        }
+        index.put(1, 100, "gateway");
+
+        List<Long> seen = new ArrayList<>();
+        int offset = 0;
+        PrefixIndex.Page page;
+        do {
+            page = index.search(1, "sens", offset, 10);
+            seen.addAll(page.ids());
+            offset += 10;
+        } while (page.hasMore());
+
+        assertEquals(53, seen.size());
+        assertEquals(53, new HashSet<>(seen).size());
+        assertEquals(3, page.ids().size());
+
+        PrefixIndex.Page exact = index.search(1, "sens", 0, 53);
+        assertEquals(53, exact.ids().size());
+        assertFalse(exact.hasMore());
+        assertTrue(index.search(1, "sens", 53, 10).ids().isEmpty());
+    }
+
+    @Test
+    void keepsScopesApart() {
+        PrefixIndex index = new PrefixIndex();
+        index.put(Long.MIN_VALUE, 1, "alpha");
+        index.put(1, 2, "alpha");
+        index.put(2, 3, "alpha");
+        index.put(2, 4, "alphabet");
+        index.put(Long.MAX_VALUE, 5, "alpha");
+
+        assertEquals(List.of(1L), index.search(Long.MIN_VALUE, "alpha", 0, 10).ids());
+        assertEquals(List.of(2L), index.search(1, "al", 0, 10).ids());
+        assertEquals(List.of(3L, 4L), index.search(2, "alpha", 0, 10).ids());
+        assertEquals(List.of(5L), index.search(Long.MAX_VALUE, "a", 0, 10).ids());
+        assertTrue(index.search(3, "alpha", 0, 10).ids().isEmpty());
+    }
+
+    @Test
+    void replacesAndRemovesEntries() {
+        PrefixIndex index = new PrefixIndex();
+        index.put(1, 1, "kitchen thermostat");
+        index.put(1, 1, "garage meter");
+        assertTrue(index.search(1, "kitchen", 0, 10).ids().isEmpty());
+        assertEquals(List.of(1L), index.search(1, "garage", 0, 10).ids());
+
+        // Moving an entry to another scope
+        index.put(2, 1, "garage meter");
+        assertTrue(index.search(1, "garage", 0, 10).ids().isEmpty());
+        assertEquals(List.of(1L), index.search(2, "garage", 0, 10).ids());
+
+        index.remove(1);
+        assertTrue(index.search(2, "garage", 0, 10).ids().isEmpty());
+        assertEquals(0, index.size());
+        assertEquals(0, index.terms());
+    }
+
+    @Test
+    void builderMatchesIncrementalPuts() {
+        PrefixIndex.Builder builder = PrefixIndex.builder();
+        PrefixIndex incremental = new PrefixIndex();
+        for (int i = 0; i < 200; i++) {
+            String name = (i % 3 == 0 ? "Trần " : "Lê ") + "device-" + i;
+            builder.put(i % 4, i, name, null);
+            incremental.put(i % 4, i, name, null);
+        }
+        builder.put(0, 0, "replaced");
+        incremental.put(0, 0, "replaced");
+        PrefixIndex built = builder.build();
+
+        assertEquals(incremental.size(), built.size());
+        assertEquals(incremental.terms(), built.terms());
+        for (long scope = 0; scope < 4; scope++) {
+            for (String query : new String[]{"tran", "le d", "device-1", "replaced", "x"}) {
+                assertEquals(incremental.search(scope, query, 0, 1000), built.search(scope, query, 0, 1000));
+            }
+        }
+    }
+
+    @Test
+    void ignoresBlankQueries() {
+        PrefixIndex index = new PrefixIndex();
+        index.put(1, 1, "anything");
+
+        assertTrue(index.search(1, "", 0, 10).ids().isEmpty());
+        assertTrue(index.search(1, "   ", 0, 10).ids().isEmpty());
+        assertTrue(index.search(1, "any", 0, 0).ids().isEmpty());
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.iotbackend.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Covers the hand-off of events from concurrent producers to the single consumer of a RingBuffer.
+ */
+class RingBufferTests {
+
+    private static final int PRODUCERS = 4;
+    private static final int EVENTS_PER_PRODUCER = 100_000;
+
+    @Test
+    void drainsEveryPublishedSlotOnceAndInSequenceOrder() throws Exception {
+        // Few slots, so producers keep wrapping around and finding the buffer full
+        RingBuffer<Event> buffer = new RingBuffer<>(8, Event::new);
+        ExecutorService producers = Executors.newFixedThreadPool(PRODUCERS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> running = new ArrayList<>();
+            for (int p = 0; p < PRODUCERS; p++) {
+                int producer = p;
+                running.add(producers.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < EVENTS_PER_PRODUCER; i++) {
+                        long sequence;
+                        while ((sequence = buffer.tryClaim()) < 0) {
+                            Thread.yield();  // Let the consumer (or a preempted producer) run, even on one CPU
+                        }
+                        Event event = buffer.slot(sequence);
+                        event.sequence = sequence;
+                        event.producer = producer;
+                        event.counter = i;
+                        buffer.publish(sequence);
+                    }
+                    return null;
+                }));
+            }
+
+            long[] nextCounter = new long[PRODUCERS];
+            long expectedSequence = 0;
+            long total = (long) PRODUCERS * EVENTS_PER_PRODUCER;
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+            start.countDown();
+            while (expectedSequence < total) {
+                assertTrue(System.nanoTime() < deadline, "Consumer stalled at sequence " + expectedSequence);
+                long[] consumed = {expectedSequence};
+                int drained = buffer.drain(5, event -> {
+                    assertEquals(consumed[0], event.sequence, "Slot drained out of sequence order");
+                    // A producer claims its events one after another, so they arrive in the order it sent them
+                    assertEquals(nextCounter[event.producer], event.counter, "Event of producer " + event.producer);
+                    nextCounter[event.producer]++;
+                    consumed[0]++;
+                });
+                expectedSequence = consumed[0];
+                if (drained == 0) {
+                    Thread.yield();
+                }
+            }
+            for (Future<?> producer : running) {
+                producer.get(10, TimeUnit.SECONDS);
+            }
+
+            for (int p = 0; p < PRODUCERS; p++) {
+                assertEquals(EVENTS_PER_PRODUCER, nextCounter[p]);
+            }
+            assertEquals(0, buffer.drain(Integer.MAX_VALUE, event -> { }));
+            assertEquals(0, buffer.size());
+        } finally {
+            producers.shutdownNow();
+        }
+    }
+
+    @Test
+    void refusesClaimsWhileFullAndReusesReleasedSlots() {
+        RingBuffer<Event> buffer = new RingBuffer<>(3, Event::new);
+        assertEquals(4, buffer.capacity());
+
+        for (int i = 0; i < 4; i++) {
+            assertEquals(i, buffer.tryClaim());
+        }
+        assertEquals(-1, buffer.tryClaim());
+
+        // Published out of order: the consumer stops at the first unpublished sequence
+        buffer.publish(1);
+        assertEquals(0, buffer.drain(10, event -> { }));
+        buffer.publish(0);
+        assertEquals(2, buffer.drain(10, event -> { }));
+        assertEquals(2, buffer.size());
+
+        assertEquals(4, buffer.tryClaim());
+        assertEquals(5, buffer.tryClaim());
+        assertEquals(-1, buffer.tryClaim());
+        assertSame(buffer.slot(0), buffer.slot(4));
+    }
+
+    private static final class Event {
+        long sequence;
+        int producer;
+        long counter;
+    }
+}
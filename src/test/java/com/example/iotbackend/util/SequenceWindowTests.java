@@ -0,0 +1,85 @@
+package com.example.iotbackend.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Covers duplicate, stale and restart handling of the SequenceWindow.
+ */
+class SequenceWindowTests {
+
+    @Test
+    void acceptsEachNumberOnceInAnyOrder() {
+        SequenceWindow window = new SequenceWindow(64);
+        assertEquals(SequenceWindow.Result.ACCEPTED, window.accept(5));
+        assertEquals(SequenceWindow.Result.ACCEPTED, window.accept(3));
+        assertEquals(SequenceWindow.Result.DUPLICATE, window.accept(5));
+        assertEquals(SequenceWindow.Result.DUPLICATE, window.accept(3));
+        assertEquals(SequenceWindow.Result.ACCEPTED, window.accept(4));
+    }
+
+    @Test
+    void rejectsNumbersOlderThanTheWindow() {
+        SequenceWindow window = new SequenceWindow(64);
+        window.accept(1);
+        window.accept(100);
+        assertEquals(SequenceWindow.Result.STALE, window.accept(1));
+        assertEquals(SequenceWindow.Result.ACCEPTED, window.accept(40));
+    }
+
+    @Test
+    void treatsARetriedFirstBatchAsDuplicates() {
+        SequenceWindow window = new SequenceWindow(1024);
+        for (long s = 0; s <= 2; s++) {
+            assertEquals(SequenceWindow.Result.ACCEPTED, window.accept(s));
+        }
+        // The response to the first upload was lost and the device sends it again
+        for (long s = 0; s <= 2; s++) {
+            assertEquals(SequenceWindow.Result.DUPLICATE, window.accept(s));
+        }
+    }
+
+    @Test
+    void acceptsALateZeroWithoutClearingTheWindow() {
+        SequenceWindow window = new SequenceWindow(1024);
+        assertEquals(SequenceWindow.Result.ACCEPTED, window.accept(2));
+        assertEquals(SequenceWindow.Result.ACCEPTED, window.accept(0));
+        assertEquals(SequenceWindow.Result.ACCEPTED, window.accept(1));
+        assertEquals(SequenceWindow.Result.DUPLICATE, window.accept(2));
+    }
+
+    @Test
+    void restartsAtZeroOnceTheOldZeroHasLeftTheWindow() {
+        SequenceWindow window = new SequenceWindow(64);
+        window.accept(0);
+        window.accept(100);
+        assertEquals(SequenceWindow.Result.ACCEPTED, window.accept(0));
+        assertEquals(SequenceWindow.Result.ACCEPTED, window.accept(1));
+        assertEquals(SequenceWindow.Result.DUPLICATE, window.accept(0));
+    }
+
+    @Test
+    void restartsWhenTheEpochIsRaisedBeforeTheWindowFills() {
+        SequenceWindow window = new SequenceWindow(1024);
+        for (long s = 0; s <= 10; s++) {
+            window.accept(0, s);
+        }
+        // The sender rebooted after 11 readings and starts over in a new epoch
+        assertEquals(SequenceWindow.Result.ACCEPTED, window.accept(1, 0));
+        assertEquals(SequenceWindow.Result.ACCEPTED, window.accept(1, 1));
+        assertEquals(SequenceWindow.Result.DUPLICATE, window.accept(1, 0));
+        assertEquals(SequenceWindow.Result.STALE, window.accept(0, 11));
+    }
+
+    @Test
+    void forgetsOnlyNumbersOfTheCurrentEpoch() {
+        SequenceWindow window = new SequenceWindow(64);
+        window.accept(0, 5);
+        window.accept(1, 5);
+        window.forget(0, 5);
+        assertEquals(SequenceWindow.Result.DUPLICATE, window.accept(1, 5));
+        window.forget(1, 5);
+        assertEquals(SequenceWindow.Result.ACCEPTED, window.accept(1, 5));
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.iotbackend.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Covers the coalescing of concurrent calls by a SingleFlight.
+ */
+class SingleFlightTests {
+
+    private static final int CALLERS = 8;
+
+    private final SingleFlight<String, Object> flight = new SingleFlight<>();
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void runsTheLoaderOnceForConcurrentCallers() throws Exception {
+        Object result = new Object();
+        List<Object> results = callConcurrently(() -> result);
+
+        assertEquals(1, loads.get());
+        assertEquals(CALLERS, results.size());
+        results.forEach(shared -> assertSame(result, shared));
+        assertEquals(CALLERS, flight.calls());
+        assertEquals(CALLERS - 1, flight.shared());
+        assertEquals(0, flight.inFlight());
+    }
+
+    @Test
+    void sharesTheExceptionOfTheLoader() throws Exception {
+        IllegalStateException failure = new IllegalStateException("Database unavailable");
+        List<Object> results = callConcurrently(() -> {
+            throw failure;
+        });
+
+        assertEquals(1, loads.get());
+        results.forEach(thrown -> assertSame(failure, thrown));
+        assertEquals(0, flight.inFlight());
+    }
+
+    @Test
+    void cachesNothingOnceTheCallCompletes() {
+        assertEquals(1, flight.execute("a", () -> loads.incrementAndGet()));
+        assertEquals(2, flight.execute("a", () -> loads.incrementAndGet()));
+        assertThrows(IllegalArgumentException.class, () -> flight.execute("a", () -> {
+            throw new IllegalArgumentException();
+        }));
+        assertEquals(3, flight.execute("a", () -> loads.incrementAndGet()));
+        assertEquals(0, flight.shared());
+    }
+
+    @Test
+    void keepsKeysApart() {
+        // A call for one key does not wait for, or share with, a call for another
+        Object outer = flight.execute("a", () -> flight.execute("b", () -> "b") + "a");
+        assertEquals("ba", outer);
+        assertEquals(0, flight.shared());
+    }
+
+    /**
+     * Starts {@link #CALLERS} calls for one key, holding the loader until all but the first have joined it,
+     * and returns what each call returned or threw.
+     */
+    private List<Object> callConcurrently(Supplier<Object> result) throws Exception {
+        CountDownLatch joined = new CountDownLatch(1);
+        Supplier<Object> loader = () -> {
+            loads.incrementAndGet();
+            try {
+                assertTrue(joined.await(10, TimeUnit.SECONDS), "Callers did not join the call");
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+            return result.get();
+        };
+
+        ExecutorService callers = Executors.newFixedThreadPool(CALLERS);
+        try {
+            List<Future<Object>> calls = new ArrayList<>();
+            for (int i = 0; i < CALLERS; i++) {
+                calls.add(callers.submit(() -> flight.execute("key", loader)));
+            }
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (flight.shared() < CALLERS - 1) {
+                assertTrue(System.nanoTime() < deadline, "Callers did not join the call");
+                Thread.sleep(1);
+            }
+            joined.countDown();
+
+            List<Object> results = new ArrayList<>();
+            for (Future<Object> call : calls) {
+                try {
+                    results.add(call.get(10, TimeUnit.SECONDS));
+                } catch (ExecutionException e) {
+                    results.add(assertInstanceOf(RuntimeException.class, e.getCause()));
+                }
+            }
+            return results;
+        } finally {
+            callers.shutdownNow();
+        }
+    }
+}
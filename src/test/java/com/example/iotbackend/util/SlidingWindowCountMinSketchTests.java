@@ -0,0 +1,124 @@
+package com.example.iotbackend.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Covers the estimates of a SlidingWindowCountMinSketch against exact counts as the window slides.
+ */
+class SlidingWindowCountMinSketchTests {
+
+    private static final long START = 1_700_000_000_000L;
+
+    @Test
+    void neverUndercountsAndStaysWithinTheErrorBound() {
+        Random random = new Random(42);
+        SlidingWindowCountMinSketch sketch = new SlidingWindowCountMinSketch(4, 256, Duration.ofMinutes(1), 6);
+        long slotMs = sketch.slotMillis();
+        Deque<long[]> events = new ArrayDeque<>();  // {time, key} of every event, oldest first
+
+        long now = START;
+        int checks = 0;
+        int overBound = 0;
+        for (int i = 0; i < 50_000; i++) {
+            now += random.nextInt(20);
+            // A few heavy keys among many light ones
+            long key = random.nextInt(10) < 3 ? random.nextInt(5) : random.nextInt(5_000);
+            sketch.add(SlidingWindowCountMinSketch.hash("key-" + key), now);
+            events.addLast(new long[]{now, key});
+
+            if (i % 100 == 0) {
+                // The sketch forgets whole sub-windows, so an event counts while its sub-window is one of the last few
+                long oldestLiveSlot = now / slotMs - 5;
+                while (events.peekFirst()[0] / slotMs < oldestLiveSlot) {
+                    events.removeFirst();
+                }
+                Map<Long, Integer> exact = new HashMap<>();
+                for (long[] event : events) {
+                    exact.merge(event[1], 1, Integer::sum);
+                }
+                assertEquals(events.size(), sketch.totalCount(now));
+                double bound = sketch.epsilon() * events.size();
+                for (long probe = 0; probe < 20; probe++) {
+                    int trueCount = exact.getOrDefault(probe, 0);
+                    int estimate = sketch.estimate(SlidingWindowCountMinSketch.hash("key-" + probe), now);
+                    assertTrue(estimate >= trueCount, "Key " + probe + " estimated " + estimate + " below " + trueCount);
+                    checks++;
+                    if (estimate - trueCount > bound) {
+                        overBound++;
+                    }
+                }
+            }
+        }
+        // delta = e^-4, so the bound holds for about 98% of the estimates
+        assertTrue(overBound <= checks * 0.05, overBound + " of " + checks + " estimates exceeded the bound");
+    }
+
+    @Test
+    void forgetsEventsOlderThanTheWindow() {
+        SlidingWindowCountMinSketch sketch = new SlidingWindowCountMinSketch(3, 64, Duration.ofSeconds(10), 5);
+        long key = SlidingWindowCountMinSketch.hash("10.0.0.1");
+        for (int i = 0; i < 7; i++) {
+            sketch.add(key, START);
+        }
+        assertEquals(7, sketch.estimate(key, START + 9_999));
+        assertEquals(0, sketch.estimate(key, START + 10_000 + sketch.slotMillis()));
+
+        // The slot is reused by a later sub-window and starts from zero
+        sketch.add(key, START + 10_000);
+        assertEquals(1, sketch.estimate(key, START + 10_000));
+        assertEquals(1, sketch.totalCount(START + 10_000));
+    }
+
+    @Test
+    void keepsEveryEventAddedWhileASlotIsCleared() throws Exception {
+        SlidingWindowCountMinSketch sketch = new SlidingWindowCountMinSketch(4, 1024, Duration.ofSeconds(4), 4);
+        long key = SlidingWindowCountMinSketch.hash("device-7");
+        long slotMs = sketch.slotMillis();
+        int threads = 4;
+        int addsPerSubWindow = 200;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            // Every round moves to a new sub-window, so all writers race to clear the slot being reused
+            for (int round = 1; round <= 200; round++) {
+                long now = START + round * slotMs;
+                CountDownLatch start = new CountDownLatch(1);
+                List<Future<?>> running = new ArrayList<>();
+                for (int t = 0; t < threads; t++) {
+                    running.add(executor.submit(() -> {
+                        start.await();
+                        for (int i = 0; i < addsPerSubWindow; i++) {
+                            sketch.add(key, now);
+                        }
+                        return null;
+                    }));
+                }
+                start.countDown();
+                for (Future<?> writer : running) {
+                    writer.get(10, TimeUnit.SECONDS);
+                }
+                // One key, so no collisions: the estimate is exact for the live sub-windows
+                assertEquals(Math.min(round, 4) * threads * addsPerSubWindow, sketch.estimate(key, now),
+                        "Events lost in round " + round);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.iotbackend.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Covers the collapsing, encoding and point-in-time lookups of a StateTimeline.
+ */
+class StateTimelineTests {
+
+    private static final long START = 1_700_000_000_000L;
+
+    @Test
+    void collapsesRepeatedStates() {
+        StateTimeline timeline = StateTimeline.collapse(1,
+                new long[]{START, START + 10, START + 20, START + 30, START + 40},
+                new byte[]{1, 2, 2, 1, 1});
+
+        assertEquals(2, timeline.size());
+        assertEquals(START + 10, timeline.timeAt(0));
+        assertEquals(2, timeline.stateOf(0));
+        assertEquals(START + 30, timeline.timeAt(1));
+        assertEquals(1, timeline.lastState());
+    }
+
+    @Test
+    void roundTripsThroughTheEncoding() {
+        Random random = new Random(42);
+        for (int run = 0; run < 100; run++) {
+            int size = random.nextInt(300);
+            long[] times = new long[size];
+            byte[] states = new byte[size];
+            long time = START;
+            for (int i = 0; i < size; i++) {
+                // Equal timestamps, small steps and gaps of years
+                time += switch (random.nextInt(4)) {
+                    case 0 -> 0;
+                    case 1 -> random.nextInt(1_000);
+                    case 2 -> (long) random.nextInt(Integer.MAX_VALUE) * 50;
+                    default -> 60_000;
+                };
+                times[i] = time;
+                states[i] = (byte) random.nextInt(128);
+            }
+            StateTimeline timeline = StateTimeline.collapse(-1, times, states);
+            StateTimeline decoded = StateTimeline.decode(timeline.encode());
+
+            assertEquals(timeline.size(), decoded.size());
+            for (int i = 0; i < timeline.size(); i++) {
+                assertEquals(timeline.timeAt(i), decoded.timeAt(i), "Time of entry " + i);
+                assertEquals(timeline.stateOf(i), decoded.stateOf(i), "State of entry " + i);
+            }
+            assertArrayEquals(timeline.encode(), decoded.encode());
+        }
+    }
+
+    @Test
+    void findsTheLastOfEqualTimestamps() {
+        StateTimeline timeline = StateTimeline.collapse(-1,
+                new long[]{START, START + 100, START + 100, START + 100, START + 200},
+                new byte[]{0, 1, 2, 1, 2});
+
+        assertEquals(-1, timeline.indexAt(START - 1));
+        assertEquals(-1, timeline.stateAt(START - 1));
+        assertEquals(0, timeline.indexAt(START));
+        assertEquals(0, timeline.indexAt(START + 99));
+        assertEquals(3, timeline.indexAt(START + 100));
+        assertEquals(1, timeline.stateAt(START + 100));
+        assertEquals(3, timeline.indexAt(START + 150));
+        assertEquals(4, timeline.indexAt(START + 200));
+        assertEquals(4, timeline.indexAt(Long.MAX_VALUE));
+    }
+
+    @Test
+    void handlesAnEmptyTimeline() {
+        StateTimeline timeline = StateTimeline.decode(StateTimeline.collapse(-1, new long[0], new byte[0]).encode());
+
+        assertEquals(0, timeline.size());
+        assertEquals(-1, timeline.lastState());
+        assertEquals(-1, timeline.stateAt(START));
+    }
+
+    @Test
+    void rejectsInvalidInput() {
+        assertThrows(IllegalArgumentException.class,
+                () -> StateTimeline.collapse(-1, new long[]{START + 1, START}, new byte[]{0, 1}));
+        assertThrows(IllegalArgumentException.class,
+                () -> StateTimeline.collapse(-1, new long[]{START}, new byte[]{-1}));
+        assertThrows(IllegalArgumentException.class, () -> StateTimeline.decode(new byte[]{2, 0}));
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.iotbackend.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Covers the burst size and refill rate of a TokenBucket, alone and under concurrent use.
+ */
+class TokenBucketTests {
+
+    // Ahead of the time the bucket class is loaded, which is the earliest time it can represent
+    private static final long NOW = System.currentTimeMillis() + 60_000;
+
+    @Test
+    void grantsTheBurstThenReportsTheWait() {
+        TokenBucket bucket = new TokenBucket(3, 1000, NOW);
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, bucket.tryConsume(NOW));
+        }
+        assertEquals(1000, bucket.tryConsume(NOW));
+        assertEquals(400, bucket.tryConsume(NOW + 600));  // Refilled 0.6 of a token so far
+        assertEquals(0, bucket.tryConsume(NOW + 1000));
+        assertEquals(1000, bucket.tryConsume(NOW + 1000));
+
+        // A long idle period refills up to the capacity, not beyond
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, bucket.tryConsume(NOW + 3_600_000));
+        }
+        assertTrue(bucket.tryConsume(NOW + 3_600_000) > 0);
+        assertEquals(NOW + 3_600_000, bucket.lastRefillMs());
+    }
+
+    @Test
+    void neverGrantsMoreThanTheBurstPlusTheRefill() {
+        Random random = new Random(42);
+        int capacity = 5;
+        long refillPeriodMs = 7;
+        TokenBucket bucket = new TokenBucket(capacity, refillPeriodMs, NOW);
+
+        long now = NOW;
+        long granted = 0;
+        for (int i = 0; i < 100_000; i++) {
+            now += random.nextInt(4);
+            for (int attempt = random.nextInt(3); attempt >= 0; attempt--) {
+                if (bucket.tryConsume(now) == 0) {
+                    granted++;
+                }
+            }
+        }
+        long refilled = (now - NOW) / refillPeriodMs;
+        assertTrue(granted <= capacity + refilled, "Granted " + granted + " of at most " + (capacity + refilled));
+        // Requests outnumber the refill, so almost every refilled token is handed out
+        assertTrue(granted >= refilled * 99 / 100, "Granted only " + granted + " of " + refilled);
+    }
+
+    @Test
+    void grantsEachTokenOnceUnderContention() throws Exception {
+        int capacity = 1000;
+        TokenBucket bucket = new TokenBucket(capacity, 60_000, NOW);
+        AtomicInteger granted = new AtomicInteger();
+        ExecutorService threads = Executors.newFixedThreadPool(4);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> running = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                running.add(threads.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < 1000; i++) {
+                        if (bucket.tryConsume(NOW) == 0) {
+                            granted.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> thread : running) {
+                thread.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            threads.shutdownNow();
+        }
+        assertEquals(capacity, granted.get());
+    }
+
+    @Test
+    void rejectsCapacitiesThatDoNotFit() {
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucket(0, 1000, NOW));
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucket(TokenBucket.MAX_CAPACITY + 1, 1000, NOW));
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucket(1, 0, NOW));
+    }
+}
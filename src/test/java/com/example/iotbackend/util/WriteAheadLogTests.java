@@ -0,0 +1,167 @@
+package com.example.iotbackend.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+/**
+ * Covers recovery of the WriteAheadLog from its segment files: torn and corrupt tails, segment rollover
+ * and the reuse of recycled segment files.
+ */
+class WriteAheadLogTests {
+
+    private static final int HEADER_BYTES = 12;
+    private static final int SEGMENT_BYTES = 40;  // Two records of an 8-byte payload per segment
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void recoversTheAppendPositionOnReopen() throws Exception {
+        try (WriteAheadLog wal = open()) {
+            appendDurable(wal, "record-a");
+            appendDurable(wal, "record-b");
+        }
+        try (WriteAheadLog wal = open()) {
+            assertEquals(List.of("record-a", "record-b"), readAll(wal, 0));
+            appendDurable(wal, "record-c");
+            assertEquals(List.of("record-a", "record-b", "record-c"), readAll(wal, 0));
+        }
+    }
+
+    @Test
+    void dropsATailRecordWithABadChecksum() throws Exception {
+        try (WriteAheadLog wal = new WriteAheadLog(directory, 4096, 1)) {
+            appendDurable(wal, "record-a");
+            appendDurable(wal, "record-b");
+            appendDurable(wal, "record-c");
+        }
+        // Flip one payload byte of the last record
+        int payloadOffset = 2 * (HEADER_BYTES + 8) + HEADER_BYTES;
+        try (RandomAccessFile file = new RandomAccessFile(segmentFile(1).toFile(), "rw")) {
+            file.seek(payloadOffset);
+            int b = file.read();
+            file.seek(payloadOffset);
+            file.write(b ^ 0xff);
+        }
+
+        try (WriteAheadLog wal = new WriteAheadLog(directory, 4096, 1)) {
+            assertEquals(List.of("record-a", "record-b"), readAll(wal, 0));
+            appendDurable(wal, "record-d");  // Overwrites the corrupt record
+            assertEquals(List.of("record-a", "record-b", "record-d"), readAll(wal, 0));
+        }
+    }
+
+    @Test
+    void dropsATornHeaderAtTheTail() throws Exception {
+        try (WriteAheadLog wal = new WriteAheadLog(directory, 4096, 1)) {
+            appendDurable(wal, "record-a");
+        }
+        // A length written without the rest of the header or the payload
+        try (RandomAccessFile file = new RandomAccessFile(segmentFile(1).toFile(), "rw")) {
+            file.seek(HEADER_BYTES + 8);
+            file.writeInt(8);
+        }
+
+        try (WriteAheadLog wal = new WriteAheadLog(directory, 4096, 1)) {
+            assertEquals(List.of("record-a"), readAll(wal, 0));
+            appendDurable(wal, "record-b");
+            assertEquals(List.of("record-a", "record-b"), readAll(wal, 0));
+        }
+    }
+
+    @Test
+    void rollsOverIntoNewSegmentsAndReadsAcrossThem() throws Exception {
+        List<String> expected = new ArrayList<>();
+        try (WriteAheadLog wal = open()) {
+            for (int i = 0; i < 10; i++) {
+                expected.add(appendDurable(wal, "record-" + i));
+            }
+            assertEquals(5, wal.segmentCount());
+            assertEquals(expected, readAll(wal, 0));
+        }
+        try (WriteAheadLog wal = open()) {
+            assertEquals(5, wal.segmentCount());
+            assertEquals(expected, readAll(wal, 0));
+            expected.add(appendDurable(wal, "record-x"));  // Starts segment 6
+            assertEquals(expected, readAll(wal, 0));
+        }
+    }
+
+    @Test
+    void recyclesSegmentsBeforeTheCheckpointAndIgnoresTheirStaleRecords() throws Exception {
+        long checkpoint;
+        try (WriteAheadLog wal = open()) {
+            for (int i = 0; i < 10; i++) {
+                appendDurable(wal, "record-" + i);
+            }
+            long[] end = new long[1];
+            wal.read(0, 6, (payload, endLsn) -> end[0] = endLsn);
+            checkpoint = end[0];
+            wal.checkpoint(checkpoint);
+            assertEquals(3, wal.segmentCount());  // Segments 1 and 2 were fully applied
+            assertEquals(2, spareCount());
+
+            // Segment 6 reuses a spare file; its stale second record carries an older segment number
+            appendDurable(wal, "record-x");
+            assertEquals(1, spareCount());
+            assertEquals(List.of("record-6", "record-7", "record-8", "record-9", "record-x"), readAll(wal, checkpoint));
+        }
+        try (WriteAheadLog wal = open()) {
+            assertEquals(List.of("record-6", "record-7", "record-8", "record-9", "record-x"), readAll(wal, checkpoint));
+            appendDurable(wal, "record-y");  // Continues after record-x, not after the stale record
+            assertEquals(List.of("record-6", "record-7", "record-8", "record-9", "record-x", "record-y"),
+                    readAll(wal, checkpoint));
+        }
+    }
+
+    @Test
+    void keepsItsIdUntilTheDirectoryIsReplaced(@TempDir Path otherDirectory) throws Exception {
+        String id;
+        try (WriteAheadLog wal = open()) {
+            id = wal.logId();
+        }
+        try (WriteAheadLog wal = open()) {
+            assertEquals(id, wal.logId());
+        }
+        try (WriteAheadLog wal = new WriteAheadLog(otherDirectory, SEGMENT_BYTES, 1)) {
+            assertNotEquals(id, wal.logId());
+        }
+    }
+
+    private WriteAheadLog open() throws IOException {
+        return new WriteAheadLog(directory, SEGMENT_BYTES, 1);
+    }
+
+    private static String appendDurable(WriteAheadLog wal, String record) throws Exception {
+        wal.awaitDurable(wal.append(record.getBytes(StandardCharsets.UTF_8)), 5000);
+        return record;
+    }
+
+    private static List<String> readAll(WriteAheadLog wal, long fromLsn) {
+        List<String> records = new ArrayList<>();
+        wal.read(fromLsn, Integer.MAX_VALUE, (payload, endLsn) -> records.add(new String(payload, StandardCharsets.UTF_8)));
+        return records;
+    }
+
+    private Path segmentFile(long number) {
+        return directory.resolve("segment-" + String.format("%016d", number) + ".wal");
+    }
+
+    private long spareCount() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().startsWith("spare-")).count();
+        }
+    }
+}